@@ -51,6 +51,23 @@ public class BulkOperationException extends DataAccessException {
 		this.result = source.getWriteResult();
 	}
 
+	/**
+	 * Creates a new {@link BulkOperationException} with the given message, {@link BulkWriteError}s and the
+	 * {@link BulkWriteResult} of the operations that were executed successfully.
+	 * 
+	 * @param message must not be {@literal null}.
+	 * @param errors must not be {@literal null}.
+	 * @param result must not be {@literal null}.
+	 * @since 1.10
+	 */
+	public BulkOperationException(String message, List<BulkWriteError> errors, BulkWriteResult result) {
+
+		super(message);
+
+		this.errors = errors;
+		this.result = result;
+	}
+
 	public List<BulkWriteError> getErrors() {
 		return errors;
 	}
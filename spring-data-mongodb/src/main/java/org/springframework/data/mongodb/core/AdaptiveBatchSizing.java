@@ -0,0 +1,286 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.Bytes;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBEncoder;
+
+/**
+ * Tunes the batch size of cursors while they are read. The batch size requested with every {@code getMore} is derived
+ * from the average size of the documents read so far, so that a batch does not exceed the configured memory budget,
+ * and from the rate the documents are consumed at, so that a slow consumer does not hold on to more documents than it
+ * processes within the configured target batch duration. The average document size is sampled and remembered per
+ * collection to size the first batch of subsequent cursors.
+ * <p>
+ * Cursors of queries defining an explicit {@link org.springframework.data.mongodb.core.query.Meta#getCursorBatchSize()
+ * batch size} or using {@link Bytes#QUERYOPTION_EXHAUST exhaust} mode are not tuned.
+ *
+ * @since 1.10
+ */
+public class AdaptiveBatchSizing {
+
+	private static final int DEFAULT_BATCH_SIZE = 101;
+	private static final int SAMPLING_INTERVAL = 16;
+	private static final int MIN_DOCUMENTS_FOR_RATE = 10;
+
+	private final ConcurrentMap<String, Long> averageDocumentSizes = new ConcurrentHashMap<String, Long>();
+
+	private long memoryBudget = 4 * 1024 * 1024;
+	private int minBatchSize = 10;
+	private int maxBatchSize = 10000;
+	private long targetBatchNanos = TimeUnit.SECONDS.toNanos(1);
+
+	private final AtomicLong cursors = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong getMores = new AtomicLong();
+	private final AtomicLong batchSizeTotal = new AtomicLong();
+
+	/**
+	 * Configures the number of bytes a single batch should not exceed. Defaults to 4 MB.
+	 *
+	 * @param memoryBudget must be greater than zero.
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+
+		Assert.isTrue(memoryBudget > 0, "Memory budget must be greater than zero!");
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Configures the lower and upper bounds of the batch sizes requested. Default to {@literal 10} and {@literal 10000}.
+	 *
+	 * @param minBatchSize must be greater than zero.
+	 * @param maxBatchSize must not be less than {@code minBatchSize}.
+	 */
+	public void setBatchSizeRange(int minBatchSize, int maxBatchSize) {
+
+		Assert.isTrue(minBatchSize > 0, "Min batch size must be greater than zero!");
+		Assert.isTrue(maxBatchSize >= minBatchSize, "Max batch size must not be less than min batch size!");
+
+		this.minBatchSize = minBatchSize;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Configures the time a consumer should take to process a single batch. Defaults to one second.
+	 *
+	 * @param duration must be greater than zero.
+	 * @param unit must not be {@literal null}.
+	 */
+	public void setTargetBatchDuration(long duration, TimeUnit unit) {
+
+		Assert.isTrue(duration > 0, "Duration must be greater than zero!");
+		Assert.notNull(unit, "TimeUnit must not be null!");
+
+		this.targetBatchNanos = unit.toNanos(duration);
+	}
+
+	/**
+	 * Starts tuning the batch size of the given {@link DBCursor} that has not been iterated yet.
+	 *
+	 * @param cursor must not be {@literal null}.
+	 * @param collectionName must not be {@literal null}.
+	 * @return the {@link CursorBatchSizer} to report the documents read to or {@literal null} if the cursor is not to be
+	 *         tuned.
+	 */
+	public CursorBatchSizer track(DBCursor cursor, String collectionName) {
+
+		Assert.notNull(cursor, "Cursor must not be null!");
+		Assert.notNull(collectionName, "Collection name must not be null!");
+
+		if ((cursor.getOptions() & Bytes.QUERYOPTION_EXHAUST) != 0) {
+			return null;
+		}
+
+		Long averageSize = averageDocumentSizes.get(collectionName);
+		int initialBatchSize = averageSize == null ? DEFAULT_BATCH_SIZE : bound(memoryBudget / averageSize);
+
+		cursors.incrementAndGet();
+		cursor.batchSize(initialBatchSize);
+
+		return new CursorBatchSizer(cursor, collectionName, initialBatchSize);
+	}
+
+	/**
+	 * @return the number of cursors tuned.
+	 */
+	public long getCursorCount() {
+		return cursors.get();
+	}
+
+	/**
+	 * @return the number of batches read by the cursors tuned, including their initial ones.
+	 */
+	public long getBatchCount() {
+		return batches.get();
+	}
+
+	/**
+	 * @return the number of {@code getMore}s issued by the cursors tuned.
+	 */
+	public long getGetMoreCount() {
+		return getMores.get();
+	}
+
+	/**
+	 * @return the average batch size requested.
+	 */
+	public double getAverageBatchSize() {
+
+		long count = batches.get();
+		return count == 0 ? 0 : (double) batchSizeTotal.get() / count;
+	}
+
+	/**
+	 * Returns the sampled average document size of the given collection.
+	 *
+	 * @param collectionName
+	 * @return {@literal null} if no documents of the collection were sampled yet.
+	 */
+	public Long getAverageDocumentSize(String collectionName) {
+		return averageDocumentSizes.get(collectionName);
+	}
+
+	private int bound(long batchSize) {
+		return (int) Math.max(minBatchSize, Math.min(maxBatchSize, batchSize));
+	}
+
+	private void recordBatch(int batchSize, boolean getMore) {
+
+		batches.incrementAndGet();
+		batchSizeTotal.addAndGet(batchSize);
+
+		if (getMore) {
+			getMores.incrementAndGet();
+		}
+	}
+
+	private void recordAverageDocumentSize(String collectionName, long averageSize) {
+
+		Long previous = averageDocumentSizes.get(collectionName);
+		averageDocumentSizes.put(collectionName, previous == null ? averageSize : (3 * previous + averageSize) / 4);
+	}
+
+	/**
+	 * Tunes the batch size of a single cursor. Not thread-safe, documents have to be reported by a single thread, which
+	 * is the consuming one for {@link StreamPrefetching prefetched} streams.
+	 */
+	public class CursorBatchSizer {
+
+		private final DBCursor cursor;
+		private final String collectionName;
+
+		private int batchSize;
+		private int remainingInBatch;
+		private long documents;
+		private long sampledBytes;
+		private int sampledDocuments;
+		private long firstReadNanos;
+
+		private CursorBatchSizer(DBCursor cursor, String collectionName, int initialBatchSize) {
+
+			this.cursor = cursor;
+			this.collectionName = collectionName;
+			this.batchSize = initialBatchSize;
+			this.remainingInBatch = initialBatchSize;
+
+			recordBatch(initialBatchSize, false);
+		}
+
+		/**
+		 * Reports the given document to have been read from the cursor and adjusts the size of the next batch once the
+		 * current one is exhausted.
+		 *
+		 * @param document must not be {@literal null}.
+		 */
+		public void documentRead(DBObject document) {
+
+			long now = System.nanoTime();
+
+			if (documents == 0) {
+				firstReadNanos = now;
+			}
+
+			if (remainingInBatch == 0) {
+
+				recordBatch(batchSize, true);
+				remainingInBatch = batchSize;
+			}
+
+			if (documents % SAMPLING_INTERVAL == 0) {
+				sample(document);
+			}
+
+			documents++;
+			remainingInBatch--;
+
+			if (remainingInBatch == 0) {
+
+				int nextBatchSize = nextBatchSize(now);
+
+				if (nextBatchSize != batchSize) {
+					cursor.batchSize(nextBatchSize);
+					batchSize = nextBatchSize;
+				}
+			}
+		}
+
+		/**
+		 * @return the batch size requested for the current or, if the current one is exhausted, the next batch.
+		 */
+		public int getBatchSize() {
+			return batchSize;
+		}
+
+		private int nextBatchSize(long now) {
+
+			long byMemory = sampledDocuments == 0 ? maxBatchSize : memoryBudget / Math.max(1, sampledBytes
+					/ sampledDocuments);
+
+			if (documents < MIN_DOCUMENTS_FOR_RATE) {
+				return bound(byMemory);
+			}
+
+			long elapsed = Math.max(1, now - firstReadNanos);
+			long byRate = (long) ((double) documents / elapsed * targetBatchNanos);
+
+			return bound(Math.min(byMemory, byRate));
+		}
+
+		private void sample(DBObject document) {
+
+			try {
+
+				sampledBytes += new DefaultDBEncoder().encode(document).length;
+				sampledDocuments++;
+
+				recordAverageDocumentSize(collectionName, sampledBytes / sampledDocuments);
+
+			} catch (RuntimeException o_O) {
+				// documents that cannot be encoded are not sampled
+			}
+		}
+	}
+}
@@ -48,7 +48,8 @@ public interface BulkOperations {
 	};
 
 	/**
-	 * Add a single insert to the bulk operation.
+	 * Add a single insert to the bulk operation. Entities get their version property initialized and are published to
+	 * the mapping event listeners the same way {@link MongoOperations#insert(Object)} does.
 	 * 
 	 * @param documents the document to insert, must not be {@literal null}.
 	 * @return the current {@link BulkOperations} instance with the insert added, will never be {@literal null}.
@@ -63,6 +64,40 @@ public interface BulkOperations {
 	 */
 	BulkOperations insert(List<? extends Object> documents);
 
+	/**
+	 * Add a replacement of the document with the id of the given entity to the bulk operation. The entity is converted
+	 * and published to the mapping event listeners the same way {@link MongoOperations#save(Object)} does.
+	 * 
+	 * @param entity the entity to replace the stored document with, must not be {@literal null} and must have an id.
+	 * @return the current {@link BulkOperations} instance with the replacement added, will never be {@literal null}.
+	 * @since 1.10
+	 */
+	BulkOperations replaceOne(Object entity);
+
+	/**
+	 * Add a save of the given entity to the bulk operation. Entities without an id or with an uninitialized version
+	 * property are inserted. Versioned entities replace the stored document only if its version matches and get their
+	 * version incremented, all others replace the stored document or get inserted if none exists. {@link #execute()}
+	 * throws an {@link org.springframework.dao.OptimisticLockingFailureException} if the version of a versioned entity
+	 * was modified concurrently. To detect such conflicts reliably, each replacement of a versioned entity is sent as a
+	 * batch of its own, costing one round trip per versioned entity.
+	 * 
+	 * @param entity the entity to save, must not be {@literal null}.
+	 * @return the current {@link BulkOperations} instance with the save added, will never be {@literal null}.
+	 * @since 1.10
+	 */
+	BulkOperations save(Object entity);
+
+	/**
+	 * Add a save of all given entities to the bulk operation.
+	 * 
+	 * @param entities the entities to save, must not be {@literal null}.
+	 * @return the current {@link BulkOperations} instance with the saves added, will never be {@literal null}.
+	 * @since 1.10
+	 * @see #save(Object)
+	 */
+	BulkOperations save(List<? extends Object> entities);
+
 	/**
 	 * Add a single update to the bulk operation. For the update request, only the first matching document is updated.
 	 * 
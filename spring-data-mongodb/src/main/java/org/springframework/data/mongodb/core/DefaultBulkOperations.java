@@ -15,27 +15,62 @@
  */
 package org.springframework.data.mongodb.core;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mapping.model.ConvertingPropertyAccessor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.MongoSimpleTypes;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.util.Pair;
 import org.springframework.util.Assert;
 
 import com.mongodb.BasicDBObject;
-import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteError;
 import com.mongodb.BulkWriteOperation;
 import com.mongodb.BulkWriteRequestBuilder;
 import com.mongodb.BulkWriteResult;
+import com.mongodb.BulkWriteUpsert;
 import com.mongodb.DBCollection;
 import com.mongodb.DBObject;
 import com.mongodb.WriteConcern;
 
 /**
- * Default implementation for {@link BulkOperations}.
+ * Default implementation for {@link BulkOperations}. Operations are queued until {@link #execute()} is called and then
+ * sent in batches of at most {@link #setMaxBatchSize(int) max batch size} operations. Batches of an
+ * {@link BulkMode#UNORDERED unordered} bulk are independent of each other and are executed concurrently if an
+ * {@link #setExecutor(Executor) executor} is configured. Batches failing due to a transient resource failure
+ * are retried up to the configured {@link #setMaxRetries(int) number of times}. The indexes of the
+ * {@link BulkWriteError}s and {@link BulkWriteUpsert}s reported always refer to the position of the operation in the
+ * order it was queued.
+ * <p>
+ * Entities added via {@link #insert(Object)}, {@link #replaceOne(Object)} or {@link #save(Object)} run through the
+ * same conversion and event pipeline as when written via {@link MongoTemplate}. {@link AfterSaveEvent}s are published
+ * and generated ids are populated once the bulk was executed successfully. Replacements of versioned entities are
+ * sent as batches of their own so that each one's matched count tells whether its version was modified concurrently.
  * 
  * @author Tobias Trelle
  * @author Oliver Gierke
@@ -44,6 +79,8 @@ import com.mongodb.WriteConcern;
  */
 class DefaultBulkOperations implements BulkOperations {
 
+	private static final String ID_FIELD = "_id";
+
 	private final MongoOperations mongoOperations;
 	private final BulkMode bulkMode;
 	private final String collectionName;
@@ -52,8 +89,13 @@ class DefaultBulkOperations implements BulkOperations {
 	private PersistenceExceptionTranslator exceptionTranslator;
 	private WriteConcernResolver writeConcernResolver;
 	private WriteConcern defaultWriteConcern;
+	private int maxBatchSize = Integer.MAX_VALUE;
+	private int maxRetries;
+	private Executor executor;
+	private ApplicationEventPublisher eventPublisher;
 
-	private BulkWriteOperation bulk;
+	private List<BulkRequest> requests = new ArrayList<BulkRequest>();
+	private List<SavedEntity> savedEntities = new ArrayList<SavedEntity>();
 
 	/**
 	 * Creates a new {@link DefaultBulkOperations} for the given {@link MongoOperations}, {@link BulkMode}, collection
@@ -78,8 +120,6 @@ class DefaultBulkOperations implements BulkOperations {
 
 		this.exceptionTranslator = new MongoExceptionTranslator();
 		this.writeConcernResolver = DefaultWriteConcernResolver.INSTANCE;
-
-		this.bulk = initBulkOperation();
 	}
 
 	/**
@@ -110,6 +150,56 @@ class DefaultBulkOperations implements BulkOperations {
 		this.defaultWriteConcern = defaultWriteConcern;
 	}
 
+	/**
+	 * Configures the maximum number of operations sent to the server in a single bulk write. Queued operations exceeding
+	 * that number are split into multiple bulk writes. Defaults to no limit.
+	 * 
+	 * @param maxBatchSize must be greater than zero.
+	 * @since 1.10
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than zero!");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Configures how often a batch failing with a {@link TransientDataAccessException} or
+	 * {@link DataAccessResourceFailureException} is retried. Note that the server might already have applied parts of
+	 * the batch so retries should only be enabled for idempotent operations. Defaults to {@literal 0}.
+	 * 
+	 * @param maxRetries must not be negative.
+	 * @since 1.10
+	 */
+	public void setMaxRetries(int maxRetries) {
+
+		Assert.isTrue(maxRetries >= 0, "Max retries must not be negative!");
+		this.maxRetries = maxRetries;
+	}
+
+	/**
+	 * Configures the {@link Executor} to execute the batches of an {@link BulkMode#UNORDERED unordered} bulk
+	 * concurrently. Batches of an {@link BulkMode#ORDERED ordered} bulk are always executed one after another. Defaults
+	 * to {@literal null}, executing all batches in the calling thread.
+	 * 
+	 * @param executor can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Configures the {@link ApplicationEventPublisher} to publish {@link MongoMappingEvent}s for the entities written.
+	 * Defaults to {@literal null}, not publishing any events.
+	 * 
+	 * @param eventPublisher can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.data.mongodb.core.BulkOperations#insert(java.lang.Object)
@@ -121,13 +211,16 @@ class DefaultBulkOperations implements BulkOperations {
 
 		if (document instanceof DBObject) {
 
-			bulk.insert((DBObject) document);
+			requests.add(new InsertRequest((DBObject) document));
 			return this;
 		}
 
-		DBObject sink = new BasicDBObject();
-		mongoOperations.getConverter().write(document, sink);
-		bulk.insert(sink);
+		MongoPersistentEntity<?> entity = getPersistentEntity(document);
+
+		assertUpdateableIdIfNotSet(document, entity);
+		initializeVersionProperty(document, entity);
+
+		requests.add(new InsertRequest(toDbObject(document)));
 		return this;
 	}
 
@@ -147,6 +240,85 @@ class DefaultBulkOperations implements BulkOperations {
 		return this;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#replaceOne(java.lang.Object)
+	 */
+	@Override
+	public BulkOperations replaceOne(Object entity) {
+
+		Assert.notNull(entity, "Entity must not be null!");
+		Assert.isTrue(hasId(entity, getPersistentEntity(entity)),
+				String.format("Entity %s must have an id to be replaced!", entity));
+
+		DBObject dbObject = toDbObject(entity);
+
+		requests.add(new ReplaceRequest(new BasicDBObject(ID_FIELD, dbObject.get(ID_FIELD)), dbObject, false, false));
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#save(java.lang.Object)
+	 */
+	@Override
+	public BulkOperations save(Object entity) {
+
+		Assert.notNull(entity, "Entity must not be null!");
+
+		MongoPersistentEntity<?> persistentEntity = getPersistentEntity(entity);
+
+		// No optimistic locking -> replace or insert by id
+		if (persistentEntity == null || !persistentEntity.hasVersionProperty()) {
+
+			assertUpdateableIdIfNotSet(entity, persistentEntity);
+
+			boolean hasId = hasId(entity, persistentEntity);
+			DBObject dbObject = toDbObject(entity);
+
+			requests.add(hasId ? new ReplaceRequest(new BasicDBObject(ID_FIELD, dbObject.get(ID_FIELD)), dbObject, true,
+					false) : new InsertRequest(dbObject));
+			return this;
+		}
+
+		ConvertingPropertyAccessor accessor = getPropertyAccessor(entity, persistentEntity);
+		MongoPersistentProperty versionProperty = persistentEntity.getVersionProperty();
+		Object version = accessor.getProperty(versionProperty);
+
+		// Fresh instance -> initialize version property
+		if (version == null) {
+			return insert(entity);
+		}
+
+		assertUpdateableIdIfNotSet(entity, persistentEntity);
+
+		// Bump version number
+		accessor.setProperty(versionProperty, accessor.getProperty(versionProperty, Number.class).longValue() + 1);
+
+		DBObject dbObject = toDbObject(entity);
+		DBObject query = new BasicDBObject(ID_FIELD, dbObject.get(ID_FIELD));
+		query.put(versionProperty.getFieldName(), mongoOperations.getConverter().convertToMongoType(version));
+
+		requests.add(new ReplaceRequest(query, dbObject, false, true));
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.BulkOperations#save(java.util.List)
+	 */
+	@Override
+	public BulkOperations save(List<? extends Object> entities) {
+
+		Assert.notNull(entities, "Entities must not be null!");
+
+		for (Object entity : entities) {
+			save(entity);
+		}
+
+		return this;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.data.mongodb.core.BulkOperations#updateOne(org.springframework.data.mongodb.core.query.Query, org.springframework.data.mongodb.core.query.Update)
@@ -239,7 +411,7 @@ class DefaultBulkOperations implements BulkOperations {
 
 		Assert.notNull(query, "Query must not be null!");
 
-		bulk.find(query.getQueryObject()).remove();
+		requests.add(new RemoveRequest(query.getQueryObject()));
 
 		return this;
 	}
@@ -269,22 +441,443 @@ class DefaultBulkOperations implements BulkOperations {
 
 		MongoAction action = new MongoAction(defaultWriteConcern, MongoActionOperation.BULK, collectionName, entityType,
 				null, null);
-		WriteConcern writeConcern = writeConcernResolver.resolve(action);
+		final WriteConcern writeConcern = writeConcernResolver.resolve(action);
+
+		final List<BulkRequest> toExecute = this.requests;
+		List<SavedEntity> toPublish = this.savedEntities;
+
+		this.requests = new ArrayList<BulkRequest>();
+		this.savedEntities = new ArrayList<SavedEntity>();
+
+		final List<Integer> staleVersions = new ArrayList<Integer>();
+		BulkWriteResult result;
+
+		if (mongoOperations instanceof MongoTemplate) {
+
+			result = ((MongoTemplate) mongoOperations).executeBulkWrite(collectionName, entityType,
+					getQueries(toExecute), new CollectionCallback<BulkWriteResult>() {
+
+						@Override
+						public BulkWriteResult doInCollection(DBCollection collection) {
+							return execute(toExecute, writeConcern, staleVersions);
+						}
+					});
+
+		} else {
+			result = execute(toExecute, writeConcern, staleVersions);
+		}
+
+		Set<DBObject> staleDocuments = Collections.newSetFromMap(new IdentityHashMap<DBObject, Boolean>());
+
+		for (Integer index : staleVersions) {
+			staleDocuments.add(((ReplaceRequest) toExecute.get(index)).replacement);
+		}
+
+		for (SavedEntity savedEntity : toPublish) {
+
+			if (staleDocuments.contains(savedEntity.dbObject)) {
+				continue;
+			}
+
+			populateIdIfNecessary(savedEntity.entity, savedEntity.dbObject.get(ID_FIELD));
+			maybeEmitEvent(new AfterSaveEvent<Object>(savedEntity.entity, savedEntity.dbObject, collectionName));
+		}
+
+		if (!staleVersions.isEmpty()) {
+			throw new OptimisticLockingFailureException(
+					String.format("Versioned entities at index(es) %s could not be saved to collection %s as their version "
+							+ "was modified concurrently!", staleVersions, collectionName));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Sends the given requests to the server, splitting them into batches if they exceed the configured
+	 * {@link #setMaxBatchSize(int) max batch size} or contain replacements of versioned entities.
+	 * 
+	 * @param requests must not be {@literal null}.
+	 * @param writeConcern can be {@literal null}.
+	 * @param staleVersions collects the indexes of versioned replacements that did not match a document, must not be
+	 *          {@literal null}.
+	 * @return
+	 */
+	private BulkWriteResult execute(List<BulkRequest> requests, WriteConcern writeConcern,
+			List<Integer> staleVersions) {
+
+		List<Integer> offsets = getBatchOffsets(requests);
+
+		if (offsets.size() == 1) {
+
+			BulkWriteResult result = executeBatch(requests, writeConcern);
+
+			if (isStaleVersion(requests, result)) {
+				staleVersions.add(0);
+			}
+
+			return result;
+		}
+
+		List<BatchResult> results = bulkMode == BulkMode.UNORDERED && executor != null
+				? executeConcurrently(requests, offsets, writeConcern)
+				: executeSequentially(requests, offsets, writeConcern);
+
+		for (BatchResult result : results) {
+
+			if (result.result != null && isStaleVersion(result.requests, result.result)) {
+				staleVersions.add(result.offset);
+			}
+		}
+
+		return mergeResults(results);
+	}
+
+	/**
+	 * Returns the offsets of the batches the given requests are split into. Batches contain at most
+	 * {@link #setMaxBatchSize(int) max batch size} requests and each replacement of a versioned entity forms a batch of
+	 * its own.
+	 * 
+	 * @param requests must not be {@literal null}.
+	 * @return
+	 */
+	private List<Integer> getBatchOffsets(List<BulkRequest> requests) {
+
+		List<Integer> offsets = new ArrayList<Integer>();
+		int batchSize = 0;
+
+		for (int index = 0; index < requests.size(); index++) {
+
+			if (index == 0 || batchSize == maxBatchSize || isVersioned(requests.get(index))
+					|| isVersioned(requests.get(index - 1))) {
+
+				offsets.add(index);
+				batchSize = 0;
+			}
+
+			batchSize++;
+		}
+
+		return offsets;
+	}
+
+	/**
+	 * Returns the queries selecting the existing documents the given requests write to.
+	 * 
+	 * @param requests must not be {@literal null}.
+	 * @return
+	 */
+	private static List<DBObject> getQueries(List<BulkRequest> requests) {
+
+		List<DBObject> queries = new ArrayList<DBObject>(requests.size());
+
+		for (BulkRequest request : requests) {
+
+			DBObject query = request.getQuery();
+
+			if (query != null) {
+				queries.add(query);
+			}
+		}
+
+		return queries;
+	}
+
+	/**
+	 * Returns whether the given batch consists of a single versioned replacement that did not match a document, i.e.
+	 * whose version was modified concurrently. Unacknowledged writes are never considered stale.
+	 *
+	 * @param batch must not be {@literal null}.
+	 * @param result must not be {@literal null}.
+	 * @return
+	 */
+	private static boolean isStaleVersion(List<BulkRequest> batch, BulkWriteResult result) {
+		return batch.size() == 1 && isVersioned(batch.get(0)) && result.isAcknowledged()
+				&& result.getMatchedCount() == 0;
+	}
+
+	private static boolean isVersioned(BulkRequest request) {
+		return request instanceof ReplaceRequest && ((ReplaceRequest) request).versioned;
+	}
+
+	/**
+	 * Executes the given requests in batches one after another. Stops at the first failing batch in case of an
+	 * {@link BulkMode#ORDERED ordered} bulk.
+	 * 
+	 * @param requests must not be {@literal null}.
+	 * @param offsets the offsets of the batches, must not be {@literal null}.
+	 * @param writeConcern can be {@literal null}.
+	 * @return
+	 */
+	private List<BatchResult> executeSequentially(List<BulkRequest> requests, List<Integer> offsets,
+			WriteConcern writeConcern) {
+
+		List<BatchResult> results = new ArrayList<BatchResult>();
+
+		for (int i = 0; i < offsets.size(); i++) {
+
+			BatchResult result = executeBatch(requests, offsets, i, writeConcern);
+			results.add(result);
+
+			if (bulkMode == BulkMode.ORDERED && result.failure != null) {
+				break;
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * Submits all batches of the given requests to the configured {@link Executor} and waits for them to
+	 * complete.
+	 * 
+	 * @param requests must not be {@literal null}.
+	 * @param offsets the offsets of the batches, must not be {@literal null}.
+	 * @param writeConcern can be {@literal null}.
+	 * @return
+	 */
+	private List<BatchResult> executeConcurrently(final List<BulkRequest> requests, final List<Integer> offsets,
+			final WriteConcern writeConcern) {
+
+		List<FutureTask<BatchResult>> futures = new ArrayList<FutureTask<BatchResult>>();
+
+		for (int i = 0; i < offsets.size(); i++) {
+
+			final int batch = i;
+
+			FutureTask<BatchResult> future = new FutureTask<BatchResult>(new Callable<BatchResult>() {
+
+				@Override
+				public BatchResult call() {
+					return executeBatch(requests, offsets, batch, writeConcern);
+				}
+			});
+
+			futures.add(future);
+			executor.execute(future);
+		}
+
+		List<BatchResult> results = new ArrayList<BatchResult>(futures.size());
 
 		try {
 
-			return writeConcern == null ? bulk.execute() : bulk.execute(writeConcern);
+			for (FutureTask<BatchResult> future : futures) {
+				results.add(future.get());
+			}
+
+		} catch (ExecutionException e) {
+			throw new DataAccessResourceFailureException("Could not execute bulk write!", e.getCause());
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw new DataAccessResourceFailureException("Interrupted while executing bulk write!", e);
+		}
+
+		return results;
+	}
 
-		} catch (BulkWriteException o_O) {
+	/**
+	 * Executes the batch of requests with the given index and captures its outcome instead of throwing exceptions so
+	 * that the results of all batches can be combined.
+	 * 
+	 * @param requests must not be {@literal null}.
+	 * @param offsets the offsets of the batches, must not be {@literal null}.
+	 * @param index the index of the batch to execute.
+	 * @param writeConcern can be {@literal null}.
+	 * @return
+	 */
+	private BatchResult executeBatch(List<BulkRequest> requests, List<Integer> offsets, int index,
+			WriteConcern writeConcern) {
 
-			DataAccessException toThrow = exceptionTranslator.translateExceptionIfPossible(o_O);
-			throw toThrow == null ? o_O : toThrow;
+		int offset = offsets.get(index);
+		int end = index + 1 < offsets.size() ? offsets.get(index + 1) : requests.size();
+		List<BulkRequest> batch = requests.subList(offset, end);
 
-		} finally {
-			this.bulk = initBulkOperation();
+		try {
+			return new BatchResult(offset, batch, executeBatch(batch, writeConcern), null);
+		} catch (RuntimeException o_O) {
+			return new BatchResult(offset, batch, null, o_O);
 		}
 	}
 
+	/**
+	 * Executes the given requests as a single bulk write, retrying transient failures.
+	 * 
+	 * @param batch must not be {@literal null}.
+	 * @param writeConcern can be {@literal null}.
+	 * @return
+	 */
+	private BulkWriteResult executeBatch(List<BulkRequest> batch, WriteConcern writeConcern) {
+
+		for (int attempt = 0;; attempt++) {
+
+			BulkWriteOperation bulk = initBulkOperation();
+
+			for (BulkRequest request : batch) {
+				request.addTo(bulk);
+			}
+
+			try {
+
+				return writeConcern == null ? bulk.execute() : bulk.execute(writeConcern);
+
+			} catch (RuntimeException o_O) {
+
+				DataAccessException toThrow = exceptionTranslator.translateExceptionIfPossible(o_O);
+
+				if (attempt < maxRetries && isTransient(toThrow)) {
+					continue;
+				}
+
+				throw toThrow == null ? o_O : toThrow;
+			}
+		}
+	}
+
+	/**
+	 * Combines the results of the given batches. Throws a {@link BulkOperationException} containing the errors of all
+	 * batches if one of them failed with write errors or rethrows the first other failure.
+	 * 
+	 * @param results must not be {@literal null}.
+	 * @return
+	 */
+	private BulkWriteResult mergeResults(List<BatchResult> results) {
+
+		List<BulkWriteResult> writeResults = new ArrayList<BulkWriteResult>();
+		List<Integer> offsets = new ArrayList<Integer>();
+		List<BulkWriteError> errors = new ArrayList<BulkWriteError>();
+		RuntimeException failure = null;
+
+		for (BatchResult result : results) {
+
+			BulkWriteResult writeResult = result.result;
+
+			if (result.failure instanceof BulkOperationException) {
+
+				BulkOperationException exception = (BulkOperationException) result.failure;
+				writeResult = exception.getResult();
+
+				for (BulkWriteError error : exception.getErrors()) {
+					errors.add(new BulkWriteError(error.getCode(), error.getMessage(), error.getDetails(),
+							error.getIndex() + result.offset));
+				}
+
+			} else if (result.failure != null && failure == null) {
+				failure = result.failure;
+			}
+
+			if (writeResult != null) {
+				writeResults.add(writeResult);
+				offsets.add(result.offset);
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+
+		BulkWriteResult merged = new MergedBulkWriteResult(writeResults, offsets);
+
+		if (!errors.isEmpty()) {
+			throw new BulkOperationException(String.format("Bulk write operation failed with %s error(s)!", errors.size()),
+					errors, merged);
+		}
+
+		return merged;
+	}
+
+	/**
+	 * Converts the given entity into a {@link DBObject} publishing the {@link BeforeConvertEvent} and
+	 * {@link BeforeSaveEvent} and registers it for the {@link AfterSaveEvent} to be published after execution. A
+	 * generated {@link ObjectId} is assigned in case the entity does not have an id yet.
+	 * 
+	 * @param entity must not be {@literal null}.
+	 * @return
+	 */
+	private DBObject toDbObject(Object entity) {
+
+		maybeEmitEvent(new BeforeConvertEvent<Object>(entity, collectionName));
+
+		DBObject dbObject = new BasicDBObject();
+		mongoOperations.getConverter().write(entity, dbObject);
+
+		if (dbObject.get(ID_FIELD) == null) {
+			dbObject.put(ID_FIELD, new ObjectId());
+		}
+
+		maybeEmitEvent(new BeforeSaveEvent<Object>(entity, dbObject, collectionName));
+
+		savedEntities.add(new SavedEntity(entity, dbObject));
+
+		return dbObject;
+	}
+
+	private void initializeVersionProperty(Object entity, MongoPersistentEntity<?> persistentEntity) {
+
+		if (persistentEntity != null && persistentEntity.hasVersionProperty()) {
+			getPropertyAccessor(entity, persistentEntity).setProperty(persistentEntity.getVersionProperty(), 0);
+		}
+	}
+
+	private void populateIdIfNecessary(Object entity, Object id) {
+
+		MongoPersistentEntity<?> persistentEntity = getPersistentEntity(entity);
+		MongoPersistentProperty idProperty = persistentEntity == null ? null : persistentEntity.getIdProperty();
+
+		if (id == null || idProperty == null) {
+			return;
+		}
+
+		ConvertingPropertyAccessor accessor = getPropertyAccessor(entity, persistentEntity);
+
+		if (accessor.getProperty(idProperty) == null) {
+			accessor.setProperty(idProperty, id);
+		}
+	}
+
+	private static boolean hasId(Object entity, MongoPersistentEntity<?> persistentEntity) {
+
+		MongoPersistentProperty idProperty = persistentEntity == null ? null : persistentEntity.getIdProperty();
+		return idProperty != null && persistentEntity.getPropertyAccessor(entity).getProperty(idProperty) != null;
+	}
+
+	private static void assertUpdateableIdIfNotSet(Object entity, MongoPersistentEntity<?> persistentEntity) {
+
+		MongoPersistentProperty idProperty = persistentEntity == null ? null : persistentEntity.getIdProperty();
+
+		if (idProperty == null) {
+			return;
+		}
+
+		Object idValue = persistentEntity.getPropertyAccessor(entity).getProperty(idProperty);
+
+		if (idValue == null && !MongoSimpleTypes.AUTOGENERATED_ID_TYPES.contains(idProperty.getType())) {
+			throw new InvalidDataAccessApiUsageException(
+					String.format("Cannot autogenerate id of type %s for entity of type %s!", idProperty.getType().getName(),
+							entity.getClass().getName()));
+		}
+	}
+
+	private MongoPersistentEntity<?> getPersistentEntity(Object entity) {
+		return mongoOperations.getConverter().getMappingContext().getPersistentEntity(entity.getClass());
+	}
+
+	private ConvertingPropertyAccessor getPropertyAccessor(Object entity, MongoPersistentEntity<?> persistentEntity) {
+		return new ConvertingPropertyAccessor(persistentEntity.getPropertyAccessor(entity),
+				mongoOperations.getConverter().getConversionService());
+	}
+
+	private <T> void maybeEmitEvent(MongoMappingEvent<T> event) {
+
+		if (eventPublisher != null) {
+			eventPublisher.publishEvent(event);
+		}
+	}
+
+	private static boolean isTransient(DataAccessException exception) {
+		return exception instanceof TransientDataAccessException
+				|| exception instanceof DataAccessResourceFailureException;
+	}
+
 	/**
 	 * Performs update and upsert bulk operations.
 	 * 
@@ -299,24 +892,7 @@ class DefaultBulkOperations implements BulkOperations {
 		Assert.notNull(query, "Query must not be null!");
 		Assert.notNull(update, "Update must not be null!");
 
-		BulkWriteRequestBuilder builder = bulk.find(query.getQueryObject());
-
-		if (upsert) {
-
-			if (multi) {
-				builder.upsert().update(update.getUpdateObject());
-			} else {
-				builder.upsert().updateOne(update.getUpdateObject());
-			}
-
-		} else {
-
-			if (multi) {
-				builder.update(update.getUpdateObject());
-			} else {
-				builder.updateOne(update.getUpdateObject());
-			}
-		}
+		requests.add(new UpdateRequest(query.getQueryObject(), update.getUpdateObject(), upsert, multi));
 
 		return this;
 	}
@@ -334,4 +910,293 @@ class DefaultBulkOperations implements BulkOperations {
 
 		throw new IllegalStateException("BulkMode was null!");
 	}
+
+	/**
+	 * A single queued operation to be added to a {@link BulkWriteOperation} on execution.
+	 */
+	private interface BulkRequest {
+
+		void addTo(BulkWriteOperation bulk);
+
+		/**
+		 * Returns the query selecting the existing documents written or {@literal null} if the request only creates new
+		 * ones.
+		 * 
+		 * @return
+		 */
+		DBObject getQuery();
+	}
+
+	private static class InsertRequest implements BulkRequest {
+
+		private final DBObject document;
+
+		InsertRequest(DBObject document) {
+			this.document = document;
+		}
+
+		@Override
+		public void addTo(BulkWriteOperation bulk) {
+			bulk.insert(document);
+		}
+
+		@Override
+		public DBObject getQuery() {
+			return null;
+		}
+	}
+
+	private static class UpdateRequest implements BulkRequest {
+
+		private final DBObject query;
+		private final DBObject update;
+		private final boolean upsert;
+		private final boolean multi;
+
+		UpdateRequest(DBObject query, DBObject update, boolean upsert, boolean multi) {
+
+			this.query = query;
+			this.update = update;
+			this.upsert = upsert;
+			this.multi = multi;
+		}
+
+		@Override
+		public void addTo(BulkWriteOperation bulk) {
+
+			BulkWriteRequestBuilder builder = bulk.find(query);
+
+			if (upsert) {
+
+				if (multi) {
+					builder.upsert().update(update);
+				} else {
+					builder.upsert().updateOne(update);
+				}
+
+			} else {
+
+				if (multi) {
+					builder.update(update);
+				} else {
+					builder.updateOne(update);
+				}
+			}
+		}
+
+		@Override
+		public DBObject getQuery() {
+			return query;
+		}
+	}
+
+	private static class ReplaceRequest implements BulkRequest {
+
+		private final DBObject query;
+		private final DBObject replacement;
+		private final boolean upsert;
+		private final boolean versioned;
+
+		ReplaceRequest(DBObject query, DBObject replacement, boolean upsert, boolean versioned) {
+
+			this.query = query;
+			this.replacement = replacement;
+			this.upsert = upsert;
+			this.versioned = versioned;
+		}
+
+		@Override
+		public void addTo(BulkWriteOperation bulk) {
+
+			if (upsert) {
+				bulk.find(query).upsert().replaceOne(replacement);
+			} else {
+				bulk.find(query).replaceOne(replacement);
+			}
+		}
+
+		@Override
+		public DBObject getQuery() {
+			return query;
+		}
+	}
+
+	private static class RemoveRequest implements BulkRequest {
+
+		private final DBObject query;
+
+		RemoveRequest(DBObject query) {
+			this.query = query;
+		}
+
+		@Override
+		public void addTo(BulkWriteOperation bulk) {
+			bulk.find(query).remove();
+		}
+
+		@Override
+		public DBObject getQuery() {
+			return query;
+		}
+	}
+
+	/**
+	 * An entity written by the bulk alongside the {@link DBObject} it was converted into.
+	 */
+	private static class SavedEntity {
+
+		private final Object entity;
+		private final DBObject dbObject;
+
+		SavedEntity(Object entity, DBObject dbObject) {
+
+			this.entity = entity;
+			this.dbObject = dbObject;
+		}
+	}
+
+	/**
+	 * Outcome of a single batch, either a {@link BulkWriteResult} or the exception the batch failed with.
+	 */
+	private static class BatchResult {
+
+		private final int offset;
+		private final List<BulkRequest> requests;
+		private final BulkWriteResult result;
+		private final RuntimeException failure;
+
+		BatchResult(int offset, List<BulkRequest> requests, BulkWriteResult result, RuntimeException failure) {
+
+			this.offset = offset;
+			this.requests = requests;
+			this.result = result;
+			this.failure = failure;
+		}
+	}
+
+	/**
+	 * {@link BulkWriteResult} summing up the results of multiple batches. Upsert indexes are shifted by the offset of the
+	 * batch they were reported for.
+	 */
+	private static class MergedBulkWriteResult extends BulkWriteResult {
+
+		private final List<BulkWriteResult> results;
+		private final List<BulkWriteUpsert> upserts;
+
+		MergedBulkWriteResult(List<BulkWriteResult> results, List<Integer> offsets) {
+
+			this.results = results;
+
+			List<BulkWriteUpsert> upserts = new ArrayList<BulkWriteUpsert>();
+
+			if (isAcknowledged()) {
+				for (int i = 0; i < results.size(); i++) {
+					for (BulkWriteUpsert upsert : results.get(i).getUpserts()) {
+						upserts.add(new BulkWriteUpsert(upsert.getIndex() + offsets.get(i), upsert.getId()));
+					}
+				}
+			}
+
+			this.upserts = Collections.unmodifiableList(upserts);
+		}
+
+		@Override
+		public boolean isAcknowledged() {
+
+			for (BulkWriteResult result : results) {
+				if (!result.isAcknowledged()) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public int getInsertedCount() {
+
+			assertAcknowledged();
+
+			int count = 0;
+
+			for (BulkWriteResult result : results) {
+				count += result.getInsertedCount();
+			}
+
+			return count;
+		}
+
+		@Override
+		public int getMatchedCount() {
+
+			assertAcknowledged();
+
+			int count = 0;
+
+			for (BulkWriteResult result : results) {
+				count += result.getMatchedCount();
+			}
+
+			return count;
+		}
+
+		@Override
+		public int getRemovedCount() {
+
+			assertAcknowledged();
+
+			int count = 0;
+
+			for (BulkWriteResult result : results) {
+				count += result.getRemovedCount();
+			}
+
+			return count;
+		}
+
+		@Override
+		public boolean isModifiedCountAvailable() {
+
+			assertAcknowledged();
+
+			for (BulkWriteResult result : results) {
+				if (!result.isModifiedCountAvailable()) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public int getModifiedCount() {
+
+			if (!isModifiedCountAvailable()) {
+				throw new UnsupportedOperationException("The modifiedCount is not available!");
+			}
+
+			int count = 0;
+
+			for (BulkWriteResult result : results) {
+				count += result.getModifiedCount();
+			}
+
+			return count;
+		}
+
+		@Override
+		public List<BulkWriteUpsert> getUpserts() {
+
+			assertAcknowledged();
+			return upserts;
+		}
+
+		private void assertAcknowledged() {
+
+			if (!isAcknowledged()) {
+				throw new UnsupportedOperationException(
+						"Cannot get information about an unacknowledged write. You can use the isAcknowledged method to check.");
+			}
+		}
+	}
 }
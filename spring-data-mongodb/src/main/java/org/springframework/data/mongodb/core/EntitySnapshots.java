@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+
+/**
+ * Bounded store of the documents last read or written through a {@link MongoTemplate} keyed by collection name and
+ * {@literal _id}. Used to compute minimal {@link Update}s when saving entities. Snapshots are kept in their BSON
+ * encoded form, which also bounds the store by the number of bytes held rather than the number of documents. The
+ * least recently used snapshots are discarded once the configured capacity is exceeded.
+ *
+ * @since 1.10
+ */
+class EntitySnapshots {
+
+	private static final String ID_FIELD = "_id";
+
+	private final Map<SnapshotKey, byte[]> snapshots = new LinkedHashMap<SnapshotKey, byte[]>(16, 0.75f, true);
+	private final long capacity;
+
+	private long size;
+
+	/**
+	 * Creates a new {@link EntitySnapshots} instance keeping snapshots of at most the given number of encoded bytes.
+	 *
+	 * @param capacity must be greater than zero.
+	 */
+	EntitySnapshots(long capacity) {
+
+		Assert.isTrue(capacity > 0, "Capacity must be greater than zero!");
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the snapshot for the document with the given id in the given collection.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param id the mapped id, must not be {@literal null}.
+	 * @return the snapshot or {@literal null} if none available.
+	 */
+	DBObject get(String collectionName, Object id) {
+
+		byte[] snapshot;
+
+		synchronized (snapshots) {
+			snapshot = snapshots.get(new SnapshotKey(collectionName, id));
+		}
+
+		return snapshot == null ? null : new DefaultDBDecoder().decode(snapshot, (DBCollection) null);
+	}
+
+	/**
+	 * Records the encoded form of the given document as snapshot in case it carries an {@literal _id}, so that later
+	 * changes to the document do not affect the snapshot. Documents exceeding the capacity on their own are not
+	 * recorded.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param document can be {@literal null}.
+	 */
+	void record(String collectionName, DBObject document) {
+
+		Object id = document == null ? null : document.get(ID_FIELD);
+
+		if (id == null) {
+			return;
+		}
+
+		byte[] snapshot = new DefaultDBEncoder().encode(document);
+		SnapshotKey key = new SnapshotKey(collectionName, id);
+
+		synchronized (snapshots) {
+
+			byte[] previous = snapshots.remove(key);
+			size -= previous == null ? 0 : previous.length;
+
+			if (snapshot.length > capacity) {
+				return;
+			}
+
+			snapshots.put(key, snapshot);
+			size += snapshot.length;
+
+			for (Iterator<byte[]> iterator = snapshots.values().iterator(); size > capacity;) {
+
+				size -= iterator.next().length;
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of encoded bytes of all snapshots currently held.
+	 */
+	long getSize() {
+
+		synchronized (snapshots) {
+			return size;
+		}
+	}
+
+	/**
+	 * Creates an {@link Update} containing {@literal $set} operations for all top level fields of the given document that
+	 * differ from the snapshot and {@literal $unset} operations for the fields not present anymore.
+	 *
+	 * @param snapshot must not be {@literal null}.
+	 * @param document must not be {@literal null}.
+	 * @return the {@link Update}, never {@literal null}.
+	 */
+	static Update diff(DBObject snapshot, DBObject document) {
+
+		Update update = new Update();
+
+		for (String key : document.keySet()) {
+
+			if (ID_FIELD.equals(key)) {
+				continue;
+			}
+
+			Object value = document.get(key);
+
+			if (!snapshot.containsField(key) || !ObjectUtils.nullSafeEquals(snapshot.get(key), value)) {
+				update.set(key, value);
+			}
+		}
+
+		for (String key : snapshot.keySet()) {
+
+			if (!ID_FIELD.equals(key) && !document.containsField(key)) {
+				update.unset(key);
+			}
+		}
+
+		return update;
+	}
+
+	private static class SnapshotKey {
+
+		private final String collectionName;
+		private final Object id;
+
+		SnapshotKey(String collectionName, Object id) {
+
+			this.collectionName = collectionName;
+			this.id = id;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(Object obj) {
+
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof SnapshotKey)) {
+				return false;
+			}
+
+			SnapshotKey that = (SnapshotKey) obj;
+			return collectionName.equals(that.collectionName) && ObjectUtils.nullSafeEquals(id, that.id);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return 31 * collectionName.hashCode() + ObjectUtils.nullSafeHashCode(id);
+		}
+	}
+}
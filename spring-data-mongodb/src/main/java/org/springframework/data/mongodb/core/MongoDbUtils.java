@@ -119,13 +119,7 @@ public abstract class MongoDbUtils {
 		}
 
 		// Lookup fresh database instance
-		LOGGER.debug("Getting Mongo Database name=[{}]", databaseName);
-
-		DB db = mongo.getDB(databaseName);
-
-		if (!(mongo instanceof MongoClient) && requiresAuthDbAuthentication(credentials)) {
-			ReflectiveDbInvoker.authenticate(mongo, db, credentials, authenticationDatabaseName);
-		}
+		DB db = lookupDB(mongo, databaseName, credentials, authenticationDatabaseName);
 
 		// TX sync active, bind new database to thread
 		if (TransactionSynchronizationManager.isSynchronizationActive()) {
@@ -160,6 +154,43 @@ public abstract class MongoDbUtils {
 		return db;
 	}
 
+	/**
+	 * Obtains a {@link DB} connection for the given {@link Mongo} instance and database name without consulting or
+	 * registering Spring's transaction synchronization. Thus no {@link DbHolder} is looked up from or bound to the current
+	 * thread.
+	 * 
+	 * @param mongo the {@link Mongo} instance, must not be {@literal null}.
+	 * @param databaseName the database name, must not be {@literal null} or empty.
+	 * @param credentials the credentials to use, must not be {@literal null}.
+	 * @param authenticationDatabaseName the database name to authenticate against, must not be {@literal null} or empty.
+	 * @return the {@link DB} connection
+	 * @since 1.10
+	 */
+	public static DB getUnboundDB(Mongo mongo, String databaseName, UserCredentials credentials,
+			String authenticationDatabaseName) {
+
+		Assert.notNull(mongo, "No Mongo instance specified!");
+		Assert.hasText(databaseName, "Database name must be given!");
+		Assert.notNull(credentials, "Credentials must not be null, use UserCredentials.NO_CREDENTIALS!");
+		Assert.hasText(authenticationDatabaseName, "Authentication database name must not be null or empty!");
+
+		return lookupDB(mongo, databaseName, credentials, authenticationDatabaseName);
+	}
+
+	private static DB lookupDB(Mongo mongo, String databaseName, UserCredentials credentials,
+			String authenticationDatabaseName) {
+
+		LOGGER.debug("Getting Mongo Database name=[{}]", databaseName);
+
+		DB db = mongo.getDB(databaseName);
+
+		if (!(mongo instanceof MongoClient) && requiresAuthDbAuthentication(credentials)) {
+			ReflectiveDbInvoker.authenticate(mongo, db, credentials, authenticationDatabaseName);
+		}
+
+		return db;
+	}
+
 	/**
 	 * Return whether the given DB instance is transactional, that is, bound to the current thread by Spring's transaction
 	 * facilities.
@@ -17,12 +17,14 @@ package org.springframework.data.mongodb.core;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.springframework.data.geo.GeoResults;
 import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.PreparedAggregation;
 import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.mapreduce.GroupBy;
@@ -445,6 +447,56 @@ public interface MongoOperations {
 	 */
 	<O> AggregationResults<O> aggregate(Aggregation aggregation, String collectionName, Class<O> outputType);
 
+	/**
+	 * Renders the given {@link TypedAggregation} into a {@link PreparedAggregation} that can be executed multiple times
+	 * using {@link #aggregate(PreparedAggregation, Map, Class)}. The name of the input collection is derived from the
+	 * input type of the aggregation.
+	 *
+	 * @param aggregation The {@link TypedAggregation} specification holding the aggregation operations, must not be
+	 *          {@literal null}.
+	 * @return the {@link PreparedAggregation}.
+	 * @since 1.10
+	 * @see org.springframework.data.mongodb.core.aggregation.Aggregation#parameter(String)
+	 */
+	PreparedAggregation prepareAggregation(TypedAggregation<?> aggregation);
+
+	/**
+	 * Renders the given {@link Aggregation} into a {@link PreparedAggregation} that can be executed multiple times using
+	 * {@link #aggregate(PreparedAggregation, Map, Class)}. Field references are mapped against the given input type.
+	 *
+	 * @param aggregation The {@link Aggregation} specification holding the aggregation operations, must not be
+	 *          {@literal null}.
+	 * @param inputType the inputType where the aggregation operation will read from, must not be {@literal null}.
+	 * @return the {@link PreparedAggregation}.
+	 * @since 1.10
+	 */
+	PreparedAggregation prepareAggregation(Aggregation aggregation, Class<?> inputType);
+
+	/**
+	 * Renders the given {@link Aggregation} into a {@link PreparedAggregation} that can be executed multiple times using
+	 * {@link #aggregate(PreparedAggregation, Map, Class)}.
+	 *
+	 * @param aggregation The {@link Aggregation} specification holding the aggregation operations, must not be
+	 *          {@literal null}.
+	 * @param collectionName the collection where the aggregation operation will read from, must not be {@literal null} or
+	 *          empty.
+	 * @return the {@link PreparedAggregation}.
+	 * @since 1.10
+	 */
+	PreparedAggregation prepareAggregation(Aggregation aggregation, String collectionName);
+
+	/**
+	 * Execute a {@link PreparedAggregation} with the given parameter values. The raw results will be mapped to the given
+	 * entity class.
+	 *
+	 * @param aggregation The {@link PreparedAggregation} to execute, must not be {@literal null}.
+	 * @param parameters the values to bind to the parameters of the aggregation, must not be {@literal null}.
+	 * @param outputType The parameterized type of the returned list, must not be {@literal null}.
+	 * @return The results of the aggregation operation.
+	 * @since 1.10
+	 */
+	<O> AggregationResults<O> aggregate(PreparedAggregation aggregation, Map<String, ?> parameters, Class<O> outputType);
+
 	/**
 	 * Execute a map-reduce operation. The map-reduce operation will be formed with an output type of INLINE
 	 * 
@@ -500,6 +552,23 @@ public interface MongoOperations {
 	<T> MapReduceResults<T> mapReduce(Query query, String inputCollectionName, String mapFunction, String reduceFunction,
 			MapReduceOptions mapReduceOptions, Class<T> entityClass);
 
+	/**
+	 * Execute a map-reduce operation and return its results as {@link CloseableIterator} converting the documents on
+	 * access instead of reading all of them upfront. Results written to an output collection are read from it in cursor
+	 * batches. Make sure to close the iterator once done.
+	 * 
+	 * @param query The query to use to select the data for the map phase, can be {@literal null}.
+	 * @param inputCollectionName the collection where the map-reduce will read from
+	 * @param mapFunction The JavaScript map function
+	 * @param reduceFunction The JavaScript reduce function
+	 * @param mapReduceOptions Options that specify detailed map-reduce behavior, must not be {@literal null}.
+	 * @param entityClass The type to convert the results into, must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 1.10
+	 */
+	<T> CloseableIterator<T> mapReduceStream(Query query, String inputCollectionName, String mapFunction,
+			String reduceFunction, MapReduceOptions mapReduceOptions, Class<T> entityClass);
+
 	/**
 	 * Returns {@link GeoResults} for all entities matching the given {@link NearQuery}. Will consider entity mapping
 	 * information to determine the collection the query is ran against. Note, that MongoDB limits the number of results
@@ -588,6 +657,58 @@ public interface MongoOperations {
 	 */
 	boolean exists(Query query, Class<?> entityClass, String collectionName);
 
+	/**
+	 * Returns the {@literal _id} values of the documents matching the given {@link Query} in the collection of the given
+	 * entity class. Only the {@literal _id} field is transferred so that the query can be answered from an index.
+	 *
+	 * @param query the {@link Query} class that specifies the criteria used to find documents, must not be
+	 *          {@literal null}.
+	 * @param entityClass the parameterized type, must not be {@literal null}.
+	 * @return the raw {@literal _id} values, never {@literal null}.
+	 * @since 1.10
+	 */
+	List<Object> findIds(Query query, Class<?> entityClass);
+
+	/**
+	 * Returns the {@literal _id} values of the documents matching the given {@link Query} in the given collection. Only
+	 * the {@literal _id} field is transferred so that the query can be answered from an index.
+	 *
+	 * @param query the {@link Query} class that specifies the criteria used to find documents, must not be
+	 *          {@literal null}.
+	 * @param entityClass the parameterized type, can be {@literal null}.
+	 * @param collectionName name of the collection to query, must not be {@literal null} or empty.
+	 * @return the raw {@literal _id} values, never {@literal null}.
+	 * @since 1.10
+	 */
+	List<Object> findIds(Query query, Class<?> entityClass, String collectionName);
+
+	/**
+	 * Streams the {@literal _id} values of the documents matching the given {@link Query} in the collection of the given
+	 * entity class without materializing them all at once. Only the {@literal _id} field is transferred so that the
+	 * query can be answered from an index. The returned {@link CloseableIterator} has to be closed once done.
+	 *
+	 * @param query the {@link Query} class that specifies the criteria used to find documents, must not be
+	 *          {@literal null}.
+	 * @param entityClass the parameterized type, must not be {@literal null}.
+	 * @return the raw {@literal _id} values, never {@literal null}.
+	 * @since 1.10
+	 */
+	CloseableIterator<Object> streamIds(Query query, Class<?> entityClass);
+
+	/**
+	 * Streams the {@literal _id} values of the documents matching the given {@link Query} in the given collection without
+	 * materializing them all at once. Only the {@literal _id} field is transferred so that the query can be answered from
+	 * an index. The returned {@link CloseableIterator} has to be closed once done.
+	 *
+	 * @param query the {@link Query} class that specifies the criteria used to find documents, must not be
+	 *          {@literal null}.
+	 * @param entityClass the parameterized type, can be {@literal null}.
+	 * @param collectionName name of the collection to query, must not be {@literal null} or empty.
+	 * @return the raw {@literal _id} values, never {@literal null}.
+	 * @since 1.10
+	 */
+	CloseableIterator<Object> streamIds(Query query, Class<?> entityClass, String collectionName);
+
 	/**
 	 * Map the results of an ad-hoc query on the collection for the entity class to a List of the specified type.
 	 * <p/>
@@ -643,6 +764,32 @@ public interface MongoOperations {
 	 */
 	<T> T findById(Object id, Class<T> entityClass, String collectionName);
 
+	/**
+	 * Returns the documents with the given ids mapped onto the given class. The collection the query is ran against will
+	 * be derived from the given target class as well. Large id collections are split into multiple {@literal $in}
+	 * queries. The returned {@link Map} iterates in the order of the given ids and does not contain entries for ids no
+	 * document was found for.
+	 *
+	 * @param ids the ids of the documents to return, must not be {@literal null}.
+	 * @param entityClass the type the documents shall be converted into, must not be {@literal null}.
+	 * @return the documents keyed by the given ids, will never be {@literal null}.
+	 * @since 1.10
+	 */
+	<T> Map<Object, T> findAllById(Collection<?> ids, Class<T> entityClass);
+
+	/**
+	 * Returns the documents with the given ids from the given collection mapped onto the given target class. Large id
+	 * collections are split into multiple {@literal $in} queries. The returned {@link Map} iterates in the order of the
+	 * given ids and does not contain entries for ids no document was found for.
+	 *
+	 * @param ids the ids of the documents to return, must not be {@literal null}.
+	 * @param entityClass the type the documents shall be converted into, must not be {@literal null}.
+	 * @param collectionName the collection to query for the documents, must not be {@literal null} or empty.
+	 * @return the documents keyed by the given ids, will never be {@literal null}.
+	 * @since 1.10
+	 */
+	<T> Map<Object, T> findAllById(Collection<?> ids, Class<T> entityClass, String collectionName);
+
 	/**
 	 * Triggers <a href="http://docs.mongodb.org/manual/reference/method/db.collection.findAndModify/">findAndModify
 	 * <a/> to apply provided {@link Update} on documents matching {@link Criteria} of given {@link Query}.
@@ -765,6 +912,31 @@ public interface MongoOperations {
 	 */
 	long count(Query query, Class<?> entityClass, String collectionName);
 
+	/**
+	 * Returns the number of documents matching the given {@link Query} in the collection of the given entity class but
+	 * stops counting once the given limit is reached. Skip and limit of the {@link Query} itself are ignored.
+	 *
+	 * @param query can be {@literal null}.
+	 * @param limit the maximum number to count to, must be greater than zero.
+	 * @param entityClass must not be {@literal null}.
+	 * @return the number of matching documents but at most {@code limit}.
+	 * @since 1.10
+	 */
+	long countUpTo(Query query, long limit, Class<?> entityClass);
+
+	/**
+	 * Returns the number of documents matching the given {@link Query} in the given collection but stops counting once
+	 * the given limit is reached. Skip and limit of the {@link Query} itself are ignored.
+	 *
+	 * @param query can be {@literal null}.
+	 * @param limit the maximum number to count to, must be greater than zero.
+	 * @param entityClass can be {@literal null}.
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @return the number of matching documents but at most {@code limit}.
+	 * @since 1.10
+	 */
+	long countUpTo(Query query, long limit, Class<?> entityClass, String collectionName);
+
 	/**
 	 * Insert the object into the collection for the entity type of the object to save.
 	 * <p/>
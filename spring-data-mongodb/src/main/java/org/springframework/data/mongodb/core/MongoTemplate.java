@@ -20,16 +20,24 @@ import static org.springframework.data.mongodb.core.query.SerializationUtils.*;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
@@ -45,6 +53,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
@@ -60,13 +69,18 @@ import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.mapping.model.ConvertingPropertyAccessor;
 import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.AdaptiveBatchSizing.CursorBatchSizer;
 import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperationContext;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.aggregation.PreparedAggregation;
 import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
 import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.cache.EntityCache;
+import org.springframework.data.mongodb.core.cache.QueryResultCache;
+import org.springframework.data.mongodb.core.cache.QueryResultCacheKey;
 import org.springframework.data.mongodb.core.convert.DbRefResolver;
 import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
@@ -74,12 +88,18 @@ import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoWriter;
 import org.springframework.data.mongodb.core.convert.QueryMapper;
 import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.diagnostics.ClientMetrics;
+import org.springframework.data.mongodb.core.diagnostics.CursorLeakDetector;
+import org.springframework.data.mongodb.core.diagnostics.CursorLeakDetector.Registration;
+import org.springframework.data.mongodb.core.diagnostics.SlowQueryRecorder;
 import org.springframework.data.mongodb.core.index.MongoMappingEventPublisher;
 import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexCreator;
+import org.springframework.data.mongodb.core.index.QueryShapeRecorder;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.data.mongodb.core.mapping.MongoSimpleTypes;
+import org.springframework.data.mongodb.core.mapping.event.AfterBatchLoadEvent;
 import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
 import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
 import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
@@ -88,6 +108,7 @@ import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
 import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
 import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
 import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEventDispatcher;
 import org.springframework.data.mongodb.core.mapreduce.GroupBy;
 import org.springframework.data.mongodb.core.mapreduce.GroupByResults;
 import org.springframework.data.mongodb.core.mapreduce.MapReduceOptions;
@@ -97,6 +118,8 @@ import org.springframework.data.mongodb.core.query.Meta;
 import org.springframework.data.mongodb.core.query.NearQuery;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.view.MaterializedGroupView;
+import org.springframework.data.mongodb.core.view.MaterializedViewMaintainer;
 import org.springframework.data.mongodb.util.MongoClientVersion;
 import org.springframework.data.util.CloseableIterator;
 import org.springframework.jca.cci.core.ConnectionCallback;
@@ -148,6 +171,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	private static final Logger LOGGER = LoggerFactory.getLogger(MongoTemplate.class);
 	private static final String ID_FIELD = "_id";
 	private static final WriteResultChecking DEFAULT_WRITE_RESULT_CHECKING = WriteResultChecking.NONE;
+	private static final int DEFAULT_ID_BATCH_SIZE = 1000;
 	private static final Collection<String> ITERABLE_CLASSES;
 
 	static {
@@ -174,6 +198,25 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	private ApplicationEventPublisher eventPublisher;
 	private ResourceLoader resourceLoader;
 	private MongoPersistentEntityIndexCreator indexCreator;
+	private EntityCache entityCache;
+	private Executor idBatchExecutor;
+	private int idBatchSize = DEFAULT_ID_BATCH_SIZE;
+	private EntitySnapshots entitySnapshots;
+	private QueryResultCache queryResultCache;
+	private int bulkMaxBatchSize = Integer.MAX_VALUE;
+	private int bulkMaxRetries;
+	private Executor bulkExecutor;
+	private MongoMappingEventDispatcher eventDispatcher;
+	private boolean batchAfterLoadEvents;
+	private int mapReduceBatchSize;
+	private MaterializedViewMaintainer materializedViews;
+	private QueryShapeRecorder queryShapeRecorder;
+	private SlowQueryRecorder slowQueryRecorder;
+	private ClientMetrics clientMetrics;
+	private CursorLeakDetector cursorLeakDetector;
+	private AdaptiveBatchSizing adaptiveBatchSizing;
+	private StreamPrefetching streamPrefetching;
+	private final Map<String, String> resolvedFunctions = new ConcurrentHashMap<String, String>();
 
 	/**
 	 * Constructor used for a basic template configuration
@@ -274,6 +317,233 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		this.readPreference = readPreference;
 	}
 
+	/**
+	 * Configures the {@link EntityCache} to consult before querying documents by id. Documents read by id as well as
+	 * documents inserted or saved through the template are stored in the cache, documents updated or removed through
+	 * the template or its {@link #bulkOps(BulkMode, Class, String) bulk operations} are evicted. Setting
+	 * {@literal null} disables caching, which is the default.
+	 *
+	 * @param entityCache can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setEntityCache(EntityCache entityCache) {
+		this.entityCache = entityCache;
+	}
+
+	/**
+	 * Configures the maximum number of ids to be used within a single {@literal $in} query issued by
+	 * {@link #findAllById(Collection, Class, String)}. Defaults to {@value #DEFAULT_ID_BATCH_SIZE}.
+	 *
+	 * @param idBatchSize must be greater than zero.
+	 * @since 1.10
+	 */
+	public void setIdBatchSize(int idBatchSize) {
+
+		Assert.isTrue(idBatchSize > 0, "Id batch size must be greater than zero!");
+		this.idBatchSize = idBatchSize;
+	}
+
+	/**
+	 * Configures the {@link Executor} to run the {@literal $in} queries issued by
+	 * {@link #findAllById(Collection, Class, String)} in parallel in case the ids had to be split into multiple batches.
+	 * If none is configured the batches are queried one after another on the calling thread.
+	 *
+	 * @param idBatchExecutor can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setIdBatchExecutor(Executor idBatchExecutor) {
+		this.idBatchExecutor = idBatchExecutor;
+	}
+
+	/**
+	 * Enables dirty tracking for entities read or written through the template. Documents are kept as snapshot in their
+	 * BSON encoded form up to the given number of bytes (least recently used ones are discarded first) so that
+	 * {@link #save(Object, String)} can issue an update containing only the changed top level fields instead of
+	 * replacing the entire document. A capacity of {@literal 0} disables dirty tracking, which is the default.
+	 *
+	 * @param capacity the maximum number of bytes held by snapshots, must not be negative.
+	 * @since 1.10
+	 */
+	public void setEntitySnapshotCapacity(long capacity) {
+
+		Assert.isTrue(capacity >= 0, "Snapshot capacity must not be negative!");
+		this.entitySnapshots = capacity == 0 ? null : new EntitySnapshots(capacity);
+	}
+
+	/**
+	 * Configures the {@link QueryResultCache} to keep the results of queries marked via {@link Query#cacheResults()}.
+	 * Cached results of a collection are invalidated by every write to that collection issued through this template,
+	 * including {@link #bulkOps(BulkMode, Class, String) bulk operations}. Setting {@literal null} disables result
+	 * caching, which is the default.
+	 *
+	 * @param queryResultCache can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setQueryResultCache(QueryResultCache queryResultCache) {
+		this.queryResultCache = queryResultCache;
+	}
+
+	/**
+	 * Configures the maximum number of operations {@link BulkOperations} obtained via
+	 * {@link #bulkOps(BulkMode, Class, String)} send to the server in a single bulk write. Larger bulks are split
+	 * automatically. Defaults to no limit.
+	 *
+	 * @param bulkMaxBatchSize must be greater than zero.
+	 * @since 1.10
+	 */
+	public void setBulkMaxBatchSize(int bulkMaxBatchSize) {
+
+		Assert.isTrue(bulkMaxBatchSize > 0, "Bulk max batch size must be greater than zero!");
+		this.bulkMaxBatchSize = bulkMaxBatchSize;
+	}
+
+	/**
+	 * Configures how often a batch of a bulk write failing due to a transient resource failure is retried. As parts of
+	 * the batch might already have been applied, retries should only be enabled for idempotent bulk operations.
+	 * Defaults to {@literal 0}.
+	 *
+	 * @param bulkMaxRetries must not be negative.
+	 * @since 1.10
+	 */
+	public void setBulkMaxRetries(int bulkMaxRetries) {
+
+		Assert.isTrue(bulkMaxRetries >= 0, "Bulk max retries must not be negative!");
+		this.bulkMaxRetries = bulkMaxRetries;
+	}
+
+	/**
+	 * Configures the {@link Executor} to run the batches of unordered bulk writes in parallel in case the operations had
+	 * to be split into multiple batches. If none is configured the batches are executed one after another on the calling
+	 * thread.
+	 *
+	 * @param bulkExecutor can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setBulkExecutor(Executor bulkExecutor) {
+		this.bulkExecutor = bulkExecutor;
+	}
+
+	/**
+	 * Configures the {@link MongoMappingEventDispatcher} to hand the {@link MongoMappingEvent}s to instead of publishing
+	 * them via the {@link ApplicationEventPublisher}. Events no listener is interested in are not created at all then.
+	 * Setting {@literal null} publishes all events via the {@link ApplicationEventPublisher}, which is the default.
+	 *
+	 * @param eventDispatcher can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setMappingEventDispatcher(MongoMappingEventDispatcher eventDispatcher) {
+		this.eventDispatcher = eventDispatcher;
+	}
+
+	/**
+	 * Configures whether queries returning a list publish a single {@link AfterBatchLoadEvent} for all documents read
+	 * instead of an {@link AfterLoadEvent} per document. Defaults to {@literal false}.
+	 *
+	 * @param batchAfterLoadEvents
+	 * @since 1.10
+	 */
+	public void setBatchAfterLoadEvents(boolean batchAfterLoadEvents) {
+		this.batchAfterLoadEvents = batchAfterLoadEvents;
+	}
+
+	/**
+	 * Configures the number of documents fetched per round trip when iterating the output collection of a map-reduce
+	 * operation via {@link #mapReduceStream(Query, String, String, String, MapReduceOptions, Class)}. Defaults to
+	 * {@literal 0}, i.e. the server default.
+	 *
+	 * @param mapReduceBatchSize must not be negative.
+	 * @since 1.10
+	 */
+	public void setMapReduceBatchSize(int mapReduceBatchSize) {
+
+		Assert.isTrue(mapReduceBatchSize >= 0, "Map-reduce batch size must not be negative!");
+		this.mapReduceBatchSize = mapReduceBatchSize;
+	}
+
+	/**
+	 * Configures the {@link MaterializedViewMaintainer} to hand the changes of documents inserted, saved, updated,
+	 * removed, found and modified or found and removed through this template to. Updates and removals read the affected
+	 * documents before and after the write in case a view is defined on the collection written to. Writes affecting a
+	 * single document are pinned to the {@literal _id} of the document read upfront so that the state recorded matches
+	 * the document the server modifies. Writes issued via {@link #bulkOps(BulkMode, Class, String) bulk operations} are
+	 * not tracked, the views have to be rebuilt using a
+	 * {@link org.springframework.data.mongodb.core.view.MaterializedViewReconciler} afterwards.
+	 *
+	 * @param materializedViews can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setMaterializedViewMaintainer(MaterializedViewMaintainer materializedViews) {
+		this.materializedViews = materializedViews;
+	}
+
+	/**
+	 * Configures the {@link QueryShapeRecorder} to record the shape and execution time of the mapped queries issued by
+	 * the find methods of this template. Nothing is recorded by default.
+	 *
+	 * @param queryShapeRecorder can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setQueryShapeRecorder(QueryShapeRecorder queryShapeRecorder) {
+		this.queryShapeRecorder = queryShapeRecorder;
+	}
+
+	/**
+	 * Configures the {@link SlowQueryRecorder} to hand queries issued by the find methods of this template to, so that
+	 * the explain output of the ones exceeding its threshold gets captured. Nothing is captured by default.
+	 *
+	 * @param slowQueryRecorder can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setSlowQueryRecorder(SlowQueryRecorder slowQueryRecorder) {
+		this.slowQueryRecorder = slowQueryRecorder;
+	}
+
+	/**
+	 * Configures the {@link ClientMetrics} to record the latencies of the finds and writes issued through this template
+	 * and the cursors opened for streams to. Nothing is recorded by default.
+	 *
+	 * @param clientMetrics can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setClientMetrics(ClientMetrics clientMetrics) {
+		this.clientMetrics = clientMetrics;
+	}
+
+	/**
+	 * Configures the {@link CursorLeakDetector} to register the cursors backing the iterators returned from
+	 * {@link #stream(Query, Class)} and {@link #mapReduceStream(Query, String, String, String, MapReduceOptions, Class)}
+	 * with, so that the ones not closed by the caller get closed and reported. Cursors are not tracked by default.
+	 *
+	 * @param cursorLeakDetector can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setCursorLeakDetector(CursorLeakDetector cursorLeakDetector) {
+		this.cursorLeakDetector = cursorLeakDetector;
+	}
+
+	/**
+	 * Configures the {@link AdaptiveBatchSizing} to tune the batch sizes of the cursors read by the find and stream
+	 * methods of this template with. Queries defining a {@link Query#cursorBatchSize(int) cursor batch size} are not
+	 * tuned. The driver's default batch size is used by default.
+	 *
+	 * @param adaptiveBatchSizing can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setAdaptiveBatchSizing(AdaptiveBatchSizing adaptiveBatchSizing) {
+		this.adaptiveBatchSizing = adaptiveBatchSizing;
+	}
+
+	/**
+	 * Configures the {@link StreamPrefetching} to read the documents of the iterators returned from
+	 * {@link #stream(Query, Class)} ahead on a separate thread with. Documents are read on demand by default.
+	 *
+	 * @param streamPrefetching can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setStreamPrefetching(StreamPrefetching streamPrefetching) {
+		this.streamPrefetching = streamPrefetching;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.context.ApplicationContextAware#setApplicationContext(org.springframework.context.ApplicationContext)
@@ -287,6 +557,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			((ApplicationEventPublisherAware) mappingContext).setApplicationEventPublisher(eventPublisher);
 		}
 		resourceLoader = applicationContext;
+		resolvedFunctions.clear();
 	}
 
 	/**
@@ -356,9 +627,29 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				DBCursor cursor = collection.find(mappedQuery, mappedFields);
 				QueryCursorPreparer cursorPreparer = new QueryCursorPreparer(query, entityType);
 
-				ReadDbObjectCallback<T> readCallback = new ReadDbObjectCallback<T>(mongoConverter, entityType, collectionName);
+				DBCursor preparedCursor = cursorPreparer.prepare(cursor);
+				DbObjectCallback<T> readCallback = new ReadDbObjectCallback<T>(mongoConverter, entityType, collectionName);
+				CursorBatchSizer batchSizer = trackBatchSize(preparedCursor, query, collectionName);
+
+				if (streamPrefetching != null) {
 
-				return new CloseableIterableCursorAdapter<T>(cursorPreparer.prepare(cursor), exceptionTranslator, readCallback);
+					// batch sizes are to reflect the rate the caller consumes documents at, not the prefetching one
+					DbObjectCallback<DBObject> consumedCallback = batchSizer == null ? null
+							: new BatchSizingDbObjectCallback<DBObject>(IdentityDbObjectCallback.INSTANCE, batchSizer);
+
+					CloseableIterator<DBObject> source = new CloseableIterableCursorAdapter<DBObject>(preparedCursor,
+							exceptionTranslator, IdentityDbObjectCallback.INSTANCE, clientMetrics, cursorLeakDetector);
+
+					return streamPrefetching.prefetch(source, query.getMeta().getCursorBatchSize(), readCallback,
+							consumedCallback);
+				}
+
+				if (batchSizer != null) {
+					readCallback = new BatchSizingDbObjectCallback<T>(readCallback, batchSizer);
+				}
+
+				return new CloseableIterableCursorAdapter<T>(preparedCursor, exceptionTranslator, readCallback,
+						clientMetrics, cursorLeakDetector);
 			}
 		});
 	}
@@ -481,6 +772,181 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 	}
 
+	/**
+	 * Executes the given {@link CollectionCallback} writing to the given collection and invalidates the cached query
+	 * results for the collection afterwards.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param callback must not be {@literal null}.
+	 * @return
+	 */
+	private <T> T executeWrite(String collectionName, CollectionCallback<T> callback) {
+
+		long start = System.nanoTime();
+
+		try {
+			return execute(collectionName, callback);
+		} finally {
+
+			invalidateQueryResults(collectionName);
+
+			if (clientMetrics != null) {
+				clientMetrics.recordOperation(collectionName, "write", System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * Executes the given {@link CollectionCallback} performing a bulk write to the given collection. Like other writes
+	 * it invalidates the cached query results for the collection and evicts the documents selected by the given
+	 * queries from the {@link EntityCache} afterwards.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param entityType the type to map the queries against, can be {@literal null}.
+	 * @param queries the unmapped queries of the bulk's updates, replacements and removals, must not be
+	 *          {@literal null}.
+	 * @param callback must not be {@literal null}.
+	 * @return
+	 */
+	<T> T executeBulkWrite(String collectionName, Class<?> entityType, List<DBObject> queries,
+			CollectionCallback<T> callback) {
+
+		try {
+			return executeWrite(collectionName, callback);
+		} finally {
+
+			if (entityCache != null) {
+
+				MongoPersistentEntity<?> entity = entityType == null ? null : getPersistentEntity(entityType);
+
+				for (DBObject query : queries) {
+					evictCachedDocuments(collectionName, queryMapper.getMappedObject(query, entity));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts recording the changes of a write to the given collection for the {@link MaterializedGroupView}s defined on
+	 * it and records the fields they depend on of the documents matching the given query as their state before the
+	 * write. The documents are read in batches and not held in memory.
+	 *
+	 * @param collection must not be {@literal null}.
+	 * @param query can be {@literal null} to not read any documents.
+	 * @param multi whether to read all matching documents or only the first one.
+	 * @param readAfterWrite whether to read the documents read again once the changes are applied.
+	 * @return the changes to apply after the write or {@literal null} if no view is defined on the collection.
+	 */
+	private MaterializedViewMaintainer.Changes readForMaterializedViews(DBCollection collection, DBObject query,
+			boolean multi, boolean readAfterWrite) {
+
+		if (!hasMaterializedViews(collection.getName())) {
+			return null;
+		}
+
+		MaterializedViewMaintainer.Changes changes = materializedViews.startChanges(collection.getName());
+
+		if (query == null) {
+			return changes;
+		}
+
+		DBCursor cursor = collection.find(query, materializedViews.getFieldsObject(collection.getName()));
+
+		try {
+
+			cursor.batchSize(materializedViews.getBatchSize());
+
+			if (!multi) {
+				cursor.limit(1);
+			}
+
+			while (cursor.hasNext()) {
+
+				DBObject document = cursor.next();
+				changes.addPrevious(document);
+
+				if (readAfterWrite) {
+					changes.addCurrentById(document.get(ID_FIELD));
+				}
+			}
+
+		} finally {
+			cursor.close();
+		}
+
+		return changes;
+	}
+
+	private boolean hasMaterializedViews(String collectionName) {
+		return materializedViews != null && materializedViews.hasViews(collectionName);
+	}
+
+	/**
+	 * Reads the fields the {@link MaterializedGroupView}s defined on the given collection depend on of the first document
+	 * matching the given query in the given order, i.e. the document a single document write is going to modify.
+	 *
+	 * @param collection must not be {@literal null}.
+	 * @param query must not be {@literal null}.
+	 * @param sort can be {@literal null}.
+	 * @return the document or {@literal null} if none matches.
+	 */
+	private DBObject readFirstForMaterializedViews(DBCollection collection, DBObject query, DBObject sort) {
+
+		DBCursor cursor = collection.find(query, materializedViews.getFieldsObject(collection.getName()));
+
+		try {
+
+			if (sort != null) {
+				cursor.sort(sort);
+			}
+
+			cursor.limit(1);
+
+			return cursor.hasNext() ? cursor.next() : null;
+
+		} finally {
+			cursor.close();
+		}
+	}
+
+	/**
+	 * Restricts the given query to the document with the given identifier.
+	 *
+	 * @param query must not be {@literal null}.
+	 * @param id must not be {@literal null}.
+	 * @return
+	 */
+	private static DBObject pinToDocument(DBObject query, Object id) {
+		return new BasicDBObject("$and", Arrays.asList(query, new BasicDBObject(ID_FIELD, id)));
+	}
+
+	private static WriteResult executeUpdate(DBCollection collection, DBObject query, DBObject update, boolean upsert,
+			boolean multi, WriteConcern writeConcern) {
+		return writeConcern == null ? collection.update(query, update, upsert, multi)
+				: collection.update(query, update, upsert, multi, writeConcern);
+	}
+
+	private void updateMaterializedViews(DBCollection collection, MaterializedViewMaintainer.Changes changes,
+			List<DBObject> current) {
+
+		if (changes == null) {
+			return;
+		}
+
+		for (DBObject document : current) {
+			changes.addCurrent(document);
+		}
+
+		changes.apply(collection);
+	}
+
+	private void invalidateQueryResults(String collectionName) {
+
+		if (queryResultCache != null) {
+			queryResultCache.invalidate(collectionName);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.data.mongodb.core.MongoOperations#executeInSession(org.springframework.data.mongodb.core.DbCallback)
@@ -540,10 +1006,13 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		dropCollection(determineCollectionName(entityClass));
 	}
 
-	public void dropCollection(String collectionName) {
-		execute(collectionName, new CollectionCallback<Void>() {
+	public void dropCollection(final String collectionName) {
+		executeWrite(collectionName, new CollectionCallback<Void>() {
 			public Void doInCollection(DBCollection collection) throws MongoException, DataAccessException {
 				collection.drop();
+				if (entityCache != null) {
+					entityCache.clear(collectionName);
+				}
 				if (LOGGER.isDebugEnabled()) {
 					LOGGER.debug("Dropped collection [{}]", collection.getFullName());
 				}
@@ -578,6 +1047,10 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		operations.setExceptionTranslator(exceptionTranslator);
 		operations.setWriteConcernResolver(writeConcernResolver);
 		operations.setDefaultWriteConcern(writeConcern);
+		operations.setMaxBatchSize(bulkMaxBatchSize);
+		operations.setMaxRetries(bulkMaxRetries);
+		operations.setExecutor(bulkExecutor);
+		operations.setEventPublisher(eventPublisher);
 
 		return operations;
 	}
@@ -598,7 +1071,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	}
 
 	public <T> T findOne(Query query, Class<T> entityClass, String collectionName) {
-		if (query.getSortObject() == null) {
+		if (query.getSortObject() == null && !isCached(query)) {
 			return doFindOne(collectionName, query.getQueryObject(), query.getFieldsObject(), entityClass);
 		} else {
 			query.limit(1);
@@ -621,8 +1094,84 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			throw new InvalidDataAccessApiUsageException("Query passed in to exist can't be null");
 		}
 
+		final DBObject mappedQuery = queryMapper.getMappedObject(query.getQueryObject(), getPersistentEntity(entityClass));
+
+		return execute(collectionName, new CollectionCallback<Boolean>() {
+			public Boolean doInCollection(DBCollection collection) throws MongoException, DataAccessException {
+
+				DBCursor cursor = collection.find(mappedQuery, new BasicDBObject(ID_FIELD, 1)).limit(1);
+
+				try {
+					return cursor.hasNext();
+				} finally {
+					cursor.close();
+				}
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#findIds(org.springframework.data.mongodb.core.query.Query, java.lang.Class)
+	 */
+	@Override
+	public List<Object> findIds(Query query, Class<?> entityClass) {
+		return findIds(query, entityClass, determineCollectionName(entityClass));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#findIds(org.springframework.data.mongodb.core.query.Query, java.lang.Class, java.lang.String)
+	 */
+	@Override
+	public List<Object> findIds(Query query, Class<?> entityClass, String collectionName) {
+
+		Assert.notNull(query, "Query must not be null!");
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+
 		DBObject mappedQuery = queryMapper.getMappedObject(query.getQueryObject(), getPersistentEntity(entityClass));
-		return execute(collectionName, new FindCallback(mappedQuery)).hasNext();
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Finding ids using query: {} in collection: {}", serializeToJsonSafely(mappedQuery),
+					collectionName);
+		}
+
+		return executeFindMultiInternal(new FindCallback(mappedQuery, new BasicDBObject(ID_FIELD, 1)),
+				new QueryCursorPreparer(query, entityClass), IdDbObjectCallback.INSTANCE, collectionName);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#streamIds(org.springframework.data.mongodb.core.query.Query, java.lang.Class)
+	 */
+	@Override
+	public CloseableIterator<Object> streamIds(Query query, Class<?> entityClass) {
+		return streamIds(query, entityClass, determineCollectionName(entityClass));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#streamIds(org.springframework.data.mongodb.core.query.Query, java.lang.Class, java.lang.String)
+	 */
+	@Override
+	public CloseableIterator<Object> streamIds(final Query query, final Class<?> entityClass, String collectionName) {
+
+		Assert.notNull(query, "Query must not be null!");
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+
+		return execute(collectionName, new CollectionCallback<CloseableIterator<Object>>() {
+
+			@Override
+			public CloseableIterator<Object> doInCollection(DBCollection collection)
+					throws MongoException, DataAccessException {
+
+				DBObject mappedQuery = queryMapper.getMappedObject(query.getQueryObject(), getPersistentEntity(entityClass));
+				DBCursor cursor = collection.find(mappedQuery, new BasicDBObject(ID_FIELD, 1));
+
+				return new CloseableIterableCursorAdapter<Object>(new QueryCursorPreparer(query, entityClass).prepare(cursor),
+						exceptionTranslator, IdDbObjectCallback.INSTANCE, clientMetrics, cursorLeakDetector);
+			}
+		});
 	}
 
 	// Find methods that take a Query to express the query and that return a List of objects.
@@ -637,22 +1186,214 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			return findAll(entityClass, collectionName);
 		}
 
+		if (isCached(query)) {
+			return doFindCached(collectionName, query, entityClass);
+		}
+
 		return doFind(collectionName, query.getQueryObject(), query.getFieldsObject(), entityClass,
 				new QueryCursorPreparer(query, entityClass));
 	}
 
-	public <T> T findById(Object id, Class<T> entityClass) {
-		return findById(id, entityClass, determineCollectionName(entityClass));
-	}
-
-	public <T> T findById(Object id, Class<T> entityClass, String collectionName) {
-		MongoPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
-		MongoPersistentProperty idProperty = persistentEntity == null ? null : persistentEntity.getIdProperty();
-		String idKey = idProperty == null ? ID_FIELD : idProperty.getName();
-		return doFindOne(collectionName, new BasicDBObject(idKey, id), null, entityClass);
+	private boolean isCached(Query query) {
+		return queryResultCache != null && query.isCacheResults();
 	}
 
-	public <T> GeoResults<T> geoNear(NearQuery near, Class<T> entityClass) {
+	/**
+	 * Looks up the raw documents for the given {@link Query} in the {@link QueryResultCache} and queries the database
+	 * only in case of a cache miss. Documents are read into entities on every invocation so that callers never share
+	 * instances. The cache hands out copies of the documents, so listeners modifying them don't affect later hits.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param query must not be {@literal null}.
+	 * @param entityClass must not be {@literal null}.
+	 * @return
+	 */
+	private <T> List<T> doFindCached(String collectionName, Query query, Class<T> entityClass) {
+
+		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(entityClass);
+
+		DBObject mappedQuery = queryMapper.getMappedObject(query.getQueryObject(), entity);
+		DBObject mappedFields = queryMapper.getMappedFields(query.getFieldsObject(), entity);
+		DBObject mappedSort = query.getSortObject() == null ? null : getMappedSortObject(query, entityClass);
+
+		QueryResultCacheKey key = new QueryResultCacheKey(collectionName, mappedQuery, mappedFields, mappedSort,
+				query.getSkip(), query.getLimit(), query.getHint(), query.getMeta(), entityClass);
+		List<DBObject> documents = queryResultCache.get(key);
+
+		if (documents == null) {
+
+			long generation = queryResultCache.getGeneration(collectionName);
+
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Cache miss for find using query: {} fields: {} for class: {} in collection: {}",
+						serializeToJsonSafely(mappedQuery), mappedFields, entityClass, collectionName);
+			}
+
+			documents = executeFindMultiInternal(new FindCallback(mappedQuery, mappedFields),
+					new QueryCursorPreparer(query, entityClass), IdentityDbObjectCallback.INSTANCE, collectionName);
+
+			queryResultCache.put(key, documents, generation);
+		}
+
+		DbObjectCallback<T> callback = potentiallySnapshotting(
+				new ReadDbObjectCallback<T>(mongoConverter, entityClass, collectionName), mappedFields, collectionName);
+
+		return readAll(callback, documents);
+	}
+
+	public <T> T findById(Object id, Class<T> entityClass) {
+		return findById(id, entityClass, determineCollectionName(entityClass));
+	}
+
+	public <T> T findById(Object id, Class<T> entityClass, String collectionName) {
+		MongoPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(entityClass);
+		MongoPersistentProperty idProperty = persistentEntity == null ? null : persistentEntity.getIdProperty();
+		String idKey = idProperty == null ? ID_FIELD : idProperty.getName();
+
+		if (entityCache != null && id != null) {
+			return findAllById(Collections.singleton(id), entityClass, collectionName).get(id);
+		}
+
+		return doFindOne(collectionName, new BasicDBObject(idKey, id), null, entityClass);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#findAllById(java.util.Collection, java.lang.Class)
+	 */
+	@Override
+	public <T> Map<Object, T> findAllById(Collection<?> ids, Class<T> entityClass) {
+		return findAllById(ids, entityClass, determineCollectionName(entityClass));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#findAllById(java.util.Collection, java.lang.Class, java.lang.String)
+	 */
+	@Override
+	public <T> Map<Object, T> findAllById(Collection<?> ids, Class<T> entityClass, String collectionName) {
+
+		Assert.notNull(ids, "Ids must not be null!");
+		Assert.notNull(entityClass, "Entity class must not be null!");
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+
+		Map<Object, Object> idsByMappedId = new LinkedHashMap<Object, Object>(ids.size());
+
+		for (Object id : ids) {
+			if (id != null) {
+				idsByMappedId.put(queryMapper.convertId(id), id);
+			}
+		}
+
+		Map<Object, DBObject> documents = new HashMap<Object, DBObject>(idsByMappedId.size());
+		List<Object> idsToFetch = new ArrayList<Object>(idsByMappedId.size());
+
+		for (Object mappedId : idsByMappedId.keySet()) {
+
+			DBObject cached = entityCache == null ? null : entityCache.get(collectionName, mappedId);
+
+			if (cached != null) {
+				documents.put(mappedId, cached);
+			} else {
+				idsToFetch.add(mappedId);
+			}
+		}
+
+		// Obtain the generation before reading so that documents evicted while being read are not cached
+		long generation = entityCache == null ? 0 : entityCache.getGeneration(collectionName);
+
+		for (DBObject document : findDocumentsByIds(idsToFetch, collectionName)) {
+
+			Object mappedId = document.get(ID_FIELD);
+			documents.put(mappedId, document);
+			recordSnapshot(collectionName, document);
+			cacheDocument(collectionName, mappingContext.getPersistentEntity(entityClass), document, generation);
+		}
+
+		DbObjectCallback<T> callback = new ReadDbObjectCallback<T>(mongoConverter, entityClass, collectionName);
+		Map<Object, T> result = new LinkedHashMap<Object, T>(documents.size());
+
+		for (Entry<Object, Object> entry : idsByMappedId.entrySet()) {
+
+			DBObject document = documents.get(entry.getKey());
+
+			if (document != null) {
+				result.put(entry.getValue(), callback.doWith(document));
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Reads the documents with the given (already mapped) ids by issuing one {@literal $in} query per batch of
+	 * {@link #idBatchSize} ids. Batches are executed in parallel in case an {@link #idBatchExecutor} is configured.
+	 *
+	 * @param ids must not be {@literal null}.
+	 * @param collectionName must not be {@literal null}.
+	 * @return
+	 */
+	private List<DBObject> findDocumentsByIds(List<Object> ids, String collectionName) {
+
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		List<Callable<List<DBObject>>> batches = new ArrayList<Callable<List<DBObject>>>();
+
+		for (int i = 0; i < ids.size(); i += idBatchSize) {
+			batches.add(new FindByIdsCallable(ids.subList(i, Math.min(i + idBatchSize, ids.size())), collectionName));
+		}
+
+		List<DBObject> result = new ArrayList<DBObject>(ids.size());
+
+		try {
+
+			if (idBatchExecutor == null || batches.size() == 1) {
+
+				for (Callable<List<DBObject>> batch : batches) {
+					result.addAll(batch.call());
+				}
+
+				return result;
+			}
+
+			List<FutureTask<List<DBObject>>> futures = new ArrayList<FutureTask<List<DBObject>>>(batches.size());
+
+			for (Callable<List<DBObject>> batch : batches) {
+
+				FutureTask<List<DBObject>> future = new FutureTask<List<DBObject>>(batch);
+				futures.add(future);
+				idBatchExecutor.execute(future);
+			}
+
+			for (FutureTask<List<DBObject>> future : futures) {
+				result.addAll(future.get());
+			}
+
+			return result;
+
+		} catch (ExecutionException e) {
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw potentiallyConvertRuntimeException((RuntimeException) e.getCause(), exceptionTranslator);
+			}
+
+			throw new DataRetrievalFailureException("Could not read documents by id!", e.getCause());
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			throw new DataRetrievalFailureException("Interrupted while reading documents by id!", e);
+
+		} catch (RuntimeException e) {
+			throw potentiallyConvertRuntimeException(e, exceptionTranslator);
+		} catch (Exception e) {
+			throw new DataRetrievalFailureException("Could not read documents by id!", e);
+		}
+	}
+
+	public <T> GeoResults<T> geoNear(NearQuery near, Class<T> entityClass) {
 		return geoNear(near, entityClass, determineCollectionName(entityClass));
 	}
 
@@ -775,6 +1516,37 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		});
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#countUpTo(org.springframework.data.mongodb.core.query.Query, long, java.lang.Class)
+	 */
+	@Override
+	public long countUpTo(Query query, long limit, Class<?> entityClass) {
+
+		Assert.notNull(entityClass, "Entity class must not be null!");
+		return countUpTo(query, limit, entityClass, determineCollectionName(entityClass));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#countUpTo(org.springframework.data.mongodb.core.query.Query, long, java.lang.Class, java.lang.String)
+	 */
+	@Override
+	public long countUpTo(Query query, final long limit, Class<?> entityClass, String collectionName) {
+
+		Assert.isTrue(limit > 0, "Limit must be greater than zero!");
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+
+		final DBObject dbObject = query == null ? new BasicDBObject()
+				: queryMapper.getMappedObject(query.getQueryObject(), getPersistentEntity(entityClass));
+
+		return execute(collectionName, new CollectionCallback<Long>() {
+			public Long doInCollection(DBCollection collection) throws MongoException, DataAccessException {
+				return collection.getCount(dbObject, null, limit, 0);
+			}
+		});
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.data.mongodb.core.MongoOperations#insert(java.lang.Object)
@@ -846,15 +1618,19 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 		initializeVersionProperty(objectToSave);
 
-		maybeEmitEvent(new BeforeConvertEvent<T>(objectToSave, collectionName));
+		maybeEmitEvent(SaveEventType.BEFORE_CONVERT, objectToSave, null, collectionName);
 
 		DBObject dbDoc = toDbObject(objectToSave, writer);
 
-		maybeEmitEvent(new BeforeSaveEvent<T>(objectToSave, dbDoc, collectionName));
+		maybeEmitEvent(SaveEventType.BEFORE_SAVE, objectToSave, dbDoc, collectionName);
+
 		Object id = insertDBObject(collectionName, dbDoc, objectToSave.getClass());
 
 		populateIdIfNecessary(objectToSave, id);
-		maybeEmitEvent(new AfterSaveEvent<T>(objectToSave, dbDoc, collectionName));
+		recordSnapshot(collectionName, dbDoc);
+		cacheDocument(collectionName, getPersistentEntity(objectToSave.getClass()), dbDoc);
+
+		maybeEmitEvent(SaveEventType.AFTER_SAVE, objectToSave, dbDoc, collectionName);
 	}
 
 	/**
@@ -942,10 +1718,12 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			initializeVersionProperty(o);
 			BasicDBObject dbDoc = new BasicDBObject();
 
-			maybeEmitEvent(new BeforeConvertEvent<T>(o, collectionName));
+			maybeEmitEvent(SaveEventType.BEFORE_CONVERT, o, null, collectionName);
+
 			writer.write(o, dbDoc);
 
-			maybeEmitEvent(new BeforeSaveEvent<T>(o, dbDoc, collectionName));
+			maybeEmitEvent(SaveEventType.BEFORE_SAVE, o, dbDoc, collectionName);
+
 			dbObjectList.add(dbDoc);
 		}
 
@@ -954,8 +1732,10 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		int i = 0;
 		for (T obj : batchToSave) {
 			if (i < ids.size()) {
+
 				populateIdIfNecessary(obj, ids.get(i));
-				maybeEmitEvent(new AfterSaveEvent<T>(obj, dbObjectList.get(i), collectionName));
+
+				maybeEmitEvent(SaveEventType.AFTER_SAVE, obj, dbObjectList.get(i), collectionName);
 			}
 			i++;
 		}
@@ -974,6 +1754,11 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 		MongoPersistentEntity<?> mongoPersistentEntity = getPersistentEntity(objectToSave.getClass());
 
+		// Snapshot of the previous state available -> only write changes
+		if (entitySnapshots != null && doSaveChanges(objectToSave, mongoPersistentEntity, collectionName)) {
+			return;
+		}
+
 		// No optimistic locking -> simple save
 		if (mongoPersistentEntity == null || !mongoPersistentEntity.hasVersionProperty()) {
 			doSave(collectionName, objectToSave, this.mongoConverter);
@@ -1010,30 +1795,119 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 			BasicDBObject dbObject = new BasicDBObject();
 
-			maybeEmitEvent(new BeforeConvertEvent<T>(objectToSave, collectionName));
+			maybeEmitEvent(SaveEventType.BEFORE_CONVERT, objectToSave, null, collectionName);
+
 			this.mongoConverter.write(objectToSave, dbObject);
 
-			maybeEmitEvent(new BeforeSaveEvent<T>(objectToSave, dbObject, collectionName));
+			maybeEmitEvent(SaveEventType.BEFORE_SAVE, objectToSave, dbObject, collectionName);
+
 			Update update = Update.fromDBObject(dbObject, ID_FIELD);
 
 			doUpdate(collectionName, query, update, objectToSave.getClass(), false, false);
-			maybeEmitEvent(new AfterSaveEvent<T>(objectToSave, dbObject, collectionName));
+			recordSnapshot(collectionName, dbObject);
+			cacheDocument(collectionName, entity, dbObject);
+
+			maybeEmitEvent(SaveEventType.AFTER_SAVE, objectToSave, dbObject, collectionName);
+		}
+	}
+
+	/**
+	 * Saves the given entity by only writing the top level fields that changed compared to the snapshot taken when the
+	 * document was last read or written through the template. Returns {@literal false} without doing anything if no
+	 * usable snapshot is available, e.g. because the entity has no id yet or its version does not match the snapshot.
+	 *
+	 * @param objectToSave must not be {@literal null}.
+	 * @param entity can be {@literal null}.
+	 * @param collectionName must not be {@literal null}.
+	 * @return whether the entity was saved.
+	 */
+	private <T> boolean doSaveChanges(T objectToSave, MongoPersistentEntity<?> entity, String collectionName) {
+
+		if (entity == null || entity.getIdProperty() == null) {
+			return false;
+		}
+
+		ConvertingPropertyAccessor convertingAccessor = new ConvertingPropertyAccessor(
+				entity.getPropertyAccessor(objectToSave), mongoConverter.getConversionService());
+
+		MongoPersistentProperty idProperty = entity.getIdProperty();
+		Object id = convertingAccessor.getProperty(idProperty);
+
+		if (id == null) {
+			return false;
 		}
+
+		DBObject snapshot = entitySnapshots.get(collectionName, queryMapper.convertId(id));
+
+		if (snapshot == null) {
+			return false;
+		}
+
+		Criteria criteria = Criteria.where(idProperty.getName()).is(id);
+
+		if (entity.hasVersionProperty()) {
+
+			MongoPersistentProperty versionProperty = entity.getVersionProperty();
+			Object version = convertingAccessor.getProperty(versionProperty);
+
+			if (version == null || !ObjectUtils.nullSafeEquals(mongoConverter.convertToMongoType(version),
+					snapshot.get(versionProperty.getFieldName()))) {
+				return false;
+			}
+
+			criteria.and(versionProperty.getName()).is(version);
+
+			Number versionNumber = convertingAccessor.getProperty(versionProperty, Number.class);
+			convertingAccessor.setProperty(versionProperty, versionNumber.longValue() + 1);
+		}
+
+		BasicDBObject dbObject = new BasicDBObject();
+
+		maybeEmitEvent(SaveEventType.BEFORE_CONVERT, objectToSave, null, collectionName);
+
+		this.mongoConverter.write(objectToSave, dbObject);
+
+		maybeEmitEvent(SaveEventType.BEFORE_SAVE, objectToSave, dbObject, collectionName);
+
+		Update update = EntitySnapshots.diff(snapshot, dbObject);
+
+		if (!update.getUpdateObject().keySet().isEmpty()) {
+
+			WriteResult writeResult = doUpdate(collectionName, new Query(criteria), update, objectToSave.getClass(), false,
+					false);
+
+			// Document vanished in the meantime -> fall back to replacing it entirely
+			if (writeResult != null && ReflectiveWriteResultInvoker.wasAcknowledged(writeResult)
+					&& writeResult.getN() == 0) {
+				saveDBObject(collectionName, dbObject, objectToSave.getClass());
+			}
+		}
+
+		recordSnapshot(collectionName, dbObject);
+		cacheDocument(collectionName, entity, dbObject);
+
+		maybeEmitEvent(SaveEventType.AFTER_SAVE, objectToSave, dbObject, collectionName);
+
+		return true;
 	}
 
 	protected <T> void doSave(String collectionName, T objectToSave, MongoWriter<T> writer) {
 
 		assertUpdateableIdIfNotSet(objectToSave);
 
-		maybeEmitEvent(new BeforeConvertEvent<T>(objectToSave, collectionName));
+		maybeEmitEvent(SaveEventType.BEFORE_CONVERT, objectToSave, null, collectionName);
 
 		DBObject dbDoc = toDbObject(objectToSave, writer);
 
-		maybeEmitEvent(new BeforeSaveEvent<T>(objectToSave, dbDoc, collectionName));
+		maybeEmitEvent(SaveEventType.BEFORE_SAVE, objectToSave, dbDoc, collectionName);
+
 		Object id = saveDBObject(collectionName, dbDoc, objectToSave.getClass());
 
 		populateIdIfNecessary(objectToSave, id);
-		maybeEmitEvent(new AfterSaveEvent<T>(objectToSave, dbDoc, collectionName));
+		recordSnapshot(collectionName, dbDoc);
+		cacheDocument(collectionName, getPersistentEntity(objectToSave.getClass()), dbDoc);
+
+		maybeEmitEvent(SaveEventType.AFTER_SAVE, objectToSave, dbDoc, collectionName);
 	}
 
 	protected Object insertDBObject(final String collectionName, final DBObject dbDoc, final Class<?> entityClass) {
@@ -1042,7 +1916,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			LOGGER.debug("Inserting DBObject containing fields: {} in collection: {}", dbDoc.keySet(), collectionName);
 		}
 
-		return execute(collectionName, new CollectionCallback<Object>() {
+		return executeWrite(collectionName, new CollectionCallback<Object>() {
 			public Object doInCollection(DBCollection collection) throws MongoException, DataAccessException {
 				MongoAction mongoAction = new MongoAction(writeConcern, MongoActionOperation.INSERT, collectionName,
 						entityClass, dbDoc, null);
@@ -1050,6 +1924,8 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				WriteResult writeResult = writeConcernToUse == null ? collection.insert(dbDoc)
 						: collection.insert(dbDoc, writeConcernToUse);
 				handleAnyWriteResultErrors(writeResult, dbDoc, MongoActionOperation.INSERT);
+				updateMaterializedViews(collection, readForMaterializedViews(collection, null, false, false),
+						Collections.singletonList(dbDoc));
 				return dbDoc.get(ID_FIELD);
 			}
 		});
@@ -1066,7 +1942,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			LOGGER.debug("Inserting list of DBObjects containing {} items", dbDocList.size());
 		}
 
-		execute(collectionName, new CollectionCallback<Void>() {
+		executeWrite(collectionName, new CollectionCallback<Void>() {
 			public Void doInCollection(DBCollection collection) throws MongoException, DataAccessException {
 				MongoAction mongoAction = new MongoAction(writeConcern, MongoActionOperation.INSERT_LIST, collectionName, null,
 						null, null);
@@ -1074,6 +1950,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				WriteResult writeResult = writeConcernToUse == null ? collection.insert(dbDocList)
 						: collection.insert(dbDocList.toArray((DBObject[]) new BasicDBObject[dbDocList.size()]), writeConcernToUse);
 				handleAnyWriteResultErrors(writeResult, null, MongoActionOperation.INSERT_LIST);
+				updateMaterializedViews(collection, readForMaterializedViews(collection, null, false, false), dbDocList);
 				return null;
 			}
 		});
@@ -1097,14 +1974,17 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			LOGGER.debug("Saving DBObject containing fields: {}", dbDoc.keySet());
 		}
 
-		return execute(collectionName, new CollectionCallback<Object>() {
+		return executeWrite(collectionName, new CollectionCallback<Object>() {
 			public Object doInCollection(DBCollection collection) throws MongoException, DataAccessException {
 				MongoAction mongoAction = new MongoAction(writeConcern, MongoActionOperation.SAVE, collectionName, entityClass,
 						dbDoc, null);
 				WriteConcern writeConcernToUse = prepareWriteConcern(mongoAction);
+				MaterializedViewMaintainer.Changes changes = readForMaterializedViews(collection,
+						dbDoc.get(ID_FIELD) == null ? null : new BasicDBObject(ID_FIELD, dbDoc.get(ID_FIELD)), false, false);
 				WriteResult writeResult = writeConcernToUse == null ? collection.save(dbDoc)
 						: collection.save(dbDoc, writeConcernToUse);
 				handleAnyWriteResultErrors(writeResult, dbDoc, MongoActionOperation.SAVE);
+				updateMaterializedViews(collection, changes, Collections.singletonList(dbDoc));
 				return dbDoc.get(ID_FIELD);
 			}
 		});
@@ -1149,7 +2029,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	protected WriteResult doUpdate(final String collectionName, final Query query, final Update update,
 			final Class<?> entityClass, final boolean upsert, final boolean multi) {
 
-		return execute(collectionName, new CollectionCallback<WriteResult>() {
+		return executeWrite(collectionName, new CollectionCallback<WriteResult>() {
 			public WriteResult doInCollection(DBCollection collection) throws MongoException, DataAccessException {
 
 				MongoPersistentEntity<?> entity = entityClass == null ? null : getPersistentEntity(entityClass);
@@ -1169,8 +2049,34 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				MongoAction mongoAction = new MongoAction(writeConcern, MongoActionOperation.UPDATE, collectionName,
 						entityClass, updateObj, queryObj);
 				WriteConcern writeConcernToUse = prepareWriteConcern(mongoAction);
-				WriteResult writeResult = writeConcernToUse == null ? collection.update(queryObj, updateObj, upsert, multi)
-						: collection.update(queryObj, updateObj, upsert, multi, writeConcernToUse);
+				MaterializedViewMaintainer.Changes changes = readForMaterializedViews(collection, multi ? queryObj : null,
+						true, true);
+				DBObject previous = changes == null || multi ? null
+						: readFirstForMaterializedViews(collection, queryObj, null);
+				WriteResult writeResult = null;
+
+				if (previous != null) {
+
+					Object id = previous.get(ID_FIELD);
+					writeResult = executeUpdate(collection, pinToDocument(queryObj, id), updateObj, false, false,
+							writeConcernToUse);
+
+					if (!ReflectiveWriteResultInvoker.wasAcknowledged(writeResult) || writeResult.getN() > 0) {
+
+						changes.addPrevious(previous);
+						changes.addCurrentById(id);
+
+					} else {
+						// document read was modified concurrently, fall back to the original query
+						writeResult = null;
+					}
+				}
+
+				if (writeResult == null) {
+					writeResult = executeUpdate(collection, queryObj, updateObj, upsert, multi, writeConcernToUse);
+				}
+
+				evictCachedDocuments(collectionName, queryObj);
 
 				if (entity != null && entity.hasVersionProperty() && !multi) {
 					if (ReflectiveWriteResultInvoker.wasAcknowledged(writeResult) && writeResult.getN() == 0
@@ -1181,6 +2087,13 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				}
 
 				handleAnyWriteResultErrors(writeResult, queryObj, MongoActionOperation.UPDATE);
+
+				if (changes != null && writeResult.getUpsertedId() != null) {
+					changes.addCurrentById(writeResult.getUpsertedId());
+				}
+
+				updateMaterializedViews(collection, changes, Collections.<DBObject> emptyList());
+
 				return writeResult;
 			}
 		});
@@ -1329,7 +2242,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		final DBObject queryObject = query.getQueryObject();
 		final MongoPersistentEntity<?> entity = getPersistentEntity(entityClass);
 
-		return execute(collectionName, new CollectionCallback<WriteResult>() {
+		return executeWrite(collectionName, new CollectionCallback<WriteResult>() {
 			public WriteResult doInCollection(DBCollection collection) throws MongoException, DataAccessException {
 
 				maybeEmitEvent(new BeforeDeleteEvent<T>(queryObject, entityClass, collectionName));
@@ -1345,10 +2258,14 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 							new Object[] { serializeToJsonSafely(dboq), collectionName });
 				}
 
+				MaterializedViewMaintainer.Changes changes = readForMaterializedViews(collection, dboq, true, false);
 				WriteResult wr = writeConcernToUse == null ? collection.remove(dboq)
 						: collection.remove(dboq, writeConcernToUse);
 
+				evictCachedDocuments(collectionName, dboq);
+
 				handleAnyWriteResultErrors(wr, dboq, MongoActionOperation.REMOVE);
+				updateMaterializedViews(collection, changes, Collections.<DBObject> emptyList());
 
 				maybeEmitEvent(new AfterDeleteEvent<T>(queryObject, entityClass, collectionName));
 
@@ -1386,6 +2303,63 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	public <T> MapReduceResults<T> mapReduce(Query query, String inputCollectionName, String mapFunction,
 			String reduceFunction, MapReduceOptions mapReduceOptions, Class<T> entityClass) {
 
+		MapReduceOutput mapReduceOutput = executeMapReduce(query, inputCollectionName, mapFunction, reduceFunction,
+				mapReduceOptions);
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("MapReduce command result = [{}]", serializeToJsonSafely(mapReduceOutput.results()));
+		}
+
+		List<T> mappedResults = new ArrayList<T>();
+		DbObjectCallback<T> callback = new ReadDbObjectCallback<T>(mongoConverter, entityClass, inputCollectionName);
+
+		for (DBObject dbObject : mapReduceOutput.results()) {
+			mappedResults.add(callback.doWith(dbObject));
+		}
+
+		return new MapReduceResults<T>(mappedResults, mapReduceOutput);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#mapReduceStream(org.springframework.data.mongodb.core.query.Query, java.lang.String, java.lang.String, java.lang.String, org.springframework.data.mongodb.core.mapreduce.MapReduceOptions, java.lang.Class)
+	 */
+	@Override
+	public <T> CloseableIterator<T> mapReduceStream(Query query, String inputCollectionName, String mapFunction,
+			String reduceFunction, MapReduceOptions mapReduceOptions, Class<T> entityClass) {
+
+		Assert.notNull(mapReduceOptions, "MapReduceOptions must not be null!");
+		Assert.notNull(entityClass, "Entity class must not be null!");
+
+		MapReduceOutput mapReduceOutput = executeMapReduce(query, inputCollectionName, mapFunction, reduceFunction,
+				mapReduceOptions);
+
+		ReadDbObjectCallback<T> readCallback = new ReadDbObjectCallback<T>(mongoConverter, entityClass,
+				inputCollectionName);
+		Iterable<DBObject> results = mapReduceOutput.results();
+
+		if (results instanceof DBCursor) {
+
+			DBCursor cursor = (DBCursor) results;
+
+			if (mapReduceBatchSize > 0) {
+				cursor.batchSize(mapReduceBatchSize);
+			}
+
+			return new CloseableIterableCursorAdapter<T>(cursor, exceptionTranslator, readCallback, clientMetrics,
+					cursorLeakDetector);
+		}
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("MapReduce command result = [{}]", serializeToJsonSafely(results));
+		}
+
+		return new InlineResultsIterator<T>(results.iterator(), readCallback);
+	}
+
+	private MapReduceOutput executeMapReduce(Query query, String inputCollectionName, String mapFunction,
+			String reduceFunction, MapReduceOptions mapReduceOptions) {
+
 		String mapFunc = replaceWithResourceIfNecessary(mapFunction);
 		String reduceFunc = replaceWithResourceIfNecessary(reduceFunction);
 		DBCollection inputCollection = getCollection(inputCollectionName);
@@ -1402,20 +2376,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 					mapFunc, reduceFunc);
 		}
 
-		MapReduceOutput mapReduceOutput = inputCollection.mapReduce(command);
-
-		if (LOGGER.isDebugEnabled()) {
-			LOGGER.debug("MapReduce command result = [{}]", serializeToJsonSafely(mapReduceOutput.results()));
-		}
-
-		List<T> mappedResults = new ArrayList<T>();
-		DbObjectCallback<T> callback = new ReadDbObjectCallback<T>(mongoConverter, entityClass, inputCollectionName);
-
-		for (DBObject dbObject : mapReduceOutput.results()) {
-			mappedResults.add(callback.doWith(dbObject));
-		}
-
-		return new MapReduceResults<T>(mappedResults, mapReduceOutput);
+		return inputCollection.mapReduce(command);
 	}
 
 	public <T> GroupByResults<T> group(String inputCollectionName, GroupBy groupBy, Class<T> entityClass) {
@@ -1509,11 +2470,74 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.springframework.data.mongodb.core.MongoOperations#findAllAndRemove(org.springframework.data.mongodb.core.query.Query, java.lang.String)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#prepareAggregation(org.springframework.data.mongodb.core.aggregation.TypedAggregation)
 	 */
 	@Override
-	public <T> List<T> findAllAndRemove(Query query, String collectionName) {
-		return findAndRemove(query, null, collectionName);
+	public PreparedAggregation prepareAggregation(TypedAggregation<?> aggregation) {
+
+		Assert.notNull(aggregation, "Aggregation pipeline must not be null!");
+		return prepareAggregation(aggregation, aggregation.getInputType());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#prepareAggregation(org.springframework.data.mongodb.core.aggregation.Aggregation, java.lang.Class)
+	 */
+	@Override
+	public PreparedAggregation prepareAggregation(Aggregation aggregation, Class<?> inputType) {
+
+		Assert.notNull(aggregation, "Aggregation pipeline must not be null!");
+		Assert.notNull(inputType, "Input type must not be null!");
+
+		String collectionName = determineCollectionName(inputType);
+		AggregationOperationContext context = new TypeBasedAggregationOperationContext(inputType, mappingContext,
+				queryMapper);
+
+		return new PreparedAggregation(collectionName, aggregation.toDbObject(collectionName, context));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#prepareAggregation(org.springframework.data.mongodb.core.aggregation.Aggregation, java.lang.String)
+	 */
+	@Override
+	public PreparedAggregation prepareAggregation(Aggregation aggregation, String collectionName) {
+
+		Assert.notNull(aggregation, "Aggregation pipeline must not be null!");
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+
+		return new PreparedAggregation(collectionName,
+				aggregation.toDbObject(collectionName, Aggregation.DEFAULT_CONTEXT));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#aggregate(org.springframework.data.mongodb.core.aggregation.PreparedAggregation, java.util.Map, java.lang.Class)
+	 */
+	@Override
+	public <O> AggregationResults<O> aggregate(PreparedAggregation aggregation, Map<String, ?> parameters,
+			Class<O> outputType) {
+
+		Assert.notNull(aggregation, "Aggregation must not be null!");
+		Assert.notNull(parameters, "Parameters must not be null!");
+		Assert.notNull(outputType, "Output type must not be null!");
+
+		Map<String, Object> values = new HashMap<String, Object>(parameters.size());
+
+		for (Entry<String, ?> parameter : parameters.entrySet()) {
+			values.put(parameter.getKey(), mongoConverter.convertToMongoType(parameter.getValue()));
+		}
+
+		return doAggregate(aggregation.toDbObject(values), aggregation.getCollectionName(), outputType);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.MongoOperations#findAllAndRemove(org.springframework.data.mongodb.core.query.Query, java.lang.String)
+	 */
+	@Override
+	public <T> List<T> findAllAndRemove(Query query, String collectionName) {
+		return findAndRemove(query, null, collectionName);
 	}
 
 	/*
@@ -1563,7 +2587,10 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		Assert.notNull(outputType, "Output type must not be null!");
 
 		AggregationOperationContext rootContext = context == null ? Aggregation.DEFAULT_CONTEXT : context;
-		DBObject command = aggregation.toDbObject(collectionName, rootContext);
+		return doAggregate(aggregation.toDbObject(collectionName, rootContext), collectionName, outputType);
+	}
+
+	private <O> AggregationResults<O> doAggregate(DBObject command, String collectionName, Class<O> outputType) {
 
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("Executing aggregation: {}", serializeToJsonSafely(command));
@@ -1594,12 +2621,12 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 		DbObjectCallback<O> callback = new UnwrapAndReadDbObjectCallback<O>(mongoConverter, outputType, collectionName);
 
-		List<O> mappedResults = new ArrayList<O>();
+		List<DBObject> documents = new ArrayList<DBObject>();
 		for (DBObject dbObject : resultSet) {
-			mappedResults.add(callback.doWith(dbObject));
+			documents.add(dbObject);
 		}
 
-		return mappedResults;
+		return readAll(callback, documents);
 	}
 
 	protected String replaceWithResourceIfNecessary(String function) {
@@ -1608,29 +2635,41 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 		if (this.resourceLoader != null && ResourceUtils.isUrl(function)) {
 
-			Resource functionResource = resourceLoader.getResource(func);
+			String resolved = resolvedFunctions.get(function);
 
-			if (!functionResource.exists()) {
-				throw new InvalidDataAccessApiUsageException(String.format("Resource %s not found!", function));
+			if (resolved == null) {
+				resolved = readFunctionResource(function);
+				resolvedFunctions.put(function, resolved);
 			}
 
-			Scanner scanner = null;
-
-			try {
-				scanner = new Scanner(functionResource.getInputStream());
-				return scanner.useDelimiter("\\A").next();
-			} catch (IOException e) {
-				throw new InvalidDataAccessApiUsageException(String.format("Cannot read map-reduce file %s!", function), e);
-			} finally {
-				if (scanner != null) {
-					scanner.close();
-				}
-			}
+			return resolved;
 		}
 
 		return func;
 	}
 
+	private String readFunctionResource(String function) {
+
+		Resource functionResource = resourceLoader.getResource(function);
+
+		if (!functionResource.exists()) {
+			throw new InvalidDataAccessApiUsageException(String.format("Resource %s not found!", function));
+		}
+
+		Scanner scanner = null;
+
+		try {
+			scanner = new Scanner(functionResource.getInputStream());
+			return scanner.useDelimiter("\\A").next();
+		} catch (IOException e) {
+			throw new InvalidDataAccessApiUsageException(String.format("Cannot read map-reduce file %s!", function), e);
+		} finally {
+			if (scanner != null) {
+				scanner.close();
+			}
+		}
+	}
+
 	private void copyMapReduceOptionsToCommand(Query query, MapReduceOptions mapReduceOptions,
 			MapReduceCommand mapReduceCommand) {
 
@@ -1682,12 +2721,149 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		return mongoDbFactory.getDb();
 	}
 
+	/**
+	 * Records the given document as snapshot for dirty tracking if enabled.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param document can be {@literal null}.
+	 */
+	private void recordSnapshot(String collectionName, DBObject document) {
+
+		if (entitySnapshots != null) {
+			entitySnapshots.record(collectionName, document);
+		}
+	}
+
+	/**
+	 * Stores the given document in the {@link EntityCache} if one is configured. For versioned entities a cached document
+	 * carrying a newer version than the given one is kept.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param entity can be {@literal null}.
+	 * @param document must not be {@literal null}.
+	 */
+	private void cacheDocument(String collectionName, MongoPersistentEntity<?> entity, DBObject document) {
+		cacheDocument(collectionName, entity, document, null);
+	}
+
+	/**
+	 * Stores the given document in the {@link EntityCache} if one is configured and the collection was not written to
+	 * since the given {@link EntityCache#getGeneration(String) generation} was obtained.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param entity can be {@literal null}.
+	 * @param document must not be {@literal null}.
+	 * @param generation the generation obtained before reading the document, {@literal null} to store it unconditionally.
+	 */
+	private void cacheDocument(String collectionName, MongoPersistentEntity<?> entity, DBObject document,
+			Long generation) {
+
+		Object id = entityCache == null ? null : document.get(ID_FIELD);
+
+		if (id == null) {
+			return;
+		}
+
+		if (entity != null && entity.hasVersionProperty()) {
+
+			String versionField = entity.getVersionProperty().getFieldName();
+			DBObject cached = entityCache.get(collectionName, id);
+			Object cachedVersion = cached == null ? null : cached.get(versionField);
+			Object version = document.get(versionField);
+
+			if (cachedVersion instanceof Number && version instanceof Number
+					&& ((Number) cachedVersion).longValue() > ((Number) version).longValue()) {
+				return;
+			}
+		}
+
+		if (generation == null) {
+			entityCache.put(collectionName, id, document);
+		} else {
+			entityCache.put(collectionName, id, document, generation);
+		}
+	}
+
+	/**
+	 * Removes the documents potentially affected by a write using the given mapped query from the {@link EntityCache}.
+	 * Evicts the single document in case the query selects by {@literal _id} value and all documents of the collection
+	 * otherwise.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param mappedQuery must not be {@literal null}.
+	 */
+	private void evictCachedDocuments(String collectionName, DBObject mappedQuery) {
+
+		if (entityCache == null) {
+			return;
+		}
+
+		Object id = mappedQuery.get(ID_FIELD);
+
+		if (id == null || id instanceof DBObject) {
+			entityCache.clear(collectionName);
+		} else {
+			entityCache.evict(collectionName, id);
+		}
+	}
+
+	/**
+	 * Wraps the given {@link DbObjectCallback} to record the documents read as snapshot for dirty tracking in case it's
+	 * enabled and the documents were read without a field restriction.
+	 *
+	 * @param callback must not be {@literal null}.
+	 * @param fields can be {@literal null}.
+	 * @param collectionName must not be {@literal null}.
+	 * @return
+	 */
+	private <T> DbObjectCallback<T> potentiallySnapshotting(final DbObjectCallback<T> callback, DBObject fields,
+			final String collectionName) {
+
+		if (entitySnapshots == null || (fields != null && !fields.keySet().isEmpty())) {
+			return callback;
+		}
+
+		return new SnapshottingDbObjectCallback<T>(callback, collectionName);
+	}
+
 	protected <T> void maybeEmitEvent(MongoMappingEvent<T> event) {
-		if (null != eventPublisher) {
+
+		if (null != eventDispatcher) {
+			eventDispatcher.dispatch(event);
+		} else if (null != eventPublisher) {
 			eventPublisher.publishEvent(event);
 		}
 	}
 
+	/**
+	 * Publishes the save event of the given type for the given entity. The event is only created if any listener would
+	 * receive it.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @param source must not be {@literal null}.
+	 * @param dbObject the entity's document, can be {@literal null} for {@link SaveEventType#BEFORE_CONVERT}.
+	 * @param collectionName must not be {@literal null}.
+	 */
+	private <T> void maybeEmitEvent(SaveEventType type, T source, DBObject dbObject, String collectionName) {
+
+		if (hasEventListeners(type.eventType, source.getClass())) {
+			maybeEmitEvent(type.createEvent(source, dbObject, collectionName));
+		}
+	}
+
+	/**
+	 * Returns whether an event of the given type published for the given domain type would be received by any listener.
+	 * Used to avoid creating events on hot paths.
+	 *
+	 * @param eventType must not be {@literal null}.
+	 * @param domainType can be {@literal null}.
+	 * @return
+	 */
+	@SuppressWarnings("rawtypes")
+	private boolean hasEventListeners(Class<? extends MongoMappingEvent> eventType, Class<?> domainType) {
+		return null != eventDispatcher ? eventDispatcher.hasListeners(eventType, domainType) : null != eventPublisher;
+	}
+
 	/**
 	 * Create the specified collection using the provided options
 	 *
@@ -1729,8 +2905,22 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 					mappedFields, entityClass, collectionName);
 		}
 
-		return executeFindOneInternal(new FindOneCallback(mappedQuery, mappedFields),
-				new ReadDbObjectCallback<T>(this.mongoConverter, entityClass, collectionName), collectionName);
+		DbObjectCallback<T> objectCallback = potentiallySnapshotting(
+				new ReadDbObjectCallback<T>(this.mongoConverter, entityClass, collectionName), mappedFields, collectionName);
+
+		if (!isRecordingQueries()) {
+			return executeFindOneInternal(new FindOneCallback(mappedQuery, mappedFields), objectCallback, collectionName);
+		}
+
+		ConversionTimingDbObjectCallback<T> timingCallback = new ConversionTimingDbObjectCallback<T>(objectCallback);
+		long start = System.nanoTime();
+
+		T result = executeFindOneInternal(new FindOneCallback(mappedQuery, mappedFields), timingCallback, collectionName);
+
+		recordQuery(collectionName, entityClass, mappedQuery, null, mappedFields,
+				System.nanoTime() - start - timingCallback.getConversionTime());
+
+		return result;
 	}
 
 	/**
@@ -1780,8 +2970,78 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 					serializeToJsonSafely(mappedQuery), mappedFields, entityClass, collectionName);
 		}
 
-		return executeFindMultiInternal(new FindCallback(mappedQuery, mappedFields), preparer, objectCallback,
+		DbObjectCallback<T> readCallback = potentiallySnapshotting(objectCallback, mappedFields, collectionName);
+
+		if (!isRecordingQueries()) {
+			return executeFindMultiInternal(new FindCallback(mappedQuery, mappedFields), preparer, readCallback,
+					collectionName);
+		}
+
+		ConversionTimingDbObjectCallback<T> timingCallback = new ConversionTimingDbObjectCallback<T>(readCallback);
+		long start = System.nanoTime();
+
+		List<T> result = executeFindMultiInternal(new FindCallback(mappedQuery, mappedFields), preparer, timingCallback,
 				collectionName);
+
+		recordQuery(collectionName, entityClass, mappedQuery, preparer, mappedFields,
+				System.nanoTime() - start - timingCallback.getConversionTime());
+
+		return result;
+	}
+
+	/**
+	 * Returns whether any recorder interested in the finds executed is configured.
+	 *
+	 * @return
+	 */
+	private boolean isRecordingQueries() {
+		return queryShapeRecorder != null || clientMetrics != null || slowQueryRecorder != null;
+	}
+
+	/**
+	 * Hands a successfully executed find to the recorders configured. The sort of the query is only mapped if it is to
+	 * be recorded. Failures of the recorders are logged but never propagated to the caller.
+	 *
+	 * @param collectionName
+	 * @param entityClass
+	 * @param query the mapped query.
+	 * @param preparer the {@link CursorPreparer} the query was executed with, can be {@literal null}.
+	 * @param fields the mapped fields, can be {@literal null}.
+	 * @param duration the nanoseconds spent executing the query and iterating the cursor, excluding the conversion of
+	 *          the documents read.
+	 */
+	private void recordQuery(String collectionName, Class<?> entityClass, DBObject query, CursorPreparer preparer,
+			DBObject fields, long duration) {
+
+		try {
+
+			if (clientMetrics != null) {
+				clientMetrics.recordOperation(collectionName, "find", duration);
+			}
+
+			boolean slow = slowQueryRecorder != null && slowQueryRecorder.isSlow(duration);
+
+			if (queryShapeRecorder == null && !slow) {
+				return;
+			}
+
+			QueryCursorPreparer queryPreparer = preparer instanceof QueryCursorPreparer ? (QueryCursorPreparer) preparer
+					: null;
+			DBObject sort = queryPreparer == null ? null : queryPreparer.getSortObject();
+
+			if (queryShapeRecorder != null) {
+				queryShapeRecorder.record(collectionName, query, sort, fields, duration);
+			}
+
+			if (slow) {
+				slowQueryRecorder.record(getDb().getCollection(collectionName), entityClass, query, sort, fields,
+						queryPreparer == null ? null : queryPreparer.getHint(), queryPreparer == null ? 0 : queryPreparer.getSkip(),
+						queryPreparer == null ? 0 : queryPreparer.getLimit(), duration);
+			}
+
+		} catch (RuntimeException o_O) {
+			LOGGER.warn(String.format("Could not record query on collection %s!", collectionName), o_O);
+		}
 	}
 
 	protected DBObject convertToDbObject(CollectionOptions collectionOptions) {
@@ -1822,9 +3082,19 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 
 		MongoPersistentEntity<?> entity = mappingContext.getPersistentEntity(entityClass);
+		DBObject mappedQuery = queryMapper.getMappedObject(query, entity);
+
+		try {
+			CollectionCallback<DBObject> callback = hasMaterializedViews(collectionName)
+					? new MaterializedViewsFindAndModifyCallback(mappedQuery, fields, sort, null, true, false, false)
+					: new FindAndRemoveCallback(mappedQuery, fields, sort);
 
-		return executeFindOneInternal(new FindAndRemoveCallback(queryMapper.getMappedObject(query, entity), fields, sort),
-				new ReadDbObjectCallback<T>(readerToUse, entityClass, collectionName), collectionName);
+			return executeFindOneInternal(callback, new ReadDbObjectCallback<T>(readerToUse, entityClass, collectionName),
+					collectionName);
+		} finally {
+			invalidateQueryResults(collectionName);
+			evictCachedDocuments(collectionName, mappedQuery);
+		}
 	}
 
 	protected <T> T doFindAndModify(String collectionName, DBObject query, DBObject fields, DBObject sort,
@@ -1850,8 +3120,18 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 					collectionName);
 		}
 
-		return executeFindOneInternal(new FindAndModifyCallback(mappedQuery, fields, sort, mappedUpdate, options),
-				new ReadDbObjectCallback<T>(readerToUse, entityClass, collectionName), collectionName);
+		try {
+			CollectionCallback<DBObject> callback = hasMaterializedViews(collectionName)
+					? new MaterializedViewsFindAndModifyCallback(mappedQuery, fields, sort, mappedUpdate, options.isRemove(),
+							options.isReturnNew(), options.isUpsert())
+					: new FindAndModifyCallback(mappedQuery, fields, sort, mappedUpdate, options);
+
+			return executeFindOneInternal(callback, new ReadDbObjectCallback<T>(readerToUse, entityClass, collectionName),
+					collectionName);
+		} finally {
+			invalidateQueryResults(collectionName);
+			evictCachedDocuments(collectionName, mappedQuery);
+		}
 	}
 
 	/**
@@ -1950,6 +3230,9 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 			DBCursor cursor = null;
 
+			// lazy references of all documents read are resolved in batches
+			DefaultDbRefResolver.openLazyLoadingScope();
+
 			try {
 
 				cursor = collectionCallback.doInCollection(getAndPrepareCollection(getDb(), collectionName));
@@ -1958,10 +3241,37 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 					cursor = preparer.prepare(cursor);
 				}
 
+				Query query = preparer instanceof QueryCursorPreparer ? ((QueryCursorPreparer) preparer).query : null;
+				CursorBatchSizer batchSizer = trackBatchSize(cursor, query, collectionName);
+
+				if (batchAfterLoadEvents && objectCallback instanceof BatchDbObjectCallback) {
+
+					List<DBObject> documents = new ArrayList<DBObject>();
+
+					while (cursor.hasNext()) {
+
+						DBObject object = cursor.next();
+
+						if (batchSizer != null) {
+							batchSizer.documentRead(object);
+						}
+
+						documents.add(object);
+					}
+
+					return ((BatchDbObjectCallback<T>) objectCallback).doWithAll(documents);
+				}
+
 				List<T> result = new ArrayList<T>();
 
 				while (cursor.hasNext()) {
+
 					DBObject object = cursor.next();
+
+					if (batchSizer != null) {
+						batchSizer.documentRead(object);
+					}
+
 					result.add(objectCallback.doWith(object));
 				}
 
@@ -1969,6 +3279,8 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 			} finally {
 
+				DefaultDbRefResolver.closeLazyLoadingScope();
+
 				if (cursor != null) {
 					cursor.close();
 				}
@@ -1978,6 +3290,24 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 	}
 
+	/**
+	 * Starts tuning the batch size of the given cursor in case {@link AdaptiveBatchSizing} is configured and the given
+	 * {@link Query} does not define a batch size itself.
+	 *
+	 * @param cursor must not be {@literal null}.
+	 * @param query can be {@literal null}.
+	 * @param collectionName must not be {@literal null}.
+	 * @return the {@link CursorBatchSizer} or {@literal null} if the cursor is not tuned.
+	 */
+	private CursorBatchSizer trackBatchSize(DBCursor cursor, Query query, String collectionName) {
+
+		if (adaptiveBatchSizing == null || (query != null && query.getMeta().getCursorBatchSize() != null)) {
+			return null;
+		}
+
+		return adaptiveBatchSizing.track(cursor, collectionName);
+	}
+
 	private void executeQueryInternal(CollectionCallback<DBCursor> collectionCallback, CursorPreparer preparer,
 			DocumentCallbackHandler callbackHandler, String collectionName) {
 
@@ -2224,6 +3554,58 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 	}
 
+	/**
+	 * {@link Callable} reading all documents with the given (already mapped) ids using a single {@literal $in} query.
+	 *
+	 * @since 1.10
+	 */
+	private class FindByIdsCallable implements Callable<List<DBObject>> {
+
+		private final List<Object> ids;
+		private final String collectionName;
+
+		FindByIdsCallable(List<Object> ids, String collectionName) {
+
+			this.ids = ids;
+			this.collectionName = collectionName;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		@Override
+		public List<DBObject> call() {
+
+			final DBObject query = new BasicDBObject(ID_FIELD, new BasicDBObject("$in", ids));
+
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Finding {} documents by id in collection: {}", ids.size(), collectionName);
+			}
+
+			return execute(collectionName, new CollectionCallback<List<DBObject>>() {
+
+				@Override
+				public List<DBObject> doInCollection(DBCollection collection) throws MongoException, DataAccessException {
+
+					DBCursor cursor = collection.find(query);
+
+					try {
+						List<DBObject> documents = new ArrayList<DBObject>(ids.size());
+
+						while (cursor.hasNext()) {
+							documents.add(cursor.next());
+						}
+
+						return documents;
+					} finally {
+						cursor.close();
+					}
+				}
+			});
+		}
+	}
+
 	/**
 	 * Simple {@link CollectionCallback} that takes a query {@link DBObject} plus an optional fields specification
 	 * {@link DBObject} and executes that against the {@link DBCollection}.
@@ -2271,28 +3653,203 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 	}
 
 	/**
-	 * Simple internal callback to allow operations on a {@link DBObject}.
+	 * {@link CollectionCallback} issuing a {@literal findAndModify} command on a collection {@link MaterializedGroupView}s
+	 * are defined on. The document to be modified is read upfront using the same sort and the command is pinned to it,
+	 * so that the state recorded as previous one is the one of the document the server modifies. An upsert not matching
+	 * any document is executed as requested and the document inserted is read back by its {@literal _id} if returned,
+	 * by the original query otherwise.
 	 *
-	 * @author Oliver Gierke
-	 * @author Thomas Darimont
+	 * @since 1.10
 	 */
+	private class MaterializedViewsFindAndModifyCallback implements CollectionCallback<DBObject> {
 
-	interface DbObjectCallback<T> {
-
-		T doWith(DBObject object);
-	}
+		private final DBObject query;
+		private final DBObject fields;
+		private final DBObject sort;
+		private final DBObject update;
+		private final boolean remove;
+		private final boolean returnNew;
+		private final boolean upsert;
 
-	/**
-	 * Simple {@link DbObjectCallback} that will transform {@link DBObject} into the given target type using the given
-	 * {@link MongoReader}.
-	 *
-	 * @author Oliver Gierke
-	 * @author Christoph Strobl
-	 */
-	private class ReadDbObjectCallback<T> implements DbObjectCallback<T> {
+		MaterializedViewsFindAndModifyCallback(DBObject query, DBObject fields, DBObject sort, DBObject update,
+				boolean remove, boolean returnNew, boolean upsert) {
 
-		private final EntityReader<? super T, DBObject> reader;
-		private final Class<T> type;
+			this.query = query;
+			this.fields = fields;
+			this.sort = sort;
+			this.update = update;
+			this.remove = remove;
+			this.returnNew = returnNew;
+			this.upsert = upsert;
+		}
+
+		public DBObject doInCollection(DBCollection collection) throws MongoException, DataAccessException {
+
+			MaterializedViewMaintainer.Changes changes = readForMaterializedViews(collection, null, false, false);
+			DBObject previous = readFirstForMaterializedViews(collection, query, sort);
+
+			if (previous != null) {
+
+				Object id = previous.get(ID_FIELD);
+				DBObject result = collection.findAndModify(pinToDocument(query, id), fields, null, remove, update, returnNew,
+						false);
+
+				// null if the document read was modified concurrently, fall back to the original query then
+				if (result != null) {
+
+					changes.addPrevious(previous);
+
+					if (!remove) {
+						changes.addCurrentById(id);
+					}
+
+					updateMaterializedViews(collection, changes, Collections.<DBObject> emptyList());
+					return result;
+				}
+			}
+
+			DBObject result = collection.findAndModify(query, fields, sort, remove, update, returnNew, upsert);
+
+			if (previous == null && upsert && !remove) {
+
+				Object id = returnNew && result != null ? result.get(ID_FIELD) : null;
+
+				if (id != null) {
+					changes.addCurrentById(id);
+				} else {
+
+					DBObject inserted = readFirstForMaterializedViews(collection, query, sort);
+
+					if (inserted != null) {
+						changes.addCurrent(inserted);
+					}
+				}
+
+				updateMaterializedViews(collection, changes, Collections.<DBObject> emptyList());
+			}
+
+			return result;
+		}
+	}
+
+	/**
+	 * Simple internal callback to allow operations on a {@link DBObject}.
+	 *
+	 * @author Oliver Gierke
+	 * @author Thomas Darimont
+	 */
+
+	interface DbObjectCallback<T> {
+
+		T doWith(DBObject object);
+	}
+
+	/**
+	 * {@link DbObjectCallback} that can handle all documents read by a query at once.
+	 *
+	 * @since 1.10
+	 */
+	interface BatchDbObjectCallback<T> extends DbObjectCallback<T> {
+
+		/**
+		 * Handles all given documents.
+		 *
+		 * @param objects must not be {@literal null}.
+		 * @return the results in the order of the given documents.
+		 */
+		List<T> doWithAll(List<DBObject> objects);
+	}
+
+	/**
+	 * {@link BatchDbObjectCallback} recording the documents read as snapshots for dirty tracking before handing them to a
+	 * delegate.
+	 *
+	 * @since 1.10
+	 */
+	private class SnapshottingDbObjectCallback<T> implements BatchDbObjectCallback<T> {
+
+		private final DbObjectCallback<T> delegate;
+		private final String collectionName;
+
+		SnapshottingDbObjectCallback(DbObjectCallback<T> delegate, String collectionName) {
+
+			this.delegate = delegate;
+			this.collectionName = collectionName;
+		}
+
+		public T doWith(DBObject object) {
+
+			recordSnapshot(collectionName, object);
+			return delegate.doWith(object);
+		}
+
+		public List<T> doWithAll(List<DBObject> objects) {
+
+			for (DBObject object : objects) {
+				recordSnapshot(collectionName, object);
+			}
+
+			return MongoTemplate.doWithAll(delegate, objects);
+		}
+	}
+
+	/**
+	 * Hands the given documents to the given {@link DbObjectCallback}, all at once in case it's a
+	 * {@link BatchDbObjectCallback}.
+	 *
+	 * @param callback must not be {@literal null}.
+	 * @param objects must not be {@literal null}.
+	 * @return
+	 */
+	static <T> List<T> doWithAll(DbObjectCallback<T> callback, List<DBObject> objects) {
+
+		if (callback instanceof BatchDbObjectCallback) {
+			return ((BatchDbObjectCallback<T>) callback).doWithAll(objects);
+		}
+
+		List<T> result = new ArrayList<T>(objects.size());
+
+		for (DBObject object : objects) {
+			result.add(callback.doWith(object));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Reads the given documents with the given {@link DbObjectCallback}, handing them over all at once in case
+	 * {@link #setBatchAfterLoadEvents(boolean) batched after load events} are enabled.
+	 *
+	 * @param callback must not be {@literal null}.
+	 * @param objects must not be {@literal null}.
+	 * @return
+	 */
+	private <T> List<T> readAll(DbObjectCallback<T> callback, List<DBObject> objects) {
+
+		if (batchAfterLoadEvents) {
+			return doWithAll(callback, objects);
+		}
+
+		List<T> result = new ArrayList<T>(objects.size());
+
+		for (DBObject object : objects) {
+			result.add(callback.doWith(object));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Simple {@link DbObjectCallback} that will transform {@link DBObject} into the given target type using the given
+	 * {@link MongoReader}.
+	 *
+	 * @author Oliver Gierke
+	 * @author Christoph Strobl
+	 */
+	private class ReadDbObjectCallback<T> implements BatchDbObjectCallback<T> {
+
+		private final EntityReader<? super T, DBObject> reader;
+		private final Class<T> type;
 		private final String collectionName;
 
 		public ReadDbObjectCallback(EntityReader<? super T, DBObject> reader, Class<T> type, String collectionName) {
@@ -2305,11 +3862,53 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 
 		public T doWith(DBObject object) {
-			if (null != object) {
+			if (null != object && hasEventListeners(AfterLoadEvent.class, type)) {
 				maybeEmitEvent(new AfterLoadEvent<T>(object, type, collectionName));
 			}
+
+			DefaultDbRefResolver.openLazyLoadingScope();
+
+			try {
+				return read(object);
+			} finally {
+				DefaultDbRefResolver.closeLazyLoadingScope();
+			}
+		}
+
+		/**
+		 * Reads all given {@link DBObject}s publishing a single {@link AfterBatchLoadEvent} for them instead of an
+		 * {@link AfterLoadEvent} per document.
+		 *
+		 * @param objects must not be {@literal null}.
+		 * @return
+		 */
+		public List<T> doWithAll(List<DBObject> objects) {
+
+			if (!objects.isEmpty() && hasEventListeners(AfterBatchLoadEvent.class, type)) {
+				maybeEmitEvent(new AfterBatchLoadEvent<T>(objects, type, collectionName));
+			}
+
+			List<T> result = new ArrayList<T>(objects.size());
+
+			DefaultDbRefResolver.openLazyLoadingScope();
+
+			try {
+
+				for (DBObject object : objects) {
+					result.add(read(object));
+				}
+
+			} finally {
+				DefaultDbRefResolver.closeLazyLoadingScope();
+			}
+
+			return result;
+		}
+
+		private T read(DBObject object) {
+
 			T source = reader.read(type, object);
-			if (null != source) {
+			if (null != source && hasEventListeners(AfterConvertEvent.class, source.getClass())) {
 				maybeEmitEvent(new AfterConvertEvent<T>(object, source, collectionName));
 			}
 			return source;
@@ -2325,11 +3924,27 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 
 		@Override
 		public T doWith(DBObject object) {
+			return super.doWith(unwrap(object));
+		}
+
+		@Override
+		public List<T> doWithAll(List<DBObject> objects) {
+
+			List<DBObject> unwrapped = new ArrayList<DBObject>(objects.size());
+
+			for (DBObject object : objects) {
+				unwrapped.add(unwrap(object));
+			}
+
+			return super.doWithAll(unwrapped);
+		}
+
+		private DBObject unwrap(DBObject object) {
 
 			Object idField = object.get(Fields.UNDERSCORE_ID);
 
 			if (!(idField instanceof DBObject)) {
-				return super.doWith(object);
+				return object;
 			}
 
 			DBObject toMap = new BasicDBObject();
@@ -2342,7 +3957,7 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 				}
 			}
 
-			return super.doWith(toMap);
+			return toMap;
 		}
 	}
 
@@ -2357,6 +3972,41 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			this.type = type;
 		}
 
+		/**
+		 * Returns the mapped sort applied to the cursor.
+		 *
+		 * @return the sort or {@literal null} if the query does not define one.
+		 */
+		DBObject getSortObject() {
+
+			if (query == null || query.getSortObject() == null) {
+				return null;
+			}
+
+			return type != null ? getMappedSortObject(query, type) : query.getSortObject();
+		}
+
+		/**
+		 * @return the index hint applied to the cursor, {@literal null} if none.
+		 */
+		String getHint() {
+			return query == null ? null : query.getHint();
+		}
+
+		/**
+		 * @return the number of documents skipped by the cursor.
+		 */
+		int getSkip() {
+			return query == null ? 0 : query.getSkip();
+		}
+
+		/**
+		 * @return the maximum number of documents returned by the cursor, {@literal 0} if unlimited.
+		 */
+		int getLimit() {
+			return query == null ? 0 : query.getLimit();
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * @see org.springframework.data.mongodb.core.CursorPreparer#prepare(com.mongodb.DBCursor)
@@ -2393,6 +4043,10 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 					cursorToUse = cursorToUse.hint(query.getHint());
 				}
 
+				if (query.getMeta().getCursorBatchSize() != null) {
+					cursorToUse = cursorToUse.batchSize(query.getMeta().getCursorBatchSize());
+				}
+
 				if (query.getMeta().hasValues()) {
 
 					for (Entry<String, Object> entry : query.getMeta().values()) {
@@ -2462,6 +4116,155 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		}
 	}
 
+	/**
+	 * {@link DbObjectCallback} returning the {@literal _id} of the documents read.
+	 *
+	 * @since 1.10
+	 */
+	enum IdDbObjectCallback implements DbObjectCallback<Object> {
+
+		INSTANCE;
+
+		public Object doWith(DBObject object) {
+			return object.get(ID_FIELD);
+		}
+	}
+
+	/**
+	 * {@link DbObjectCallback} returning the documents read as they are.
+	 *
+	 * @since 1.10
+	 */
+	enum IdentityDbObjectCallback implements DbObjectCallback<DBObject> {
+
+		INSTANCE;
+
+		public DBObject doWith(DBObject object) {
+			return object;
+		}
+	}
+
+	/**
+	 * The events published while saving an entity, creating the event for an entity and its document.
+	 *
+	 * @since 1.10
+	 */
+	@SuppressWarnings("rawtypes")
+	private enum SaveEventType {
+
+		BEFORE_CONVERT(BeforeConvertEvent.class) {
+
+			@Override
+			<T> MongoMappingEvent<T> createEvent(T source, DBObject dbObject, String collectionName) {
+				return new BeforeConvertEvent<T>(source, collectionName);
+			}
+		},
+
+		BEFORE_SAVE(BeforeSaveEvent.class) {
+
+			@Override
+			<T> MongoMappingEvent<T> createEvent(T source, DBObject dbObject, String collectionName) {
+				return new BeforeSaveEvent<T>(source, dbObject, collectionName);
+			}
+		},
+
+		AFTER_SAVE(AfterSaveEvent.class) {
+
+			@Override
+			<T> MongoMappingEvent<T> createEvent(T source, DBObject dbObject, String collectionName) {
+				return new AfterSaveEvent<T>(source, dbObject, collectionName);
+			}
+		};
+
+		private final Class<? extends MongoMappingEvent> eventType;
+
+		private SaveEventType(Class<? extends MongoMappingEvent> eventType) {
+			this.eventType = eventType;
+		}
+
+		abstract <T> MongoMappingEvent<T> createEvent(T source, DBObject dbObject, String collectionName);
+	}
+
+	/**
+	 * {@link BatchDbObjectCallback} measuring the time its delegate spends converting the documents read so that it can
+	 * be excluded from the duration recorded for a query. Not thread-safe.
+	 *
+	 * @since 1.10
+	 */
+	private static class ConversionTimingDbObjectCallback<T> implements BatchDbObjectCallback<T> {
+
+		private final DbObjectCallback<T> delegate;
+		private long conversionTime;
+
+		ConversionTimingDbObjectCallback(DbObjectCallback<T> delegate) {
+			this.delegate = delegate;
+		}
+
+		public T doWith(DBObject object) {
+
+			long start = System.nanoTime();
+
+			try {
+				return delegate.doWith(object);
+			} finally {
+				conversionTime += System.nanoTime() - start;
+			}
+		}
+
+		public List<T> doWithAll(List<DBObject> objects) {
+
+			long start = System.nanoTime();
+
+			try {
+				return MongoTemplate.doWithAll(delegate, objects);
+			} finally {
+				conversionTime += System.nanoTime() - start;
+			}
+		}
+
+		/**
+		 * Returns the nanoseconds spent converting documents so far.
+		 *
+		 * @return
+		 */
+		long getConversionTime() {
+			return conversionTime;
+		}
+	}
+
+	/**
+	 * {@link BatchDbObjectCallback} reporting the documents read to a {@link CursorBatchSizer} before handing them to a
+	 * delegate.
+	 *
+	 * @since 1.10
+	 */
+	static class BatchSizingDbObjectCallback<T> implements BatchDbObjectCallback<T> {
+
+		private final DbObjectCallback<T> delegate;
+		private final CursorBatchSizer batchSizer;
+
+		public BatchSizingDbObjectCallback(DbObjectCallback<T> delegate, CursorBatchSizer batchSizer) {
+
+			this.delegate = delegate;
+			this.batchSizer = batchSizer;
+		}
+
+		public T doWith(DBObject object) {
+
+			batchSizer.documentRead(object);
+			return delegate.doWith(object);
+		}
+
+		public List<T> doWithAll(List<DBObject> objects) {
+
+			for (DBObject object : objects) {
+				batchSizer.documentRead(object);
+			}
+
+			return MongoTemplate.doWithAll(delegate, objects);
+		}
+	}
+
 	/**
 	 * A {@link CloseableIterator} that is backed by a MongoDB {@link Cursor}.
 	 *
@@ -2473,6 +4276,8 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		private volatile Cursor cursor;
 		private PersistenceExceptionTranslator exceptionTranslator;
 		private DbObjectCallback<T> objectReadCallback;
+		private ClientMetrics metrics;
+		private Registration leakRegistration;
 
 		/**
 		 * Creates a new {@link CloseableIterableCursorAdapter} backed by the given {@link Cursor}.
@@ -2483,10 +4288,50 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 		 */
 		public CloseableIterableCursorAdapter(Cursor cursor, PersistenceExceptionTranslator exceptionTranslator,
 				DbObjectCallback<T> objectReadCallback) {
+			this(cursor, exceptionTranslator, objectReadCallback, null);
+		}
+
+		/**
+		 * Creates a new {@link CloseableIterableCursorAdapter} backed by the given {@link Cursor} reporting its opening and
+		 * closing to the given {@link ClientMetrics}.
+		 *
+		 * @param cursor
+		 * @param exceptionTranslator
+		 * @param objectReadCallback
+		 * @param metrics can be {@literal null}.
+		 * @since 1.10
+		 */
+		public CloseableIterableCursorAdapter(Cursor cursor, PersistenceExceptionTranslator exceptionTranslator,
+				DbObjectCallback<T> objectReadCallback, ClientMetrics metrics) {
+			this(cursor, exceptionTranslator, objectReadCallback, metrics, null);
+		}
+
+		/**
+		 * Creates a new {@link CloseableIterableCursorAdapter} backed by the given {@link Cursor} reporting its opening and
+		 * closing to the given {@link ClientMetrics} and registering it with the given {@link CursorLeakDetector}.
+		 *
+		 * @param cursor
+		 * @param exceptionTranslator
+		 * @param objectReadCallback
+		 * @param metrics can be {@literal null}.
+		 * @param leakDetector can be {@literal null}.
+		 * @since 1.10
+		 */
+		public CloseableIterableCursorAdapter(Cursor cursor, PersistenceExceptionTranslator exceptionTranslator,
+				DbObjectCallback<T> objectReadCallback, ClientMetrics metrics, CursorLeakDetector leakDetector) {
 
 			this.cursor = cursor;
 			this.exceptionTranslator = exceptionTranslator;
 			this.objectReadCallback = objectReadCallback;
+			this.metrics = metrics;
+
+			if (metrics != null) {
+				metrics.cursorOpened();
+			}
+
+			if (leakDetector != null && cursor != null) {
+				this.leakRegistration = leakDetector.track(this, cursor, metrics);
+			}
 		}
 
 		@Override
@@ -2528,10 +4373,66 @@ public class MongoTemplate implements MongoOperations, ApplicationContextAware {
 			} catch (RuntimeException ex) {
 				throw potentiallyConvertRuntimeException(ex, exceptionTranslator);
 			} finally {
+
+				if (metrics != null && c != null) {
+					metrics.cursorClosed();
+				}
+
+				if (leakRegistration != null) {
+					leakRegistration.release();
+				}
+
 				cursor = null;
 				exceptionTranslator = null;
 				objectReadCallback = null;
+				metrics = null;
+				leakRegistration = null;
 			}
 		}
 	}
+
+	/**
+	 * A {@link CloseableIterator} converting the documents of an inline map-reduce result on access.
+	 *
+	 * @since 1.10
+	 */
+	static class InlineResultsIterator<T> implements CloseableIterator<T> {
+
+		private Iterator<DBObject> results;
+		private DbObjectCallback<T> objectReadCallback;
+
+		/**
+		 * Creates a new {@link InlineResultsIterator} for the given documents.
+		 *
+		 * @param results
+		 * @param objectReadCallback
+		 */
+		public InlineResultsIterator(Iterator<DBObject> results, DbObjectCallback<T> objectReadCallback) {
+
+			this.results = results;
+			this.objectReadCallback = objectReadCallback;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return results != null && results.hasNext();
+		}
+
+		@Override
+		public T next() {
+
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return objectReadCallback.doWith(results.next());
+		}
+
+		@Override
+		public void close() {
+
+			results = null;
+			objectReadCallback = null;
+		}
+	}
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate.DbObjectCallback;
+import org.springframework.data.util.CloseableIterator;
+
+import com.mongodb.DBObject;
+
+/**
+ * {@link CloseableIterator} reading the elements of a source iterator on a separate thread in batches, buffering at
+ * most a given number of batches. The source is only ever accessed by the prefetching thread, which also closes it
+ * once it is exhausted, the iterator got closed or became unreachable without having been closed. Documents can be
+ * converted either on the prefetching or on the consuming thread, callbacks interested in the documents actually
+ * handed to the caller are always invoked on the consuming thread.
+ *
+ * @since 1.10
+ * @see StreamPrefetching
+ */
+class PrefetchingIterator<T> implements CloseableIterator<T> {
+
+	private static final long POLL_INTERVAL_MILLIS = 100;
+
+	private final Prefetcher prefetcher;
+	private final DbObjectCallback<T> callback;
+	private final DbObjectCallback<?> consumedCallback;
+
+	private Iterator<Object> current = Collections.emptyList().iterator();
+	private Iterator<DBObject> currentDocuments;
+	private boolean exhausted;
+
+	/**
+	 * Creates a new {@link PrefetchingIterator}.
+	 *
+	 * @param source must not be {@literal null}.
+	 * @param callback to convert the elements of the source on the consuming thread, {@literal null} if the source
+	 *          returns converted elements already.
+	 * @param batchSize must be greater than zero.
+	 * @param bufferedBatches must be greater than zero.
+	 */
+	PrefetchingIterator(CloseableIterator<?> source, DbObjectCallback<T> callback, int batchSize, int bufferedBatches) {
+		this(source, null, callback, null, batchSize, bufferedBatches);
+	}
+
+	/**
+	 * Creates a new {@link PrefetchingIterator}.
+	 *
+	 * @param source must not be {@literal null}.
+	 * @param prefetchCallback to convert the documents of the source on the prefetching thread, {@literal null} to hand
+	 *          the elements of the source to the consuming thread as they are.
+	 * @param callback to convert the elements on the consuming thread, {@literal null} if they are converted already.
+	 * @param consumedCallback to be invoked on the consuming thread with the document of every element returned from
+	 *          {@link #next()}, can be {@literal null}. Requires the source to return documents.
+	 * @param batchSize must be greater than zero.
+	 * @param bufferedBatches must be greater than zero.
+	 */
+	PrefetchingIterator(CloseableIterator<?> source, DbObjectCallback<?> prefetchCallback, DbObjectCallback<T> callback,
+			DbObjectCallback<?> consumedCallback, int batchSize, int bufferedBatches) {
+
+		this.prefetcher = new Prefetcher(this, source, prefetchCallback, prefetchCallback != null
+				&& consumedCallback != null, batchSize, bufferedBatches);
+		this.callback = callback;
+		this.consumedCallback = consumedCallback;
+	}
+
+	/**
+	 * Starts prefetching on the given {@link Executor}. Closes the source if the {@link Executor} rejects the task.
+	 *
+	 * @param executor must not be {@literal null}.
+	 */
+	void start(Executor executor) {
+
+		try {
+			executor.execute(prefetcher);
+		} catch (RejectedExecutionException o_O) {
+
+			prefetcher.source.close();
+			throw o_O;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Iterator#hasNext()
+	 */
+	@Override
+	public boolean hasNext() {
+
+		while (!current.hasNext() && !exhausted) {
+
+			Batch batch = prefetcher.take();
+
+			if (batch.error != null) {
+				exhausted = true;
+				throw batch.error;
+			}
+
+			current = batch.elements.iterator();
+			currentDocuments = batch.documents == null ? null : batch.documents.iterator();
+			exhausted = batch.last;
+		}
+
+		return current.hasNext();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Iterator#next()
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T next() {
+
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		Object element = current.next();
+
+		if (consumedCallback != null) {
+			consumedCallback.doWith(currentDocuments == null ? (DBObject) element : currentDocuments.next());
+		}
+
+		return callback == null ? (T) element : callback.doWith((DBObject) element);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Iterator#remove()
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Cannot remove elements from a prefetching iterator!");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.util.CloseableIterator#close()
+	 */
+	@Override
+	public void close() {
+
+		exhausted = true;
+		current = Collections.emptyList().iterator();
+		prefetcher.cancel();
+	}
+
+	/**
+	 * A batch of prefetched elements, optionally alongside the documents they were converted from, or the error that
+	 * terminated prefetching.
+	 */
+	private static class Batch {
+
+		private final List<Object> elements;
+		private final List<DBObject> documents;
+		private final boolean last;
+		private final RuntimeException error;
+
+		Batch(List<Object> elements, List<DBObject> documents, boolean last, RuntimeException error) {
+
+			this.elements = elements;
+			this.documents = documents;
+			this.last = last;
+			this.error = error;
+		}
+	}
+
+	/**
+	 * Reads the source on the prefetching thread. Only holds a weak reference to the iterator handed out so that the
+	 * source gets closed if the caller drops the iterator without closing it.
+	 */
+	private static class Prefetcher implements Runnable {
+
+		private final WeakReference<PrefetchingIterator<?>> owner;
+		private final CloseableIterator<?> source;
+		private final DbObjectCallback<?> callback;
+		private final boolean keepDocuments;
+		private final int batchSize;
+		private final BlockingQueue<Batch> queue;
+
+		private volatile boolean cancelled;
+
+		Prefetcher(PrefetchingIterator<?> owner, CloseableIterator<?> source, DbObjectCallback<?> callback,
+				boolean keepDocuments, int batchSize, int bufferedBatches) {
+
+			this.owner = new WeakReference<PrefetchingIterator<?>>(owner);
+			this.source = source;
+			this.callback = callback;
+			this.keepDocuments = keepDocuments;
+			this.batchSize = batchSize;
+			this.queue = new ArrayBlockingQueue<Batch>(bufferedBatches);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+
+			try {
+
+				List<Object> elements = new ArrayList<Object>(batchSize);
+				List<DBObject> documents = keepDocuments ? new ArrayList<DBObject>(batchSize) : null;
+
+				while (!cancelled && source.hasNext()) {
+
+					Object element = source.next();
+
+					if (callback != null) {
+
+						if (keepDocuments) {
+							documents.add((DBObject) element);
+						}
+
+						element = callback.doWith((DBObject) element);
+					}
+
+					elements.add(element);
+
+					if (elements.size() == batchSize) {
+
+						if (!offer(new Batch(elements, documents, false, null))) {
+							return;
+						}
+
+						elements = new ArrayList<Object>(batchSize);
+						documents = keepDocuments ? new ArrayList<DBObject>(batchSize) : null;
+					}
+				}
+
+				offer(new Batch(elements, documents, true, null));
+
+			} catch (RuntimeException o_O) {
+				offer(new Batch(Collections.emptyList(), null, true, o_O));
+			} finally {
+				source.close();
+			}
+		}
+
+		/**
+		 * Takes the next batch, blocking until one is available.
+		 *
+		 * @return
+		 */
+		Batch take() {
+
+			try {
+				return queue.take();
+			} catch (InterruptedException o_O) {
+
+				Thread.currentThread().interrupt();
+				throw new DataAccessResourceFailureException("Interrupted while waiting for prefetched documents!", o_O);
+			}
+		}
+
+		/**
+		 * Stops prefetching and discards the batches buffered.
+		 */
+		void cancel() {
+
+			cancelled = true;
+			queue.clear();
+		}
+
+		private boolean offer(Batch batch) {
+
+			try {
+
+				while (!cancelled && owner.get() != null) {
+
+					if (queue.offer(batch, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+
+			} catch (InterruptedException o_O) {
+				Thread.currentThread().interrupt();
+			}
+
+			return false;
+		}
+	}
+}
@@ -52,6 +52,7 @@ public class SimpleMongoDbFactory implements DisposableBean, MongoDbFactory {
 	private final String authenticationDatabaseName;
 
 	private WriteConcern writeConcern;
+	private boolean transactionSynchronization = true;
 
 	/**
 	 * Create an instance of {@link SimpleMongoDbFactory} given the {@link Mongo} instance and database name.
@@ -183,6 +184,18 @@ public class SimpleMongoDbFactory implements DisposableBean, MongoDbFactory {
 		this.writeConcern = writeConcern;
 	}
 
+	/**
+	 * Configures whether {@link DB} instances handed out are looked up from and bound to the current thread via Spring's
+	 * transaction synchronization. Disabling it skips the thread-bound resource lookup on every operation, which avoids
+	 * per-thread state when running a large number of short-lived threads. Defaults to {@literal true}.
+	 * 
+	 * @param transactionSynchronization
+	 * @since 1.10
+	 */
+	public void setTransactionSynchronization(boolean transactionSynchronization) {
+		this.transactionSynchronization = transactionSynchronization;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.data.mongodb.MongoDbFactory#getDb()
@@ -200,7 +213,8 @@ public class SimpleMongoDbFactory implements DisposableBean, MongoDbFactory {
 
 		Assert.hasText(dbName, "Database name must not be empty.");
 
-		DB db = MongoDbUtils.getDB(mongo, dbName, credentials, authenticationDatabaseName);
+		DB db = transactionSynchronization ? MongoDbUtils.getDB(mongo, dbName, credentials, authenticationDatabaseName)
+				: MongoDbUtils.getUnboundDB(mongo, dbName, credentials, authenticationDatabaseName);
 
 		if (writeConcern != null) {
 			db.setWriteConcern(writeConcern);
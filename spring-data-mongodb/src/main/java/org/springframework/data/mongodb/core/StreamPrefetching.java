@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate.DbObjectCallback;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.util.Assert;
+
+import com.mongodb.DBObject;
+
+/**
+ * Configuration of prefetching for the iterators returned by {@link MongoTemplate#stream(Query, Class)}. Documents are
+ * read from the cursor on a separate thread in batches while the caller works through the batches read before, so
+ * that the latency of the {@code getMore}s issued by the cursor overlaps with processing. At most the configured number
+ * of batches is buffered, so a slow consumer eventually blocks the prefetching thread and with it the cursor.
+ * <p>
+ * Documents are converted into entities on the consuming thread by default. Enabling
+ * {@link #setConvertOnPrefetchThread(boolean) conversion on the prefetch thread} moves that work off the consumer, too.
+ *
+ * @since 1.10
+ */
+public class StreamPrefetching {
+
+	private static final int DEFAULT_BATCH_SIZE = 100;
+
+	private final int bufferedBatches;
+
+	private Executor executor = new SimpleAsyncTaskExecutor("mongo-prefetch-");
+	private Integer batchSize;
+	private boolean convertOnPrefetchThread;
+
+	/**
+	 * Creates a new {@link StreamPrefetching} buffering at most the given number of batches per stream.
+	 *
+	 * @param bufferedBatches must be greater than zero.
+	 */
+	public StreamPrefetching(int bufferedBatches) {
+
+		Assert.isTrue(bufferedBatches > 0, "Buffered batches must be greater than zero!");
+		this.bufferedBatches = bufferedBatches;
+	}
+
+	/**
+	 * Configures the {@link Executor} to run the prefetching on. Every stream occupies a thread of the {@link Executor}
+	 * until it is exhausted or closed. Defaults to a {@link SimpleAsyncTaskExecutor}.
+	 *
+	 * @param executor must not be {@literal null}.
+	 */
+	public void setExecutor(Executor executor) {
+
+		Assert.notNull(executor, "Executor must not be null!");
+		this.executor = executor;
+	}
+
+	/**
+	 * Configures the number of documents handed over to the consumer at once. Defaults to the batch size of the query
+	 * if one is defined, {@literal 100} otherwise.
+	 *
+	 * @param batchSize must be greater than zero.
+	 */
+	public void setBatchSize(int batchSize) {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Configures whether to convert documents into entities on the prefetch thread rather than the consuming one.
+	 * Defaults to {@literal false}.
+	 *
+	 * @param convertOnPrefetchThread
+	 */
+	public void setConvertOnPrefetchThread(boolean convertOnPrefetchThread) {
+		this.convertOnPrefetchThread = convertOnPrefetchThread;
+	}
+
+	/**
+	 * @return whether documents are to be converted on the prefetch thread.
+	 */
+	public boolean isConvertOnPrefetchThread() {
+		return convertOnPrefetchThread;
+	}
+
+	/**
+	 * Starts prefetching the given source of documents. Closes the source if the {@link Executor} rejects prefetching
+	 * it.
+	 *
+	 * @param source must not be {@literal null}.
+	 * @param queryBatchSize the batch size defined by the query, {@literal null} if none.
+	 * @param callback the callback to convert the documents with, invoked on the prefetch or consuming thread depending
+	 *          on {@link #isConvertOnPrefetchThread()}, must not be {@literal null}.
+	 * @param consumedCallback the callback to be invoked on the consuming thread with every document handed to the
+	 *          caller, can be {@literal null}.
+	 * @return
+	 */
+	<T> CloseableIterator<T> prefetch(CloseableIterator<DBObject> source, Integer queryBatchSize,
+			DbObjectCallback<T> callback, DbObjectCallback<?> consumedCallback) {
+
+		int batchSizeToUse = batchSize != null ? batchSize : queryBatchSize != null ? queryBatchSize : DEFAULT_BATCH_SIZE;
+
+		PrefetchingIterator<T> iterator = convertOnPrefetchThread
+				? new PrefetchingIterator<T>(source, callback, null, consumedCallback, batchSizeToUse, bufferedBatches)
+				: new PrefetchingIterator<T>(source, null, callback, consumedCallback, batchSizeToUse, bufferedBatches);
+		iterator.start(executor);
+
+		return iterator;
+	}
+}
@@ -546,6 +546,20 @@ public class Aggregation {
 		return Fields.from(field(name, target));
 	}
 
+	/**
+	 * Creates a placeholder for a named parameter to be used as value within an aggregation that is prepared via
+	 * {@link org.springframework.data.mongodb.core.MongoOperations#prepareAggregation(TypedAggregation)} and bound on
+	 * execution.
+	 *
+	 * @param name must not be {@literal null} or empty.
+	 * @return
+	 * @see PreparedAggregation
+	 * @since 1.10
+	 */
+	public static String parameter(String name) {
+		return PreparedAggregation.parameter(name);
+	}
+
 	/**
 	 * Creates a new {@link GeoNearOperation} instance from the given {@link NearQuery} and the{@code distanceField}. The
 	 * {@code distanceField} defines output field that contains the calculated distance.
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.aggregation;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * An {@link Aggregation} that has already been rendered into its command {@link DBObject} for a particular collection.
+ * Values that change between executions are declared as named parameters via {@link Aggregation#parameter(String)}
+ * and bound on each execution, so that field mapping and validation of the pipeline only happen once.
+ * <p>
+ * Parameters are only replaced if they make up an entire value of the rendered command, e.g. the value of a
+ * {@link MatchOperation} criteria. Bound values must already be native MongoDB types.
+ *
+ * @since 1.10
+ */
+public class PreparedAggregation {
+
+	private static final String PARAMETER_PREFIX = "\u0000parameter:";
+
+	private final String collectionName;
+	private final DBObject command;
+	private final Set<String> parameterNames;
+
+	/**
+	 * Creates a new {@link PreparedAggregation} for the given collection and rendered aggregation command.
+	 *
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @param command must not be {@literal null}.
+	 */
+	public PreparedAggregation(String collectionName, DBObject command) {
+
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+		Assert.notNull(command, "Command must not be null!");
+
+		Set<String> parameterNames = new LinkedHashSet<String>();
+		collectParameterNames(command, parameterNames);
+
+		this.collectionName = collectionName;
+		this.command = command;
+		this.parameterNames = Collections.unmodifiableSet(parameterNames);
+	}
+
+	/**
+	 * Returns the placeholder value for the parameter with the given name.
+	 *
+	 * @param name must not be {@literal null} or empty.
+	 * @return
+	 */
+	static String parameter(String name) {
+
+		Assert.hasText(name, "Parameter name must not be null or empty!");
+		return PARAMETER_PREFIX.concat(name);
+	}
+
+	/**
+	 * Returns the name of the collection the aggregation was prepared for.
+	 *
+	 * @return
+	 */
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	/**
+	 * Returns the names of all parameters contained in the aggregation.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Set<String> getParameterNames() {
+		return parameterNames;
+	}
+
+	/**
+	 * Returns a copy of the aggregation command with all parameters replaced by the given values. The prepared command
+	 * itself is not modified.
+	 *
+	 * @param parameters must not be {@literal null} and contain a value for every parameter.
+	 * @return
+	 * @throws IllegalArgumentException in case a parameter is not bound.
+	 */
+	public DBObject toDbObject(Map<String, ?> parameters) {
+
+		Assert.notNull(parameters, "Parameters must not be null!");
+
+		for (String name : parameterNames) {
+			if (!parameters.containsKey(name)) {
+				throw new IllegalArgumentException(String.format("No value given for parameter '%s'!", name));
+			}
+		}
+
+		return (DBObject) bind(command, parameters);
+	}
+
+	private static Object bind(Object source, Map<String, ?> parameters) {
+
+		if (source instanceof String) {
+			String name = getParameterName((String) source);
+			return name == null ? source : parameters.get(name);
+		}
+
+		if (source instanceof BasicDBList) {
+
+			BasicDBList list = (BasicDBList) source;
+			BasicDBList result = new BasicDBList();
+
+			for (Object element : list) {
+				result.add(bind(element, parameters));
+			}
+
+			return result;
+		}
+
+		if (source instanceof DBObject) {
+
+			DBObject dbObject = (DBObject) source;
+			DBObject result = new BasicDBObject();
+
+			for (String key : dbObject.keySet()) {
+				result.put(key, bind(dbObject.get(key), parameters));
+			}
+
+			return result;
+		}
+
+		return source;
+	}
+
+	private static void collectParameterNames(Object source, Set<String> names) {
+
+		if (source instanceof String) {
+
+			String name = getParameterName((String) source);
+
+			if (name != null) {
+				names.add(name);
+			}
+
+			return;
+		}
+
+		if (source instanceof BasicDBList) {
+
+			for (Object element : (BasicDBList) source) {
+				collectParameterNames(element, names);
+			}
+
+			return;
+		}
+
+		if (source instanceof DBObject) {
+
+			DBObject dbObject = (DBObject) source;
+
+			for (String key : dbObject.keySet()) {
+				collectParameterNames(dbObject.get(key), names);
+			}
+		}
+	}
+
+	private static String getParameterName(String value) {
+		return value.startsWith(PARAMETER_PREFIX) ? value.substring(PARAMETER_PREFIX.length()) : null;
+	}
+}
@@ -20,6 +20,8 @@ import static org.springframework.data.mongodb.util.DBObjectUtils.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.data.mongodb.core.spel.ExpressionNode;
@@ -44,6 +46,7 @@ import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.NumberUtils;
 import org.springframework.util.ObjectUtils;
 
@@ -62,7 +65,10 @@ class SpelExpressionTransformer implements AggregationExpressionTransformer {
 	// TODO: remove explicit usage of a configuration once SPR-11031 gets fixed
 	private static final SpelParserConfiguration CONFIG = new SpelParserConfiguration(false, false);
 	private static final SpelExpressionParser PARSER = new SpelExpressionParser(CONFIG);
+	private static final Map<String, SpelNode> AST_CACHE = new ConcurrentReferenceHashMap<String, SpelNode>();
+
 	private final List<ExpressionNodeConversion<? extends ExpressionNode>> conversions;
+	private final Map<Class<?>, ExpressionNodeConversion<? extends ExpressionNode>> conversionCache = new ConcurrentHashMap<Class<?>, ExpressionNodeConversion<? extends ExpressionNode>>();
 
 	/**
 	 * Creates a new {@link SpelExpressionTransformer}.
@@ -100,9 +106,8 @@ class SpelExpressionTransformer implements AggregationExpressionTransformer {
 		Assert.notNull(context, "AggregationOperationContext must not be null!");
 		Assert.notNull(params, "Parameters must not be null!");
 
-		SpelExpression spelExpression = (SpelExpression) PARSER.parseExpression(expression);
 		ExpressionState state = new ExpressionState(new StandardEvaluationContext(params), CONFIG);
-		ExpressionNode node = ExpressionNode.from(spelExpression.getAST(), state);
+		ExpressionNode node = ExpressionNode.from(getAst(expression), state);
 
 		return transform(new AggregationExpressionTransformationContext<ExpressionNode>(node, null, null, context));
 	}
@@ -115,9 +120,29 @@ class SpelExpressionTransformer implements AggregationExpressionTransformer {
 		return lookupConversionFor(context.getCurrentNode()).convert(context);
 	}
 
+	/**
+	 * Returns the AST of the given SpEL expression. Parsed trees are cached by expression string as they only depend on
+	 * the expression itself and not on the parameters used to evaluate it.
+	 * 
+	 * @param expression must not be {@literal null}.
+	 * @return
+	 */
+	private static SpelNode getAst(String expression) {
+
+		SpelNode ast = AST_CACHE.get(expression);
+
+		if (ast == null) {
+			ast = ((SpelExpression) PARSER.parseExpression(expression)).getAST();
+			AST_CACHE.put(expression, ast);
+		}
+
+		return ast;
+	}
+
 	/**
 	 * Returns an appropriate {@link ExpressionNodeConversion} for the given {@code node}. Throws an
-	 * {@link IllegalArgumentException} if no conversion could be found.
+	 * {@link IllegalArgumentException} if no conversion could be found. As all conversions decide based on the type of
+	 * the backing {@link SpelNode}, the result of the lookup is cached per node type.
 	 * 
 	 * @param node
 	 * @return the appropriate {@link ExpressionNodeConversion} for the given {@link ExpressionNode}.
@@ -125,8 +150,16 @@ class SpelExpressionTransformer implements AggregationExpressionTransformer {
 	@SuppressWarnings("unchecked")
 	private ExpressionNodeConversion<ExpressionNode> lookupConversionFor(ExpressionNode node) {
 
+		Class<?> nodeType = node.getNodeType();
+		ExpressionNodeConversion<? extends ExpressionNode> conversion = conversionCache.get(nodeType);
+
+		if (conversion != null) {
+			return (ExpressionNodeConversion<ExpressionNode>) conversion;
+		}
+
 		for (ExpressionNodeConversion<? extends ExpressionNode> candidate : conversions) {
 			if (candidate.supports(node)) {
+				conversionCache.put(nodeType, candidate);
 				return (ExpressionNodeConversion<ExpressionNode>) candidate;
 			}
 		}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Key of a document within an {@link EntityCache}, made up of the collection name and the mapped {@literal _id}.
+ *
+ * @since 1.10
+ */
+class CacheKey {
+
+	private final String collectionName;
+	private final Object id;
+
+	/**
+	 * Creates a new {@link CacheKey} for the given collection and id.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param id can be {@literal null}.
+	 */
+	CacheKey(String collectionName, Object id) {
+
+		this.collectionName = collectionName;
+		this.id = id;
+	}
+
+	/**
+	 * @return the name of the collection.
+	 */
+	String getCollectionName() {
+		return collectionName;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof CacheKey)) {
+			return false;
+		}
+
+		CacheKey that = (CacheKey) obj;
+		return this.collectionName.equals(that.collectionName) && ObjectUtils.nullSafeEquals(this.id, that.id);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * collectionName.hashCode() + ObjectUtils.nullSafeHashCode(id);
+	}
+}
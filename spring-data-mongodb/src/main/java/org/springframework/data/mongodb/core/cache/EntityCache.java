@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import com.mongodb.DBObject;
+
+/**
+ * SPI for a second level cache of raw documents keyed by collection name and the (already mapped) {@literal _id}
+ * value. Implementations must be thread-safe.
+ *
+ * @since 1.10
+ */
+public interface EntityCache {
+
+	/**
+	 * Returns the cached document for the given collection and id.
+	 *
+	 * @param collectionName will never be {@literal null}.
+	 * @param id the mapped {@literal _id} value, will never be {@literal null}.
+	 * @return the cached document or {@literal null} in case of a cache miss.
+	 */
+	DBObject get(String collectionName, Object id);
+
+	/**
+	 * Stores the given document for the given collection and id.
+	 *
+	 * @param collectionName will never be {@literal null}.
+	 * @param id the mapped {@literal _id} value, will never be {@literal null}.
+	 * @param document will never be {@literal null}.
+	 */
+	void put(String collectionName, Object id, DBObject document);
+
+	/**
+	 * Stores the given document for the given collection and id unless a document of the collection was evicted or the
+	 * collection was cleared since the given generation was obtained. Use this to cache documents read from the
+	 * database, so that a write evicting the document while it is being read does not get overridden by the stale state.
+	 *
+	 * @param collectionName will never be {@literal null}.
+	 * @param id the mapped {@literal _id} value, will never be {@literal null}.
+	 * @param document will never be {@literal null}.
+	 * @param generation the {@link #getGeneration(String) generation} of the collection obtained before reading the
+	 *          document.
+	 * @return whether the document was stored.
+	 */
+	boolean put(String collectionName, Object id, DBObject document, long generation);
+
+	/**
+	 * Returns the current generation of the given collection, i.e. a value that changes whenever a document of the
+	 * collection is evicted or the collection is cleared.
+	 *
+	 * @param collectionName will never be {@literal null}.
+	 * @return
+	 */
+	long getGeneration(String collectionName);
+
+	/**
+	 * Removes the document for the given collection and id from the cache.
+	 *
+	 * @param collectionName will never be {@literal null}.
+	 * @param id the mapped {@literal _id} value, will never be {@literal null}.
+	 */
+	void evict(String collectionName, Object id);
+
+	/**
+	 * Removes all documents of the given collection from the cache.
+	 *
+	 * @param collectionName will never be {@literal null}.
+	 */
+	void clear(String collectionName);
+}
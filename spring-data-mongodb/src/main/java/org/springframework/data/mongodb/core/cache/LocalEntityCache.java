@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * {@link EntityCache} keeping up to a configurable number of documents in memory. The least recently used documents
+ * are evicted first. Documents are copied when being stored and when being returned so that modifications of the given
+ * or returned instances, e.g. by the converter or event listeners, don't affect the cached state.
+ *
+ * @since 1.10
+ */
+public class LocalEntityCache implements EntityCache {
+
+	private final int maxEntries;
+	private final Map<CacheKey, DBObject> documents;
+	private final Map<String, Long> generations = new HashMap<String, Long>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Creates a new {@link LocalEntityCache} holding at most the given number of documents.
+	 *
+	 * @param maxEntries must be greater than zero.
+	 */
+	public LocalEntityCache(final int maxEntries) {
+
+		Assert.isTrue(maxEntries > 0, "Max entries must be greater than zero!");
+
+		this.maxEntries = maxEntries;
+		this.documents = new LinkedHashMap<CacheKey, DBObject>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<CacheKey, DBObject> eldest) {
+
+				if (size() > maxEntries) {
+					evictions.incrementAndGet();
+					return true;
+				}
+
+				return false;
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#get(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public DBObject get(String collectionName, Object id) {
+
+		DBObject document;
+
+		synchronized (documents) {
+			document = documents.get(new CacheKey(collectionName, id));
+		}
+
+		if (document == null) {
+
+			misses.incrementAndGet();
+			return null;
+		}
+
+		hits.incrementAndGet();
+		return copy(document);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#put(java.lang.String, java.lang.Object, com.mongodb.DBObject)
+	 */
+	@Override
+	public void put(String collectionName, Object id, DBObject document) {
+
+		DBObject copy = copy(document);
+
+		synchronized (documents) {
+			documents.put(new CacheKey(collectionName, id), copy);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#put(java.lang.String, java.lang.Object, com.mongodb.DBObject, long)
+	 */
+	@Override
+	public boolean put(String collectionName, Object id, DBObject document, long generation) {
+
+		DBObject copy = copy(document);
+
+		synchronized (documents) {
+
+			if (getGeneration(collectionName) != generation) {
+				return false;
+			}
+
+			documents.put(new CacheKey(collectionName, id), copy);
+			return true;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#getGeneration(java.lang.String)
+	 */
+	@Override
+	public long getGeneration(String collectionName) {
+
+		synchronized (documents) {
+
+			Long generation = generations.get(collectionName);
+			return generation == null ? 0 : generation;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#evict(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void evict(String collectionName, Object id) {
+
+		synchronized (documents) {
+
+			generations.put(collectionName, getGeneration(collectionName) + 1);
+			documents.remove(new CacheKey(collectionName, id));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#clear(java.lang.String)
+	 */
+	@Override
+	public void clear(String collectionName) {
+
+		synchronized (documents) {
+
+			generations.put(collectionName, getGeneration(collectionName) + 1);
+
+			for (Iterator<CacheKey> iterator = documents.keySet().iterator(); iterator.hasNext();) {
+				if (iterator.next().getCollectionName().equals(collectionName)) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the maximum number of documents.
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @return the current number of documents.
+	 */
+	public int getSize() {
+
+		synchronized (documents) {
+			return documents.size();
+		}
+	}
+
+	/**
+	 * @return the number of lookups that returned a cached document.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of lookups that did not find a cached document.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the number of documents removed because the cache was full.
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	private static DBObject copy(DBObject document) {
+
+		if (document instanceof BasicDBObject) {
+			return (DBObject) ((BasicDBObject) document).copy();
+		}
+
+		BasicDBObject copy = new BasicDBObject();
+		copy.putAll(document);
+
+		return (DBObject) copy.copy();
+	}
+}
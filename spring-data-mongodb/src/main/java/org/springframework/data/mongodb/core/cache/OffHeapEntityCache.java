@@ -0,0 +1,461 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+
+/**
+ * {@link EntityCache} keeping the BSON representation of documents in direct {@link ByteBuffer}s outside of the Java
+ * heap. The capacity is spread across segments, each backed by its own buffer and guarded by its own lock, and every
+ * document is stored in the segment its key hashes to. As a single buffer cannot exceed {@link Integer#MAX_VALUE}
+ * bytes, capacities beyond that always use multiple segments. Each buffer is split into blocks of a fixed size and a
+ * document occupies as many blocks as needed to hold its encoded bytes. Once a segment is full, its least recently
+ * used documents are evicted. Documents are decoded on every lookup so that the heap only holds the keys and block
+ * indexes of the cached documents.
+ *
+ * @since 1.10
+ */
+public class OffHeapEntityCache implements EntityCache {
+
+	private static final int DEFAULT_BLOCK_SIZE = 256;
+
+	private final Segment[] segments;
+	private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<String, AtomicLong>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Creates a new {@link OffHeapEntityCache} allocating the given number of bytes using blocks of {@value
+	 * #DEFAULT_BLOCK_SIZE} bytes.
+	 *
+	 * @param capacity the number of bytes to allocate, must be at least the block size.
+	 */
+	public OffHeapEntityCache(long capacity) {
+		this(capacity, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Creates a new {@link OffHeapEntityCache} allocating the given number of bytes using blocks of the given size. Uses
+	 * as few segments as the capacity allows.
+	 *
+	 * @param capacity the number of bytes to allocate, must be at least the block size.
+	 * @param blockSize the size of a single block in bytes, must be greater than zero.
+	 */
+	public OffHeapEntityCache(long capacity, int blockSize) {
+		this(capacity, blockSize, 1);
+	}
+
+	/**
+	 * Creates a new {@link OffHeapEntityCache} allocating the given number of bytes using blocks of the given size spread
+	 * across at least the given number of segments. More segments reduce lock contention but limit the size of the
+	 * largest document that can be cached to the capacity of a single segment.
+	 *
+	 * @param capacity the number of bytes to allocate, must provide at least one block per segment.
+	 * @param blockSize the size of a single block in bytes, must be greater than zero.
+	 * @param concurrency the minimum number of segments, must be greater than zero.
+	 */
+	public OffHeapEntityCache(long capacity, int blockSize, int concurrency) {
+
+		Assert.isTrue(blockSize > 0, "Block size must be greater than zero!");
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than zero!");
+		Assert.isTrue(capacity >= blockSize, "Capacity must not be less than the block size!");
+
+		long blockCount = capacity / blockSize;
+		long maxBlocksPerSegment = Integer.MAX_VALUE / blockSize;
+		long segmentCount = Math.max(concurrency, (blockCount + maxBlocksPerSegment - 1) / maxBlocksPerSegment);
+
+		Assert.isTrue(blockCount >= segmentCount, "Capacity must provide at least one block per segment!");
+
+		this.segments = new Segment[(int) segmentCount];
+
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = new Segment((int) (blockCount / segmentCount + (i < blockCount % segmentCount ? 1 : 0)),
+					blockSize);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#get(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public DBObject get(String collectionName, Object id) {
+
+		CacheKey key = new CacheKey(collectionName, id);
+		Segment segment = getSegment(key);
+		byte[] bytes;
+
+		synchronized (segment) {
+			bytes = segment.read(key);
+		}
+
+		if (bytes == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+
+		hits.incrementAndGet();
+		return new DefaultDBDecoder().decode(bytes, (DBCollection) null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#put(java.lang.String, java.lang.Object, com.mongodb.DBObject)
+	 */
+	@Override
+	public void put(String collectionName, Object id, DBObject document) {
+
+		byte[] bytes = new DefaultDBEncoder().encode(document);
+		CacheKey key = new CacheKey(collectionName, id);
+		Segment segment = getSegment(key);
+
+		synchronized (segment) {
+			segment.store(key, bytes);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#put(java.lang.String, java.lang.Object, com.mongodb.DBObject, long)
+	 */
+	@Override
+	public boolean put(String collectionName, Object id, DBObject document, long generation) {
+
+		byte[] bytes = new DefaultDBEncoder().encode(document);
+		CacheKey key = new CacheKey(collectionName, id);
+		Segment segment = getSegment(key);
+
+		// generation is advanced before documents are removed, so checking it under the segment lock is sufficient
+		synchronized (segment) {
+
+			if (getGeneration(collectionName) != generation) {
+				return false;
+			}
+
+			return segment.store(key, bytes);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#getGeneration(java.lang.String)
+	 */
+	@Override
+	public long getGeneration(String collectionName) {
+
+		AtomicLong generation = generations.get(collectionName);
+		return generation == null ? 0 : generation.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#evict(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void evict(String collectionName, Object id) {
+
+		CacheKey key = new CacheKey(collectionName, id);
+		Segment segment = getSegment(key);
+
+		synchronized (segment) {
+
+			advanceGeneration(collectionName);
+			segment.remove(key);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.cache.EntityCache#clear(java.lang.String)
+	 */
+	@Override
+	public void clear(String collectionName) {
+
+		advanceGeneration(collectionName);
+
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear(collectionName);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of bytes allocated outside of the heap.
+	 */
+	public long getCapacity() {
+
+		long capacity = 0;
+
+		for (Segment segment : segments) {
+			capacity += segment.storage.capacity();
+		}
+
+		return capacity;
+	}
+
+	/**
+	 * @return the number of segments the capacity is spread across.
+	 */
+	public int getSegmentCount() {
+		return segments.length;
+	}
+
+	/**
+	 * @return the number of bytes occupied by blocks in use.
+	 */
+	public long getUsedBytes() {
+
+		long usedBytes = 0;
+
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				usedBytes += (long) (segment.freeBlocks.length - segment.freeBlockCount) * segment.blockSize;
+			}
+		}
+
+		return usedBytes;
+	}
+
+	/**
+	 * @return the number of bytes of the encoded documents currently stored.
+	 */
+	public long getStoredBytes() {
+
+		long storedBytes = 0;
+
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				storedBytes += segment.storedBytes;
+			}
+		}
+
+		return storedBytes;
+	}
+
+	/**
+	 * @return the current number of documents.
+	 */
+	public int getSize() {
+
+		int size = 0;
+
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.documents.size();
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * @return the number of lookups that returned a cached document.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of lookups that did not find a cached document.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the number of documents removed to make room for other ones.
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	private Segment getSegment(CacheKey key) {
+
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+
+		return segments[(hash & Integer.MAX_VALUE) % segments.length];
+	}
+
+	private void advanceGeneration(String collectionName) {
+
+		AtomicLong generation = generations.get(collectionName);
+
+		if (generation == null) {
+
+			AtomicLong created = new AtomicLong();
+			generation = generations.putIfAbsent(collectionName, created);
+			generation = generation == null ? created : generation;
+		}
+
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * A single direct buffer split into blocks alongside the documents stored in it in least recently used order. Not
+	 * thread-safe, callers have to synchronize on the segment.
+	 */
+	private class Segment {
+
+		private final int blockSize;
+		private final ByteBuffer storage;
+		private final int[] freeBlocks;
+		private final Map<CacheKey, StoredDocument> documents = new LinkedHashMap<CacheKey, StoredDocument>(16, 0.75f,
+				true);
+
+		private int freeBlockCount;
+		private long storedBytes;
+
+		Segment(int blockCount, int blockSize) {
+
+			this.blockSize = blockSize;
+			this.storage = ByteBuffer.allocateDirect(blockCount * blockSize);
+			this.freeBlocks = new int[blockCount];
+			this.freeBlockCount = blockCount;
+
+			for (int i = 0; i < blockCount; i++) {
+				freeBlocks[i] = blockCount - 1 - i;
+			}
+		}
+
+		byte[] read(CacheKey key) {
+
+			StoredDocument document = documents.get(key);
+
+			if (document == null) {
+				return null;
+			}
+
+			byte[] bytes = new byte[document.length];
+
+			for (int i = 0; i < document.blocks.length; i++) {
+
+				int offset = i * blockSize;
+
+				storage.position(document.blocks[i] * blockSize);
+				storage.get(bytes, offset, Math.min(blockSize, bytes.length - offset));
+			}
+
+			return bytes;
+		}
+
+		boolean store(CacheKey key, byte[] bytes) {
+
+			int requiredBlocks = (bytes.length + blockSize - 1) / blockSize;
+
+			remove(key);
+
+			// Document would not fit even into an empty segment
+			if (requiredBlocks > freeBlocks.length) {
+				return false;
+			}
+
+			for (Iterator<StoredDocument> iterator = documents.values().iterator(); freeBlockCount < requiredBlocks;) {
+
+				release(iterator.next());
+				iterator.remove();
+				evictions.incrementAndGet();
+			}
+
+			documents.put(key, write(bytes, requiredBlocks));
+
+			return true;
+		}
+
+		void remove(CacheKey key) {
+			release(documents.remove(key));
+		}
+
+		void clear(String collectionName) {
+
+			for (Iterator<Entry<CacheKey, StoredDocument>> iterator = documents.entrySet().iterator(); iterator
+					.hasNext();) {
+
+				Entry<CacheKey, StoredDocument> entry = iterator.next();
+
+				if (entry.getKey().getCollectionName().equals(collectionName)) {
+					release(entry.getValue());
+					iterator.remove();
+				}
+			}
+		}
+
+		private StoredDocument write(byte[] bytes, int requiredBlocks) {
+
+			int[] blocks = new int[requiredBlocks];
+
+			for (int i = 0; i < requiredBlocks; i++) {
+
+				int block = freeBlocks[--freeBlockCount];
+				int offset = i * blockSize;
+
+				storage.position(block * blockSize);
+				storage.put(bytes, offset, Math.min(blockSize, bytes.length - offset));
+
+				blocks[i] = block;
+			}
+
+			storedBytes += bytes.length;
+
+			return new StoredDocument(blocks, bytes.length);
+		}
+
+		private void release(StoredDocument document) {
+
+			if (document == null) {
+				return;
+			}
+
+			for (int block : document.blocks) {
+				freeBlocks[freeBlockCount++] = block;
+			}
+
+			storedBytes -= document.length;
+		}
+	}
+
+	/**
+	 * Location of an encoded document within the buffer of a segment.
+	 */
+	private static class StoredDocument {
+
+		private final int[] blocks;
+		private final int length;
+
+		StoredDocument(int[] blocks, int length) {
+
+			this.blocks = blocks;
+			this.length = length;
+		}
+	}
+}
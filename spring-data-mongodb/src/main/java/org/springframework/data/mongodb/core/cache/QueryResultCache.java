@@ -0,0 +1,286 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Size and time bounded cache for the raw documents returned by queries. Entries are evicted in least recently used
+ * order once the maximum number of entries is exceeded and expire after the configured time to live. All entries of a
+ * collection are invalidated via {@link #invalidate(String)} whenever the collection is written to. Documents are copied
+ * when being stored and when being returned so that modifications by the caller, e.g. by event listeners, don't affect
+ * the cached state.
+ * <p>
+ * To prevent results of a query that was running concurrently to a write from being cached after the invalidation,
+ * callers obtain the current {@link #getGeneration(String) generation} of the collection before executing the query
+ * and hand it to {@link #put(QueryResultCacheKey, List, long)}.
+ *
+ * @since 1.10
+ */
+public class QueryResultCache {
+
+	private final int maxEntries;
+	private final long timeToLiveMillis;
+
+	private final Map<QueryResultCacheKey, CachedResult> entries;
+	private final Map<String, Long> generations = new HashMap<String, Long>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	/**
+	 * Creates a new {@link QueryResultCache} holding at most the given number of entries without expiring them.
+	 *
+	 * @param maxEntries must be greater than zero.
+	 */
+	public QueryResultCache(int maxEntries) {
+		this(maxEntries, 0, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Creates a new {@link QueryResultCache} holding at most the given number of entries for the given time.
+	 *
+	 * @param maxEntries must be greater than zero.
+	 * @param timeToLive the time after which entries expire, {@literal 0} to keep them until evicted.
+	 * @param unit must not be {@literal null}.
+	 */
+	public QueryResultCache(final int maxEntries, long timeToLive, TimeUnit unit) {
+
+		Assert.isTrue(maxEntries > 0, "Max entries must be greater than zero!");
+		Assert.isTrue(timeToLive >= 0, "Time to live must not be negative!");
+		Assert.notNull(unit, "TimeUnit must not be null!");
+
+		this.maxEntries = maxEntries;
+		this.timeToLiveMillis = unit.toMillis(timeToLive);
+		this.entries = new LinkedHashMap<QueryResultCacheKey, CachedResult>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<QueryResultCacheKey, CachedResult> eldest) {
+
+				if (size() > maxEntries) {
+					evictions.incrementAndGet();
+					return true;
+				}
+
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached documents for the given key.
+	 *
+	 * @param key must not be {@literal null}.
+	 * @return an unmodifiable list of copies of the cached documents or {@literal null} in case of a cache miss.
+	 */
+	public List<DBObject> get(QueryResultCacheKey key) {
+
+		Assert.notNull(key, "Key must not be null!");
+
+		CachedResult result;
+
+		synchronized (entries) {
+
+			result = entries.get(key);
+
+			if (result != null && result.isExpired()) {
+
+				entries.remove(key);
+				evictions.incrementAndGet();
+				result = null;
+			}
+		}
+
+		(result == null ? misses : hits).incrementAndGet();
+
+		return result == null ? null : copy(result.documents);
+	}
+
+	/**
+	 * Returns the current generation of the given collection, i.e. a value that changes on every invalidation.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @return
+	 */
+	public long getGeneration(String collectionName) {
+
+		synchronized (entries) {
+
+			Long generation = generations.get(collectionName);
+			return generation == null ? 0 : generation;
+		}
+	}
+
+	/**
+	 * Stores the given documents unless the collection was invalidated since the given generation was obtained.
+	 *
+	 * @param key must not be {@literal null}.
+	 * @param documents must not be {@literal null}.
+	 * @param generation the generation of the collection obtained before executing the query.
+	 * @return whether the documents were stored.
+	 */
+	public boolean put(QueryResultCacheKey key, List<DBObject> documents, long generation) {
+
+		Assert.notNull(key, "Key must not be null!");
+		Assert.notNull(documents, "Documents must not be null!");
+
+		List<DBObject> copies = copy(documents);
+
+		synchronized (entries) {
+
+			if (getGeneration(key.getCollectionName()) != generation) {
+				return false;
+			}
+
+			long expiresAt = timeToLiveMillis == 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeToLiveMillis;
+			entries.put(key, new CachedResult(copies, expiresAt));
+
+			return true;
+		}
+	}
+
+	/**
+	 * Removes all entries for the given collection.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 */
+	public void invalidate(String collectionName) {
+
+		Assert.notNull(collectionName, "Collection name must not be null!");
+
+		synchronized (entries) {
+
+			generations.put(collectionName, getGeneration(collectionName) + 1);
+
+			for (Iterator<QueryResultCacheKey> iterator = entries.keySet().iterator(); iterator.hasNext();) {
+				if (collectionName.equals(iterator.next().getCollectionName())) {
+					iterator.remove();
+					invalidations.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+
+		synchronized (entries) {
+
+			for (String collectionName : generations.keySet()) {
+				generations.put(collectionName, generations.get(collectionName) + 1);
+			}
+
+			invalidations.addAndGet(entries.size());
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return the maximum number of entries.
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @return the current number of entries.
+	 */
+	public int getSize() {
+
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * @return the number of lookups that returned a cached result.
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of lookups that did not find a cached result.
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the number of entries removed because the cache was full or the entry expired.
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * @return the number of entries removed because their collection was written to.
+	 */
+	public long getInvalidationCount() {
+		return invalidations.get();
+	}
+
+	private static List<DBObject> copy(List<DBObject> documents) {
+
+		List<DBObject> copies = new ArrayList<DBObject>(documents.size());
+
+		for (DBObject document : documents) {
+
+			BasicDBObject copy = new BasicDBObject();
+			copy.putAll(document);
+
+			copies.add((DBObject) copy.copy());
+		}
+
+		return Collections.unmodifiableList(copies);
+	}
+
+	private static class CachedResult {
+
+		private final List<DBObject> documents;
+		private final long expiresAt;
+
+		CachedResult(List<DBObject> documents, long expiresAt) {
+
+			this.documents = documents;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired() {
+			return System.currentTimeMillis() >= expiresAt;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import static org.springframework.util.ObjectUtils.*;
+
+import java.util.EnumSet;
+import java.util.Map.Entry;
+
+import org.springframework.data.mongodb.core.query.Meta;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Key of a {@link QueryResultCache} entry. Made up of the collection name, the mapped query, fields and sort
+ * documents, skip and limit, the index hint and {@link Meta} values and flags as well as the type the results are read
+ * into.
+ *
+ * @since 1.10
+ */
+public final class QueryResultCacheKey {
+
+	private final String collectionName;
+	private final DBObject query;
+	private final DBObject fields;
+	private final DBObject sort;
+	private final int skip;
+	private final int limit;
+	private final DBObject modifiers;
+	private final Class<?> type;
+
+	/**
+	 * Creates a new {@link QueryResultCacheKey}.
+	 *
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @param query the mapped query, must not be {@literal null}.
+	 * @param fields the mapped fields, can be {@literal null}.
+	 * @param sort the mapped sort, can be {@literal null}.
+	 * @param skip
+	 * @param limit
+	 * @param type can be {@literal null}.
+	 */
+	public QueryResultCacheKey(String collectionName, DBObject query, DBObject fields, DBObject sort, int skip, int limit,
+			Class<?> type) {
+		this(collectionName, query, fields, sort, skip, limit, null, null, type);
+	}
+
+	/**
+	 * Creates a new {@link QueryResultCacheKey}.
+	 *
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @param query the mapped query, must not be {@literal null}.
+	 * @param fields the mapped fields, can be {@literal null}.
+	 * @param sort the mapped sort, can be {@literal null}.
+	 * @param skip
+	 * @param limit
+	 * @param hint the index hint, can be {@literal null}.
+	 * @param meta can be {@literal null}. The cursor batch size is ignored as it does not affect the result.
+	 * @param type can be {@literal null}.
+	 */
+	public QueryResultCacheKey(String collectionName, DBObject query, DBObject fields, DBObject sort, int skip, int limit,
+			String hint, Meta meta, Class<?> type) {
+
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+		Assert.notNull(query, "Query must not be null!");
+
+		this.collectionName = collectionName;
+		this.query = query;
+		this.fields = fields;
+		this.sort = sort;
+		this.skip = skip;
+		this.limit = limit;
+		this.modifiers = toModifiers(hint, meta);
+		this.type = type;
+	}
+
+	/**
+	 * Returns the name of the collection the query was run against.
+	 *
+	 * @return
+	 */
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof QueryResultCacheKey)) {
+			return false;
+		}
+
+		QueryResultCacheKey that = (QueryResultCacheKey) obj;
+
+		return this.skip == that.skip && this.limit == that.limit && this.collectionName.equals(that.collectionName)
+				&& nullSafeEquals(this.type, that.type) && this.query.equals(that.query)
+				&& nullSafeEquals(this.fields, that.fields) && nullSafeEquals(this.sort, that.sort)
+				&& this.modifiers.equals(that.modifiers);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+
+		int result = 17;
+
+		result += 31 * collectionName.hashCode();
+		result += 31 * query.hashCode();
+		result += 31 * nullSafeHashCode(fields);
+		result += 31 * nullSafeHashCode(sort);
+		result += 31 * skip;
+		result += 31 * limit;
+		result += 31 * modifiers.hashCode();
+		result += 31 * nullSafeHashCode(type);
+
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format(
+				"QueryResultCacheKey [collection=%s, query=%s, fields=%s, sort=%s, skip=%s, limit=%s, modifiers=%s, type=%s]",
+				collectionName, query, fields, sort, skip, limit, modifiers, type);
+	}
+
+	private static DBObject toModifiers(String hint, Meta meta) {
+
+		DBObject modifiers = new BasicDBObject();
+
+		if (StringUtils.hasText(hint)) {
+			modifiers.put("$hint", hint);
+		}
+
+		if (meta == null) {
+			return modifiers;
+		}
+
+		for (Entry<String, Object> value : meta.values()) {
+			modifiers.put(value.getKey(), value.getValue());
+		}
+
+		if (!meta.getFlags().isEmpty()) {
+			modifiers.put("flags", EnumSet.copyOf(meta.getFlags()).toString());
+		}
+
+		return modifiers;
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Client side caching support for documents read through {@link org.springframework.data.mongodb.core.MongoTemplate}.
+ */
+package org.springframework.data.mongodb.core.cache;
@@ -23,9 +23,14 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -43,6 +48,8 @@ import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.objenesis.ObjenesisStd;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 
 import com.mongodb.BasicDBObject;
@@ -53,7 +60,14 @@ import com.mongodb.DBRef;
 
 /**
  * A {@link DbRefResolver} that resolves {@link org.springframework.data.mongodb.core.mapping.DBRef}s by delegating to a
- * {@link DbRefResolverCallback} than is able to generate lazy loading proxies.
+ * {@link DbRefResolverCallback} than is able to generate lazy loading proxies. The proxy classes are generated once per
+ * property type.
+ * <p>
+ * In case a {@link #setLazyLoadingBatchSize(int) lazy loading batch size} greater than one is configured, lazy loading
+ * proxies created for the same collection within a single read operation (see {@link #openLazyLoadingScope()}) are
+ * grouped into batches. Accessing one of the proxies of a batch fetches the documents of all of its unresolved siblings
+ * with a single {@literal $in} query so that touching the lazy references of a result set doesn't cause a round trip
+ * per reference.
  * 
  * @author Thomas Darimont
  * @author Oliver Gierke
@@ -62,10 +76,18 @@ import com.mongodb.DBRef;
  */
 public class DefaultDbRefResolver implements DbRefResolver {
 
+	private static final ThreadLocal<PrefetchedDocument> PREFETCHED_DOCUMENT = new ThreadLocal<PrefetchedDocument>();
+	private static final ThreadLocal<LazyLoadingScope> LAZY_LOADING_SCOPE = new ThreadLocal<LazyLoadingScope>();
+
 	private final MongoDbFactory mongoDbFactory;
 	private final PersistenceExceptionTranslator exceptionTranslator;
 	private final ObjenesisStd objenesis;
 
+	private final Map<Class<?>, Class<?>> enhancedTypes = new ConcurrentReferenceHashMap<Class<?>, Class<?>>();
+	private final Map<Class<?>, Class<?>[]> proxyInterfaces = new ConcurrentReferenceHashMap<Class<?>, Class<?>[]>();
+
+	private int lazyLoadingBatchSize = 1;
+
 	/**
 	 * Creates a new {@link DefaultDbRefResolver} with the given {@link MongoDbFactory}.
 	 * 
@@ -80,6 +102,54 @@ public class DefaultDbRefResolver implements DbRefResolver {
 		this.objenesis = new ObjenesisStd(true);
 	}
 
+	/**
+	 * Configures the maximum number of lazy loading proxies to be resolved together. Defaults to {@literal 1}, i.e.
+	 * every proxy fetches its document individually.
+	 * 
+	 * @param lazyLoadingBatchSize must be greater than zero.
+	 * @since 1.10
+	 */
+	public void setLazyLoadingBatchSize(int lazyLoadingBatchSize) {
+
+		Assert.isTrue(lazyLoadingBatchSize > 0, "Lazy loading batch size must be greater than zero!");
+		this.lazyLoadingBatchSize = lazyLoadingBatchSize;
+	}
+
+	/**
+	 * Opens a scope for the lazy loading proxies created by a single read operation on the current thread, e.g. for all
+	 * documents returned by a query. Only proxies created within the same scope are grouped into batches. Scopes can be
+	 * nested, proxies created within a nested scope join the batches of the outermost one. Every call has to be paired
+	 * with a call to {@link #closeLazyLoadingScope()}.
+	 * 
+	 * @since 1.10
+	 */
+	public static void openLazyLoadingScope() {
+
+		LazyLoadingScope scope = LAZY_LOADING_SCOPE.get();
+
+		if (scope == null) {
+			scope = new LazyLoadingScope();
+			LAZY_LOADING_SCOPE.set(scope);
+		}
+
+		scope.depth++;
+	}
+
+	/**
+	 * Closes the scope opened by the corresponding call to {@link #openLazyLoadingScope()}. Proxies created afterwards
+	 * are not added to the batches of the scope anymore.
+	 * 
+	 * @since 1.10
+	 */
+	public static void closeLazyLoadingScope() {
+
+		LazyLoadingScope scope = LAZY_LOADING_SCOPE.get();
+
+		if (scope != null && --scope.depth == 0) {
+			LAZY_LOADING_SCOPE.remove();
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.data.mongodb.core.convert.DbRefResolver#resolveDbRef(org.springframework.data.mongodb.core.mapping.MongoPersistentProperty, org.springframework.data.mongodb.core.convert.DbRefResolverCallback)
@@ -114,6 +184,13 @@ public class DefaultDbRefResolver implements DbRefResolver {
 	 */
 	@Override
 	public DBObject fetch(DBRef dbRef) {
+
+		PrefetchedDocument prefetched = PREFETCHED_DOCUMENT.get();
+
+		if (prefetched != null && prefetched.matches(dbRef)) {
+			return prefetched.document;
+		}
+
 		return ReflectiveDBRefResolver.fetch(mongoDbFactory, dbRef);
 	}
 
@@ -166,6 +243,10 @@ public class DefaultDbRefResolver implements DbRefResolver {
 		Class<?> propertyType = property.getType();
 		LazyLoadingInterceptor interceptor = new LazyLoadingInterceptor(property, dbref, exceptionTranslator, callback);
 
+		if (lazyLoadingBatchSize > 1 && dbref != null) {
+			addToBatch(interceptor, dbref);
+		}
+
 		if (!propertyType.isInterface()) {
 
 			Factory factory = (Factory) objenesis.newInstance(getEnhancedTypeFor(propertyType));
@@ -175,16 +256,37 @@ public class DefaultDbRefResolver implements DbRefResolver {
 		}
 
 		ProxyFactory proxyFactory = new ProxyFactory();
+		proxyFactory.setInterfaces(getProxyInterfacesFor(propertyType));
+		proxyFactory.addAdvice(interceptor);
 
-		for (Class<?> type : propertyType.getInterfaces()) {
-			proxyFactory.addInterface(type);
+		return handler.populateId(property, dbref, proxyFactory.getProxy());
+	}
+
+	/**
+	 * Adds the given {@link LazyLoadingInterceptor} to the batch of the current {@link LazyLoadingScope} for the
+	 * collection of the given {@link DBRef}, starting a new one if there's none or it cannot take any further proxies.
+	 * Proxies created outside of a scope are resolved individually.
+	 * 
+	 * @param interceptor must not be {@literal null}.
+	 * @param dbref must not be {@literal null}.
+	 */
+	private void addToBatch(LazyLoadingInterceptor interceptor, DBRef dbref) {
+
+		LazyLoadingScope scope = LAZY_LOADING_SCOPE.get();
+
+		if (scope == null) {
+			return;
 		}
 
-		proxyFactory.addInterface(LazyLoadingProxy.class);
-		proxyFactory.addInterface(propertyType);
-		proxyFactory.addAdvice(interceptor);
+		String collectionName = dbref.getCollectionName();
+		LazyLoadingBatch batch = scope.batches.get(collectionName);
 
-		return handler.populateId(property, dbref, proxyFactory.getProxy());
+		if (batch == null || batch.resolver != this || !batch.add(interceptor)) {
+
+			batch = new LazyLoadingBatch(this, lazyLoadingBatchSize);
+			batch.add(interceptor);
+			scope.batches.put(collectionName, batch);
+		}
 	}
 
 	/**
@@ -195,12 +297,45 @@ public class DefaultDbRefResolver implements DbRefResolver {
 	 */
 	private Class<?> getEnhancedTypeFor(Class<?> type) {
 
+		Class<?> enhancedType = enhancedTypes.get(type);
+
+		if (enhancedType != null) {
+			return enhancedType;
+		}
+
 		Enhancer enhancer = new Enhancer();
 		enhancer.setSuperclass(type);
 		enhancer.setCallbackType(org.springframework.cglib.proxy.MethodInterceptor.class);
 		enhancer.setInterfaces(new Class[] { LazyLoadingProxy.class });
 
-		return enhancer.createClass();
+		enhancedType = enhancer.createClass();
+		enhancedTypes.put(type, enhancedType);
+
+		return enhancedType;
+	}
+
+	/**
+	 * Returns the interfaces a JDK proxy for the given interface type has to implement.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	private Class<?>[] getProxyInterfacesFor(Class<?> type) {
+
+		Class<?>[] interfaces = proxyInterfaces.get(type);
+
+		if (interfaces != null) {
+			return interfaces;
+		}
+
+		List<Class<?>> result = new ArrayList<Class<?>>(Arrays.asList(type.getInterfaces()));
+		result.add(LazyLoadingProxy.class);
+		result.add(type);
+
+		interfaces = result.toArray(new Class<?>[result.size()]);
+		proxyInterfaces.put(type, interfaces);
+
+		return interfaces;
 	}
 
 	/**
@@ -231,9 +366,12 @@ public class DefaultDbRefResolver implements DbRefResolver {
 		private final MongoPersistentProperty property;
 		private final PersistenceExceptionTranslator exceptionTranslator;
 
+		private final Lock resolutionLock = new ReentrantLock();
+
 		private volatile boolean resolved;
 		private Object result;
 		private DBRef dbref;
+		private transient LazyLoadingBatch batch;
 
 		static {
 			try {
@@ -319,6 +457,29 @@ public class DefaultDbRefResolver implements DbRefResolver {
 			return method.invoke(target, args);
 		}
 
+		/**
+		 * Associates the interceptor with the {@link LazyLoadingBatch} it will be resolved with.
+		 * 
+		 * @param batch can be {@literal null}.
+		 */
+		void setBatch(LazyLoadingBatch batch) {
+			this.batch = batch;
+		}
+
+		/**
+		 * @return whether the proxy was already resolved.
+		 */
+		boolean isResolved() {
+			return resolved;
+		}
+
+		/**
+		 * @return the {@link DBRef} to resolve, can be {@literal null}.
+		 */
+		DBRef getDbRef() {
+			return dbref;
+		}
+
 		/**
 		 * Returns a to string representation for the given {@code proxy}.
 		 * 
@@ -418,23 +579,164 @@ public class DefaultDbRefResolver implements DbRefResolver {
 		 * 
 		 * @return
 		 */
-		private synchronized Object resolve() {
+		private Object resolve() {
 
-			if (!resolved) {
+			resolutionLock.lock();
+
+			try {
+
+				if (!resolved) {
+
+					PrefetchedDocument previous = PREFETCHED_DOCUMENT.get();
+
+					try {
 
-				try {
+						if (batch != null && dbref != null) {
 
-					return callback.resolve(property);
+							DBObject document = batch.getDocument(dbref);
 
-				} catch (RuntimeException ex) {
+							if (document != null) {
+								PREFETCHED_DOCUMENT.set(new PrefetchedDocument(dbref, document));
+							}
+						}
 
-					DataAccessException translatedException = this.exceptionTranslator.translateExceptionIfPossible(ex);
-					throw new LazyLoadingException("Unable to lazily resolve DBRef!",
-							translatedException != null ? translatedException : ex);
+						return callback.resolve(property);
+
+					} catch (RuntimeException ex) {
+
+						DataAccessException translatedException = this.exceptionTranslator.translateExceptionIfPossible(ex);
+						throw new LazyLoadingException("Unable to lazily resolve DBRef!",
+								translatedException != null ? translatedException : ex);
+
+					} finally {
+
+						if (previous == null) {
+							PREFETCHED_DOCUMENT.remove();
+						} else {
+							PREFETCHED_DOCUMENT.set(previous);
+						}
+
+						batch = null;
+					}
 				}
+
+				return result;
+
+			} finally {
+				resolutionLock.unlock();
 			}
+		}
+	}
+
+	/**
+	 * A group of {@link LazyLoadingInterceptor}s referring to documents of the same collection. The documents of all
+	 * members not resolved yet are fetched at once as soon as the first member needs its document. The batch is closed
+	 * for further members from then on.
+	 *
+	 * @since 1.10
+	 */
+	static class LazyLoadingBatch {
+
+		private final DbRefResolver resolver;
+		private final int maxSize;
+		private final List<LazyLoadingInterceptor> members = new ArrayList<LazyLoadingInterceptor>();
+
+		private Map<Object, DBObject> documents;
+
+		/**
+		 * Creates a new {@link LazyLoadingBatch} fetching documents via the given {@link DbRefResolver}.
+		 * 
+		 * @param resolver must not be {@literal null}.
+		 * @param maxSize the maximum number of members.
+		 */
+		LazyLoadingBatch(DbRefResolver resolver, int maxSize) {
+
+			this.resolver = resolver;
+			this.maxSize = maxSize;
+		}
+
+		/**
+		 * Adds the given {@link LazyLoadingInterceptor} to the batch unless it is full or was already fetched.
+		 * 
+		 * @param interceptor must not be {@literal null}.
+		 * @return whether the interceptor was added.
+		 */
+		synchronized boolean add(LazyLoadingInterceptor interceptor) {
+
+			if (documents != null || members.size() >= maxSize) {
+				return false;
+			}
+
+			members.add(interceptor);
+			interceptor.setBatch(this);
+
+			return true;
+		}
+
+		/**
+		 * Returns the document referred to by the given {@link DBRef}, fetching the documents of all unresolved members
+		 * on first access.
+		 * 
+		 * @param dbref must not be {@literal null}.
+		 * @return the document or {@literal null} if it wasn't fetched with the batch.
+		 */
+		synchronized DBObject getDocument(DBRef dbref) {
+
+			if (documents == null) {
+
+				List<DBRef> refs = new ArrayList<DBRef>(members.size() + 1);
+				refs.add(dbref);
+
+				for (LazyLoadingInterceptor member : members) {
+					if (!member.isResolved() && member.getDbRef() != null && member.getDbRef() != dbref) {
+						refs.add(member.getDbRef());
+					}
+				}
+
+				documents = new HashMap<Object, DBObject>(refs.size());
+
+				for (DBObject document : resolver.bulkFetch(refs)) {
+					documents.put(document.get("_id"), document);
+				}
+
+				members.clear();
+			}
+
+			return documents.get(dbref.getId());
+		}
+	}
+
+	/**
+	 * The {@link LazyLoadingBatch}es of a single read operation by collection. Confined to the thread that opened it.
+	 *
+	 * @since 1.10
+	 */
+	private static class LazyLoadingScope {
+
+		private final Map<String, LazyLoadingBatch> batches = new HashMap<String, LazyLoadingBatch>();
+		private int depth;
+	}
+
+	/**
+	 * A document fetched ahead of time for a {@link DBRef} to be handed out by {@link DefaultDbRefResolver#fetch(DBRef)}
+	 * while the corresponding proxy is resolved.
+	 *
+	 * @since 1.10
+	 */
+	private static class PrefetchedDocument {
+
+		private final DBRef dbref;
+		private final DBObject document;
+
+		PrefetchedDocument(DBRef dbref, DBObject document) {
+
+			this.dbref = dbref;
+			this.document = document;
+		}
 
-			return result;
+		boolean matches(DBRef candidate) {
+			return candidate != null && ObjectUtils.nullSafeEquals(dbref.getCollectionName(), candidate.getCollectionName())
+					&& ObjectUtils.nullSafeEquals(dbref.getId(), candidate.getId());
 		}
 	}
 
@@ -57,6 +57,7 @@ import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
 import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEventDispatcher;
 import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
 import org.springframework.data.util.ClassTypeInformation;
 import org.springframework.data.util.TypeInformation;
@@ -97,6 +98,7 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 	protected String mapKeyDotReplacement = null;
 
 	private SpELContext spELContext;
+	private MongoMappingEventDispatcher eventDispatcher;
 
 	/**
 	 * Creates a new {@link MappingMongoConverter} given the new {@link DbRefResolver} and {@link MappingContext}.
@@ -185,6 +187,17 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 		this.spELContext = new SpELContext(this.spELContext, applicationContext);
 	}
 
+	/**
+	 * Configures the {@link MongoMappingEventDispatcher} to hand the {@link MongoMappingEvent}s to instead of publishing
+	 * them via the {@link ApplicationContext}. Events no listener is interested in are not created at all then.
+	 * 
+	 * @param eventDispatcher can be {@literal null}.
+	 * @since 1.10
+	 */
+	public void setMappingEventDispatcher(MongoMappingEventDispatcher eventDispatcher) {
+		this.eventDispatcher = eventDispatcher;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.data.mongodb.core.core.MongoReader#read(java.lang.Class, com.mongodb.DBObject)
@@ -1265,14 +1278,14 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 
 		for (DBObject document : referencedRawDocuments) {
 
-			if (document != null) {
+			if (document != null && hasEventListeners(AfterLoadEvent.class, rawType)) {
 				maybeEmitEvent(new AfterLoadEvent<T>(document, (Class<T>) rawType, collectionName));
 			}
 
 			final T target = (T) read(type, document, path);
 			targeList.add(target);
 
-			if (target != null) {
+			if (target != null && hasEventListeners(AfterConvertEvent.class, target.getClass())) {
 				maybeEmitEvent(new AfterConvertEvent<T>(document, target, collectionName));
 			}
 		}
@@ -1282,11 +1295,18 @@ public class MappingMongoConverter extends AbstractMongoConverter implements App
 
 	private void maybeEmitEvent(MongoMappingEvent<?> event) {
 
-		if (canPublishEvent()) {
+		if (eventDispatcher != null) {
+			eventDispatcher.dispatch(event);
+		} else if (canPublishEvent()) {
 			this.applicationContext.publishEvent(event);
 		}
 	}
 
+	@SuppressWarnings("rawtypes")
+	private boolean hasEventListeners(Class<? extends MongoMappingEvent> eventType, Class<?> domainType) {
+		return eventDispatcher != null ? eventDispatcher.hasListeners(eventType, domainType) : canPublishEvent();
+	}
+
 	private boolean canPublishEvent() {
 		return this.applicationContext != null;
 	}
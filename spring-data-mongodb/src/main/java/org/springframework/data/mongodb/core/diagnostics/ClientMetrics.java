@@ -0,0 +1,371 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.springframework.util.Assert;
+
+/**
+ * Client side metrics of the operations issued through a {@link org.springframework.data.mongodb.core.MongoTemplate}
+ * in the current process: latency histograms per collection and operation, the number of cursors opened, closed and
+ * leaked, and the state of the connection pools as published by the MongoDB driver via JMX.
+ *
+ * @since 1.10
+ */
+public class ClientMetrics {
+
+	private static final String CONNECTION_POOL_NAME_PATTERN = "org.mongodb.driver:type=ConnectionPool,*";
+
+	private final ConcurrentMap<OperationKey, LatencyHistogram> latencies = new ConcurrentHashMap<OperationKey, LatencyHistogram>();
+
+	private final AtomicLong cursorsOpened = new AtomicLong();
+	private final AtomicLong cursorsClosed = new AtomicLong();
+	private final AtomicLong cursorsLeaked = new AtomicLong();
+
+	private MBeanServer mbeanServer;
+
+	/**
+	 * Configures the {@link MBeanServer} to look up the connection pool MBeans registered by the driver in. Defaults to
+	 * the platform {@link MBeanServer}.
+	 *
+	 * @param mbeanServer must not be {@literal null}.
+	 */
+	public void setMBeanServer(MBeanServer mbeanServer) {
+
+		Assert.notNull(mbeanServer, "MBeanServer must not be null!");
+		this.mbeanServer = mbeanServer;
+	}
+
+	/**
+	 * Records the execution of an operation.
+	 *
+	 * @param collectionName must not be {@literal null}.
+	 * @param operation the kind of operation, e.g. {@literal find}, must not be {@literal null}.
+	 * @param durationNanos the time it took to execute the operation.
+	 */
+	public void recordOperation(String collectionName, String operation, long durationNanos) {
+
+		OperationKey key = new OperationKey(collectionName, operation);
+		LatencyHistogram histogram = latencies.get(key);
+
+		if (histogram == null) {
+
+			LatencyHistogram newHistogram = new LatencyHistogram();
+			histogram = latencies.putIfAbsent(key, newHistogram);
+			histogram = histogram == null ? newHistogram : histogram;
+		}
+
+		histogram.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+	}
+
+	/**
+	 * Records a cursor having been opened.
+	 */
+	public void cursorOpened() {
+		cursorsOpened.incrementAndGet();
+	}
+
+	/**
+	 * Records a cursor having been closed.
+	 */
+	public void cursorClosed() {
+		cursorsClosed.incrementAndGet();
+	}
+
+	/**
+	 * Records a cursor having been found to be unreachable without having been closed.
+	 */
+	public void cursorLeaked() {
+		cursorsLeaked.incrementAndGet();
+	}
+
+	/**
+	 * @return the number of cursors opened.
+	 */
+	public long getCursorsOpened() {
+		return cursorsOpened.get();
+	}
+
+	/**
+	 * @return the number of cursors closed.
+	 */
+	public long getCursorsClosed() {
+		return cursorsClosed.get();
+	}
+
+	/**
+	 * @return the number of cursors that were not closed by their users.
+	 */
+	public long getCursorsLeaked() {
+		return cursorsLeaked.get();
+	}
+
+	/**
+	 * @return the number of cursors opened but not closed yet.
+	 */
+	public long getOpenCursors() {
+		return cursorsOpened.get() - cursorsClosed.get();
+	}
+
+	/**
+	 * Returns the latency histogram for the given collection and operation.
+	 *
+	 * @param collectionName
+	 * @param operation
+	 * @return the histogram or {@literal null} if no such operation was recorded.
+	 */
+	public LatencyHistogram getLatencies(String collectionName, String operation) {
+		return latencies.get(new OperationKey(collectionName, operation));
+	}
+
+	/**
+	 * @return a snapshot of the latencies of all operations recorded.
+	 */
+	public List<OperationLatency> getOperationLatencies() {
+
+		List<OperationLatency> result = new ArrayList<OperationLatency>();
+
+		for (Entry<OperationKey, LatencyHistogram> entry : latencies.entrySet()) {
+			result.add(new OperationLatency(entry.getKey().collectionName, entry.getKey().operation, entry.getValue()));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Reads the statistics of the connection pools the driver registered as MBeans. Pools of drivers not publishing
+	 * their pools via JMX are not reported.
+	 *
+	 * @return
+	 */
+	public List<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+
+		MBeanServer server = mbeanServer == null ? ManagementFactory.getPlatformMBeanServer() : mbeanServer;
+		List<ConnectionPoolStatistics> result = new ArrayList<ConnectionPoolStatistics>();
+
+		try {
+
+			for (ObjectName name : server.queryNames(new ObjectName(CONNECTION_POOL_NAME_PATTERN), null)) {
+
+				result.add(new ConnectionPoolStatistics(String.valueOf(getAttribute(server, name, "Host")),
+						getNumericAttribute(server, name, "Port"), getNumericAttribute(server, name, "Size"),
+						getNumericAttribute(server, name, "CheckedOutCount"),
+						getNumericAttribute(server, name, "WaitQueueSize")));
+			}
+
+		} catch (JMException o_O) {
+			throw new IllegalStateException("Failed to look up connection pool MBeans!", o_O);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Removes all recorded latencies and resets the cursor counters.
+	 */
+	public void reset() {
+
+		latencies.clear();
+		cursorsOpened.set(0);
+		cursorsClosed.set(0);
+		cursorsLeaked.set(0);
+	}
+
+	private static Object getAttribute(MBeanServer server, ObjectName name, String attribute) {
+
+		try {
+			return server.getAttribute(name, attribute);
+		} catch (JMException o_O) {
+			return null;
+		}
+	}
+
+	private static int getNumericAttribute(MBeanServer server, ObjectName name, String attribute) {
+
+		Object value = getAttribute(server, name, attribute);
+		return value instanceof Number ? ((Number) value).intValue() : -1;
+	}
+
+	/**
+	 * Snapshot of the latencies of an operation on a collection. All latencies are in microseconds.
+	 */
+	public static class OperationLatency {
+
+		private final String collectionName;
+		private final String operation;
+		private final long count;
+		private final double mean;
+		private final long p50, p95, p99, max;
+
+		OperationLatency(String collectionName, String operation, LatencyHistogram histogram) {
+
+			this.collectionName = collectionName;
+			this.operation = operation;
+			this.count = histogram.getCount();
+			this.mean = histogram.getMean();
+			this.p50 = histogram.getValueAtPercentile(50);
+			this.p95 = histogram.getValueAtPercentile(95);
+			this.p99 = histogram.getValueAtPercentile(99);
+			this.max = histogram.getMax();
+		}
+
+		public String getCollectionName() {
+			return collectionName;
+		}
+
+		public String getOperation() {
+			return operation;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public double getMean() {
+			return mean;
+		}
+
+		public long getMedian() {
+			return p50;
+		}
+
+		public long get95thPercentile() {
+			return p95;
+		}
+
+		public long get99thPercentile() {
+			return p99;
+		}
+
+		public long getMax() {
+			return max;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("%s on %s: count=%d, mean=%.0fus, p50=%dus, p95=%dus, p99=%dus, max=%dus", operation,
+					collectionName, count, mean, p50, p95, p99, max);
+		}
+	}
+
+	/**
+	 * Snapshot of a connection pool to a single server. Values not published by the driver are reported as
+	 * {@literal -1}.
+	 */
+	public static class ConnectionPoolStatistics {
+
+		private final String host;
+		private final int port;
+		private final int size;
+		private final int checkedOut;
+		private final int waitQueueSize;
+
+		ConnectionPoolStatistics(String host, int port, int size, int checkedOut, int waitQueueSize) {
+
+			this.host = host;
+			this.port = port;
+			this.size = size;
+			this.checkedOut = checkedOut;
+			this.waitQueueSize = waitQueueSize;
+		}
+
+		public String getHost() {
+			return host;
+		}
+
+		public int getPort() {
+			return port;
+		}
+
+		/**
+		 * @return the number of connections in the pool.
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * @return the number of connections currently in use.
+		 */
+		public int getCheckedOut() {
+			return checkedOut;
+		}
+
+		/**
+		 * @return the number of threads waiting for a connection.
+		 */
+		public int getWaitQueueSize() {
+			return waitQueueSize;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("%s:%d: size=%d, inUse=%d, waiting=%d", host, port, size, checkedOut, waitQueueSize);
+		}
+	}
+
+	private static class OperationKey {
+
+		private final String collectionName;
+		private final String operation;
+
+		OperationKey(String collectionName, String operation) {
+
+			this.collectionName = collectionName;
+			this.operation = operation;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof OperationKey)) {
+				return false;
+			}
+
+			OperationKey that = (OperationKey) obj;
+			return collectionName.equals(that.collectionName) && operation.equals(that.operation);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * collectionName.hashCode() + operation.hashCode();
+		}
+	}
+}
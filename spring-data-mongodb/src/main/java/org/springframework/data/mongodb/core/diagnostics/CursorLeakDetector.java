@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import com.mongodb.Cursor;
+
+/**
+ * Detects cursors handed out to callers that became unreachable without having been closed. Tracked owners are
+ * registered with a {@link PhantomReference} holding on to the underlying {@link Cursor}, so that the cursor can be
+ * closed and the leak reported once the garbage collector enqueued the reference. Pending leaks are collected whenever
+ * a new cursor is tracked, the counts are read and on {@link #detectLeaks()}, so no additional thread is needed. To
+ * collect leaks while no cursors are opened, the detector can additionally be scheduled as {@link Runnable}, e.g. via
+ * {@link org.springframework.scheduling.TaskScheduler#scheduleWithFixedDelay(Runnable, long)}.
+ * <p>
+ * Capturing the stack trace of the code opening a cursor is comparatively expensive, so it's only done for every n-th
+ * cursor tracked as configured via {@link #setSamplingInterval(int)}. Leaks of cursors not sampled are closed and
+ * counted but logged without their origin.
+ *
+ * @since 1.10
+ */
+public class CursorLeakDetector implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CursorLeakDetector.class);
+
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+	private final ConcurrentMap<Reference<?>, Boolean> registrations = new ConcurrentHashMap<Reference<?>, Boolean>();
+
+	private final AtomicLong tracked = new AtomicLong();
+	private final AtomicLong leaked = new AtomicLong();
+
+	private volatile int samplingInterval = 1;
+
+	/**
+	 * Configures every how many cursors tracked the stack trace of the code opening the cursor is captured. Defaults to
+	 * {@literal 1}, i.e. the origin of every cursor is captured. {@literal 0} disables capturing entirely.
+	 *
+	 * @param samplingInterval must not be negative.
+	 */
+	public void setSamplingInterval(int samplingInterval) {
+
+		Assert.isTrue(samplingInterval >= 0, "Sampling interval must not be negative!");
+		this.samplingInterval = samplingInterval;
+	}
+
+	/**
+	 * Starts tracking the given {@link Cursor} handed out through the given owner. The cursor is closed and reported as
+	 * leaked in case the owner becomes unreachable before {@link Registration#release()} was called.
+	 *
+	 * @param owner the object handed out to the caller, must not be {@literal null}.
+	 * @param cursor must not be {@literal null}.
+	 * @param metrics the {@link ClientMetrics} to report leaks to, can be {@literal null}.
+	 * @return the {@link Registration} to release once the cursor was closed regularly.
+	 */
+	public Registration track(Object owner, Cursor cursor, ClientMetrics metrics) {
+
+		Assert.notNull(owner, "Owner must not be null!");
+		Assert.notNull(cursor, "Cursor must not be null!");
+
+		detectLeaks();
+
+		long count = tracked.incrementAndGet();
+		int interval = samplingInterval;
+		Throwable origin = interval > 0 && count % interval == 0 ? new Throwable("Cursor opened here") : null;
+
+		Registration registration = new Registration(owner, queue, cursor, metrics, origin);
+		registrations.put(registration, Boolean.TRUE);
+
+		return registration;
+	}
+
+	/**
+	 * Closes the cursors of all owners found to be unreachable since the last invocation and reports them as leaked.
+	 *
+	 * @return the number of leaks detected.
+	 */
+	public int detectLeaks() {
+
+		int detected = 0;
+
+		for (Reference<?> reference = queue.poll(); reference != null; reference = queue.poll()) {
+
+			Registration registration = (Registration) reference;
+
+			if (registrations.remove(registration) != null) {
+				registration.reportLeak();
+				detected++;
+			}
+		}
+
+		return detected;
+	}
+
+	/**
+	 * Collects pending leaks via {@link #detectLeaks()}.
+	 */
+	@Override
+	public void run() {
+		detectLeaks();
+	}
+
+	/**
+	 * @return the number of cursors tracked.
+	 */
+	public long getTrackedCount() {
+		return tracked.get();
+	}
+
+	/**
+	 * @return the number of cursors tracked that are neither closed nor detected as leaked yet.
+	 */
+	public int getOpenCount() {
+
+		detectLeaks();
+		return registrations.size();
+	}
+
+	/**
+	 * @return the number of leaks detected.
+	 */
+	public long getLeakCount() {
+
+		detectLeaks();
+		return leaked.get();
+	}
+
+	/**
+	 * Handle to a tracked {@link Cursor}.
+	 */
+	public final class Registration extends PhantomReference<Object> {
+
+		private final Cursor cursor;
+		private final ClientMetrics metrics;
+		private final Throwable origin;
+
+		private Registration(Object owner, ReferenceQueue<Object> queue, Cursor cursor, ClientMetrics metrics,
+				Throwable origin) {
+
+			super(owner, queue);
+
+			this.cursor = cursor;
+			this.metrics = metrics;
+			this.origin = origin;
+		}
+
+		/**
+		 * Stops tracking the cursor as it was closed regularly.
+		 */
+		public void release() {
+
+			registrations.remove(this);
+			clear();
+		}
+
+		void reportLeak() {
+
+			leaked.incrementAndGet();
+
+			if (metrics != null) {
+				metrics.cursorLeaked();
+			}
+
+			try {
+				cursor.close();
+			} catch (RuntimeException o_O) {
+				LOGGER.debug("Failed to close leaked cursor!", o_O);
+			} finally {
+
+				if (metrics != null) {
+					metrics.cursorClosed();
+				}
+			}
+
+			if (origin != null) {
+				LOGGER.warn("Cursor was not closed before becoming unreachable and got closed automatically!", origin);
+			} else {
+				LOGGER.warn("Cursor was not closed before becoming unreachable and got closed automatically! "
+						+ "Lower the sampling interval to capture where it was opened.");
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * Lock free histogram of latencies in microseconds using log-linear buckets in the spirit of HdrHistogram. Values below
+ * {@value #LINEAR_BUCKETS} are counted exactly, larger values in 16 buckets per power of two, which bounds the relative
+ * error of reported percentiles to about 6% while covering the full range of {@code long} in less than 1000 buckets.
+ *
+ * @since 1.10
+ */
+public class LatencyHistogram {
+
+	private static final int LINEAR_BUCKETS = 32;
+	private static final int SUB_BUCKETS = 16;
+	private static final int LINEAR_MAGNITUDE = 5;
+	private static final int BUCKET_COUNT = LINEAR_BUCKETS + (63 - LINEAR_MAGNITUDE) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records the given latency.
+	 *
+	 * @param micros negative values are recorded as {@literal 0}.
+	 */
+	public void record(long micros) {
+
+		long value = Math.max(0, micros);
+
+		counts.incrementAndGet(indexOf(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+
+		for (long current = max.get(); value > current; current = max.get()) {
+			if (max.compareAndSet(current, value)) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of latencies recorded.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the largest latency recorded in microseconds.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return the average latency in microseconds.
+	 */
+	public double getMean() {
+
+		long total = count.get();
+		return total == 0 ? 0 : (double) sum.get() / total;
+	}
+
+	/**
+	 * Returns the latency not exceeded by the given percentage of the recorded latencies, i.e. the upper bound of the
+	 * bucket the percentile falls into but never more than the largest latency recorded.
+	 *
+	 * @param percentile between {@literal 0} and {@literal 100}.
+	 * @return the latency in microseconds, {@literal 0} if nothing was recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100!");
+
+		long total = 0;
+		long[] snapshot = new long[BUCKET_COUNT];
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+
+			seen += snapshot[i];
+
+			if (seen >= target) {
+				return Math.min(upperBoundOf(i), max.get());
+			}
+		}
+
+		return max.get();
+	}
+
+	/**
+	 * Removes all recorded latencies.
+	 */
+	public void reset() {
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	static int indexOf(long value) {
+
+		if (value < LINEAR_BUCKETS) {
+			return (int) value;
+		}
+
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - 4;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+
+		return LINEAR_BUCKETS + (magnitude - LINEAR_MAGNITUDE) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBoundOf(int index) {
+
+		if (index < LINEAR_BUCKETS) {
+			return index;
+		}
+
+		int offset = index - LINEAR_BUCKETS;
+		int shift = offset / SUB_BUCKETS + LINEAR_MAGNITUDE - 4;
+		long subBucket = offset % SUB_BUCKETS + SUB_BUCKETS;
+
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
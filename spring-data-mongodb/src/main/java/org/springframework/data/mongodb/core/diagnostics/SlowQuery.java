@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
+
+import static org.springframework.data.mongodb.core.query.SerializationUtils.*;
+
+import java.util.Date;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * A query that exceeded the threshold of a {@link SlowQueryRecorder} along with the explain output captured for it.
+ *
+ * @since 1.10
+ */
+public class SlowQuery {
+
+	private final String collectionName;
+	private final Class<?> entityType;
+	private final DBObject query;
+	private final DBObject sort;
+	private final DBObject fields;
+	private final long durationMillis;
+	private final Date timestamp;
+	private final StackTraceElement callSite;
+	private final DBObject explain;
+
+	SlowQuery(String collectionName, Class<?> entityType, DBObject query, DBObject sort, DBObject fields,
+			long durationMillis, Date timestamp, StackTraceElement callSite, DBObject explain) {
+
+		this.collectionName = collectionName;
+		this.entityType = entityType;
+		this.query = query;
+		this.sort = sort;
+		this.fields = fields;
+		this.durationMillis = durationMillis;
+		this.timestamp = timestamp;
+		this.callSite = callSite;
+		this.explain = explain;
+	}
+
+	/**
+	 * @return the name of the collection queried.
+	 */
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	/**
+	 * @return the type the results were read into, can be {@literal null}.
+	 */
+	public Class<?> getEntityType() {
+		return entityType;
+	}
+
+	/**
+	 * @return the mapped query.
+	 */
+	public DBObject getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return the mapped sort, can be {@literal null}.
+	 */
+	public DBObject getSort() {
+		return sort;
+	}
+
+	/**
+	 * @return the mapped fields, can be {@literal null}.
+	 */
+	public DBObject getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return the time it took to execute the query.
+	 */
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	/**
+	 * @return the time the query finished.
+	 */
+	public Date getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return the first stack frame outside of Spring and the MongoDB driver, can be {@literal null}.
+	 */
+	public StackTraceElement getCallSite() {
+		return callSite;
+	}
+
+	/**
+	 * @return the explain output of the query.
+	 */
+	public DBObject getExplain() {
+		return explain;
+	}
+
+	/**
+	 * Returns a document representation suitable to be stored in a collection. Query and explain output are rendered as
+	 * JSON as they may contain field names starting with {@literal $}.
+	 *
+	 * @return
+	 */
+	public DBObject toDbObject() {
+
+		DBObject document = new BasicDBObject();
+
+		document.put("collection", collectionName);
+		document.put("entityType", entityType == null ? null : entityType.getName());
+		document.put("query", serializeToJsonSafely(query));
+		document.put("sort", sort == null ? null : serializeToJsonSafely(sort));
+		document.put("fields", fields == null ? null : serializeToJsonSafely(fields));
+		document.put("durationMillis", durationMillis);
+		document.put("timestamp", timestamp);
+		document.put("callSite", callSite == null ? null : callSite.toString());
+		document.put("explain", serializeToJsonSafely(explain));
+
+		return document;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%dms on %s: %s at %s", durationMillis, collectionName, serializeToJsonSafely(query),
+				callSite);
+	}
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.index.QueryShape;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * Captures the explain output of queries exceeding a configurable threshold. Explains are run on a separate
+ * {@link Executor} and at most once per {@link QueryShape} within a configurable interval. The captured
+ * {@link SlowQuery}s are kept in a ring holding the most recent ones and can additionally be written to a capped
+ * collection in the database queried.
+ *
+ * @since 1.10
+ */
+public class SlowQueryRecorder {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryRecorder.class);
+	private static final int MAX_TRACKED_SHAPES = 1000;
+	private static final int DEFAULT_QUEUE_CAPACITY = 100;
+	private static final String[] INFRASTRUCTURE_PACKAGES = { "org.springframework.", "com.mongodb.", "java.", "javax.",
+			"sun.", "com.sun.", "org.bson." };
+
+	private final long thresholdNanos;
+	private final int capacity;
+	private final Deque<SlowQuery> ring;
+	private final Map<QueryShape, Long> lastExplained;
+
+	private Executor executor = createDefaultExecutor();
+	private long minIntervalMillis = TimeUnit.MINUTES.toMillis(1);
+	private String cappedCollectionName;
+	private long cappedCollectionSize = 1024 * 1024;
+	private volatile boolean cappedCollectionChecked;
+
+	private final AtomicLong slowQueries = new AtomicLong();
+	private final AtomicLong explains = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Creates a new {@link SlowQueryRecorder} capturing queries taking at least the given time and keeping the given
+	 * number of most recent captures.
+	 *
+	 * @param threshold must not be negative.
+	 * @param unit must not be {@literal null}.
+	 * @param capacity must be greater than zero.
+	 */
+	public SlowQueryRecorder(long threshold, TimeUnit unit, int capacity) {
+
+		Assert.isTrue(threshold >= 0, "Threshold must not be negative!");
+		Assert.notNull(unit, "TimeUnit must not be null!");
+		Assert.isTrue(capacity > 0, "Capacity must be greater than zero!");
+
+		this.thresholdNanos = unit.toNanos(threshold);
+		this.capacity = capacity;
+		this.ring = new ArrayDeque<SlowQuery>(capacity);
+		this.lastExplained = new LinkedHashMap<QueryShape, Long>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<QueryShape, Long> eldest) {
+				return size() > MAX_TRACKED_SHAPES;
+			}
+		};
+	}
+
+	/**
+	 * Configures the {@link Executor} to run the explains on. Defaults to a single daemon thread queueing at most
+	 * {@value #DEFAULT_QUEUE_CAPACITY} explains. Explains rejected by the {@link Executor} are dropped and counted as
+	 * failures.
+	 *
+	 * @param executor must not be {@literal null}.
+	 */
+	public void setExecutor(Executor executor) {
+
+		Assert.notNull(executor, "Executor must not be null!");
+		this.executor = executor;
+	}
+
+	/**
+	 * Configures the minimum time between two explains of queries of the same shape. Defaults to one minute.
+	 *
+	 * @param interval must not be negative.
+	 * @param unit must not be {@literal null}.
+	 */
+	public void setMinInterval(long interval, TimeUnit unit) {
+
+		Assert.isTrue(interval >= 0, "Interval must not be negative!");
+		Assert.notNull(unit, "TimeUnit must not be null!");
+
+		this.minIntervalMillis = unit.toMillis(interval);
+	}
+
+	/**
+	 * Configures the name of a capped collection to write the captured queries to. The collection is created with the
+	 * configured size in case it does not exist yet. Captures are only kept in memory by default.
+	 *
+	 * @param cappedCollectionName can be {@literal null}.
+	 */
+	public void setCappedCollectionName(String cappedCollectionName) {
+
+		this.cappedCollectionName = cappedCollectionName;
+		this.cappedCollectionChecked = false;
+	}
+
+	/**
+	 * Configures the size in bytes of the capped collection in case it has to be created. Defaults to 1 MB.
+	 *
+	 * @param cappedCollectionSize must be greater than zero.
+	 */
+	public void setCappedCollectionSize(long cappedCollectionSize) {
+
+		Assert.isTrue(cappedCollectionSize > 0, "Capped collection size must be greater than zero!");
+		this.cappedCollectionSize = cappedCollectionSize;
+	}
+
+	/**
+	 * Returns whether a query taking the given time is to be captured.
+	 *
+	 * @param durationNanos
+	 * @return
+	 */
+	public boolean isSlow(long durationNanos) {
+		return durationNanos >= thresholdNanos;
+	}
+
+	/**
+	 * Captures the explain output of the given query in case it is slow and no query of the same shape was explained
+	 * within the configured interval. The explain is run asynchronously.
+	 *
+	 * @param collection the collection queried, must not be {@literal null}.
+	 * @param entityType can be {@literal null}.
+	 * @param query the mapped query, can be {@literal null}.
+	 * @param sort the mapped sort, can be {@literal null}.
+	 * @param fields the mapped fields, can be {@literal null}.
+	 * @param durationNanos the time it took to execute the query.
+	 */
+	public void record(DBCollection collection, Class<?> entityType, DBObject query, DBObject sort, DBObject fields,
+			long durationNanos) {
+		record(collection, entityType, query, sort, fields, null, 0, 0, durationNanos);
+	}
+
+	/**
+	 * Captures the explain output of the given query in case it is slow and no query of the same shape was explained
+	 * within the configured interval. The explain is run asynchronously with the given hint, skip and limit applied.
+	 *
+	 * @param collection the collection queried, must not be {@literal null}.
+	 * @param entityType can be {@literal null}.
+	 * @param query the mapped query, can be {@literal null}.
+	 * @param sort the mapped sort, can be {@literal null}.
+	 * @param fields the mapped fields, can be {@literal null}.
+	 * @param hint the index hint, can be {@literal null}.
+	 * @param skip the number of documents skipped, {@literal 0} if none.
+	 * @param limit the maximum number of documents returned, {@literal 0} if unlimited.
+	 * @param durationNanos the time it took to execute the query.
+	 */
+	public void record(final DBCollection collection, final Class<?> entityType, DBObject query, final DBObject sort,
+			final DBObject fields, final String hint, final int skip, final int limit, long durationNanos) {
+
+		Assert.notNull(collection, "Collection must not be null!");
+
+		if (!isSlow(durationNanos)) {
+			return;
+		}
+
+		slowQueries.incrementAndGet();
+
+		final DBObject queryToExplain = query == null ? new BasicDBObject() : query;
+		long now = System.currentTimeMillis();
+
+		QueryShape shape = new QueryShape(collection.getName(), queryToExplain, sort, fields);
+
+		if (!acquire(shape, now)) {
+			return;
+		}
+
+		final StackTraceElement callSite = findCallSite(new Throwable().getStackTrace());
+		final long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+		final Date timestamp = new Date(now);
+
+		Runnable explainTask = new Runnable() {
+
+			@Override
+			public void run() {
+
+				try {
+
+					DBCursor cursor = collection.find(queryToExplain, fields);
+
+					if (sort != null) {
+						cursor.sort(sort);
+					}
+
+					if (StringUtils.hasText(hint)) {
+						cursor.hint(hint);
+					}
+
+					if (skip > 0) {
+						cursor.skip(skip);
+					}
+
+					if (limit > 0) {
+						cursor.limit(limit);
+					}
+
+					DBObject explain = cursor.explain();
+					explains.incrementAndGet();
+
+					store(collection.getDB(), new SlowQuery(collection.getName(), entityType, queryToExplain, sort, fields,
+							durationMillis, timestamp, callSite, explain));
+
+				} catch (RuntimeException o_O) {
+
+					failures.incrementAndGet();
+					LOGGER.warn(String.format("Failed to explain slow query on collection %s!", collection.getName()), o_O);
+				}
+			}
+		};
+
+		try {
+			executor.execute(explainTask);
+		} catch (RejectedExecutionException o_O) {
+
+			failures.incrementAndGet();
+			release(shape);
+
+			LOGGER.debug("Dropped explain of slow query on collection {} as the executor is saturated.",
+					collection.getName());
+		}
+	}
+
+	/**
+	 * @return the captured queries, the most recent one first.
+	 */
+	public List<SlowQuery> getSlowQueries() {
+
+		synchronized (ring) {
+			return new ArrayList<SlowQuery>(ring);
+		}
+	}
+
+	/**
+	 * Removes all captured queries from the ring.
+	 */
+	public void clear() {
+
+		synchronized (ring) {
+			ring.clear();
+		}
+	}
+
+	/**
+	 * @return the number of queries exceeding the threshold, whether explained or not.
+	 */
+	public long getSlowQueryCount() {
+		return slowQueries.get();
+	}
+
+	/**
+	 * @return the number of explains captured.
+	 */
+	public long getExplainCount() {
+		return explains.get();
+	}
+
+	/**
+	 * @return the number of explains that failed or were dropped.
+	 */
+	public long getFailureCount() {
+		return failures.get();
+	}
+
+	private boolean acquire(QueryShape shape, long now) {
+
+		synchronized (lastExplained) {
+
+			Long last = lastExplained.get(shape);
+
+			if (last != null && now - last < minIntervalMillis) {
+				return false;
+			}
+
+			lastExplained.put(shape, now);
+			return true;
+		}
+	}
+
+	private void release(QueryShape shape) {
+
+		synchronized (lastExplained) {
+			lastExplained.remove(shape);
+		}
+	}
+
+	private void store(DB db, SlowQuery slowQuery) {
+
+		synchronized (ring) {
+
+			if (ring.size() == capacity) {
+				ring.removeLast();
+			}
+
+			ring.addFirst(slowQuery);
+		}
+
+		String collectionName = cappedCollectionName;
+
+		if (collectionName == null) {
+			return;
+		}
+
+		if (!cappedCollectionChecked) {
+
+			synchronized (this) {
+
+				if (!db.collectionExists(collectionName)) {
+
+					DBObject options = new BasicDBObject("capped", true);
+					options.put("size", cappedCollectionSize);
+
+					db.createCollection(collectionName, options);
+				}
+
+				cappedCollectionChecked = true;
+			}
+		}
+
+		db.getCollection(collectionName).insert(slowQuery.toDbObject());
+	}
+
+	private static Executor createDefaultExecutor() {
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("mongo-explain-");
+		threadFactory.setDaemon(true);
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(DEFAULT_QUEUE_CAPACITY), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+
+		return executor;
+	}
+
+	static StackTraceElement findCallSite(StackTraceElement[] stackTrace) {
+
+		for (StackTraceElement element : stackTrace) {
+
+			if (!isInfrastructure(element.getClassName())) {
+				return element;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean isInfrastructure(String className) {
+
+		if (className.contains("$Proxy")) {
+			return true;
+		}
+
+		for (String infrastructurePackage : INFRASTRUCTURE_PACKAGES) {
+			if (className.startsWith(infrastructurePackage)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * Support for diagnosing slow queries and collecting client side metrics of operations issued through
+ * {@link org.springframework.data.mongodb.core.MongoTemplate}.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
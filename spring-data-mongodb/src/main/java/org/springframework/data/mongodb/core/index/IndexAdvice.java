@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.index;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of an {@link IndexAdvisor} finding a {@link QueryShape} not being supported well by the existing indexes.
+ *
+ * @since 1.10
+ */
+public class IndexAdvice {
+
+	/**
+	 * The kind of problem found.
+	 */
+	public enum Type {
+
+		/**
+		 * No index can be used for the shape at all.
+		 */
+		MISSING_INDEX,
+
+		/**
+		 * An index can be used but its prefix does not match the fields filtered and sorted by.
+		 */
+		INEFFICIENT_PREFIX
+	}
+
+	private final QueryShape shape;
+	private final Type type;
+	private final String indexName;
+	private final List<String> reasons;
+	private final Index suggestedIndex;
+
+	IndexAdvice(QueryShape shape, Type type, String indexName, List<String> reasons, Index suggestedIndex) {
+
+		this.shape = shape;
+		this.type = type;
+		this.indexName = indexName;
+		this.reasons = Collections.unmodifiableList(reasons);
+		this.suggestedIndex = suggestedIndex;
+	}
+
+	/**
+	 * @return the shape the advice is given for.
+	 */
+	public QueryShape getShape() {
+		return shape;
+	}
+
+	/**
+	 * @return the kind of problem found.
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the name of the best index found in case of {@link Type#INEFFICIENT_PREFIX}, {@literal null} otherwise.
+	 */
+	public String getIndexName() {
+		return indexName;
+	}
+
+	/**
+	 * @return human readable descriptions of the problems found.
+	 */
+	public List<String> getReasons() {
+		return reasons;
+	}
+
+	/**
+	 * @return an index covering equality fields first, sort fields second and range fields last.
+	 */
+	public Index getSuggestedIndex() {
+		return suggestedIndex;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder builder = new StringBuilder(shape.toString()).append(": ").append(type);
+
+		if (indexName != null) {
+			builder.append(" (").append(indexName).append(')');
+		}
+
+		return builder.append(' ').append(reasons).append(", suggested index ").append(suggestedIndex.getIndexKeys())
+				.toString();
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.index;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.util.Assert;
+
+/**
+ * Compares {@link QueryShape}s against the indexes of their collection. An index supports a shape if its leading
+ * fields are made up of all fields filtered by equality, followed by the fields sorted by in sort order and the fields
+ * filtered by ranges. Shapes for which no such index exists are reported either as {@link IndexAdvice.Type#MISSING_INDEX}
+ * in case no index starts with a field the shape filters or sorts by, or as {@link IndexAdvice.Type#INEFFICIENT_PREFIX}
+ * otherwise.
+ *
+ * @since 1.10
+ */
+public class IndexAdvisor {
+
+	/**
+	 * Checks the given {@link QueryShape} against the given indexes.
+	 *
+	 * @param shape must not be {@literal null}.
+	 * @param indexes the indexes of the collection queried, must not be {@literal null}.
+	 * @return the {@link IndexAdvice} or {@literal null} in case the shape is supported or cannot be analyzed.
+	 */
+	public IndexAdvice advise(QueryShape shape, List<IndexInfo> indexes) {
+
+		Assert.notNull(shape, "QueryShape must not be null!");
+		Assert.notNull(indexes, "Indexes must not be null!");
+
+		if (!shape.isAnalyzable() || (shape.getEqualityFields().isEmpty() && shape.getRangeFields().isEmpty()
+				&& shape.getSort().isEmpty())) {
+			return null;
+		}
+
+		String bestIndex = null;
+		List<String> bestReasons = null;
+		int bestPrefixLength = 0;
+
+		for (IndexInfo index : indexes) {
+
+			List<IndexField> prefix = getUsablePrefix(index, shape);
+
+			if (prefix.isEmpty()) {
+				continue;
+			}
+
+			List<String> reasons = getProblems(prefix, shape);
+
+			if (reasons.isEmpty()) {
+				return null;
+			}
+
+			if (prefix.size() > bestPrefixLength) {
+
+				bestIndex = index.getName();
+				bestReasons = reasons;
+				bestPrefixLength = prefix.size();
+			}
+		}
+
+		if (bestIndex == null) {
+
+			List<String> reasons = new ArrayList<String>();
+			reasons.add("No index starts with a field filtered or sorted by");
+
+			return new IndexAdvice(shape, IndexAdvice.Type.MISSING_INDEX, null, reasons, suggestIndex(shape));
+		}
+
+		return new IndexAdvice(shape, IndexAdvice.Type.INEFFICIENT_PREFIX, bestIndex, bestReasons, suggestIndex(shape));
+	}
+
+	/**
+	 * Returns the leading fields of the given index the given shape filters or sorts by, or an empty list in case the
+	 * index cannot be used for the shape.
+	 */
+	private static List<IndexField> getUsablePrefix(IndexInfo index, QueryShape shape) {
+
+		List<IndexField> prefix = new ArrayList<IndexField>();
+
+		for (IndexField field : index.getIndexFields()) {
+
+			if (field.isGeo() || field.isText() || !isUsedBy(field.getKey(), shape)) {
+				break;
+			}
+
+			prefix.add(field);
+		}
+
+		if (prefix.isEmpty()) {
+			return prefix;
+		}
+
+		String first = prefix.get(0).getKey();
+		boolean filtered = !shape.getEqualityFields().isEmpty() || !shape.getRangeFields().isEmpty();
+		boolean usable = shape.getEqualityFields().contains(first) || shape.getRangeFields().contains(first)
+				|| (!filtered && shape.getSort().containsKey(first));
+
+		return usable ? prefix : new ArrayList<IndexField>();
+	}
+
+	private static List<String> getProblems(List<IndexField> prefix, QueryShape shape) {
+
+		List<String> problems = new ArrayList<String>();
+		Set<String> prefixKeys = new HashSet<String>();
+		String firstRange = null;
+
+		for (IndexField field : prefix) {
+
+			String key = field.getKey();
+			prefixKeys.add(key);
+
+			if (shape.getRangeFields().contains(key) && !shape.getEqualityFields().contains(key)) {
+				firstRange = firstRange == null ? key : firstRange;
+			} else if (firstRange != null && shape.getEqualityFields().contains(key)) {
+				problems.add(String.format("Range field %s precedes equality field %s", firstRange, key));
+			}
+		}
+
+		Set<String> uncovered = new LinkedHashSet<String>(shape.getEqualityFields());
+		uncovered.removeAll(prefixKeys);
+
+		if (!uncovered.isEmpty()) {
+			problems.add(String.format("Equality fields %s not covered by index prefix", uncovered));
+		}
+
+		if (!shape.getSort().isEmpty() && !supportsSort(prefix, shape)) {
+			problems.add(String.format("Sort %s requires an in-memory sort", shape.getSort()));
+		}
+
+		return problems;
+	}
+
+	/**
+	 * Returns whether the fields sorted by directly follow the fields filtered by equality in the given prefix, all in
+	 * the sort direction or all in reverse.
+	 */
+	private static boolean supportsSort(List<IndexField> prefix, QueryShape shape) {
+
+		Iterator<IndexField> fields = prefix.iterator();
+		IndexField field = fields.hasNext() ? fields.next() : null;
+
+		while (field != null && shape.getEqualityFields().contains(field.getKey())
+				&& !shape.getSort().containsKey(field.getKey())) {
+			field = fields.hasNext() ? fields.next() : null;
+		}
+
+		Boolean reversed = null;
+
+		for (Entry<String, Direction> sort : shape.getSort().entrySet()) {
+
+			if (field == null || !field.getKey().equals(sort.getKey())) {
+				return false;
+			}
+
+			boolean sameDirection = sort.getValue().equals(field.getDirection());
+
+			if (reversed == null) {
+				reversed = !sameDirection;
+			} else if (reversed == sameDirection) {
+				return false;
+			}
+
+			field = fields.hasNext() ? fields.next() : null;
+		}
+
+		return true;
+	}
+
+	private static boolean isUsedBy(String key, QueryShape shape) {
+		return shape.getEqualityFields().contains(key) || shape.getRangeFields().contains(key)
+				|| shape.getSort().containsKey(key);
+	}
+
+	private static Index suggestIndex(QueryShape shape) {
+
+		Index index = new Index();
+		Set<String> added = new HashSet<String>();
+
+		for (String field : shape.getEqualityFields()) {
+			if (added.add(field)) {
+				index.on(field, Direction.ASC);
+			}
+		}
+
+		for (Entry<String, Direction> sort : shape.getSort().entrySet()) {
+			if (added.add(sort.getKey())) {
+				index.on(sort.getKey(), sort.getValue());
+			}
+		}
+
+		for (String field : shape.getRangeFields()) {
+			if (added.add(field)) {
+				index.on(field, Direction.ASC);
+			}
+		}
+
+		return index;
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.index;
+
+import static org.springframework.data.mongodb.core.query.SerializationUtils.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * The shape of a query sent to a collection, i.e. its filter with all values stripped, its sort and the fields
+ * projected. Queries only differing in the values they filter by share the same shape. Fields filtered by equality
+ * (including {@code $in}) are distinguished from fields filtered by ranges or other operators to allow reasoning about
+ * the indexes supporting the shape.
+ *
+ * @since 1.10
+ */
+public class QueryShape {
+
+	private static final Set<String> EQUALITY_OPERATORS = new HashSet<String>(Arrays.asList("$eq", "$in"));
+	private static final Set<String> UNSUPPORTED_OPERATORS = new HashSet<String>(Arrays.asList("$or", "$nor", "$where",
+			"$text", "$near", "$nearSphere", "$geoWithin", "$geoIntersects", "$within"));
+
+	private final String collectionName;
+	private final DBObject filter;
+	private final Map<String, Direction> sort;
+	private final Set<String> fields;
+
+	private final Set<String> equalityFields = new LinkedHashSet<String>();
+	private final Set<String> rangeFields = new LinkedHashSet<String>();
+	private boolean analyzable = true;
+
+	private final String filterJson;
+
+	/**
+	 * Creates a new {@link QueryShape} for the given mapped query, sort and fields.
+	 *
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @param query can be {@literal null}.
+	 * @param sort can be {@literal null}.
+	 * @param fields can be {@literal null}.
+	 */
+	public QueryShape(String collectionName, DBObject query, DBObject sort, DBObject fields) {
+
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+
+		this.collectionName = collectionName;
+		this.filter = query == null ? new BasicDBObject() : normalizeFilter(query);
+		this.sort = toSort(sort);
+		this.fields = fields == null ? Collections.<String> emptySet()
+				: Collections.unmodifiableSet(new TreeSet<String>(fields.keySet()));
+		this.filterJson = serializeToJsonSafely(filter);
+	}
+
+	/**
+	 * @return the name of the collection queried.
+	 */
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	/**
+	 * @return the query with all values replaced by {@literal 1}.
+	 */
+	public DBObject getFilter() {
+		return new BasicDBObject(filter.toMap());
+	}
+
+	/**
+	 * @return the fields sorted by with their direction in sort order.
+	 */
+	public Map<String, Direction> getSort() {
+		return Collections.unmodifiableMap(sort);
+	}
+
+	/**
+	 * @return the names of the fields included or excluded by the projection.
+	 */
+	public Set<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * @return the fields compared to a single value or a list of values.
+	 */
+	public Set<String> getEqualityFields() {
+		return Collections.unmodifiableSet(equalityFields);
+	}
+
+	/**
+	 * @return the fields filtered by ranges or other operators.
+	 */
+	public Set<String> getRangeFields() {
+		return Collections.unmodifiableSet(rangeFields);
+	}
+
+	/**
+	 * Returns whether the shape only uses operators that can be reasoned about in terms of regular index prefixes.
+	 * Shapes using {@code $or}, {@code $where}, text or geospatial operators are not.
+	 *
+	 * @return
+	 */
+	public boolean isAnalyzable() {
+		return analyzable;
+	}
+
+	private DBObject normalizeFilter(DBObject query) {
+
+		DBObject normalized = new BasicDBObject();
+
+		for (String key : query.keySet()) {
+
+			Object value = query.get(key);
+
+			if ("$and".equals(key) && value instanceof Collection) {
+
+				List<Object> clauses = new ArrayList<Object>();
+
+				for (Object clause : (Collection<?>) value) {
+					clauses.add(clause instanceof DBObject ? normalizeFilter((DBObject) clause) : 1);
+				}
+
+				normalized.put(key, clauses);
+				continue;
+			}
+
+			if (key.startsWith("$")) {
+
+				if (!"$comment".equals(key)) {
+					analyzable &= !UNSUPPORTED_OPERATORS.contains(key);
+				}
+
+				normalized.put(key, normalizeValue(value));
+				continue;
+			}
+
+			if (value instanceof DBObject && isOperatorObject((DBObject) value)) {
+
+				DBObject operators = (DBObject) value;
+				boolean equality = true;
+
+				for (String operator : operators.keySet()) {
+
+					analyzable &= !UNSUPPORTED_OPERATORS.contains(operator);
+					equality &= EQUALITY_OPERATORS.contains(operator);
+				}
+
+				(equality ? equalityFields : rangeFields).add(key);
+				normalized.put(key, normalizeValue(value));
+				continue;
+			}
+
+			(value instanceof Pattern ? rangeFields : equalityFields).add(key);
+			normalized.put(key, 1);
+		}
+
+		return normalized;
+	}
+
+	private static Object normalizeValue(Object value) {
+
+		if (!(value instanceof DBObject) || value instanceof Collection) {
+			return 1;
+		}
+
+		DBObject source = (DBObject) value;
+		DBObject normalized = new BasicDBObject();
+
+		for (String key : source.keySet()) {
+			normalized.put(key, normalizeValue(source.get(key)));
+		}
+
+		return normalized;
+	}
+
+	private static boolean isOperatorObject(DBObject value) {
+
+		for (String key : value.keySet()) {
+			if (key.startsWith("$")) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static Map<String, Direction> toSort(DBObject sort) {
+
+		Map<String, Direction> result = new LinkedHashMap<String, Direction>();
+
+		if (sort == null) {
+			return result;
+		}
+
+		for (String key : sort.keySet()) {
+
+			Object direction = sort.get(key);
+			result.put(key, direction instanceof Number && ((Number) direction).intValue() < 0 ? Direction.DESC
+					: Direction.ASC);
+		}
+
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof QueryShape)) {
+			return false;
+		}
+
+		QueryShape that = (QueryShape) obj;
+
+		return collectionName.equals(that.collectionName) && filterJson.equals(that.filterJson)
+				&& sort.equals(that.sort) && fields.equals(that.fields);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+
+		int result = 17;
+
+		result += 31 * collectionName.hashCode();
+		result += 31 * filterJson.hashCode();
+		result += 31 * ObjectUtils.nullSafeHashCode(sort);
+		result += 31 * fields.hashCode();
+
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder builder = new StringBuilder(collectionName).append(' ').append(filterJson);
+
+		if (!sort.isEmpty()) {
+			builder.append(" sort ").append(sort);
+		}
+
+		if (!fields.isEmpty()) {
+			builder.append(" fields ").append(fields);
+		}
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.DBObject;
+
+/**
+ * Records the {@link QueryShape}s of the queries executed along with their {@link QueryShapeStatistics}. At most a
+ * configurable number of shapes is kept, the least recently executed ones being evicted first.
+ *
+ * @since 1.10
+ */
+public class QueryShapeRecorder {
+
+	private static final Comparator<QueryShapeStatistics> BY_COUNT_DESCENDING = new Comparator<QueryShapeStatistics>() {
+
+		@Override
+		public int compare(QueryShapeStatistics left, QueryShapeStatistics right) {
+
+			long leftCount = left.getCount(), rightCount = right.getCount();
+			return leftCount > rightCount ? -1 : leftCount == rightCount ? 0 : 1;
+		}
+	};
+
+	private final int maxShapes;
+	private final Map<QueryShape, QueryShapeStatistics> shapes;
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Creates a new {@link QueryShapeRecorder} keeping at most the given number of shapes.
+	 *
+	 * @param maxShapes must be greater than zero.
+	 */
+	public QueryShapeRecorder(final int maxShapes) {
+
+		Assert.isTrue(maxShapes > 0, "Max shapes must be greater than zero!");
+
+		this.maxShapes = maxShapes;
+		this.shapes = new LinkedHashMap<QueryShape, QueryShapeStatistics>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<QueryShape, QueryShapeStatistics> eldest) {
+
+				if (size() > maxShapes) {
+					evictions.incrementAndGet();
+					return true;
+				}
+
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Records the execution of the given mapped query.
+	 *
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @param query can be {@literal null}.
+	 * @param sort can be {@literal null}.
+	 * @param fields can be {@literal null}.
+	 * @param durationNanos the time it took to execute the query.
+	 */
+	public void record(String collectionName, DBObject query, DBObject sort, DBObject fields, long durationNanos) {
+
+		QueryShape shape = new QueryShape(collectionName, query, sort, fields);
+		QueryShapeStatistics statistics;
+
+		synchronized (shapes) {
+
+			statistics = shapes.get(shape);
+
+			if (statistics == null) {
+				statistics = new QueryShapeStatistics(shape);
+				shapes.put(shape, statistics);
+			}
+		}
+
+		statistics.record(durationNanos);
+	}
+
+	/**
+	 * Returns the statistics of all recorded shapes, the most frequently executed shapes first.
+	 *
+	 * @return
+	 */
+	public List<QueryShapeStatistics> getStatistics() {
+
+		List<QueryShapeStatistics> result;
+
+		synchronized (shapes) {
+			result = new ArrayList<QueryShapeStatistics>(shapes.values());
+		}
+
+		Collections.sort(result, BY_COUNT_DESCENDING);
+		return result;
+	}
+
+	/**
+	 * Removes all recorded shapes.
+	 */
+	public void reset() {
+
+		synchronized (shapes) {
+			shapes.clear();
+		}
+	}
+
+	/**
+	 * @return the maximum number of shapes kept.
+	 */
+	public int getMaxShapes() {
+		return maxShapes;
+	}
+
+	/**
+	 * @return the number of shapes currently recorded.
+	 */
+	public int getSize() {
+
+		synchronized (shapes) {
+			return shapes.size();
+		}
+	}
+
+	/**
+	 * @return the number of shapes removed because the maximum number of shapes was exceeded.
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.index;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.mongodb.core.diagnostics.LatencyHistogram;
+
+/**
+ * Execution count and latencies of a {@link QueryShape}, recorded in a {@link LatencyHistogram}.
+ *
+ * @since 1.10
+ */
+public class QueryShapeStatistics {
+
+	private final QueryShape shape;
+	private final LatencyHistogram latencies = new LatencyHistogram();
+
+	QueryShapeStatistics(QueryShape shape) {
+		this.shape = shape;
+	}
+
+	void record(long durationNanos) {
+		latencies.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+	}
+
+	/**
+	 * @return the shape the statistics are recorded for.
+	 */
+	public QueryShape getShape() {
+		return shape;
+	}
+
+	/**
+	 * @return the number of executions.
+	 */
+	public long getCount() {
+		return latencies.getCount();
+	}
+
+	/**
+	 * @return the average execution time in milliseconds.
+	 */
+	public double getAverageMillis() {
+		return latencies.getMean() / 1000d;
+	}
+
+	/**
+	 * @return the longest execution time in milliseconds.
+	 */
+	public double getMaxMillis() {
+		return latencies.getMax() / 1000d;
+	}
+
+	/**
+	 * @return the histogram of the execution times in microseconds.
+	 */
+	public LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s: count=%d, avg=%.2fms, max=%.2fms", shape, getCount(), getAverageMillis(),
+				getMaxMillis());
+	}
+}
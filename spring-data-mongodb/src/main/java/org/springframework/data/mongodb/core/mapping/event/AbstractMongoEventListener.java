@@ -41,6 +41,15 @@ public abstract class AbstractMongoEventListener<E> implements ApplicationListen
 		this.domainClass = typeArgument == null ? Object.class : typeArgument;
 	}
 
+	/**
+	 * Returns the domain type the listener is interested in.
+	 * 
+	 * @return will never be {@literal null}.
+	 */
+	Class<?> getDomainClass() {
+		return domainClass;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.springframework.context.ApplicationListener#onApplicationEvent(org.springframework.context.ApplicationEvent)
@@ -58,6 +67,15 @@ public abstract class AbstractMongoEventListener<E> implements ApplicationListen
 			return;
 		}
 
+		if (event instanceof AfterBatchLoadEvent) {
+
+			if (domainClass.isAssignableFrom(((AfterBatchLoadEvent<?>) event).getType())) {
+				onAfterBatchLoad((AfterBatchLoadEvent<E>) event);
+			}
+
+			return;
+		}
+
 		if (event instanceof AbstractDeleteEvent) {
 
 			Class<?> eventDomainType = ((AbstractDeleteEvent) event).getType();
@@ -145,6 +163,19 @@ public abstract class AbstractMongoEventListener<E> implements ApplicationListen
 		}
 	}
 
+	/**
+	 * Captures {@link AfterBatchLoadEvent}.
+	 * 
+	 * @param event will never be {@literal null}.
+	 * @since 1.10
+	 */
+	public void onAfterBatchLoad(AfterBatchLoadEvent<E> event) {
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("onAfterBatchLoad({})", event.getDBObjects());
+		}
+	}
+
 	/**
 	 * Captures {@link AfterConvertEvent}.
 	 * 
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+import com.mongodb.DBObject;
+
+/**
+ * Event to be triggered once after loading a page of {@link DBObject}s to be mapped onto a given type. Published
+ * instead of an {@link AfterLoadEvent} per document in case batch events are enabled.
+ * 
+ * @since 1.10
+ */
+public class AfterBatchLoadEvent<T> extends MongoMappingEvent<List<DBObject>> {
+
+	private static final long serialVersionUID = 1L;
+	private final Class<T> type;
+
+	/**
+	 * Creates a new {@link AfterBatchLoadEvent} for the given {@link DBObject}s, type and collection name.
+	 * 
+	 * @param documents must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @param collectionName can be {@literal null}.
+	 */
+	public AfterBatchLoadEvent(List<DBObject> documents, Class<T> type, String collectionName) {
+
+		super(Collections.unmodifiableList(documents), null, collectionName);
+
+		Assert.notNull(type, "Type must not be null!");
+		this.type = type;
+	}
+
+	/**
+	 * Returns the loaded {@link DBObject}s.
+	 * 
+	 * @return
+	 */
+	public List<DBObject> getDBObjects() {
+		return getSource();
+	}
+
+	/**
+	 * Returns the type for which the {@link AfterBatchLoadEvent} shall be invoked for.
+	 * 
+	 * @return
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+}
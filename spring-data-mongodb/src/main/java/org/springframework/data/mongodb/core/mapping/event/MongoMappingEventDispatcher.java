@@ -0,0 +1,302 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping.event;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Dispatches {@link MongoMappingEvent}s directly to the {@link ApplicationListener}s of an {@link ApplicationContext}
+ * instead of publishing them through the context's event multicaster. The listeners interested in an event type for a
+ * given domain type are resolved once and cached, so that callers can use {@link #hasListeners(Class, Class)} to avoid
+ * creating events nobody listens to.
+ * <p>
+ * {@link AbstractMongoEventListener}s only receive events for their domain type and only if they override the callback
+ * method for the event, i.e. the debug logging of the default callbacks is skipped. All other listeners receive the
+ * events they declare to support, independently of the domain type. Listeners are invoked synchronously in the order
+ * defined by {@link AnnotationAwareOrderComparator}. Call {@link #reset()} after listeners were added to the context.
+ * <p>
+ * Listener beans of the context and its ancestors are looked up by name without initializing factory beans eagerly.
+ * Beans whose type already rules out the event are never instantiated, the others are resolved once an event of a
+ * type they might be interested in is published.
+ * 
+ * @since 1.10
+ */
+public class MongoMappingEventDispatcher {
+
+	private static final Map<Class<?>, String> CALLBACKS = new HashMap<Class<?>, String>();
+
+	static {
+
+		CALLBACKS.put(BeforeConvertEvent.class, "onBeforeConvert");
+		CALLBACKS.put(BeforeSaveEvent.class, "onBeforeSave");
+		CALLBACKS.put(AfterSaveEvent.class, "onAfterSave");
+		CALLBACKS.put(AfterLoadEvent.class, "onAfterLoad");
+		CALLBACKS.put(AfterBatchLoadEvent.class, "onAfterBatchLoad");
+		CALLBACKS.put(AfterConvertEvent.class, "onAfterConvert");
+		CALLBACKS.put(BeforeDeleteEvent.class, "onBeforeDelete");
+		CALLBACKS.put(AfterDeleteEvent.class, "onAfterDelete");
+	}
+
+	private final ApplicationContext context;
+	private final Map<ListenerCacheKey, List<ApplicationListener<?>>> listenerCache = new ConcurrentHashMap<ListenerCacheKey, List<ApplicationListener<?>>>();
+
+	/**
+	 * Creates a new {@link MongoMappingEventDispatcher} for the listeners of the given {@link ApplicationContext}.
+	 * 
+	 * @param context must not be {@literal null}.
+	 */
+	public MongoMappingEventDispatcher(ApplicationContext context) {
+
+		Assert.notNull(context, "ApplicationContext must not be null!");
+		this.context = context;
+	}
+
+	/**
+	 * Returns whether any listener is interested in events of the given type published for the given domain type.
+	 * 
+	 * @param eventType must not be {@literal null}.
+	 * @param domainType can be {@literal null}.
+	 * @return
+	 */
+	@SuppressWarnings("rawtypes")
+	public boolean hasListeners(Class<? extends MongoMappingEvent> eventType, Class<?> domainType) {
+		return !getListeners(eventType, domainType).isEmpty();
+	}
+
+	/**
+	 * Invokes all listeners interested in the given event.
+	 * 
+	 * @param event must not be {@literal null}.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void dispatch(MongoMappingEvent<?> event) {
+
+		Assert.notNull(event, "Event must not be null!");
+
+		for (ApplicationListener listener : getListeners(event.getClass(), getDomainType(event))) {
+			listener.onApplicationEvent(event);
+		}
+	}
+
+	/**
+	 * Discards all resolved listeners so that they're looked up again on the next event.
+	 */
+	public void reset() {
+		listenerCache.clear();
+	}
+
+	@SuppressWarnings("rawtypes")
+	private List<ApplicationListener<?>> getListeners(Class<? extends MongoMappingEvent> eventType, Class<?> domainType) {
+
+		ListenerCacheKey key = new ListenerCacheKey(eventType, domainType);
+		List<ApplicationListener<?>> listeners = listenerCache.get(key);
+
+		if (listeners == null) {
+			listeners = resolveListeners(eventType, domainType);
+			listenerCache.put(key, listeners);
+		}
+
+		return listeners;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private List<ApplicationListener<?>> resolveListeners(Class<? extends MongoMappingEvent> eventType,
+			Class<?> domainType) {
+
+		Collection<ApplicationListener<?>> candidates = new LinkedHashSet<ApplicationListener<?>>();
+
+		for (ApplicationContext current = context; current != null; current = current.getParent()) {
+
+			if (current instanceof AbstractApplicationContext) {
+				candidates.addAll(((AbstractApplicationContext) current).getApplicationListeners());
+			}
+
+			for (String beanName : current.getBeanNamesForType(ApplicationListener.class, true, false)) {
+
+				Class<?> beanType = current.getType(beanName);
+
+				if (beanType == null || supports(beanType, eventType, domainType)) {
+					candidates.add(current.getBean(beanName, ApplicationListener.class));
+				}
+			}
+		}
+
+		List<ApplicationListener<?>> listeners = new ArrayList<ApplicationListener<?>>();
+
+		for (ApplicationListener<?> candidate : candidates) {
+			if (supports(candidate, eventType, domainType)) {
+				listeners.add(candidate);
+			}
+		}
+
+		if (listeners.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		AnnotationAwareOrderComparator.sort(listeners);
+
+		return Collections.unmodifiableList(listeners);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static boolean supports(ApplicationListener<?> listener, Class<? extends MongoMappingEvent> eventType,
+			Class<?> domainType) {
+
+		if (listener instanceof AbstractMongoEventListener) {
+			return domainType != null
+					&& ((AbstractMongoEventListener<?>) listener).getDomainClass().isAssignableFrom(domainType)
+					&& overridesCallback(listener.getClass(), eventType);
+		}
+
+		if (listener instanceof SmartApplicationListener) {
+			return ((SmartApplicationListener) listener).supportsEventType(eventType);
+		}
+
+		return supports(listener.getClass(), eventType, domainType);
+	}
+
+	/**
+	 * Returns whether a listener of the given type might be interested in the given event type published for the given
+	 * domain type. Used to skip instantiating listener beans that can't be interested in the event.
+	 * 
+	 * @param listenerType must not be {@literal null}.
+	 * @param eventType must not be {@literal null}.
+	 * @param domainType can be {@literal null}.
+	 * @return
+	 */
+	@SuppressWarnings("rawtypes")
+	private static boolean supports(Class<?> listenerType, Class<? extends MongoMappingEvent> eventType,
+			Class<?> domainType) {
+
+		if (AbstractMongoEventListener.class.isAssignableFrom(listenerType)) {
+
+			Class<?> domainClass = GenericTypeResolver.resolveTypeArgument(listenerType,
+					AbstractMongoEventListener.class);
+
+			return domainType != null && (domainClass == null || domainClass.isAssignableFrom(domainType))
+					&& overridesCallback(listenerType, eventType);
+		}
+
+		if (SmartApplicationListener.class.isAssignableFrom(listenerType)) {
+			return true;
+		}
+
+		Class<?> declaredEventType = GenericTypeResolver.resolveTypeArgument(listenerType, ApplicationListener.class);
+
+		return declaredEventType == null || declaredEventType.isAssignableFrom(eventType);
+	}
+
+	/**
+	 * Returns whether the given {@link AbstractMongoEventListener} type customizes the handling of the given event
+	 * type.
+	 * 
+	 * @param listenerType must not be {@literal null}.
+	 * @param eventType must not be {@literal null}.
+	 * @return
+	 */
+	private static boolean overridesCallback(Class<?> listenerType, Class<?> eventType) {
+
+		Method onApplicationEvent = ReflectionUtils.findMethod(listenerType, "onApplicationEvent",
+				MongoMappingEvent.class);
+
+		if (!AbstractMongoEventListener.class.equals(onApplicationEvent.getDeclaringClass())) {
+			return true;
+		}
+
+		for (Class<?> type = eventType; type != null; type = type.getSuperclass()) {
+
+			String callback = CALLBACKS.get(type);
+
+			if (callback != null) {
+
+				Method method = ReflectionUtils.findMethod(listenerType, callback, type);
+				return method == null || !AbstractMongoEventListener.class.equals(method.getDeclaringClass());
+			}
+		}
+
+		return true;
+	}
+
+	private static Class<?> getDomainType(MongoMappingEvent<?> event) {
+
+		if (event instanceof AfterLoadEvent) {
+			return ((AfterLoadEvent<?>) event).getType();
+		}
+
+		if (event instanceof AfterBatchLoadEvent) {
+			return ((AfterBatchLoadEvent<?>) event).getType();
+		}
+
+		if (event instanceof AbstractDeleteEvent) {
+			return ((AbstractDeleteEvent<?>) event).getType();
+		}
+
+		return event.getSource().getClass();
+	}
+
+	/**
+	 * Cache key made up of the event type and the domain type the event was published for.
+	 */
+	private static class ListenerCacheKey {
+
+		private final Class<?> eventType;
+		private final Class<?> domainType;
+
+		ListenerCacheKey(Class<?> eventType, Class<?> domainType) {
+
+			this.eventType = eventType;
+			this.domainType = domainType;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof ListenerCacheKey)) {
+				return false;
+			}
+
+			ListenerCacheKey that = (ListenerCacheKey) obj;
+			return this.eventType.equals(that.eventType) && ObjectUtils.nullSafeEquals(this.domainType, that.domainType);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * eventType.hashCode() + ObjectUtils.nullSafeHashCode(domainType);
+		}
+	}
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.messaging;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.Bytes;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/**
+ * Default {@link MessageListenerContainer} implementation opening one tailable, await-data cursor per
+ * {@link Subscription}. Each cursor is read on a thread obtained from the configured task {@link Executor}, documents
+ * are converted using the {@link MongoOperations}' {@link MongoConverter} and handed to the dispatching
+ * {@link Executor}. The number of messages converted but not yet processed by the listener is bounded per subscription,
+ * so a slow listener stops the cursor from being read further. If the cursor dies (e.g. because the capped collection
+ * was empty or wrapped around) it's re-opened after a configurable delay querying for documents with an {@literal _id}
+ * greater than the last one seen.
+ * <p>
+ * Resuming by {@literal _id} relies on ids increasing in insertion order, as generated {@link org.bson.types.ObjectId}s
+ * from a single client do. Documents inserted with a lower {@literal _id} than the last one seen, e.g. client-generated
+ * ids or {@link org.bson.types.ObjectId}s from clients with skewed clocks, are skipped when a cursor is re-opened.
+ *
+ * @since 1.10
+ */
+public class DefaultMessageListenerContainer implements MessageListenerContainer, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultMessageListenerContainer.class);
+	private static final String ID_FIELD = "_id";
+	private static final long DEFAULT_RESUME_DELAY = 100;
+	private static final int DEFAULT_MAX_PENDING_MESSAGES = 256;
+	private static final long PENDING_MESSAGES_POLL_INTERVAL = 100;
+
+	private final MongoOperations template;
+	private final QueryMapper queryMapper;
+	private final Executor taskExecutor;
+	private final List<TailableCursorSubscription<?>> subscriptions = new CopyOnWriteArrayList<TailableCursorSubscription<?>>();
+
+	private Executor dispatchExecutor = new SyncTaskExecutor();
+	private ErrorHandler errorHandler = LoggingErrorHandler.INSTANCE;
+	private long resumeDelay = DEFAULT_RESUME_DELAY;
+	private int maxPendingMessages = DEFAULT_MAX_PENDING_MESSAGES;
+
+	/**
+	 * Creates a new {@link DefaultMessageListenerContainer} for the given {@link MongoOperations} reading cursors on
+	 * threads created by a {@link SimpleAsyncTaskExecutor}.
+	 *
+	 * @param template must not be {@literal null}.
+	 */
+	public DefaultMessageListenerContainer(MongoOperations template) {
+		this(template, new SimpleAsyncTaskExecutor("mongo-tailable-cursor-"));
+	}
+
+	/**
+	 * Creates a new {@link DefaultMessageListenerContainer} for the given {@link MongoOperations} reading cursors on
+	 * threads obtained from the given {@link Executor}. As every {@link Subscription} blocks a thread while waiting for
+	 * data the {@link Executor} has to provide at least as many threads as there are subscriptions.
+	 *
+	 * @param template must not be {@literal null}.
+	 * @param taskExecutor must not be {@literal null}.
+	 */
+	public DefaultMessageListenerContainer(MongoOperations template, Executor taskExecutor) {
+
+		Assert.notNull(template, "MongoOperations must not be null!");
+		Assert.notNull(taskExecutor, "Task executor must not be null!");
+
+		this.template = template;
+		this.queryMapper = new QueryMapper(template.getConverter());
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Configures the {@link Executor} to invoke the {@link MessageListener}s on. Defaults to invoking them on the thread
+	 * reading the cursor.
+	 *
+	 * @param dispatchExecutor must not be {@literal null}.
+	 */
+	public void setDispatchExecutor(Executor dispatchExecutor) {
+
+		Assert.notNull(dispatchExecutor, "Dispatch executor must not be null!");
+		this.dispatchExecutor = dispatchExecutor;
+	}
+
+	/**
+	 * Configures the {@link ErrorHandler} to be notified about exceptions thrown by listeners or while reading the
+	 * cursor. Defaults to logging them.
+	 *
+	 * @param errorHandler must not be {@literal null}.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+
+		Assert.notNull(errorHandler, "ErrorHandler must not be null!");
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Configures the time in milliseconds to wait before re-opening a dead cursor. Defaults to {@value #DEFAULT_RESUME_DELAY}.
+	 *
+	 * @param resumeDelay must not be negative.
+	 */
+	public void setResumeDelay(long resumeDelay) {
+
+		Assert.isTrue(resumeDelay >= 0, "Resume delay must not be negative!");
+		this.resumeDelay = resumeDelay;
+	}
+
+	/**
+	 * Configures the maximum number of messages per subscription that were read from the cursor but not yet processed
+	 * by the listener. Reading the cursor pauses once the limit is reached. Defaults to
+	 * {@value #DEFAULT_MAX_PENDING_MESSAGES}.
+	 *
+	 * @param maxPendingMessages must be greater than zero.
+	 */
+	public void setMaxPendingMessages(int maxPendingMessages) {
+
+		Assert.isTrue(maxPendingMessages > 0, "Maximum number of pending messages must be greater than zero!");
+		this.maxPendingMessages = maxPendingMessages;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.messaging.MessageListenerContainer#subscribe(java.lang.String, org.springframework.data.mongodb.core.query.Query, java.lang.Class, org.springframework.data.mongodb.core.messaging.MessageListener)
+	 */
+	@Override
+	public <T> Subscription subscribe(String collectionName, Query query, Class<T> type,
+			MessageListener<? super T> listener) {
+
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+		Assert.notNull(query, "Query must not be null!");
+		Assert.notNull(type, "Type must not be null!");
+		Assert.notNull(listener, "MessageListener must not be null!");
+
+		TailableCursorSubscription<T> subscription = new TailableCursorSubscription<T>(collectionName, query, type,
+				listener, new Semaphore(maxPendingMessages));
+
+		subscriptions.add(subscription);
+		taskExecutor.execute(subscription);
+
+		return subscription;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.messaging.MessageListenerContainer#stop()
+	 */
+	@Override
+	public void stop() {
+
+		for (TailableCursorSubscription<?> subscription : subscriptions) {
+			subscription.cancel();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	@Override
+	public void destroy() {
+		stop();
+	}
+
+	/**
+	 * A {@link Subscription} reading a single tailable cursor until cancelled.
+	 *
+	 * @param <T>
+	 */
+	private class TailableCursorSubscription<T> implements Subscription, Runnable {
+
+		private final String collectionName;
+		private final Query query;
+		private final Class<T> type;
+		private final MessageListener<? super T> listener;
+		private final Semaphore pendingMessages;
+
+		private volatile boolean active = true;
+		private volatile DBCursor cursor;
+		private volatile Object lastId;
+
+		TailableCursorSubscription(String collectionName, Query query, Class<T> type, MessageListener<? super T> listener,
+				Semaphore pendingMessages) {
+
+			this.collectionName = collectionName;
+			this.query = query;
+			this.type = type;
+			this.listener = listener;
+			this.pendingMessages = pendingMessages;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+
+			while (active) {
+
+				try {
+
+					DBCursor current = openCursor();
+					cursor = current;
+
+					while (active && current.hasNext()) {
+
+						DBObject document = current.next();
+						lastId = document.get(ID_FIELD);
+
+						dispatch(document);
+					}
+
+				} catch (RuntimeException e) {
+
+					if (active) {
+						errorHandler.handleError(e);
+					}
+
+				} finally {
+					closeCursor();
+				}
+
+				if (active) {
+					pause(resumeDelay);
+				}
+			}
+
+			subscriptions.remove(this);
+		}
+
+		private DBCursor openCursor() {
+
+			return template.execute(collectionName, new CollectionCallback<DBCursor>() {
+
+				@Override
+				public DBCursor doInCollection(DBCollection collection) throws MongoException, DataAccessException {
+
+					MongoPersistentEntity<?> entity = template.getConverter().getMappingContext().getPersistentEntity(type);
+
+					DBObject mappedQuery = queryMapper.getMappedObject(query.getQueryObject(), entity);
+					DBObject mappedFields = queryMapper.getMappedFields(query.getFieldsObject(), entity);
+
+					if (lastId != null) {
+						DBObject resumeQuery = new BasicDBObject(ID_FIELD, new BasicDBObject("$gt", lastId));
+						mappedQuery = new BasicDBObject("$and", Arrays.asList(mappedQuery, resumeQuery));
+					}
+
+					if (LOGGER.isDebugEnabled()) {
+						LOGGER.debug("Opening tailable cursor using query: {} in collection: {}", mappedQuery, collectionName);
+					}
+
+					return collection.find(mappedQuery, mappedFields).sort(new BasicDBObject("$natural", 1))
+							.addOption(Bytes.QUERYOPTION_TAILABLE).addOption(Bytes.QUERYOPTION_AWAITDATA);
+				}
+			});
+		}
+
+		private void dispatch(DBObject document) {
+
+			if (!acquirePendingMessage()) {
+				return;
+			}
+
+			try {
+
+				final T message = template.getConverter().read(type, document);
+
+				dispatchExecutor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+
+						try {
+							listener.onMessage(message);
+						} catch (RuntimeException e) {
+							errorHandler.handleError(e);
+						} finally {
+							pendingMessages.release();
+						}
+					}
+				});
+
+			} catch (RuntimeException e) {
+				pendingMessages.release();
+				throw e;
+			}
+		}
+
+		/**
+		 * Waits for the number of pending messages to drop below the limit. Re-checks periodically whether the
+		 * subscription was cancelled so that a listener not completing its messages doesn't block the reading thread
+		 * forever.
+		 *
+		 * @return whether a permit was acquired, {@literal false} if the subscription was cancelled or the thread
+		 *         interrupted.
+		 */
+		private boolean acquirePendingMessage() {
+
+			try {
+
+				while (active) {
+
+					if (pendingMessages.tryAcquire(PENDING_MESSAGES_POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+
+			} catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+				active = false;
+			}
+
+			return false;
+		}
+
+		private void pause(long millis) {
+
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				active = false;
+			}
+		}
+
+		private void closeCursor() {
+
+			DBCursor cursorToClose = cursor;
+			cursor = null;
+
+			if (cursorToClose != null) {
+				try {
+					cursorToClose.close();
+				} catch (RuntimeException e) {
+					LOGGER.debug("Error closing tailable cursor.", e);
+				}
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.messaging.Subscription#isActive()
+		 */
+		@Override
+		public boolean isActive() {
+			return active;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.messaging.Subscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+
+			active = false;
+			closeCursor();
+		}
+	}
+
+	/**
+	 * {@link ErrorHandler} logging exceptions at warn level.
+	 */
+	private enum LoggingErrorHandler implements ErrorHandler {
+
+		INSTANCE;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.util.ErrorHandler#handleError(java.lang.Throwable)
+		 */
+		@Override
+		public void handleError(Throwable t) {
+			LOGGER.warn("Error processing tailable cursor.", t);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.messaging;
+
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Container to register {@link MessageListener}s for documents of a collection.
+ *
+ * @since 1.10
+ */
+public interface MessageListenerContainer {
+
+	/**
+	 * Dispatches every document of the given collection matching the given {@link Query}, converted into the given type,
+	 * to the given {@link MessageListener}. How documents are obtained depends on the implementation.
+	 *
+	 * @param collectionName must not be {@literal null} or empty.
+	 * @param query must not be {@literal null}.
+	 * @param type the type to convert the documents into, must not be {@literal null}.
+	 * @param listener must not be {@literal null}.
+	 * @return the {@link Subscription} to cancel the listener.
+	 */
+	<T> Subscription subscribe(String collectionName, Query query, Class<T> type, MessageListener<? super T> listener);
+
+	/**
+	 * Cancels all active {@link Subscription}s.
+	 */
+	void stop();
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.messaging;
+
+/**
+ * A handle to an active subscription created via {@link MessageListenerContainer}.
+ *
+ * @since 1.10
+ */
+public interface Subscription {
+
+	/**
+	 * @return {@literal true} if the subscription is still receiving messages.
+	 */
+	boolean isActive();
+
+	/**
+	 * Cancels the subscription and closes the underlying cursor. Messages already handed to the dispatching executor may
+	 * still be delivered.
+	 */
+	void cancel();
+}
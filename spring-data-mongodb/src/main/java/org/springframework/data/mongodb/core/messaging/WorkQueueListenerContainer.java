@@ -0,0 +1,546 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.messaging;
+
+import static org.springframework.data.mongodb.core.query.Criteria.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+
+/**
+ * {@link MessageListenerContainer} treating the documents of a regular collection as jobs of a work queue. Jobs are
+ * claimed in batches by writing a lease, made up of a token unique to the batch and an expiry date, into the matching
+ * documents using a single multi update and reading them back by token. Claimed jobs are handed to the
+ * {@link MessageListener} on the worker {@link Executor}, the lease of jobs still in progress is renewed periodically
+ * and jobs processed without an exception are acknowledged with a single write per batch, either by removing them or
+ * by applying a configurable {@link Update}.
+ * <p>
+ * Jobs whose listener invocation failed or whose consumer died keep their lease until it expires and are claimed again
+ * afterwards, so every job is processed at least once. Lease expiry is based on the clocks of the consuming machines.
+ *
+ * @since 1.10
+ */
+public class WorkQueueListenerContainer implements MessageListenerContainer, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WorkQueueListenerContainer.class);
+	private static final String ID_FIELD = "_id";
+	private static final String TOKEN_FIELD = "token";
+	private static final String EXPIRES_FIELD = "expires";
+
+	private static final String DEFAULT_LEASE_FIELD = "_lease";
+	private static final int DEFAULT_BATCH_SIZE = 100;
+	private static final long DEFAULT_LEASE_DURATION = 60000;
+	private static final long DEFAULT_POLL_INTERVAL = 1000;
+
+	private final MongoOperations template;
+	private final Executor taskExecutor;
+	private final List<WorkQueueSubscription<?>> subscriptions = new CopyOnWriteArrayList<WorkQueueSubscription<?>>();
+
+	private Executor workerExecutor = new SyncTaskExecutor();
+	private ErrorHandler errorHandler = LoggingErrorHandler.INSTANCE;
+	private String leaseField = DEFAULT_LEASE_FIELD;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private long leaseDuration = DEFAULT_LEASE_DURATION;
+	private long pollInterval = DEFAULT_POLL_INTERVAL;
+	private Update acknowledgeUpdate;
+
+	private final AtomicLong claimed = new AtomicLong();
+	private final AtomicLong acknowledged = new AtomicLong();
+	private final AtomicLong lostLeases = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong leaseRenewals = new AtomicLong();
+	private final AtomicLong processingNanos = new AtomicLong();
+
+	/**
+	 * Creates a new {@link WorkQueueListenerContainer} for the given {@link MongoOperations} claiming jobs on threads
+	 * created by a {@link SimpleAsyncTaskExecutor}.
+	 *
+	 * @param template must not be {@literal null}.
+	 */
+	public WorkQueueListenerContainer(MongoOperations template) {
+		this(template, new SimpleAsyncTaskExecutor("mongo-work-queue-"));
+	}
+
+	/**
+	 * Creates a new {@link WorkQueueListenerContainer} for the given {@link MongoOperations} claiming jobs on threads
+	 * obtained from the given {@link Executor}. Every {@link Subscription} occupies one thread until cancelled.
+	 *
+	 * @param template must not be {@literal null}.
+	 * @param taskExecutor must not be {@literal null}.
+	 */
+	public WorkQueueListenerContainer(MongoOperations template, Executor taskExecutor) {
+
+		Assert.notNull(template, "MongoOperations must not be null!");
+		Assert.notNull(taskExecutor, "Task executor must not be null!");
+
+		this.template = template;
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Configures the {@link Executor} to process jobs on. Defaults to processing them one after another on the thread
+	 * claiming them, in which case leases are renewed between two jobs, so a single job must not take longer than half
+	 * of the {@link #setLeaseDuration(long) lease duration}.
+	 *
+	 * @param workerExecutor must not be {@literal null}.
+	 */
+	public void setWorkerExecutor(Executor workerExecutor) {
+
+		Assert.notNull(workerExecutor, "Worker executor must not be null!");
+		this.workerExecutor = workerExecutor;
+	}
+
+	/**
+	 * Configures the {@link ErrorHandler} to be notified about exceptions thrown by listeners or while claiming and
+	 * acknowledging jobs. Defaults to logging them.
+	 *
+	 * @param errorHandler must not be {@literal null}.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+
+		Assert.notNull(errorHandler, "ErrorHandler must not be null!");
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Configures the name of the document field to store the lease of a claimed job in. Defaults to
+	 * {@value #DEFAULT_LEASE_FIELD}.
+	 *
+	 * @param leaseField must not be {@literal null} or empty.
+	 */
+	public void setLeaseField(String leaseField) {
+
+		Assert.hasText(leaseField, "Lease field must not be null or empty!");
+		this.leaseField = leaseField;
+	}
+
+	/**
+	 * Configures the maximum number of jobs to claim at once. Defaults to {@value #DEFAULT_BATCH_SIZE}.
+	 *
+	 * @param batchSize must be greater than zero.
+	 */
+	public void setBatchSize(int batchSize) {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Configures the time in milliseconds a claimed job is reserved for a consumer. Leases of jobs in progress are
+	 * renewed after half of the duration. Defaults to {@value #DEFAULT_LEASE_DURATION}.
+	 *
+	 * @param leaseDuration must be greater than zero.
+	 */
+	public void setLeaseDuration(long leaseDuration) {
+
+		Assert.isTrue(leaseDuration > 0, "Lease duration must be greater than zero!");
+		this.leaseDuration = leaseDuration;
+	}
+
+	/**
+	 * Configures the time in milliseconds to wait before trying to claim jobs again once none were available. Defaults
+	 * to {@value #DEFAULT_POLL_INTERVAL}.
+	 *
+	 * @param pollInterval must not be negative.
+	 */
+	public void setPollInterval(long pollInterval) {
+
+		Assert.isTrue(pollInterval >= 0, "Poll interval must not be negative!");
+		this.pollInterval = pollInterval;
+	}
+
+	/**
+	 * Configures the {@link Update} to apply to processed jobs instead of removing them. The lease is removed in the same
+	 * update so the {@link Query} used to {@link #subscribe(String, Query, Class, MessageListener) subscribe} has to
+	 * exclude acknowledged jobs. Defaults to {@literal null}, i.e. removing processed jobs.
+	 *
+	 * @param acknowledgeUpdate can be {@literal null}.
+	 */
+	public void setAcknowledgeUpdate(Update acknowledgeUpdate) {
+		this.acknowledgeUpdate = acknowledgeUpdate;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.messaging.MessageListenerContainer#subscribe(java.lang.String, org.springframework.data.mongodb.core.query.Query, java.lang.Class, org.springframework.data.mongodb.core.messaging.MessageListener)
+	 */
+	@Override
+	public <T> Subscription subscribe(String collectionName, Query query, Class<T> type,
+			MessageListener<? super T> listener) {
+
+		Assert.hasText(collectionName, "Collection name must not be null or empty!");
+		Assert.notNull(query, "Query must not be null!");
+		Assert.notNull(type, "Type must not be null!");
+		Assert.notNull(listener, "MessageListener must not be null!");
+
+		WorkQueueSubscription<T> subscription = new WorkQueueSubscription<T>(collectionName, query, type, listener);
+
+		subscriptions.add(subscription);
+		taskExecutor.execute(subscription);
+
+		return subscription;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mongodb.core.messaging.MessageListenerContainer#stop()
+	 */
+	@Override
+	public void stop() {
+
+		for (WorkQueueSubscription<?> subscription : subscriptions) {
+			subscription.cancel();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	@Override
+	public void destroy() {
+		stop();
+	}
+
+	/**
+	 * @return the number of jobs claimed so far.
+	 */
+	public long getClaimedCount() {
+		return claimed.get();
+	}
+
+	/**
+	 * @return the number of jobs processed and acknowledged so far.
+	 */
+	public long getAcknowledgedCount() {
+		return acknowledged.get();
+	}
+
+	/**
+	 * @return the number of jobs processed but not acknowledged as their lease expired and they got claimed again before
+	 *         processing finished.
+	 */
+	public long getLostLeaseCount() {
+		return lostLeases.get();
+	}
+
+	/**
+	 * @return the number of listener invocations that failed so far.
+	 */
+	public long getFailedCount() {
+		return failed.get();
+	}
+
+	/**
+	 * @return the number of times leases of a batch were renewed.
+	 */
+	public long getLeaseRenewalCount() {
+		return leaseRenewals.get();
+	}
+
+	/**
+	 * @return the average time in milliseconds a listener took to process a job.
+	 */
+	public double getAverageProcessingTime() {
+
+		long processed = acknowledged.get() + lostLeases.get() + failed.get();
+		return processed == 0 ? 0 : processingNanos.get() / (double) processed / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * A {@link Subscription} claiming and processing batches of jobs until cancelled.
+	 *
+	 * @param <T>
+	 */
+	private class WorkQueueSubscription<T> implements Subscription, Runnable {
+
+		private final String collectionName;
+		private final Query query;
+		private final Class<T> type;
+		private final MessageListener<? super T> listener;
+
+		private volatile boolean active = true;
+
+		WorkQueueSubscription(String collectionName, Query query, Class<T> type, MessageListener<? super T> listener) {
+
+			this.collectionName = collectionName;
+			this.query = query;
+			this.type = type;
+			this.listener = listener;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+
+			while (active) {
+
+				int processed = 0;
+
+				try {
+					processed = processBatch();
+				} catch (RuntimeException e) {
+					errorHandler.handleError(e);
+				}
+
+				if (active && processed == 0) {
+					pause(pollInterval);
+				}
+			}
+
+			subscriptions.remove(this);
+		}
+
+		/**
+		 * Claims, processes and acknowledges a single batch of jobs.
+		 *
+		 * @return the number of jobs claimed.
+		 */
+		private int processBatch() {
+
+			String token = new ObjectId().toString();
+			List<DBObject> jobs = claim(token);
+
+			if (jobs.isEmpty()) {
+				return 0;
+			}
+
+			claimed.addAndGet(jobs.size());
+
+			long renewedAt = System.nanoTime();
+			final Queue<Object> done = new ConcurrentLinkedQueue<Object>();
+			final CountDownLatch latch = new CountDownLatch(jobs.size());
+
+			for (final DBObject job : jobs) {
+
+				// Synchronous executors only return once the job is done, so leases have to be renewed while dispatching
+				renewedAt = renewIfDue(token, renewedAt);
+
+				workerExecutor.execute(new Runnable() {
+
+					@Override
+					public void run() {
+
+						long start = System.nanoTime();
+
+						try {
+
+							listener.onMessage(template.getConverter().read(type, job));
+							done.add(job.get(ID_FIELD));
+
+						} catch (RuntimeException e) {
+
+							failed.incrementAndGet();
+							errorHandler.handleError(e);
+
+						} finally {
+
+							processingNanos.addAndGet(System.nanoTime() - start);
+							latch.countDown();
+						}
+					}
+				});
+			}
+
+			awaitAndRenew(token, latch, renewedAt);
+
+			List<Object> ids = new ArrayList<Object>(done);
+			acknowledge(token, ids);
+
+			return jobs.size();
+		}
+
+		private List<DBObject> claim(String token) {
+
+			Date now = new Date();
+			DBObject claimable = new BasicDBObject("$or",
+					Arrays.asList(new BasicDBObject(leaseField, new BasicDBObject("$exists", false)),
+							new BasicDBObject(leaseField + "." + EXPIRES_FIELD, new BasicDBObject("$lt", now))));
+
+			BasicQuery candidates = new BasicQuery(
+					new BasicDBObject("$and", Arrays.asList(query.getQueryObject(), claimable)));
+			candidates.limit(batchSize);
+
+			if (query.getSortObject() != null) {
+				candidates.setSortObject(query.getSortObject());
+			}
+
+			List<Object> ids = template.findIds(candidates, type, collectionName);
+
+			if (ids.isEmpty()) {
+				return new ArrayList<DBObject>();
+			}
+
+			// Re-check claimability as other consumers might have claimed some of the candidates in the meantime
+			Query claimQuery = new BasicQuery(
+					new BasicDBObject("$and", Arrays.asList(new BasicDBObject(ID_FIELD, new BasicDBObject("$in", ids)), claimable)));
+			Update lease = new Update().set(leaseField,
+					new BasicDBObject(TOKEN_FIELD, token).append(EXPIRES_FIELD, new Date(now.getTime() + leaseDuration)));
+
+			template.updateMulti(claimQuery, lease, collectionName);
+
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Claimed jobs with token {} in collection {}.", token, collectionName);
+			}
+
+			return template.find(new Query(where(leaseField + "." + TOKEN_FIELD).is(token)), DBObject.class,
+					collectionName);
+		}
+
+		private void awaitAndRenew(String token, CountDownLatch latch, long renewedAt) {
+
+			try {
+				while (!latch.await(Math.max(0, leaseDuration / 2 - millisSince(renewedAt)), TimeUnit.MILLISECONDS)) {
+					renewedAt = renew(token);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				active = false;
+			}
+		}
+
+		/**
+		 * Renews the lease of the batch with the given token in case half of the lease duration elapsed since the given
+		 * {@link System#nanoTime()} it was last renewed at.
+		 *
+		 * @param token
+		 * @param renewedAt
+		 * @return the {@link System#nanoTime()} the lease was last renewed at.
+		 */
+		private long renewIfDue(String token, long renewedAt) {
+			return millisSince(renewedAt) >= leaseDuration / 2 ? renew(token) : renewedAt;
+		}
+
+		private long renew(String token) {
+
+			template.updateMulti(new Query(where(leaseField + "." + TOKEN_FIELD).is(token)),
+					new Update().set(leaseField + "." + EXPIRES_FIELD, new Date(System.currentTimeMillis() + leaseDuration)),
+					collectionName);
+			leaseRenewals.incrementAndGet();
+
+			return System.nanoTime();
+		}
+
+		private long millisSince(long nanoTime) {
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanoTime);
+		}
+
+		private void acknowledge(String token, List<Object> ids) {
+
+			if (ids.isEmpty()) {
+				return;
+			}
+
+			Query processed = new Query(where(ID_FIELD).in(ids).and(leaseField + "." + TOKEN_FIELD).is(token));
+
+			WriteResult result;
+
+			if (acknowledgeUpdate == null) {
+				result = template.remove(processed, collectionName);
+			} else {
+				BasicDBObject update = (BasicDBObject) ((BasicDBObject) acknowledgeUpdate.getUpdateObject()).copy();
+				result = template.updateMulti(processed, Update.fromDBObject(update).unset(leaseField), collectionName);
+			}
+
+			// Jobs whose lease expired and got claimed by another consumer in the meantime are not matched by the write
+			int matched = result != null && result.wasAcknowledged() ? result.getN() : ids.size();
+			int lost = ids.size() - matched;
+
+			acknowledged.addAndGet(matched);
+
+			if (lost > 0) {
+
+				lostLeases.addAndGet(lost);
+				LOGGER.warn("Lost the lease of {} of {} jobs processed with token {} in collection {}, "
+						+ "they might get processed again.", lost, ids.size(), token, collectionName);
+			}
+		}
+
+		private void pause(long millis) {
+
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				active = false;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.messaging.Subscription#isActive()
+		 */
+		@Override
+		public boolean isActive() {
+			return active;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.data.mongodb.core.messaging.Subscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+			active = false;
+		}
+	}
+
+	/**
+	 * {@link ErrorHandler} logging exceptions at warn level.
+	 */
+	private enum LoggingErrorHandler implements ErrorHandler {
+
+		INSTANCE;
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.util.ErrorHandler#handleError(java.lang.Throwable)
+		 */
+		@Override
+		public void handleError(Throwable t) {
+			LOGGER.warn("Error processing work queue.", t);
+		}
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * Support for listening to documents appended to capped collections via tailable cursors and for consuming documents
+ * of a collection as jobs of a work queue.
+ */
+package org.springframework.data.mongodb.core.messaging;
@@ -49,6 +49,7 @@ public class Meta {
 
 	private final Map<String, Object> values = new LinkedHashMap<String, Object>(2);
 	private final Set<CursorOption> flags = new LinkedHashSet<CursorOption>();
+	private Integer cursorBatchSize;
 
 	/**
 	 * @return {@literal null} if not set.
@@ -124,6 +125,27 @@ public class Meta {
 		return getValue(MetaKey.SNAPSHOT.key, false);
 	}
 
+	/**
+	 * @return {@literal null} if not set.
+	 * @since 1.10
+	 */
+	public Integer getCursorBatchSize() {
+		return cursorBatchSize;
+	}
+
+	/**
+	 * Apply the given batch size to the cursor, i.e. the number of documents to return per batch. Setting a batch size
+	 * also excludes the cursor from adaptive batch sizing.
+	 *
+	 * @param cursorBatchSize must be greater than zero.
+	 * @since 1.10
+	 */
+	public void setCursorBatchSize(int cursorBatchSize) {
+
+		Assert.isTrue(cursorBatchSize > 0, "Cursor batch size must be greater than zero!");
+		this.cursorBatchSize = cursorBatchSize;
+	}
+
 	/**
 	 * Add {@link CursorOption} influencing behavior of the {@link com.mongodb.DBCursor}.
 	 *
@@ -149,7 +171,7 @@ public class Meta {
 	 * @return
 	 */
 	public boolean hasValues() {
-		return !this.values.isEmpty() || !this.flags.isEmpty();
+		return !this.values.isEmpty() || !this.flags.isEmpty() || this.cursorBatchSize != null;
 	}
 
 	/**
@@ -197,6 +219,7 @@ public class Meta {
 
 		int hash = ObjectUtils.nullSafeHashCode(this.values);
 		hash += ObjectUtils.nullSafeHashCode(this.flags);
+		hash += ObjectUtils.nullSafeHashCode(this.cursorBatchSize);
 		return hash;
 	}
 
@@ -219,7 +242,10 @@ public class Meta {
 		if (!ObjectUtils.nullSafeEquals(this.values, other.values)) {
 			return false;
 		}
-		return ObjectUtils.nullSafeEquals(this.flags, other.flags);
+		if (!ObjectUtils.nullSafeEquals(this.flags, other.flags)) {
+			return false;
+		}
+		return ObjectUtils.nullSafeEquals(this.cursorBatchSize, other.cursorBatchSize);
 	}
 
 	/**
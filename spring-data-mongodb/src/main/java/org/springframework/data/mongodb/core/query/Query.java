@@ -56,6 +56,7 @@ public class Query {
 	private String hint;
 
 	private Meta meta = new Meta();
+	private boolean cacheResults;
 
 	/**
 	 * Static factory method to create a {@link Query} using the provided {@link CriteriaDefinition}.
@@ -337,6 +338,20 @@ public class Query {
 		return this;
 	}
 
+	/**
+	 * Set the number of documents to return in each response batch, overriding adaptive batch sizing.
+	 *
+	 * @param batchSize must be greater than zero.
+	 * @return
+	 * @see Meta#setCursorBatchSize(int)
+	 * @since 1.10
+	 */
+	public Query cursorBatchSize(int batchSize) {
+
+		meta.setCursorBatchSize(batchSize);
+		return this;
+	}
+
 	/**
 	 * @return
 	 * @see org.springframework.data.mongodb.core.query.Meta.CursorOption#NO_TIMEOUT
@@ -381,6 +396,28 @@ public class Query {
 		return this;
 	}
 
+	/**
+	 * Marks the results of the {@link Query} as cacheable by the
+	 * {@link org.springframework.data.mongodb.core.cache.QueryResultCache} of the executing template, if one is
+	 * configured.
+	 *
+	 * @return
+	 * @since 1.10
+	 */
+	public Query cacheResults() {
+
+		this.cacheResults = true;
+		return this;
+	}
+
+	/**
+	 * @return whether the results of the {@link Query} may be cached.
+	 * @since 1.10
+	 */
+	public boolean isCacheResults() {
+		return cacheResults;
+	}
+
 	/**
 	 * @return never {@literal null}.
 	 * @since 1.6
@@ -97,6 +97,16 @@ public class ExpressionNode implements Iterable<ExpressionNode> {
 		return node.toStringAST();
 	}
 
+	/**
+	 * Returns the type of the backing {@link SpelNode}.
+	 * 
+	 * @return
+	 * @since 1.10
+	 */
+	public Class<? extends SpelNode> getNodeType() {
+		return node.getClass();
+	}
+
 	/**
 	 * Returns whether the current {@link ExpressionNode} is backed by the given type.
 	 * 
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.view;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Definition of a collection holding the result of a {@code $group} over a source collection, i.e. a count and sums
+ * per group key. The view can be rebuilt from scratch using the {@link Aggregation} returned by
+ * {@link #toAggregation()} and maintained incrementally by applying the deltas caused by writes to the source
+ * collection via {@link MaterializedViewMaintainer}.
+ *
+ * @since 1.10
+ */
+public class MaterializedGroupView {
+
+	private final String sourceCollection;
+	private final String viewCollection;
+	private final List<String> groupFields;
+	private final Map<String, String> sumFields = new LinkedHashMap<String, String>();
+	private String countField;
+
+	/**
+	 * Creates a new {@link MaterializedGroupView} grouping the documents of the given source collection by the given
+	 * fields into the given view collection.
+	 *
+	 * @param sourceCollection must not be {@literal null} or empty.
+	 * @param viewCollection must not be {@literal null} or empty.
+	 * @param groupFields the top level fields to group by, must not be empty.
+	 */
+	public MaterializedGroupView(String sourceCollection, String viewCollection, String... groupFields) {
+
+		Assert.hasText(sourceCollection, "Source collection must not be null or empty!");
+		Assert.hasText(viewCollection, "View collection must not be null or empty!");
+		Assert.notEmpty(groupFields, "Group fields must not be empty!");
+
+		for (String groupField : groupFields) {
+			Assert.isTrue(StringUtils.hasText(groupField) && !groupField.contains("."),
+					"Group fields must be top level fields!");
+		}
+
+		this.sourceCollection = sourceCollection;
+		this.viewCollection = viewCollection;
+		this.groupFields = Collections.unmodifiableList(Arrays.asList(groupFields));
+	}
+
+	/**
+	 * Counts the documents per group into the given field.
+	 *
+	 * @param alias must not be {@literal null} or empty.
+	 * @return
+	 */
+	public MaterializedGroupView count(String alias) {
+
+		Assert.hasText(alias, "Alias must not be null or empty!");
+
+		this.countField = alias;
+		return this;
+	}
+
+	/**
+	 * Sums up the numeric values of the given field per group into the given alias.
+	 *
+	 * @param field must not be {@literal null} or empty.
+	 * @param alias must not be {@literal null} or empty.
+	 * @return
+	 */
+	public MaterializedGroupView sum(String field, String alias) {
+
+		Assert.hasText(field, "Field must not be null or empty!");
+		Assert.hasText(alias, "Alias must not be null or empty!");
+
+		this.sumFields.put(alias, field);
+		return this;
+	}
+
+	/**
+	 * @return the name of the collection the grouped documents are read from.
+	 */
+	public String getSourceCollection() {
+		return sourceCollection;
+	}
+
+	/**
+	 * @return the name of the collection holding the groups.
+	 */
+	public String getViewCollection() {
+		return viewCollection;
+	}
+
+	/**
+	 * @return the field holding the number of documents per group, {@literal null} if documents are not counted.
+	 */
+	public String getCountField() {
+		return countField;
+	}
+
+	/**
+	 * Returns the {@link Aggregation} computing all groups from scratch and replacing the view collection with the
+	 * result.
+	 *
+	 * @return
+	 */
+	public Aggregation toAggregation() {
+
+		GroupOperation group = group(groupFields.toArray(new String[groupFields.size()]));
+
+		if (countField != null) {
+			group = group.count().as(countField);
+		}
+
+		for (Entry<String, String> sumField : sumFields.entrySet()) {
+			group = group.sum(sumField.getValue()).as(sumField.getKey());
+		}
+
+		return newAggregation(group, out(viewCollection));
+	}
+
+	/**
+	 * Returns the fields of a source document required to compute its contribution to the view.
+	 *
+	 * @return
+	 */
+	DBObject getFieldsObject() {
+
+		DBObject fields = new BasicDBObject();
+
+		for (String groupField : groupFields) {
+			fields.put(groupField, 1);
+		}
+
+		for (String sumField : sumFields.values()) {
+			fields.put(sumField, 1);
+		}
+
+		return fields;
+	}
+
+	/**
+	 * Returns the identifier of the group the given source document belongs to. Mirrors the {@code _id} created by the
+	 * {@code $group} stage of {@link #toAggregation()}, which omits fields missing in the document from compound keys.
+	 *
+	 * @param document must not be {@literal null}.
+	 * @return
+	 */
+	Object getGroupKey(DBObject document) {
+
+		if (groupFields.size() == 1) {
+			return document.get(groupFields.get(0));
+		}
+
+		DBObject key = new BasicDBObject();
+
+		for (String groupField : groupFields) {
+			if (document.containsField(groupField)) {
+				key.put(groupField, document.get(groupField));
+			}
+		}
+
+		return key;
+	}
+
+	/**
+	 * Adds the contribution of the given source document to the given group deltas. Documents being removed from the
+	 * source collection contribute with a negative sign.
+	 *
+	 * @param document must not be {@literal null}.
+	 * @param sign either {@literal 1} or {@literal -1}.
+	 * @param deltas the increments per group key.
+	 */
+	void contribute(DBObject document, int sign, Map<Object, Map<String, Number>> deltas) {
+
+		Object key = getGroupKey(document);
+		Map<String, Number> increments = deltas.get(key);
+
+		if (increments == null) {
+			increments = new LinkedHashMap<String, Number>();
+			deltas.put(key, increments);
+		}
+
+		if (countField != null) {
+			add(increments, countField, sign);
+		}
+
+		for (Entry<String, String> sumField : sumFields.entrySet()) {
+
+			Object value = getValue(document, sumField.getValue());
+
+			if (value instanceof Number) {
+				add(increments, sumField.getKey(), negateIfNecessary((Number) value, sign));
+			}
+		}
+	}
+
+	private static Object getValue(DBObject document, String path) {
+
+		Object current = document;
+
+		for (String segment : path.split("\\.")) {
+
+			if (!(current instanceof DBObject)) {
+				return null;
+			}
+
+			current = ((DBObject) current).get(segment);
+		}
+
+		return current;
+	}
+
+	private static Number negateIfNecessary(Number value, int sign) {
+
+		if (sign > 0) {
+			return value;
+		}
+
+		return isIntegral(value) ? (Number) (-value.longValue()) : (Number) (-value.doubleValue());
+	}
+
+	private static void add(Map<String, Number> increments, String field, Number value) {
+
+		Number current = increments.get(field);
+
+		if (current == null) {
+			increments.put(field, value);
+		} else if (isIntegral(current) && isIntegral(value)) {
+			increments.put(field, current.longValue() + value.longValue());
+		} else {
+			increments.put(field, current.doubleValue() + value.doubleValue());
+		}
+	}
+
+	private static boolean isIntegral(Number value) {
+		return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+	}
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * Keeps {@link MaterializedGroupView}s up to date with writes to their source collections. Callers record the state of
+ * the written documents before and after the write in {@link Changes} obtained via {@link #startChanges(String)},
+ * which turn the differences into {@code $inc} upserts per group and send them to the view collections in unordered
+ * bulk writes. Groups whose count dropped to zero are removed.
+ * <p>
+ * Failures to update a view are logged and counted but not propagated, as the write to the source collection has
+ * already been applied. Such failures, writes bypassing the maintainer or writes racing with each other can cause the
+ * views to drift, so they should be rebuilt periodically using a {@link MaterializedViewReconciler}.
+ *
+ * @since 1.10
+ */
+public class MaterializedViewMaintainer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MaterializedViewMaintainer.class);
+	private static final String ID_FIELD = "_id";
+	private static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private final List<MaterializedGroupView> views;
+	private final Map<String, List<MaterializedGroupView>> viewsBySource = new HashMap<String, List<MaterializedGroupView>>();
+	private final Map<String, DBObject> fieldsBySource = new HashMap<String, DBObject>();
+
+	private final AtomicLong failures = new AtomicLong();
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Creates a new {@link MaterializedViewMaintainer} for the given views.
+	 *
+	 * @param views must not be {@literal null}.
+	 */
+	public MaterializedViewMaintainer(MaterializedGroupView... views) {
+		this(Arrays.asList(views));
+	}
+
+	/**
+	 * Creates a new {@link MaterializedViewMaintainer} for the given views.
+	 *
+	 * @param views must not be {@literal null}.
+	 */
+	public MaterializedViewMaintainer(Collection<MaterializedGroupView> views) {
+
+		Assert.notNull(views, "Views must not be null!");
+
+		this.views = Collections.unmodifiableList(new ArrayList<MaterializedGroupView>(views));
+
+		for (MaterializedGroupView view : views) {
+
+			String source = view.getSourceCollection();
+
+			if (!viewsBySource.containsKey(source)) {
+				viewsBySource.put(source, new ArrayList<MaterializedGroupView>());
+				fieldsBySource.put(source, new BasicDBObject());
+			}
+
+			viewsBySource.get(source).add(view);
+			fieldsBySource.get(source).putAll(view.getFieldsObject());
+		}
+	}
+
+	/**
+	 * Configures the maximum number of group updates sent to a view collection in a single bulk write. Defaults to
+	 * {@value #DEFAULT_BATCH_SIZE}.
+	 *
+	 * @param batchSize must be greater than zero.
+	 */
+	public void setBatchSize(int batchSize) {
+
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the maximum number of group updates sent to a view collection in a single bulk write, which is also used
+	 * as batch size when reading source documents.
+	 *
+	 * @return
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return the number of view updates that failed and left the view to be reconciled.
+	 */
+	public long getFailureCount() {
+		return failures.get();
+	}
+
+	/**
+	 * @return all maintained views.
+	 */
+	public List<MaterializedGroupView> getViews() {
+		return views;
+	}
+
+	/**
+	 * Returns whether any view is defined on the given collection.
+	 *
+	 * @param sourceCollection
+	 * @return
+	 */
+	public boolean hasViews(String sourceCollection) {
+		return viewsBySource.containsKey(sourceCollection);
+	}
+
+	/**
+	 * Returns the fields of the documents in the given collection the views defined on it depend on.
+	 *
+	 * @param sourceCollection must not be {@literal null}.
+	 * @return a new projection document, never {@literal null}.
+	 */
+	public DBObject getFieldsObject(String sourceCollection) {
+
+		DBObject fields = fieldsBySource.get(sourceCollection);
+		return fields == null ? new BasicDBObject(ID_FIELD, 1) : new BasicDBObject(fields.toMap());
+	}
+
+	/**
+	 * Starts recording the changes caused by a write to the given source collection.
+	 *
+	 * @param sourceCollection must not be {@literal null}.
+	 * @return
+	 */
+	public Changes startChanges(String sourceCollection) {
+
+		Assert.notNull(sourceCollection, "Source collection must not be null!");
+
+		List<MaterializedGroupView> sourceViews = viewsBySource.get(sourceCollection);
+		return new Changes(sourceViews == null ? Collections.<MaterializedGroupView> emptyList() : sourceViews);
+	}
+
+	/**
+	 * Applies the changes caused by a write to the given source collection to all views defined on it.
+	 *
+	 * @param source must not be {@literal null}.
+	 * @param previous the state of the written documents before the write, must not be {@literal null}.
+	 * @param current the state of the written documents after the write, must not be {@literal null}.
+	 */
+	public void apply(DBCollection source, Collection<DBObject> previous, Collection<DBObject> current) {
+
+		Assert.notNull(source, "Source collection must not be null!");
+		Assert.notNull(previous, "Previous documents must not be null!");
+		Assert.notNull(current, "Current documents must not be null!");
+
+		Changes changes = startChanges(source.getName());
+
+		for (DBObject document : previous) {
+			changes.addPrevious(document);
+		}
+
+		for (DBObject document : current) {
+			changes.addCurrent(document);
+		}
+
+		changes.apply(source);
+	}
+
+	private void write(DBCollection target, MaterializedGroupView view, Map<Object, Map<String, Number>> deltas) {
+
+		List<Object> decremented = new ArrayList<Object>();
+		BulkWriteOperation bulk = null;
+		int pending = 0;
+
+		for (Iterator<Entry<Object, Map<String, Number>>> iterator = deltas.entrySet().iterator(); iterator.hasNext();) {
+
+			Entry<Object, Map<String, Number>> delta = iterator.next();
+			DBObject increments = new BasicDBObject();
+
+			for (Entry<String, Number> increment : delta.getValue().entrySet()) {
+				if (increment.getValue().doubleValue() != 0) {
+					increments.put(increment.getKey(), increment.getValue());
+				}
+			}
+
+			if (!increments.keySet().isEmpty()) {
+
+				if (bulk == null) {
+					bulk = target.initializeUnorderedBulkOperation();
+				}
+
+				bulk.find(new BasicDBObject(ID_FIELD, delta.getKey())).upsert()
+						.updateOne(new BasicDBObject("$inc", increments));
+				pending++;
+
+				Number count = view.getCountField() == null ? null : delta.getValue().get(view.getCountField());
+
+				if (count != null && count.longValue() < 0) {
+					decremented.add(delta.getKey());
+				}
+			}
+
+			if (bulk != null && (pending == batchSize || !iterator.hasNext())) {
+
+				bulk.execute();
+				bulk = null;
+				pending = 0;
+			}
+		}
+
+		if (!decremented.isEmpty()) {
+
+			DBObject emptyGroups = new BasicDBObject(ID_FIELD, new BasicDBObject("$in", decremented));
+			emptyGroups.put(view.getCountField(), new BasicDBObject("$lte", 0));
+
+			target.remove(emptyGroups);
+		}
+	}
+
+	private void failed(String message, RuntimeException cause) {
+
+		failures.incrementAndGet();
+		LOGGER.warn(message + " Leaving the drift to be reconciled.", cause);
+	}
+
+	/**
+	 * The group deltas caused by a single write to a source collection, accumulated from the documents written one by
+	 * one so that the written documents do not have to be held in memory. Not thread-safe.
+	 */
+	public class Changes {
+
+		private final List<MaterializedGroupView> views;
+		private final List<Map<Object, Map<String, Number>>> deltas;
+		private final List<Object> currentIds = new ArrayList<Object>();
+
+		private Changes(List<MaterializedGroupView> views) {
+
+			this.views = views;
+			this.deltas = new ArrayList<Map<Object, Map<String, Number>>>(views.size());
+
+			for (int i = 0; i < views.size(); i++) {
+				deltas.add(new LinkedHashMap<Object, Map<String, Number>>());
+			}
+		}
+
+		/**
+		 * Records the state of a written document before the write.
+		 *
+		 * @param document must not be {@literal null}.
+		 */
+		public void addPrevious(DBObject document) {
+			contribute(document, -1);
+		}
+
+		/**
+		 * Records the state of a written document after the write.
+		 *
+		 * @param document must not be {@literal null}.
+		 */
+		public void addCurrent(DBObject document) {
+			contribute(document, 1);
+		}
+
+		/**
+		 * Records the identifier of a written document whose state after the write is to be read from the source
+		 * collection when the changes are {@link #apply(DBCollection) applied}.
+		 *
+		 * @param id must not be {@literal null}.
+		 */
+		public void addCurrentById(Object id) {
+
+			if (!views.isEmpty()) {
+				currentIds.add(id);
+			}
+		}
+
+		/**
+		 * Reads the documents recorded by identifier in batches and applies the accumulated deltas to the views.
+		 * Failures are logged and counted rather than propagated.
+		 *
+		 * @param source must not be {@literal null}.
+		 */
+		public void apply(DBCollection source) {
+
+			Assert.notNull(source, "Source collection must not be null!");
+
+			if (views.isEmpty()) {
+				return;
+			}
+
+			try {
+				readCurrent(source);
+			} catch (RuntimeException o_O) {
+
+				failed(String.format("Failed to read written documents of collection %s!", source.getName()), o_O);
+				return;
+			}
+
+			for (int i = 0; i < views.size(); i++) {
+
+				MaterializedGroupView view = views.get(i);
+
+				if (deltas.get(i).isEmpty()) {
+					continue;
+				}
+
+				try {
+					write(source.getDB().getCollection(view.getViewCollection()), view, deltas.get(i));
+				} catch (RuntimeException o_O) {
+					failed(String.format("Failed to update view %s of collection %s!", view.getViewCollection(),
+							view.getSourceCollection()), o_O);
+				}
+			}
+		}
+
+		private void contribute(DBObject document, int sign) {
+
+			for (int i = 0; i < views.size(); i++) {
+				views.get(i).contribute(document, sign, deltas.get(i));
+			}
+		}
+
+		private void readCurrent(DBCollection source) {
+
+			DBObject fields = getFieldsObject(source.getName());
+
+			for (int start = 0; start < currentIds.size(); start += batchSize) {
+
+				List<Object> ids = new ArrayList<Object>(
+						currentIds.subList(start, Math.min(start + batchSize, currentIds.size())));
+				DBCursor cursor = source.find(new BasicDBObject(ID_FIELD, new BasicDBObject("$in", ids)), fields);
+
+				try {
+
+					cursor.batchSize(batchSize);
+
+					while (cursor.hasNext()) {
+						addCurrent(cursor.next());
+					}
+
+				} finally {
+					cursor.close();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.view;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.util.Assert;
+
+import com.mongodb.DBObject;
+
+/**
+ * Rebuilds the views of a {@link MaterializedViewMaintainer} from scratch by running their
+ * {@link MaterializedGroupView#toAggregation() aggregations}, replacing the view collections with the result. Meant to
+ * be scheduled periodically, e.g. via a {@link org.springframework.scheduling.TaskScheduler}, to correct any drift of
+ * the incrementally maintained views. Increments applied while a view is rebuilt may get lost until the next run.
+ *
+ * @since 1.10
+ */
+public class MaterializedViewReconciler implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MaterializedViewReconciler.class);
+
+	private final MongoOperations operations;
+	private final MaterializedViewMaintainer maintainer;
+
+	/**
+	 * Creates a new {@link MaterializedViewReconciler} rebuilding the views of the given
+	 * {@link MaterializedViewMaintainer}.
+	 *
+	 * @param operations must not be {@literal null}.
+	 * @param maintainer must not be {@literal null}.
+	 */
+	public MaterializedViewReconciler(MongoOperations operations, MaterializedViewMaintainer maintainer) {
+
+		Assert.notNull(operations, "MongoOperations must not be null!");
+		Assert.notNull(maintainer, "MaterializedViewMaintainer must not be null!");
+
+		this.operations = operations;
+		this.maintainer = maintainer;
+	}
+
+	/**
+	 * Rebuilds all views. A failure to rebuild a single view is logged and does not prevent the other views from being
+	 * rebuilt.
+	 */
+	@Override
+	public void run() {
+
+		for (MaterializedGroupView view : maintainer.getViews()) {
+
+			try {
+				reconcile(view);
+			} catch (RuntimeException o_O) {
+				LOGGER.warn(String.format("Failed to rebuild view %s of collection %s!", view.getViewCollection(),
+						view.getSourceCollection()), o_O);
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the given view.
+	 *
+	 * @param view must not be {@literal null}.
+	 */
+	public void reconcile(MaterializedGroupView view) {
+
+		Assert.notNull(view, "View must not be null!");
+
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Rebuilding view {} of collection {}.", view.getViewCollection(), view.getSourceCollection());
+		}
+
+		operations.aggregate(view.toAggregation(), view.getSourceCollection(), DBObject.class);
+	}
+}
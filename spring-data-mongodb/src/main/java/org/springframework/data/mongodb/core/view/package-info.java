@@ -0,0 +1,5 @@
+/**
+ * Support for collections holding grouped aggregates of other collections that are kept up to date by
+ * {@link org.springframework.data.mongodb.core.MongoTemplate} writes.
+ */
+package org.springframework.data.mongodb.core.view;
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.monitor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.mongodb.core.diagnostics.ClientMetrics;
+import org.springframework.data.mongodb.core.diagnostics.ClientMetrics.ConnectionPoolStatistics;
+import org.springframework.data.mongodb.core.diagnostics.ClientMetrics.OperationLatency;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedMetric;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.jmx.support.MetricType;
+import org.springframework.util.Assert;
+
+/**
+ * JMX Metrics for the client side {@link ClientMetrics} of the current process, as opposed to the server side
+ * statistics exposed by the other monitors.
+ *
+ * @since 1.10
+ */
+@ManagedResource(description = "Client Operation Metrics")
+public class ClientOperationMetrics {
+
+	private final ClientMetrics metrics;
+
+	/**
+	 * Creates a new {@link ClientOperationMetrics} exposing the given {@link ClientMetrics}.
+	 *
+	 * @param metrics must not be {@literal null}.
+	 */
+	public ClientOperationMetrics(ClientMetrics metrics) {
+
+		Assert.notNull(metrics, "ClientMetrics must not be null!");
+		this.metrics = metrics;
+	}
+
+	@ManagedMetric(metricType = MetricType.COUNTER, displayName = "Cursors opened")
+	public long getCursorsOpened() {
+		return metrics.getCursorsOpened();
+	}
+
+	@ManagedMetric(metricType = MetricType.COUNTER, displayName = "Cursors closed")
+	public long getCursorsClosed() {
+		return metrics.getCursorsClosed();
+	}
+
+	@ManagedMetric(metricType = MetricType.COUNTER, displayName = "Cursors leaked")
+	public long getCursorsLeaked() {
+		return metrics.getCursorsLeaked();
+	}
+
+	@ManagedMetric(metricType = MetricType.GAUGE, displayName = "Open cursors")
+	public long getOpenCursors() {
+		return metrics.getOpenCursors();
+	}
+
+	@ManagedMetric(metricType = MetricType.GAUGE, displayName = "Connections in use")
+	public int getConnectionsInUse() {
+
+		int inUse = 0;
+
+		for (ConnectionPoolStatistics pool : metrics.getConnectionPoolStatistics()) {
+			inUse += Math.max(0, pool.getCheckedOut());
+		}
+
+		return inUse;
+	}
+
+	@ManagedAttribute(description = "Connection pools per server")
+	public String[] getConnectionPools() {
+
+		List<String> result = new ArrayList<String>();
+
+		for (ConnectionPoolStatistics pool : metrics.getConnectionPoolStatistics()) {
+			result.add(pool.toString());
+		}
+
+		return result.toArray(new String[result.size()]);
+	}
+
+	@ManagedAttribute(description = "Latency percentiles per collection and operation")
+	public String[] getOperationLatencies() {
+
+		List<String> result = new ArrayList<String>();
+
+		for (OperationLatency latency : metrics.getOperationLatencies()) {
+			result.add(latency.toString());
+		}
+
+		return result.toArray(new String[result.size()]);
+	}
+
+	@ManagedOperation(description = "Resets latencies and cursor counters")
+	public void reset() {
+		metrics.reset();
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.monitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexAdvice;
+import org.springframework.data.mongodb.core.index.IndexAdvisor;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.QueryShapeRecorder;
+import org.springframework.data.mongodb.core.index.QueryShapeStatistics;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedMetric;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.jmx.support.MetricType;
+import org.springframework.util.Assert;
+
+/**
+ * JMX Metrics for the query shapes recorded by a {@link QueryShapeRecorder} and the index advice derived from them.
+ *
+ * @since 1.10
+ */
+@ManagedResource(description = "Query Shapes")
+public class QueryShapeMetrics {
+
+	private final QueryShapeRecorder recorder;
+	private final MongoOperations operations;
+	private final IndexAdvisor advisor = new IndexAdvisor();
+
+	/**
+	 * Creates a new {@link QueryShapeMetrics} for the given {@link QueryShapeRecorder} looking up indexes via the given
+	 * {@link MongoOperations}.
+	 *
+	 * @param recorder must not be {@literal null}.
+	 * @param operations must not be {@literal null}.
+	 */
+	public QueryShapeMetrics(QueryShapeRecorder recorder, MongoOperations operations) {
+
+		Assert.notNull(recorder, "QueryShapeRecorder must not be null!");
+		Assert.notNull(operations, "MongoOperations must not be null!");
+
+		this.recorder = recorder;
+		this.operations = operations;
+	}
+
+	@ManagedMetric(metricType = MetricType.GAUGE, displayName = "Recorded query shapes")
+	public int getShapeCount() {
+		return recorder.getSize();
+	}
+
+	@ManagedMetric(metricType = MetricType.COUNTER, displayName = "Evicted query shapes")
+	public long getEvictionCount() {
+		return recorder.getEvictionCount();
+	}
+
+	@ManagedAttribute(description = "Recorded query shapes, most frequent first")
+	public String[] getShapes() {
+
+		List<String> shapes = new ArrayList<String>();
+
+		for (QueryShapeStatistics statistics : recorder.getStatistics()) {
+			shapes.add(statistics.toString());
+		}
+
+		return shapes.toArray(new String[shapes.size()]);
+	}
+
+	@ManagedOperation(description = "Query shapes lacking a supporting index, most frequent first. "
+			+ "Looks up the indexes of every collection queried, one round trip per collection")
+	public String[] adviseIndexes() {
+
+		List<String> result = new ArrayList<String>();
+
+		for (IndexAdvice advice : getIndexAdvice()) {
+			result.add(advice.toString());
+		}
+
+		return result.toArray(new String[result.size()]);
+	}
+
+	@ManagedOperation(description = "Removes all recorded query shapes")
+	public void reset() {
+		recorder.reset();
+	}
+
+	/**
+	 * Compares all recorded shapes against the current indexes of their collections. The indexes are looked up once per
+	 * invocation for every collection with recorded shapes, so each call costs one round trip per collection.
+	 *
+	 * @return the advice for all shapes not supported by an index, most frequent shapes first.
+	 */
+	public List<IndexAdvice> getIndexAdvice() {
+
+		Map<String, List<IndexInfo>> indexes = new HashMap<String, List<IndexInfo>>();
+		List<IndexAdvice> result = new ArrayList<IndexAdvice>();
+
+		for (QueryShapeStatistics statistics : recorder.getStatistics()) {
+
+			String collectionName = statistics.getShape().getCollectionName();
+
+			if (!indexes.containsKey(collectionName)) {
+				indexes.put(collectionName, operations.indexOps(collectionName).getIndexInfo());
+			}
+
+			IndexAdvice advice = advisor.advise(statistics.getShape(), indexes.get(collectionName));
+
+			if (advice != null) {
+				result.add(advice);
+			}
+		}
+
+		return result;
+	}
+}
@@ -141,6 +141,10 @@ public abstract class AbstractMongoQuery implements RepositoryQuery {
 			query.setMeta(method.getQueryMetaAttributes());
 		}
 
+		if (method.isCacheResults()) {
+			query.cacheResults();
+		}
+
 		return query;
 	}
 
@@ -147,8 +147,8 @@ interface MongoQueryExecution {
 				@Override
 				public long get() {
 
-					long count = operations.count(query, type, collection);
-					return overallLimit != 0 ? Math.min(count, overallLimit) : count;
+					return overallLimit != 0 ? operations.countUpTo(query, overallLimit, type, collection)
+							: operations.count(query, type, collection);
 				}
 			});
 		}
@@ -28,6 +28,7 @@ import org.springframework.data.geo.GeoResults;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.CacheResults;
 import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.projection.ProjectionFactory;
@@ -209,6 +210,14 @@ public class MongoQueryMethod extends QueryMethod {
 		return getMetaAnnotation() != null;
 	}
 
+	/**
+	 * @return whether the method is annotated with {@link CacheResults}.
+	 * @since 1.10
+	 */
+	public boolean isCacheResults() {
+		return AnnotatedElementUtils.findMergedAnnotation(method, CacheResults.class) != null;
+	}
+
 	/**
 	 * Returns the {@link Meta} annotation that is applied to the method or {@code null} if not available.
 	 * 
@@ -21,9 +21,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
@@ -203,12 +201,14 @@ public class SimpleMongoRepository<T, ID extends Serializable> implements MongoR
 	 */
 	public Iterable<T> findAll(Iterable<ID> ids) {
 
-		Set<ID> parameters = new HashSet<ID>(tryDetermineRealSizeOrReturn(ids, 10));
-		for (ID id : ids) {
-			parameters.add(id);
+		List<ID> parameters = convertIterableToList(ids);
+
+		if (parameters.isEmpty()) {
+			return Collections.emptyList();
 		}
 
-		return findAll(new Query(new Criteria(entityInformation.getIdAttribute()).in(parameters)));
+		return new ArrayList<T>(mongoOperations
+				.findAllById(parameters, entityInformation.getJavaType(), entityInformation.getCollectionName()).values());
 	}
 
 	/*
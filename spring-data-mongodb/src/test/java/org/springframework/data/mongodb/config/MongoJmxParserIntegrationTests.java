@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.monitor.ClientOperationMetrics;
+import org.springframework.data.mongodb.monitor.QueryShapeMetrics;
+
+/**
+ * Integration tests for {@link MongoJmxParser}.
+ */
+public class MongoJmxParserIntegrationTests {
+
+	DefaultListableBeanFactory factory;
+
+	@Before
+	public void setUp() {
+
+		factory = new DefaultListableBeanFactory();
+		new XmlBeanDefinitionReader(factory).loadBeanDefinitions(new ClassPathResource("namespace/jmx-bean.xml"));
+	}
+
+	@Test
+	public void registersQueryShapeMetricsForConfiguredRecorderAndTemplate() {
+
+		List<ValueHolder> arguments = getConstructorArguments(QueryShapeMetrics.class);
+
+		assertThat(arguments, hasSize(2));
+		assertThat(((RuntimeBeanReference) arguments.get(0).getValue()).getBeanName(), is("recorder"));
+		assertThat(((RuntimeBeanReference) arguments.get(1).getValue()).getBeanName(), is("template"));
+	}
+
+	@Test
+	public void registersClientOperationMetricsForConfiguredClientMetrics() {
+
+		List<ValueHolder> arguments = getConstructorArguments(ClientOperationMetrics.class);
+
+		assertThat(arguments, hasSize(1));
+		assertThat(((RuntimeBeanReference) arguments.get(0).getValue()).getBeanName(), is("clientMetrics"));
+	}
+
+	private List<ValueHolder> getConstructorArguments(Class<?> type) {
+
+		for (String name : factory.getBeanDefinitionNames()) {
+
+			BeanDefinition definition = factory.getBeanDefinition(name);
+
+			if (type.getName().equals(definition.getBeanClassName())) {
+				return definition.getConstructorArgumentValues().getGenericArgumentValues();
+			}
+		}
+
+		fail(String.format("No bean definition of type %s registered!", type.getName()));
+		return null;
+	}
+}
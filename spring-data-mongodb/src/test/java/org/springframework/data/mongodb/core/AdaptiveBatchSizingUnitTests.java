@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.AdaptiveBatchSizing.CursorBatchSizer;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.Bytes;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link AdaptiveBatchSizing}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveBatchSizingUnitTests {
+
+	@Mock DBCursor cursor;
+
+	AdaptiveBatchSizing sizing;
+
+	@Before
+	public void setUp() {
+
+		sizing = new AdaptiveBatchSizing();
+		sizing.setTargetBatchDuration(1, TimeUnit.HOURS);
+	}
+
+	@Test
+	public void usesDefaultBatchSizeForUnknownCollection() {
+
+		CursorBatchSizer sizer = sizing.track(cursor, "person");
+
+		assertThat(sizer.getBatchSize(), is(101));
+		verify(cursor).batchSize(101);
+	}
+
+	@Test
+	public void doesNotTuneExhaustCursors() {
+
+		when(cursor.getOptions()).thenReturn(Bytes.QUERYOPTION_EXHAUST);
+
+		assertThat(sizing.track(cursor, "person"), is(nullValue()));
+		verify(cursor, never()).batchSize(anyInt());
+	}
+
+	@Test
+	public void boundsBatchSizeByMemoryBudget() {
+
+		DBObject document = new BasicDBObject("payload", new byte[1000]);
+
+		sizing.setMemoryBudget(10000);
+		CursorBatchSizer sizer = sizing.track(cursor, "person");
+
+		for (int i = 0; i < 101; i++) {
+			sizer.documentRead(document);
+		}
+
+		assertThat(sizer.getBatchSize(), is(both(greaterThanOrEqualTo(9)).and(lessThanOrEqualTo(10))));
+		assertThat(sizing.getAverageDocumentSize("person"), is(greaterThan(1000L)));
+	}
+
+	@Test
+	public void sizesFirstBatchFromRememberedDocumentSize() {
+
+		sizing.setMemoryBudget(100000);
+		sizing.setBatchSizeRange(1, 10000);
+
+		CursorBatchSizer sizer = sizing.track(cursor, "person");
+		sizer.documentRead(new BasicDBObject("payload", new byte[1000]));
+
+		CursorBatchSizer next = sizing.track(mock(DBCursor.class), "person");
+
+		assertThat(next.getBatchSize(), is(both(greaterThan(90)).and(lessThan(100))));
+	}
+
+	@Test
+	public void countsGetMores() {
+
+		sizing.setBatchSizeRange(10, 10);
+		CursorBatchSizer sizer = sizing.track(cursor, "person");
+
+		for (int i = 0; i < 101 + 25; i++) {
+			sizer.documentRead(new BasicDBObject("_id", i));
+		}
+
+		assertThat(sizing.getCursorCount(), is(1L));
+		assertThat(sizing.getGetMoreCount(), is(3L));
+		assertThat(sizing.getBatchCount(), is(4L));
+	}
+}
@@ -15,6 +15,8 @@
  */
 package org.springframework.data.mongodb.core;
 
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 import org.junit.Before;
@@ -25,6 +27,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
 import org.springframework.data.mongodb.core.MongoTemplate.CloseableIterableCursorAdapter;
 import org.springframework.data.mongodb.core.MongoTemplate.DbObjectCallback;
+import org.springframework.data.mongodb.core.diagnostics.ClientMetrics;
 import org.springframework.data.util.CloseableIterator;
 
 import com.mongodb.Cursor;
@@ -70,4 +73,20 @@ public class CloseableIterableCursorAdapterUnitTests {
 		cursor.close();
 		adapter.close();
 	}
+
+	@Test
+	public void reportsOpeningAndClosingToClientMetrics() {
+
+		ClientMetrics metrics = new ClientMetrics();
+		CloseableIterator<Object> iterator = new CloseableIterableCursorAdapter<Object>(mock(Cursor.class),
+				exceptionTranslator, callback, metrics);
+
+		assertThat(metrics.getOpenCursors(), is(1L));
+
+		iterator.close();
+
+		assertThat(metrics.getCursorsOpened(), is(1L));
+		assertThat(metrics.getCursorsClosed(), is(1L));
+		assertThat(metrics.getOpenCursors(), is(0L));
+	}
 }
@@ -0,0 +1,424 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteRequestBuilder;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.BulkWriteUpsert;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/**
+ * Unit tests for {@link DefaultBulkOperations}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultBulkOperationsUnitTests {
+
+	@Mock MongoOperations operations;
+	@Mock DBCollection collection;
+	@Mock BulkWriteOperation first, second, third;
+	@Mock BulkWriteRequestBuilder requestBuilder;
+	@Mock DbRefResolver dbRefResolver;
+	@Mock ApplicationEventPublisher eventPublisher;
+
+	@Before
+	public void setUp() {
+
+		MappingMongoConverter converter = new MappingMongoConverter(dbRefResolver, new MongoMappingContext());
+		converter.afterPropertiesSet();
+
+		when(operations.getCollection("collection")).thenReturn(collection);
+		when(operations.getConverter()).thenReturn(converter);
+	}
+
+	@Test
+	public void splitsOperationsIntoBatchesOfMaxBatchSize() {
+
+		BulkWriteResult firstResult = insertResult(2), secondResult = insertResult(2), thirdResult = insertResult(1);
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first, second, third);
+		when(first.execute()).thenReturn(firstResult);
+		when(second.execute()).thenReturn(secondResult);
+		when(third.execute()).thenReturn(thirdResult);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+		bulkOps.setMaxBatchSize(2);
+
+		for (int i = 0; i < 5; i++) {
+			bulkOps.insert(new BasicDBObject("_id", i));
+		}
+
+		BulkWriteResult result = bulkOps.execute();
+
+		assertThat(result.getInsertedCount(), is(5));
+		verify(first, times(2)).insert(any(BasicDBObject.class));
+		verify(second, times(2)).insert(any(BasicDBObject.class));
+		verify(third).insert(new BasicDBObject("_id", 4));
+	}
+
+	@Test
+	public void orderedBulkStopsAtFirstFailingBatchAndReportsOriginalIndex() {
+
+		BulkWriteResult firstResult = insertResult(2);
+		BulkOperationException secondFailure = duplicateKey(1, insertResult(1));
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first, second, third);
+		when(first.execute()).thenReturn(firstResult);
+		when(second.execute()).thenThrow(secondFailure);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+		bulkOps.setMaxBatchSize(2);
+		bulkOps.setExceptionTranslator(new PassThroughExceptionTranslator());
+
+		for (int i = 0; i < 6; i++) {
+			bulkOps.insert(new BasicDBObject("_id", i));
+		}
+
+		try {
+			bulkOps.execute();
+			fail("Missing BulkOperationException!");
+		} catch (BulkOperationException o_O) {
+
+			assertThat(o_O.getErrors(), hasSize(1));
+			assertThat(o_O.getErrors().get(0).getIndex(), is(3));
+			assertThat(o_O.getResult().getInsertedCount(), is(3));
+		}
+
+		verify(third, never()).execute();
+	}
+
+	@Test
+	public void unorderedBulkExecutesAllBatchesDespiteFailures() {
+
+		BulkOperationException firstFailure = duplicateKey(0, insertResult(1));
+		BulkWriteResult secondResult = insertResult(2);
+		BulkOperationException thirdFailure = duplicateKey(0, insertResult(0));
+
+		when(collection.initializeUnorderedBulkOperation()).thenReturn(first, second, third);
+		when(first.execute()).thenThrow(firstFailure);
+		when(second.execute()).thenReturn(secondResult);
+		when(third.execute()).thenThrow(thirdFailure);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.UNORDERED, "collection", null);
+		bulkOps.setMaxBatchSize(2);
+		bulkOps.setExceptionTranslator(new PassThroughExceptionTranslator());
+
+		for (int i = 0; i < 5; i++) {
+			bulkOps.insert(new BasicDBObject("_id", i));
+		}
+
+		try {
+			bulkOps.execute();
+			fail("Missing BulkOperationException!");
+		} catch (BulkOperationException o_O) {
+
+			assertThat(o_O.getErrors(), hasSize(2));
+			assertThat(o_O.getErrors().get(0).getIndex(), is(0));
+			assertThat(o_O.getErrors().get(1).getIndex(), is(4));
+			assertThat(o_O.getResult().getInsertedCount(), is(3));
+		}
+	}
+
+	@Test
+	public void retriesBatchFailingWithTransientException() {
+
+		BulkWriteResult secondResult = insertResult(1);
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first, second);
+		when(first.execute()).thenThrow(new MongoException("connection reset"));
+		when(second.execute()).thenReturn(secondResult);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+		bulkOps.setMaxRetries(1);
+		bulkOps.setExceptionTranslator(new PassThroughExceptionTranslator());
+
+		bulkOps.insert(new BasicDBObject("_id", 1));
+
+		assertThat(bulkOps.execute().getInsertedCount(), is(1));
+		verify(second).insert(new BasicDBObject("_id", 1));
+	}
+
+	@Test(expected = DataAccessResourceFailureException.class)
+	public void doesNotRetryBeyondMaxRetries() {
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first, second);
+		when(first.execute()).thenThrow(new MongoException("connection reset"));
+		when(second.execute()).thenThrow(new MongoException("connection reset"));
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+		bulkOps.setMaxRetries(1);
+		bulkOps.setExceptionTranslator(new PassThroughExceptionTranslator());
+
+		bulkOps.insert(new BasicDBObject("_id", 1));
+		bulkOps.execute();
+	}
+
+	@Test
+	public void insertsEntityRunningEventLifecycle() {
+
+		BulkWriteResult result = insertResult(1);
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first);
+		when(first.execute()).thenReturn(result);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+		bulkOps.setEventPublisher(eventPublisher);
+
+		VersionedPerson person = new VersionedPerson();
+		bulkOps.insert(person).execute();
+
+		ArgumentCaptor<DBObject> document = ArgumentCaptor.forClass(DBObject.class);
+		verify(first).insert(document.capture());
+
+		assertThat(person.version, is(0L));
+		assertThat(person.id, is(notNullValue()));
+		assertThat(document.getValue().get("_id"), is((Object) new ObjectId(person.id)));
+
+		ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+		verify(eventPublisher, times(3)).publishEvent(events.capture());
+
+		List<ApplicationEvent> published = events.getAllValues();
+		assertThat(published.get(0), is(instanceOf(BeforeConvertEvent.class)));
+		assertThat(published.get(1), is(instanceOf(BeforeSaveEvent.class)));
+		assertThat(published.get(2), is(instanceOf(AfterSaveEvent.class)));
+	}
+
+	@Test
+	public void doesNotPublishAfterSaveEventIfBulkFails() {
+
+		BulkOperationException failure = duplicateKey(0, insertResult(0));
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first);
+		when(first.execute()).thenThrow(failure);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+		bulkOps.setEventPublisher(eventPublisher);
+		bulkOps.setExceptionTranslator(new PassThroughExceptionTranslator());
+
+		try {
+			bulkOps.insert(new VersionedPerson()).execute();
+			fail("Missing BulkOperationException!");
+		} catch (BulkOperationException o_O) {}
+
+		verify(eventPublisher, never()).publishEvent(any(AfterSaveEvent.class));
+	}
+
+	@Test
+	public void savesVersionedEntityByReplacingDocumentWithMatchingVersion() {
+
+		BulkWriteResult result = replaceResult(1);
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first);
+		when(first.find(any(DBObject.class))).thenReturn(requestBuilder);
+		when(first.execute()).thenReturn(result);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+
+		VersionedPerson person = new VersionedPerson();
+		person.id = new ObjectId().toString();
+		person.version = 1L;
+
+		bulkOps.save(person).execute();
+
+		ArgumentCaptor<DBObject> replacement = ArgumentCaptor.forClass(DBObject.class);
+
+		verify(first).find(new BasicDBObject("_id", new ObjectId(person.id)).append("version", 1L));
+		verify(requestBuilder).replaceOne(replacement.capture());
+
+		assertThat(person.version, is(2L));
+		assertThat(replacement.getValue().get("version"), is((Object) 2L));
+	}
+
+	@Test
+	public void rejectsSaveOfVersionedEntityWithStaleVersion() {
+
+		BulkWriteResult result = replaceResult(0);
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first);
+		when(first.find(any(DBObject.class))).thenReturn(requestBuilder);
+		when(first.execute()).thenReturn(result);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+		bulkOps.setEventPublisher(eventPublisher);
+
+		VersionedPerson person = new VersionedPerson();
+		person.id = new ObjectId().toString();
+		person.version = 1L;
+
+		try {
+			bulkOps.save(person).execute();
+			fail("Missing OptimisticLockingFailureException!");
+		} catch (OptimisticLockingFailureException o_O) {}
+
+		verify(eventPublisher, never()).publishEvent(isA(AfterSaveEvent.class));
+	}
+
+	@Test
+	public void reportsIndexOfVersionedEntityWithStaleVersion() {
+
+		BulkWriteResult fresh = replaceResult(1);
+		BulkWriteResult stale = replaceResult(0);
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first, second);
+		when(first.find(any(DBObject.class))).thenReturn(requestBuilder);
+		when(first.execute()).thenReturn(fresh);
+		when(second.find(any(DBObject.class))).thenReturn(requestBuilder);
+		when(second.execute()).thenReturn(stale);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+		bulkOps.setEventPublisher(eventPublisher);
+
+		VersionedPerson dave = new VersionedPerson();
+		dave.id = new ObjectId().toString();
+		dave.version = 1L;
+
+		VersionedPerson carter = new VersionedPerson();
+		carter.id = new ObjectId().toString();
+		carter.version = 1L;
+
+		try {
+			bulkOps.save(Arrays.asList(dave, carter)).execute();
+			fail("Missing OptimisticLockingFailureException!");
+		} catch (OptimisticLockingFailureException o_O) {
+			assertThat(o_O.getMessage(), containsString("[1]"));
+		}
+
+		verify(first, times(1)).find(any(DBObject.class));
+		verify(second, times(1)).find(any(DBObject.class));
+
+		ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+		verify(eventPublisher, times(5)).publishEvent(events.capture());
+		assertThat(events.getValue(), is(instanceOf(AfterSaveEvent.class)));
+		assertThat(events.getValue().getSource(), is((Object) dave));
+	}
+
+	@Test
+	public void replacesDocumentById() {
+
+		BulkWriteResult result = replaceResult(1);
+
+		when(collection.initializeOrderedBulkOperation()).thenReturn(first);
+		when(first.find(any(DBObject.class))).thenReturn(requestBuilder);
+		when(first.execute()).thenReturn(result);
+
+		DefaultBulkOperations bulkOps = new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null);
+
+		VersionedPerson person = new VersionedPerson();
+		person.id = new ObjectId().toString();
+		person.name = "Dave";
+
+		bulkOps.replaceOne(person).execute();
+
+		ArgumentCaptor<DBObject> replacement = ArgumentCaptor.forClass(DBObject.class);
+
+		verify(first).find(new BasicDBObject("_id", new ObjectId(person.id)));
+		verify(requestBuilder).replaceOne(replacement.capture());
+		verify(requestBuilder, never()).upsert();
+
+		assertThat(replacement.getValue().get("_id"), is((Object) new ObjectId(person.id)));
+		assertThat(replacement.getValue().get("name"), is((Object) "Dave"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsReplacementOfEntityWithoutId() {
+		new DefaultBulkOperations(operations, BulkMode.ORDERED, "collection", null).replaceOne(new VersionedPerson());
+	}
+
+	private static BulkOperationException duplicateKey(int index, BulkWriteResult result) {
+		return new BulkOperationException("failed",
+				Arrays.asList(new BulkWriteError(11000, "duplicate key", new BasicDBObject(), index)), result);
+	}
+
+	private static BulkWriteResult insertResult(int insertedCount) {
+
+		BulkWriteResult result = mock(BulkWriteResult.class);
+
+		when(result.isAcknowledged()).thenReturn(true);
+		when(result.isModifiedCountAvailable()).thenReturn(true);
+		when(result.getInsertedCount()).thenReturn(insertedCount);
+		when(result.getUpserts()).thenReturn(Collections.<BulkWriteUpsert> emptyList());
+
+		return result;
+	}
+
+	private static BulkWriteResult replaceResult(int matchedCount) {
+
+		BulkWriteResult result = insertResult(0);
+		when(result.getMatchedCount()).thenReturn(matchedCount);
+
+		return result;
+	}
+
+	/**
+	 * Keeps {@link DataAccessException}s thrown by the mocks and treats all {@link MongoException}s as resource failure.
+	 */
+	static class PassThroughExceptionTranslator implements PersistenceExceptionTranslator {
+
+		@Override
+		public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+
+			if (ex instanceof DataAccessException) {
+				return (DataAccessException) ex;
+			}
+
+			return ex instanceof MongoException ? new DataAccessResourceFailureException(ex.getMessage(), ex) : null;
+		}
+	}
+
+	static class VersionedPerson {
+
+		@Id String id;
+		@Version Long version;
+		String name;
+	}
+}
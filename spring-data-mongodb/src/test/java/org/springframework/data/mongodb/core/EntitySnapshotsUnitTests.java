@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBEncoder;
+
+/**
+ * Unit tests for {@link EntitySnapshots}.
+ */
+public class EntitySnapshotsUnitTests {
+
+	@Test
+	public void discardsLeastRecentlyUsedSnapshotsOnceEncodedSizeExceedsCapacity() {
+
+		DBObject first = new BasicDBObject("_id", 1).append("name", "foo");
+		DBObject second = new BasicDBObject("_id", 2).append("name", "bar");
+		DBObject third = new BasicDBObject("_id", 3).append("name", "baz");
+		int length = new DefaultDBEncoder().encode(first).length;
+
+		EntitySnapshots snapshots = new EntitySnapshots(2 * length);
+		snapshots.record("collection", first);
+		snapshots.record("collection", second);
+		snapshots.get("collection", 1);
+		snapshots.record("collection", third);
+
+		assertThat(snapshots.get("collection", 1), is(first));
+		assertThat(snapshots.get("collection", 2), is(nullValue()));
+		assertThat(snapshots.get("collection", 3), is(third));
+		assertThat(snapshots.getSize(), is(2L * length));
+	}
+
+	@Test
+	public void doesNotRecordDocumentExceedingCapacity() {
+
+		EntitySnapshots snapshots = new EntitySnapshots(16);
+		snapshots.record("collection", new BasicDBObject("_id", 1).append("name", "too large to be recorded"));
+
+		assertThat(snapshots.get("collection", 1), is(nullValue()));
+		assertThat(snapshots.getSize(), is(0L));
+	}
+}
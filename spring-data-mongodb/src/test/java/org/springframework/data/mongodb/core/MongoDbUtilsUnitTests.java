@@ -174,6 +174,34 @@ public class MongoDbUtilsUnitTests {
 		verify(mongoClientMock, never()).getDB("authdb");
 	}
 
+	@Test
+	public void getUnboundDBDoesNotBindResourcesToThread() {
+
+		DB db = MongoDbUtils.getUnboundDB(mongo, "first", UserCredentials.NO_CREDENTIALS, "first");
+
+		assertThat(db, is(dbMock));
+		assertThat(TransactionSynchronizationManager.getSynchronizations().isEmpty(), is(true));
+		assertThat(TransactionSynchronizationManager.getResourceMap().isEmpty(), is(true));
+	}
+
+	@Test
+	public void getUnboundDBBypassesTransactionSynchronization() {
+
+		MongoDbUtils.getDB(mongo, "first");
+
+		int synchronizations = TransactionSynchronizationManager.getSynchronizations().size();
+		int resources = TransactionSynchronizationManager.getResourceMap().size();
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(MongoDbUtils.getUnboundDB(mongoClientMock, "db", UserCredentials.NO_CREDENTIALS, "db"), is(dbMock));
+		}
+
+		assertThat(TransactionSynchronizationManager.getSynchronizations().size(), is(synchronizations));
+		assertThat(TransactionSynchronizationManager.getResourceMap().size(), is(resources));
+		assertThat(TransactionSynchronizationManager.hasResource(mongoClientMock), is(false));
+		verify(mongoClientMock, times(3)).getDB("db");
+	}
+
 	/**
 	 * Simulate transaction rollback/commit completion protocol on managed transaction synchronizations which will unbind
 	 * managed transaction resources. Does not swallow exceptions for testing purposes.
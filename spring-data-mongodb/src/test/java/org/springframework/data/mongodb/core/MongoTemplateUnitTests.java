@@ -21,7 +21,12 @@ import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import org.bson.types.ObjectId;
@@ -35,33 +40,55 @@ import org.mockito.ArgumentMatcher;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.io.Resource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Version;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.geo.Point;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.cache.EntityCache;
+import org.springframework.data.mongodb.core.cache.LocalEntityCache;
+import org.springframework.data.mongodb.core.cache.QueryResultCache;
 import org.springframework.data.mongodb.core.convert.CustomConversions;
 import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.convert.QueryMapper;
 import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexCreator;
+import org.springframework.data.mongodb.core.index.QueryShapeRecorder;
 import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.AfterBatchLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterLoadEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEventDispatcher;
 import org.springframework.data.mongodb.core.mapreduce.MapReduceOptions;
 import org.springframework.data.mongodb.core.query.BasicQuery;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.NearQuery;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.view.MaterializedGroupView;
+import org.springframework.data.mongodb.core.view.MaterializedViewMaintainer;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteRequestBuilder;
+import com.mongodb.BulkWriteResult;
 import com.mongodb.CommandResult;
 import com.mongodb.DB;
 import com.mongodb.DBCollection;
@@ -72,6 +99,7 @@ import com.mongodb.MapReduceOutput;
 import com.mongodb.Mongo;
 import com.mongodb.MongoException;
 import com.mongodb.ReadPreference;
+import com.mongodb.WriteResult;
 
 /**
  * Unit tests for {@link MongoTemplate}.
@@ -465,6 +493,470 @@ public class MongoTemplateUnitTests extends MongoOperationsUnitTests {
 		assertThat(captor.getValue().getLimit(), is(1000));
 	}
 
+	@Test
+	public void mapReduceCachesResolvedFunctionResources() {
+
+		final AtomicInteger lookups = new AtomicInteger();
+
+		GenericApplicationContext ctx = new GenericApplicationContext() {
+
+			@Override
+			public Resource getResource(String location) {
+
+				lookups.incrementAndGet();
+				return super.getResource(location);
+			}
+		};
+		ctx.refresh();
+		template.setApplicationContext(ctx);
+		lookups.set(0);
+
+		MapReduceOutput output = mock(MapReduceOutput.class);
+		when(output.results()).thenReturn(Collections.<DBObject> emptySet());
+		when(collection.mapReduce(Mockito.any(MapReduceCommand.class))).thenReturn(output);
+
+		template.mapReduce("collection", "classpath:map.js", "classpath:reduce.js", Wrapper.class);
+		template.mapReduce("collection", "classpath:map.js", "classpath:reduce.js", Wrapper.class);
+
+		ArgumentCaptor<MapReduceCommand> captor = ArgumentCaptor.forClass(MapReduceCommand.class);
+		verify(collection, times(2)).mapReduce(captor.capture());
+
+		assertThat(lookups.get(), is(2));
+		assertThat(captor.getValue().getMap(), containsString("emit"));
+	}
+
+	@Test
+	public void recordsMappedSortOfQueryShapes() {
+
+		QueryShapeRecorder recorder = new QueryShapeRecorder(10);
+		template.setQueryShapeRecorder(recorder);
+
+		when(collection.find(Mockito.any(DBObject.class), Mockito.any(DBObject.class))).thenReturn(cursor);
+
+		template.find(new Query().with(new Sort(Direction.DESC, "firstName")), Person.class);
+
+		assertThat(recorder.getStatistics(), hasSize(1));
+		assertThat(recorder.getStatistics().get(0).getShape().getSort(), hasEntry("firstName", Direction.DESC));
+	}
+
+	@Test
+	public void doesNotRecordFailedQueries() {
+
+		QueryShapeRecorder recorder = new QueryShapeRecorder(10);
+		template.setQueryShapeRecorder(recorder);
+
+		when(collection.find(Mockito.any(DBObject.class), Mockito.any(DBObject.class)))
+				.thenThrow(new MongoException("Exception!"));
+
+		try {
+			template.find(new Query(), Person.class);
+			fail("Expected DataAccessException!");
+		} catch (DataAccessException e) {}
+
+		assertThat(recorder.getStatistics(), is(empty()));
+	}
+
+	@Test
+	public void doesNotPropagateRecorderFailures() {
+
+		QueryShapeRecorder recorder = mock(QueryShapeRecorder.class);
+		doThrow(new IllegalStateException()).when(recorder).record(anyString(), Mockito.any(DBObject.class),
+				Mockito.any(DBObject.class), Mockito.any(DBObject.class), anyLong());
+		template.setQueryShapeRecorder(recorder);
+
+		when(collection.find(Mockito.any(DBObject.class), Mockito.any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("firstName", "Dave"));
+
+		assertThat(template.find(new Query(), Person.class), hasSize(1));
+		verify(recorder).record(anyString(), Mockito.any(DBObject.class), Mockito.any(DBObject.class),
+				Mockito.any(DBObject.class), anyLong());
+	}
+
+	@Test
+	public void mapReduceStreamConvertsInlineResultsOnAccess() {
+
+		MapReduceOutput output = mock(MapReduceOutput.class);
+		when(output.results()).thenReturn(Arrays.<DBObject> asList(new BasicDBObject("firstName", "Dave"),
+				new BasicDBObject("firstName", "Carter")));
+		when(collection.mapReduce(Mockito.any(MapReduceCommand.class))).thenReturn(output);
+
+		CloseableIterator<Person> result = template.mapReduceStream(null, "collection", "function(){}",
+				"function(key,values){}", new MapReduceOptions().outputTypeInline(), Person.class);
+
+		assertThat(result.next().getFirstName(), is("Dave"));
+		assertThat(result.next().getFirstName(), is("Carter"));
+		assertThat(result.hasNext(), is(false));
+
+		result.close();
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void mapReduceStreamRejectsNextAfterClose() {
+
+		MapReduceOutput output = mock(MapReduceOutput.class);
+		when(output.results()).thenReturn(Arrays.<DBObject> asList(new BasicDBObject("firstName", "Dave")));
+		when(collection.mapReduce(Mockito.any(MapReduceCommand.class))).thenReturn(output);
+
+		CloseableIterator<Person> result = template.mapReduceStream(null, "collection", "function(){}",
+				"function(key,values){}", new MapReduceOptions().outputTypeInline(), Person.class);
+
+		result.close();
+		result.next();
+	}
+
+	@Test
+	public void mapReduceStreamReadsOutputCollectionInBatches() {
+
+		MapReduceOutput output = mock(MapReduceOutput.class);
+		when(output.results()).thenReturn(cursor);
+		when(collection.mapReduce(Mockito.any(MapReduceCommand.class))).thenReturn(output);
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("firstName", "Dave"));
+
+		template.setMapReduceBatchSize(100);
+
+		CloseableIterator<Person> result = template.mapReduceStream(null, "collection", "function(){}",
+				"function(key,values){}", new MapReduceOptions().outputCollection("rollup"), Person.class);
+
+		verify(cursor).batchSize(100);
+		verify(cursor, never()).next();
+
+		assertThat(result.hasNext(), is(true));
+		assertThat(result.next().getFirstName(), is("Dave"));
+		assertThat(result.hasNext(), is(false));
+
+		result.close();
+		verify(cursor).close();
+	}
+
+	@Test
+	public void findAllByIdSplitsIdsIntoBatches() {
+
+		template.setIdBatchSize(2);
+		template.findAllById(Arrays.asList(1, 2, 3), VersionedEntity.class);
+
+		verify(collection, times(2)).find(Mockito.any(DBObject.class));
+	}
+
+	@Test
+	public void findAllByIdReturnsResultsInOrderOfGivenIds() {
+
+		when(cursor.hasNext()).thenReturn(true, true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", 2), new BasicDBObject("_id", 1));
+
+		Map<Object, VersionedEntity> result = template.findAllById(Arrays.asList(1, 2, 3), VersionedEntity.class);
+
+		assertThat(result.keySet(), contains((Object) 1, 2));
+		assertThat(result.get(1).id, is(1));
+		assertThat(result.get(2).id, is(2));
+	}
+
+	@Test
+	public void findAllByIdOnlyQueriesIdsMissingInEntityCache() {
+
+		EntityCache cache = mock(EntityCache.class);
+		when(cache.get("versionedEntity", 1)).thenReturn(new BasicDBObject("_id", 1));
+		template.setEntityCache(cache);
+
+		Map<Object, VersionedEntity> result = template.findAllById(Arrays.asList(1, 2), VersionedEntity.class);
+
+		ArgumentCaptor<DBObject> captor = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection).find(captor.capture());
+
+		assertThat(captor.getValue(), is((DBObject) new BasicDBObject("_id", new BasicDBObject("$in", Arrays.asList(2)))));
+		assertThat(result.get(1).id, is(1));
+	}
+
+	@Test
+	public void findByIdServesDocumentFromEntityCache() {
+
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", 1).append("name", "foo"));
+
+		template.setEntityCache(new LocalEntityCache(10));
+
+		assertThat(template.findById(1, TrackedEntity.class).name, is("foo"));
+		assertThat(template.findById(1, TrackedEntity.class).name, is("foo"));
+
+		verify(collection, times(1)).find(Mockito.any(DBObject.class));
+	}
+
+	@Test
+	public void doesNotCacheDocumentEvictedWhileBeingRead() {
+
+		final LocalEntityCache cache = new LocalEntityCache(10);
+		template.setEntityCache(cache);
+
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenAnswer(new Answer<DBObject>() {
+
+			@Override
+			public DBObject answer(InvocationOnMock invocation) throws Throwable {
+
+				// concurrent write evicting the document after it has been read
+				cache.evict("trackedEntity", 1);
+				return new BasicDBObject("_id", 1).append("name", "foo");
+			}
+		});
+
+		assertThat(template.findById(1, TrackedEntity.class).name, is("foo"));
+		assertThat(cache.get("trackedEntity", 1), is(nullValue()));
+	}
+
+	@Test
+	public void removeEvictsDocumentFromEntityCache() {
+
+		LocalEntityCache cache = new LocalEntityCache(10);
+		cache.put("trackedEntity", 1, new BasicDBObject("_id", 1));
+		cache.put("trackedEntity", 2, new BasicDBObject("_id", 2));
+		template.setEntityCache(cache);
+
+		template.remove(new Query(Criteria.where("id").is(1)), TrackedEntity.class);
+
+		assertThat(cache.get("trackedEntity", 1), is(nullValue()));
+		assertThat(cache.get("trackedEntity", 2), is(notNullValue()));
+	}
+
+	@Test
+	public void saveOnlyWritesChangedFieldsIfSnapshotIsAvailable() {
+
+		this.converter.afterPropertiesSet();
+		template.setEntitySnapshotCapacity(1024);
+
+		when(collection.findOne(Mockito.any(DBObject.class))).thenReturn(new BasicDBObject("_id", 1)
+				.append("_class", TrackedEntity.class.getName()).append("name", "foo").append("description", "bar"));
+
+		TrackedEntity entity = template.findById(1, TrackedEntity.class);
+		entity.name = "baz";
+		entity.description = null;
+
+		template.save(entity);
+
+		ArgumentCaptor<DBObject> captor = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection).update(Mockito.any(DBObject.class), captor.capture(), eq(false), eq(false));
+		verify(collection, never()).save(Mockito.any(DBObject.class));
+
+		DBObject update = captor.getValue();
+		assertThat(update.get("$set"), is((Object) new BasicDBObject("name", "baz")));
+		assertThat(update.get("$unset"), is((Object) new BasicDBObject("description", 1)));
+	}
+
+	@Test
+	public void saveReplacesDocumentIfNoSnapshotIsAvailable() {
+
+		this.converter.afterPropertiesSet();
+		template.setEntitySnapshotCapacity(1024);
+
+		TrackedEntity entity = new TrackedEntity();
+		entity.id = 1;
+		entity.name = "foo";
+
+		template.save(entity);
+
+		verify(collection).save(Mockito.any(DBObject.class));
+		verify(collection, never()).update(Mockito.any(DBObject.class), Mockito.any(DBObject.class), anyBoolean(),
+				anyBoolean());
+	}
+
+	@Test
+	public void snapshotIsNotAffectedByChangesToDocumentRead() {
+
+		this.converter.afterPropertiesSet();
+		template.setEntitySnapshotCapacity(1024);
+
+		DBObject document = new BasicDBObject("_id", 1).append("_class", TrackedEntity.class.getName()).append("name",
+				"foo");
+		when(collection.findOne(Mockito.any(DBObject.class))).thenReturn(document);
+
+		TrackedEntity entity = template.findById(1, TrackedEntity.class);
+		document.put("name", "baz");
+		entity.name = "baz";
+
+		template.save(entity);
+
+		ArgumentCaptor<DBObject> captor = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection).update(Mockito.any(DBObject.class), captor.capture(), eq(false), eq(false));
+
+		assertThat(captor.getValue().get("$set"), is((Object) new BasicDBObject("name", "baz")));
+	}
+
+	@Test
+	public void publishesBatchedAfterLoadEventWithDirtyTrackingEnabled() {
+
+		this.converter.afterPropertiesSet();
+
+		ApplicationContext context = mock(ApplicationContext.class);
+		template.setApplicationContext(context);
+		template.setEntitySnapshotCapacity(1024);
+		template.setBatchAfterLoadEvents(true);
+
+		when(collection.find(Mockito.any(DBObject.class), Mockito.any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", 1), new BasicDBObject("_id", 2));
+
+		assertThat(template.find(new Query(), TrackedEntity.class), hasSize(2));
+
+		verify(context).publishEvent(Mockito.isA(AfterBatchLoadEvent.class));
+		verify(context, never()).publishEvent(Mockito.isA(AfterLoadEvent.class));
+	}
+
+	@Test
+	public void onlyCreatesSaveEventsListenedTo() {
+
+		MongoMappingEventDispatcher dispatcher = mock(MongoMappingEventDispatcher.class);
+		when(dispatcher.hasListeners(eq(AfterSaveEvent.class), Mockito.any(Class.class))).thenReturn(true);
+		template.setMappingEventDispatcher(dispatcher);
+
+		TrackedEntity entity = new TrackedEntity();
+		entity.id = 1;
+
+		template.save(entity);
+
+		verify(dispatcher).dispatch(Mockito.isA(AfterSaveEvent.class));
+		verify(dispatcher, never()).dispatch(Mockito.isA(BeforeConvertEvent.class));
+		verify(dispatcher, never()).dispatch(Mockito.isA(BeforeSaveEvent.class));
+	}
+
+	@Test
+	public void readsAggregationResultsInBatchUnwrappingCompositeIds() {
+
+		this.converter.afterPropertiesSet();
+
+		ApplicationContext context = mock(ApplicationContext.class);
+		template.setApplicationContext(context);
+		template.setBatchAfterLoadEvents(true);
+
+		CommandResult result = mock(CommandResult.class);
+		when(result.get("result")).thenReturn(Arrays.<DBObject> asList(
+				new BasicDBObject("_id", new BasicDBObject("name", "foo")).append("description", "bar")));
+		when(db.command(Mockito.any(DBObject.class))).thenReturn(result);
+
+		List<TrackedEntity> mapped = template
+				.aggregate(Aggregation.newAggregation(Aggregation.group("name")), "trackedEntity", TrackedEntity.class)
+				.getMappedResults();
+
+		assertThat(mapped, hasSize(1));
+		assertThat(mapped.get(0).name, is("foo"));
+		assertThat(mapped.get(0).description, is("bar"));
+		verify(context).publishEvent(Mockito.isA(AfterBatchLoadEvent.class));
+	}
+
+	@Test
+	public void existsOnlyFetchesIdOfSingleDocument() {
+
+		when(collection.find(Mockito.any(DBObject.class), Mockito.any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true);
+
+		assertThat(template.exists(new Query(), TrackedEntity.class), is(true));
+
+		verify(collection).find(Mockito.any(DBObject.class), eq((DBObject) new BasicDBObject("_id", 1)));
+		verify(cursor).limit(1);
+		verify(cursor).close();
+	}
+
+	@Test
+	public void countUpToPassesLimitToCount() {
+
+		when(collection.getCount(Mockito.any(DBObject.class), Mockito.any(DBObject.class), anyLong(), anyLong()))
+				.thenReturn(5L);
+
+		assertThat(template.countUpTo(new Query(), 5, TrackedEntity.class), is(5L));
+
+		verify(collection).getCount(Mockito.any(DBObject.class), Mockito.isNull(DBObject.class), eq(5L), eq(0L));
+	}
+
+	@Test
+	public void streamIdsOnlyFetchesIds() {
+
+		when(collection.find(Mockito.any(DBObject.class), Mockito.any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", 1), new BasicDBObject("_id", 2));
+
+		CloseableIterator<Object> ids = template.streamIds(new Query(), TrackedEntity.class);
+
+		assertThat(ids.next(), is((Object) 1));
+		assertThat(ids.next(), is((Object) 2));
+		assertThat(ids.hasNext(), is(false));
+
+		ids.close();
+
+		verify(collection).find(Mockito.any(DBObject.class), eq((DBObject) new BasicDBObject("_id", 1)));
+		verify(cursor).close();
+	}
+
+	@Test
+	public void servesCachedQueryResultsUntilCollectionIsWritten() {
+
+		when(collection.find(Mockito.any(DBObject.class), Mockito.any(DBObject.class))).thenReturn(cursor);
+
+		QueryResultCache cache = new QueryResultCache(10);
+		template.setQueryResultCache(cache);
+
+		Query query = new Query(Criteria.where("name").is("foo")).cacheResults();
+
+		template.find(query, TrackedEntity.class);
+		template.find(query, TrackedEntity.class);
+		template.dropCollection(TrackedEntity.class);
+		template.find(query, TrackedEntity.class);
+
+		verify(collection, times(2)).find(Mockito.any(DBObject.class), Mockito.any(DBObject.class));
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getMissCount(), is(2L));
+	}
+
+	@Test
+	public void bulkWriteEvictsDocumentsAndInvalidatesQueryResults() {
+
+		BulkWriteOperation bulk = mock(BulkWriteOperation.class);
+		when(collection.initializeOrderedBulkOperation()).thenReturn(bulk);
+		when(bulk.find(Mockito.any(DBObject.class))).thenReturn(mock(BulkWriteRequestBuilder.class));
+		when(bulk.execute()).thenReturn(mock(BulkWriteResult.class));
+
+		LocalEntityCache entityCache = new LocalEntityCache(10);
+		entityCache.put("trackedEntity", 1, new BasicDBObject("_id", 1));
+		entityCache.put("trackedEntity", 2, new BasicDBObject("_id", 2));
+		template.setEntityCache(entityCache);
+
+		QueryResultCache queryResultCache = mock(QueryResultCache.class);
+		template.setQueryResultCache(queryResultCache);
+
+		template.bulkOps(BulkMode.ORDERED, TrackedEntity.class)
+				.updateOne(new Query(Criteria.where("id").is(1)), Update.update("name", "foo")).execute();
+
+		verify(bulk).execute();
+		verify(queryResultCache).invalidate("trackedEntity");
+		assertThat(entityCache.get("trackedEntity", 1), is(nullValue()));
+		assertThat(entityCache.get("trackedEntity", 2), is(notNullValue()));
+	}
+
+	@Test
+	public void pinsSingleDocumentUpdateToDocumentReadForMaterializedViews() {
+
+		template.setMaterializedViewMaintainer(
+				new MaterializedViewMaintainer(new MaterializedGroupView("trackedEntity", "totals", "name").count("count")));
+
+		WriteResult result = mock(WriteResult.class);
+		when(result.wasAcknowledged()).thenReturn(true);
+		when(result.getN()).thenReturn(1);
+
+		when(collection.getName()).thenReturn("trackedEntity");
+		when(collection.update(Mockito.any(DBObject.class), Mockito.any(DBObject.class), anyBoolean(), anyBoolean()))
+				.thenReturn(result);
+		when(collection.find(Mockito.any(DBObject.class), Mockito.any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", 2).append("name", "foo"));
+
+		template.updateFirst(new Query(Criteria.where("name").is("foo")), Update.update("name", "bar"),
+				TrackedEntity.class);
+
+		ArgumentCaptor<DBObject> captor = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection).update(captor.capture(), Mockito.any(DBObject.class), eq(false), eq(false));
+
+		assertThat(captor.getValue(), is((DBObject) new BasicDBObject("$and",
+				Arrays.asList(new BasicDBObject("name", "foo"), new BasicDBObject("_id", 2)))));
+	}
+
 	class AutogenerateableId {
 
 		@Id BigInteger id;
@@ -485,6 +977,13 @@ public class MongoTemplateUnitTests extends MongoOperationsUnitTests {
 		@Version Integer version;
 	}
 
+	static class TrackedEntity {
+
+		@Id Integer id;
+		String name;
+		String description;
+	}
+
 	enum MyConverter implements Converter<AutogenerateableId, String> {
 
 		INSTANCE;
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.mongodb.core.MongoTemplate.DbObjectCallback;
+import org.springframework.data.util.CloseableIterator;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link PrefetchingIterator}.
+ */
+public class PrefetchingIteratorUnitTests {
+
+	SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+
+	@Test
+	public void returnsAllElementsInOrder() throws Exception {
+
+		TestSource<Integer> source = new TestSource<Integer>(Arrays.asList(1, 2, 3, 4, 5));
+		PrefetchingIterator<Integer> iterator = new PrefetchingIterator<Integer>(source, null, 2, 1);
+		iterator.start(executor);
+
+		List<Integer> result = new ArrayList<Integer>();
+
+		while (iterator.hasNext()) {
+			result.add(iterator.next());
+		}
+
+		assertThat(result, contains(1, 2, 3, 4, 5));
+		assertThat(source.closed.await(1, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test
+	public void convertsElementsOnConsumingThread() {
+
+		final Thread consumer = Thread.currentThread();
+
+		DbObjectCallback<String> callback = new DbObjectCallback<String>() {
+
+			public String doWith(DBObject object) {
+
+				assertThat(Thread.currentThread(), is(consumer));
+				return (String) object.get("name");
+			}
+		};
+
+		TestSource<DBObject> source = new TestSource<DBObject>(Arrays.<DBObject> asList(new BasicDBObject("name", "Dave"),
+				new BasicDBObject("name", "Carter")));
+		PrefetchingIterator<String> iterator = new PrefetchingIterator<String>(source, callback, 10, 1);
+		iterator.start(executor);
+
+		assertThat(iterator.next(), is("Dave"));
+		assertThat(iterator.next(), is("Carter"));
+		assertThat(iterator.hasNext(), is(false));
+	}
+
+	@Test(expected = InvalidDataAccessApiUsageException.class)
+	public void propagatesExceptionOfSource() {
+
+		TestSource<Integer> source = new TestSource<Integer>(Arrays.asList(1, 2, 3));
+		source.failAfter = 2;
+
+		PrefetchingIterator<Integer> iterator = new PrefetchingIterator<Integer>(source, null, 10, 1);
+		iterator.start(executor);
+
+		iterator.hasNext();
+	}
+
+	@Test
+	public void closesSourceWhenClosedWithBatchesPending() throws Exception {
+
+		List<Integer> elements = new ArrayList<Integer>();
+
+		for (int i = 0; i < 1000; i++) {
+			elements.add(i);
+		}
+
+		TestSource<Integer> source = new TestSource<Integer>(elements);
+		PrefetchingIterator<Integer> iterator = new PrefetchingIterator<Integer>(source, null, 10, 2);
+		iterator.start(executor);
+
+		assertThat(iterator.next(), is(0));
+
+		iterator.close();
+
+		assertThat(source.closed.await(1, TimeUnit.SECONDS), is(true));
+		assertThat(source.read, is(lessThan(1000)));
+		assertThat(iterator.hasNext(), is(false));
+	}
+
+	@Test
+	public void reportsConsumedDocumentsOnConsumingThreadWhenConvertingOnPrefetchThread() {
+
+		final Thread consumer = Thread.currentThread();
+		final List<DBObject> consumed = new ArrayList<DBObject>();
+
+		DbObjectCallback<String> callback = new DbObjectCallback<String>() {
+
+			public String doWith(DBObject object) {
+
+				assertThat(Thread.currentThread(), is(not(consumer)));
+				return (String) object.get("name");
+			}
+		};
+
+		DbObjectCallback<Void> consumedCallback = new DbObjectCallback<Void>() {
+
+			public Void doWith(DBObject object) {
+
+				assertThat(Thread.currentThread(), is(consumer));
+				consumed.add(object);
+				return null;
+			}
+		};
+
+		DBObject dave = new BasicDBObject("name", "Dave");
+		DBObject carter = new BasicDBObject("name", "Carter");
+
+		TestSource<DBObject> source = new TestSource<DBObject>(Arrays.asList(dave, carter));
+		PrefetchingIterator<String> iterator = new PrefetchingIterator<String>(source, callback, null, consumedCallback,
+				10, 1);
+		iterator.start(executor);
+
+		assertThat(iterator.next(), is("Dave"));
+		assertThat(consumed, contains(dave));
+
+		assertThat(iterator.next(), is("Carter"));
+		assertThat(consumed, contains(dave, carter));
+	}
+
+	@Test
+	public void closesSourceIfExecutorRejectsPrefetching() throws Exception {
+
+		TestSource<Integer> source = new TestSource<Integer>(Arrays.asList(1, 2, 3));
+		PrefetchingIterator<Integer> iterator = new PrefetchingIterator<Integer>(source, null, 10, 1);
+
+		try {
+
+			iterator.start(new Executor() {
+
+				@Override
+				public void execute(Runnable command) {
+					throw new TaskRejectedException("Rejected!");
+				}
+			});
+
+			fail("Missing TaskRejectedException!");
+
+		} catch (TaskRejectedException o_O) {}
+
+		assertThat(source.closed.await(0, TimeUnit.SECONDS), is(true));
+	}
+
+	static class TestSource<T> implements CloseableIterator<T> {
+
+		final Iterator<T> delegate;
+		final CountDownLatch closed = new CountDownLatch(1);
+		volatile int read;
+		int failAfter = -1;
+
+		TestSource(List<T> elements) {
+			this.delegate = elements.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return delegate.hasNext();
+		}
+
+		@Override
+		public T next() {
+
+			if (read == failAfter) {
+				throw new InvalidDataAccessApiUsageException("Boom!");
+			}
+
+			read++;
+			return delegate.next();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			closed.countDown();
+		}
+	}
+}
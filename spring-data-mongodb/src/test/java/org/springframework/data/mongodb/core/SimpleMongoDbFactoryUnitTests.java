@@ -31,7 +31,9 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.authentication.UserCredentials;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.mongodb.DB;
 import com.mongodb.Mongo;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientURI;
@@ -128,6 +130,27 @@ public class SimpleMongoDbFactoryUnitTests {
 		new SimpleMongoDbFactory(mock(MongoClient.class), "shangtai", new UserCredentials("", ""));
 	}
 
+	@Test
+	public void doesNotBindDbToThreadIfTransactionSynchronizationIsDisabled() {
+
+		MongoClient clientMock = mock(MongoClient.class);
+		when(clientMock.getDB("foo")).thenReturn(mock(DB.class));
+
+		SimpleMongoDbFactory factory = new SimpleMongoDbFactory(clientMock, "foo");
+		factory.setTransactionSynchronization(false);
+
+		TransactionSynchronizationManager.initSynchronization();
+
+		try {
+
+			assertThat(factory.getDb(), is(notNullValue()));
+			assertThat(TransactionSynchronizationManager.getResourceMap().isEmpty(), is(true));
+
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
 	@SuppressWarnings("deprecation")
 	private void rejectsDatabaseName(String databaseName) {
 
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.aggregation;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.springframework.data.mongodb.core.DBObjectTestUtils.*;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link PreparedAggregation}.
+ */
+public class PreparedAggregationUnitTests {
+
+	PreparedAggregation prepared;
+
+	@Before
+	public void setUp() {
+
+		Aggregation aggregation = newAggregation(
+				match(where("date").gte(parameter("from")).lt(parameter("to")).and("type").is("click")),
+				group("type").count().as("count"));
+
+		prepared = new PreparedAggregation("events", aggregation.toDbObject("events", Aggregation.DEFAULT_CONTEXT));
+	}
+
+	@Test
+	public void exposesParameterNames() {
+		assertThat(prepared.getParameterNames(), contains("from", "to"));
+	}
+
+	@Test
+	public void bindsParameterValues() {
+
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("from", 1);
+		parameters.put("to", 10);
+
+		DBObject date = getDateCriteria(prepared.toDbObject(parameters));
+
+		assertThat(date.get("$gte"), is((Object) 1));
+		assertThat(date.get("$lt"), is((Object) 10));
+	}
+
+	@Test
+	public void doesNotModifyPreparedCommandOnBinding() {
+
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("from", 1);
+		parameters.put("to", 10);
+
+		prepared.toDbObject(parameters);
+		parameters.put("from", 2);
+
+		DBObject date = getDateCriteria(prepared.toDbObject(parameters));
+
+		assertThat(date.get("$gte"), is((Object) 2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMissingParameterValue() {
+		prepared.toDbObject(Collections.singletonMap("from", 1));
+	}
+
+	private static DBObject getDateCriteria(DBObject command) {
+
+		BasicDBList pipeline = getAsDBList(command, "pipeline");
+		DBObject match = getAsDBObject(getAsDBObject(pipeline, 0), "$match");
+
+		return getAsDBObject(match, "date");
+	}
+}
@@ -157,6 +157,13 @@ public class SpelExpressionTransformerUnitTests {
 		assertThat(transform("[0] + [1] + [2]", 1, 2, 3), is("{ \"$add\" : [ 1 , 2 , 3]}"));
 	}
 
+	@Test
+	public void shouldRenderParametersOfRepeatedlyTransformedExpression() {
+
+		assertThat(transform("[0] + [1]", 1, 2), is("{ \"$add\" : [ 1 , 2]}"));
+		assertThat(transform("[0] + [1]", 3, 4), is("{ \"$add\" : [ 3 , 4]}"));
+	}
+
 	@Test
 	public void shouldRenderNestedParameterExpressionResults() {
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+
+/**
+ * Unit tests for {@link LocalEntityCache}.
+ */
+public class LocalEntityCacheUnitTests {
+
+	@Test
+	public void storesCopyOfDocument() {
+
+		LocalEntityCache cache = new LocalEntityCache(10);
+		BasicDBObject document = new BasicDBObject("_id", 1).append("name", "foo");
+
+		cache.put("collection", 1, document);
+		document.put("name", "bar");
+
+		assertThat(cache.get("collection", 1).get("name"), is((Object) "foo"));
+	}
+
+	@Test
+	public void returnsCopyOfCachedDocument() {
+
+		LocalEntityCache cache = new LocalEntityCache(10);
+		cache.put("collection", 1, new BasicDBObject("_id", 1).append("name", "foo"));
+
+		cache.get("collection", 1).put("name", "bar");
+
+		assertThat(cache.get("collection", 1).get("name"), is((Object) "foo"));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedDocument() {
+
+		LocalEntityCache cache = new LocalEntityCache(2);
+		cache.put("collection", 1, new BasicDBObject("_id", 1));
+		cache.put("collection", 2, new BasicDBObject("_id", 2));
+		cache.get("collection", 1);
+		cache.put("collection", 3, new BasicDBObject("_id", 3));
+
+		assertThat(cache.get("collection", 1), is(notNullValue()));
+		assertThat(cache.get("collection", 2), is(nullValue()));
+		assertThat(cache.getEvictionCount(), is(1L));
+	}
+
+	@Test
+	public void clearsDocumentsOfCollectionOnly() {
+
+		LocalEntityCache cache = new LocalEntityCache(10);
+		cache.put("collection", 1, new BasicDBObject("_id", 1));
+		cache.put("other", 1, new BasicDBObject("_id", 1));
+
+		cache.clear("collection");
+
+		assertThat(cache.get("collection", 1), is(nullValue()));
+		assertThat(cache.get("other", 1), is(notNullValue()));
+	}
+
+	@Test
+	public void doesNotStoreDocumentReadBeforeEviction() {
+
+		LocalEntityCache cache = new LocalEntityCache(10);
+		long generation = cache.getGeneration("collection");
+
+		cache.evict("collection", 1);
+
+		assertThat(cache.put("collection", 1, new BasicDBObject("_id", 1), generation), is(false));
+		assertThat(cache.get("collection", 1), is(nullValue()));
+		assertThat(cache.put("collection", 1, new BasicDBObject("_id", 1), cache.getGeneration("collection")), is(true));
+		assertThat(cache.get("collection", 1), is(notNullValue()));
+	}
+}
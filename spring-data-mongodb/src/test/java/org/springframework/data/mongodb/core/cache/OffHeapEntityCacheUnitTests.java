@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link OffHeapEntityCache}.
+ */
+public class OffHeapEntityCacheUnitTests {
+
+	@Test
+	public void roundTripsDocumentSpanningMultipleBlocks() {
+
+		OffHeapEntityCache cache = new OffHeapEntityCache(1024, 16);
+		DBObject document = new BasicDBObject("_id", 1).append("name", "some longer value than a single block")
+				.append("nested", new BasicDBObject("value", 42));
+
+		cache.put("collection", 1, document);
+
+		assertThat(cache.get("collection", 1), is(document));
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getUsedBytes(), is(greaterThan(16L)));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedDocumentsIfFull() {
+
+		OffHeapEntityCache cache = new OffHeapEntityCache(64, 32);
+
+		cache.put("collection", 1, new BasicDBObject("_id", 1));
+		cache.put("collection", 2, new BasicDBObject("_id", 2));
+		cache.get("collection", 1);
+		cache.put("collection", 3, new BasicDBObject("_id", 3));
+
+		assertThat(cache.get("collection", 1), is(notNullValue()));
+		assertThat(cache.get("collection", 2), is(nullValue()));
+		assertThat(cache.getEvictionCount(), is(1L));
+	}
+
+	@Test
+	public void releasesBlocksOnEviction() {
+
+		OffHeapEntityCache cache = new OffHeapEntityCache(1024, 16);
+
+		cache.put("collection", 1, new BasicDBObject("_id", 1));
+		cache.put("other", 1, new BasicDBObject("_id", 1));
+		cache.evict("collection", 1);
+		cache.clear("other");
+
+		assertThat(cache.getSize(), is(0));
+		assertThat(cache.getUsedBytes(), is(0L));
+		assertThat(cache.getStoredBytes(), is(0L));
+	}
+
+	@Test
+	public void ignoresDocumentsExceedingCapacity() {
+
+		OffHeapEntityCache cache = new OffHeapEntityCache(16, 16);
+		cache.put("collection", 1, new BasicDBObject("_id", 1).append("name", "too large to fit"));
+
+		assertThat(cache.get("collection", 1), is(nullValue()));
+	}
+
+	@Test
+	public void spreadsDocumentsAcrossSegments() {
+
+		OffHeapEntityCache cache = new OffHeapEntityCache(1024, 16, 4);
+
+		for (int i = 0; i < 8; i++) {
+			cache.put("collection", i, new BasicDBObject("_id", i));
+		}
+
+		assertThat(cache.getSegmentCount(), is(4));
+		assertThat(cache.getCapacity(), is(1024L));
+		assertThat(cache.getSize(), is(8));
+		assertThat(cache.get("collection", 5), is((DBObject) new BasicDBObject("_id", 5)));
+
+		cache.clear("collection");
+
+		assertThat(cache.getSize(), is(0));
+		assertThat(cache.getUsedBytes(), is(0L));
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.cache;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.data.mongodb.core.query.Meta;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link QueryResultCache}.
+ */
+public class QueryResultCacheUnitTests {
+
+	static final List<DBObject> DOCUMENTS = Collections.<DBObject> singletonList(new BasicDBObject("_id", 1));
+
+	@Test
+	public void returnsCachedDocumentsForEqualKey() {
+
+		QueryResultCache cache = new QueryResultCache(10);
+		cache.put(key("foo", "bar"), DOCUMENTS, cache.getGeneration("foo"));
+
+		assertThat(cache.get(key("foo", "bar")), is(DOCUMENTS));
+		assertThat(cache.get(key("foo", "baz")), is(nullValue()));
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getMissCount(), is(1L));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedEntry() {
+
+		QueryResultCache cache = new QueryResultCache(2);
+		cache.put(key("foo", "a"), DOCUMENTS, 0);
+		cache.put(key("foo", "b"), DOCUMENTS, 0);
+		cache.get(key("foo", "a"));
+		cache.put(key("foo", "c"), DOCUMENTS, 0);
+
+		assertThat(cache.get(key("foo", "a")), is(notNullValue()));
+		assertThat(cache.get(key("foo", "b")), is(nullValue()));
+		assertThat(cache.getEvictionCount(), is(1L));
+	}
+
+	@Test
+	public void expiresEntries() throws Exception {
+
+		QueryResultCache cache = new QueryResultCache(10, 1, TimeUnit.MILLISECONDS);
+		cache.put(key("foo", "bar"), DOCUMENTS, 0);
+
+		Thread.sleep(10);
+
+		assertThat(cache.get(key("foo", "bar")), is(nullValue()));
+		assertThat(cache.getEvictionCount(), is(1L));
+	}
+
+	@Test
+	public void invalidatesEntriesOfCollectionOnly() {
+
+		QueryResultCache cache = new QueryResultCache(10);
+		cache.put(key("foo", "bar"), DOCUMENTS, 0);
+		cache.put(key("other", "bar"), DOCUMENTS, 0);
+
+		cache.invalidate("foo");
+
+		assertThat(cache.get(key("foo", "bar")), is(nullValue()));
+		assertThat(cache.get(key("other", "bar")), is(notNullValue()));
+		assertThat(cache.getInvalidationCount(), is(1L));
+	}
+
+	@Test
+	public void rejectsResultsObtainedBeforeInvalidation() {
+
+		QueryResultCache cache = new QueryResultCache(10);
+		long generation = cache.getGeneration("foo");
+
+		cache.invalidate("foo");
+
+		assertThat(cache.put(key("foo", "bar"), DOCUMENTS, generation), is(false));
+		assertThat(cache.getSize(), is(0));
+	}
+
+	@Test
+	public void returnsCopiesOfCachedDocuments() {
+
+		QueryResultCache cache = new QueryResultCache(10);
+		cache.put(key("foo", "bar"), DOCUMENTS, 0);
+
+		cache.get(key("foo", "bar")).get(0).put("_id", 2);
+
+		assertThat(cache.get(key("foo", "bar")), is(DOCUMENTS));
+	}
+
+	@Test
+	public void distinguishesKeysByHintAndMeta() {
+
+		DBObject query = new BasicDBObject("value", "bar");
+		Meta meta = new Meta();
+		meta.setMaxTimeMsec(100);
+
+		QueryResultCacheKey plain = new QueryResultCacheKey("foo", query, null, null, 0, 0, null, new Meta(), Object.class);
+		QueryResultCacheKey hinted = new QueryResultCacheKey("foo", query, null, null, 0, 0, "value_1", null, Object.class);
+		QueryResultCacheKey withMeta = new QueryResultCacheKey("foo", query, null, null, 0, 0, null, meta, Object.class);
+
+		assertThat(plain, is(key("foo", "bar")));
+		assertThat(hinted, is(not(plain)));
+		assertThat(withMeta, is(not(plain)));
+	}
+
+	private static QueryResultCacheKey key(String collectionName, String value) {
+		return new QueryResultCacheKey(collectionName, new BasicDBObject("value", value), null, null, 0, 0, Object.class);
+	}
+}
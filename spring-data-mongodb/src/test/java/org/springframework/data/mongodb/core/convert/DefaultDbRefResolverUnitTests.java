@@ -31,10 +31,13 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.DBObjectTestUtils;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.DB;
@@ -56,6 +59,9 @@ public class DefaultDbRefResolverUnitTests {
 	@Mock DB dbMock;
 	@Mock DBCollection collectionMock;
 	@Mock DBCursor cursorMock;
+	@Mock MongoPersistentProperty propertyMock;
+	@Mock org.springframework.data.mongodb.core.mapping.DBRef dbRefAnnotationMock;
+	@Mock DbRefProxyHandler handlerMock;
 	DefaultDbRefResolver resolver;
 
 	@Before
@@ -118,4 +124,123 @@ public class DefaultDbRefResolverUnitTests {
 
 		assertThat(resolver.bulkFetch(Arrays.asList(ref1, ref2)), contains(o1, o2));
 	}
+
+	@Test
+	public void reusesProxyClassForLazyReferencesOfSameType() {
+
+		setUpLazyProperty();
+
+		DBRef ref1 = new DBRef("collection-1", 1);
+		DBRef ref2 = new DBRef("collection-1", 2);
+
+		Object first = resolver.resolveDbRef(propertyMock, ref1, fetchingCallback(ref1), handlerMock);
+		Object second = resolver.resolveDbRef(propertyMock, ref2, fetchingCallback(ref2), handlerMock);
+
+		assertThat(first, is(not(sameInstance(second))));
+		assertThat(first.getClass(), is(equalTo((Object) second.getClass())));
+	}
+
+	@Test
+	public void resolvesSiblingLazyReferencesWithSingleQuery() {
+
+		setUpLazyProperty();
+		resolver.setLazyLoadingBatchSize(10);
+
+		DBObject o1 = new BasicDBObject("_id", new ObjectId());
+		DBObject o2 = new BasicDBObject("_id", new ObjectId());
+
+		when(cursorMock.toArray()).thenReturn(Arrays.asList(o1, o2));
+
+		DBRef ref1 = new DBRef("collection-1", o1.get("_id"));
+		DBRef ref2 = new DBRef("collection-1", o2.get("_id"));
+
+		LazyLoadingProxy first, second;
+
+		DefaultDbRefResolver.openLazyLoadingScope();
+
+		try {
+			first = (LazyLoadingProxy) resolver.resolveDbRef(propertyMock, ref1, fetchingCallback(ref1), handlerMock);
+			second = (LazyLoadingProxy) resolver.resolveDbRef(propertyMock, ref2, fetchingCallback(ref2), handlerMock);
+		} finally {
+			DefaultDbRefResolver.closeLazyLoadingScope();
+		}
+
+		assertThat(first.getTarget(), is((Object) o1));
+		assertThat(second.getTarget(), is((Object) o2));
+
+		verify(collectionMock, times(1)).find(Mockito.any(DBObject.class));
+	}
+
+	@Test
+	public void doesNotBatchLazyReferencesOfDifferentScopes() {
+
+		setUpLazyProperty();
+		resolver.setLazyLoadingBatchSize(10);
+
+		DBObject o1 = new BasicDBObject("_id", new ObjectId());
+
+		when(cursorMock.toArray()).thenReturn(Arrays.asList(o1));
+
+		DBRef ref1 = new DBRef("collection-1", o1.get("_id"));
+		DBRef ref2 = new DBRef("collection-1", new ObjectId());
+
+		LazyLoadingProxy first;
+
+		DefaultDbRefResolver.openLazyLoadingScope();
+
+		try {
+			first = (LazyLoadingProxy) resolver.resolveDbRef(propertyMock, ref1, fetchingCallback(ref1), handlerMock);
+		} finally {
+			DefaultDbRefResolver.closeLazyLoadingScope();
+		}
+
+		DefaultDbRefResolver.openLazyLoadingScope();
+
+		try {
+			resolver.resolveDbRef(propertyMock, ref2, fetchingCallback(ref2), handlerMock);
+		} finally {
+			DefaultDbRefResolver.closeLazyLoadingScope();
+		}
+
+		assertThat(first.getTarget(), is((Object) o1));
+
+		ArgumentCaptor<DBObject> captor = ArgumentCaptor.forClass(DBObject.class);
+		verify(collectionMock).find(captor.capture());
+
+		assertThat(captor.getValue(), is((DBObject) new BasicDBObject("_id",
+				new BasicDBObject("$in", Arrays.asList(o1.get("_id"))))));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void setUpLazyProperty() {
+
+		when(dbRefAnnotationMock.lazy()).thenReturn(true);
+		when(propertyMock.getDBRef()).thenReturn(dbRefAnnotationMock);
+		when(propertyMock.getType()).thenReturn((Class) LazyTarget.class);
+		when(handlerMock.populateId(Mockito.any(MongoPersistentProperty.class), Mockito.any(DBRef.class),
+				Mockito.any())).thenAnswer(new Answer<Object>() {
+
+					@Override
+					public Object answer(InvocationOnMock invocation) throws Throwable {
+						return invocation.getArguments()[2];
+					}
+				});
+	}
+
+	/**
+	 * Returns a {@link DbRefResolverCallback} fetching the referenced document through the resolver just like the
+	 * converter does.
+	 */
+	private DbRefResolverCallback fetchingCallback(final DBRef dbref) {
+
+		return new DbRefResolverCallback() {
+
+			@Override
+			public Object resolve(MongoPersistentProperty property) {
+				return resolver.fetch(dbref);
+			}
+		};
+	}
+
+	static class LazyTarget {}
 }
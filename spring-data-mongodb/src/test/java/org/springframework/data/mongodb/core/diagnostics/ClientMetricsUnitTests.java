@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.springframework.data.mongodb.core.diagnostics.ClientMetrics.ConnectionPoolStatistics;
+import org.springframework.data.mongodb.core.diagnostics.ClientMetrics.OperationLatency;
+
+/**
+ * Unit tests for {@link ClientMetrics} and {@link LatencyHistogram}.
+ */
+public class ClientMetricsUnitTests {
+
+	@Test
+	public void histogramBucketsBoundRelativeError() {
+
+		for (long value : new long[] { 0, 31, 32, 33, 1000, 123456789L, Long.MAX_VALUE }) {
+
+			long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value));
+
+			assertThat(upperBound, is(greaterThanOrEqualTo(value)));
+			assertThat((double) (upperBound - value), is(lessThanOrEqualTo(value / 16d)));
+		}
+	}
+
+	@Test
+	public void histogramReportsPercentiles() {
+
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 100);
+		}
+
+		assertThat(histogram.getCount(), is(100L));
+		assertThat(histogram.getMax(), is(10000L));
+		assertThat(histogram.getMean(), is(5050d));
+		assertThat(histogram.getValueAtPercentile(50), is(both(greaterThanOrEqualTo(5000L)).and(lessThan(5400L))));
+		assertThat(histogram.getValueAtPercentile(100), is(10000L));
+	}
+
+	@Test
+	public void recordsLatenciesPerCollectionAndOperation() {
+
+		ClientMetrics metrics = new ClientMetrics();
+
+		metrics.recordOperation("person", "find", TimeUnit.MILLISECONDS.toNanos(2));
+		metrics.recordOperation("person", "find", TimeUnit.MILLISECONDS.toNanos(4));
+		metrics.recordOperation("person", "write", TimeUnit.MILLISECONDS.toNanos(1));
+
+		List<OperationLatency> latencies = metrics.getOperationLatencies();
+
+		assertThat(latencies, hasSize(2));
+		assertThat(metrics.getLatencies("person", "find").getCount(), is(2L));
+		assertThat(metrics.getLatencies("person", "find").getMax(), is(4000L));
+		assertThat(metrics.getLatencies("person", "remove"), is(nullValue()));
+	}
+
+	@Test
+	public void readsConnectionPoolMBeans() throws Exception {
+
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+		server.registerMBean(new ConnectionPool(),
+				new ObjectName("org.mongodb.driver:type=ConnectionPool,clusterId=1,host=localhost,port=27017"));
+
+		ClientMetrics metrics = new ClientMetrics();
+		metrics.setMBeanServer(server);
+
+		List<ConnectionPoolStatistics> pools = metrics.getConnectionPoolStatistics();
+
+		assertThat(pools, hasSize(1));
+		assertThat(pools.get(0).getHost(), is("localhost"));
+		assertThat(pools.get(0).getCheckedOut(), is(3));
+		assertThat(pools.get(0).getWaitQueueSize(), is(-1));
+	}
+
+	@Test
+	public void reportsNoPoolsIfNoneRegistered() {
+
+		ClientMetrics metrics = new ClientMetrics();
+		metrics.setMBeanServer(MBeanServerFactory.newMBeanServer());
+
+		assertThat(metrics.getConnectionPoolStatistics(), is(empty()));
+	}
+
+	public interface ConnectionPoolMBean {
+
+		String getHost();
+
+		int getPort();
+
+		int getSize();
+
+		int getCheckedOutCount();
+	}
+
+	public static class ConnectionPool implements ConnectionPoolMBean {
+
+		public String getHost() {
+			return "localhost";
+		}
+
+		public int getPort() {
+			return 27017;
+		}
+
+		public int getSize() {
+			return 10;
+		}
+
+		public int getCheckedOutCount() {
+			return 3;
+		}
+	}
+}
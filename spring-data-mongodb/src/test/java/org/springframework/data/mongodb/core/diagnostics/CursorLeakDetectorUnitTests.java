@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.diagnostics.CursorLeakDetector.Registration;
+
+import com.mongodb.Cursor;
+
+/**
+ * Unit tests for {@link CursorLeakDetector}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CursorLeakDetectorUnitTests {
+
+	@Mock Cursor cursor;
+
+	Object owner = new Object();
+	CursorLeakDetector detector;
+	ClientMetrics metrics;
+
+	@Before
+	public void setUp() {
+
+		detector = new CursorLeakDetector();
+		metrics = new ClientMetrics();
+	}
+
+	@Test
+	public void doesNotReportReleasedCursors() {
+
+		Registration registration = detector.track(owner, cursor, metrics);
+
+		assertThat(detector.getOpenCount(), is(1));
+
+		registration.release();
+		registration.enqueue();
+
+		assertThat(detector.detectLeaks(), is(0));
+		assertThat(detector.getOpenCount(), is(0));
+		assertThat(detector.getLeakCount(), is(0L));
+		verify(cursor, never()).close();
+	}
+
+	@Test
+	public void closesAndReportsCursorsOfUnreachableOwners() {
+
+		metrics.cursorOpened();
+		detector.track(owner, cursor, metrics).enqueue();
+
+		assertThat(detector.detectLeaks(), is(1));
+		assertThat(detector.getLeakCount(), is(1L));
+		assertThat(detector.getOpenCount(), is(0));
+		assertThat(metrics.getCursorsLeaked(), is(1L));
+		assertThat(metrics.getOpenCursors(), is(0L));
+		verify(cursor).close();
+	}
+
+	@Test
+	public void collectsPendingLeaksWhenCountsAreRead() {
+
+		detector.track(owner, cursor, metrics).enqueue();
+
+		assertThat(detector.getLeakCount(), is(1L));
+		verify(cursor).close();
+	}
+
+	@Test
+	public void collectsPendingLeaksWhenRun() {
+
+		detector.track(owner, cursor, metrics).enqueue();
+		detector.run();
+
+		verify(cursor).close();
+	}
+
+	@Test
+	public void reportsLeakEvenIfCursorCannotBeClosed() {
+
+		doThrow(new IllegalStateException()).when(cursor).close();
+
+		metrics.cursorOpened();
+		detector.track(owner, cursor, metrics).reportLeak();
+
+		assertThat(detector.getLeakCount(), is(1L));
+		assertThat(metrics.getCursorsLeaked(), is(1L));
+		assertThat(metrics.getOpenCursors(), is(0L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeSamplingInterval() {
+		detector.setSamplingInterval(-1);
+	}
+}
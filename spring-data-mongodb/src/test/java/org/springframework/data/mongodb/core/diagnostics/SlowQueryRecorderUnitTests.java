@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.diagnostics;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link SlowQueryRecorder}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SlowQueryRecorderUnitTests {
+
+	@Mock DB db;
+	@Mock DBCollection collection, capped;
+	@Mock DBCursor cursor;
+
+	SlowQueryRecorder recorder;
+	DBObject explain = new BasicDBObject("queryPlanner", new BasicDBObject());
+
+	@Before
+	public void setUp() {
+
+		when(collection.getName()).thenReturn("person");
+		when(collection.getDB()).thenReturn(db);
+		when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+		when(cursor.explain()).thenReturn(explain);
+
+		recorder = new SlowQueryRecorder(100, TimeUnit.MILLISECONDS, 2);
+		recorder.setExecutor(new SyncTaskExecutor());
+	}
+
+	@Test
+	public void ignoresFastQueries() {
+
+		recorder.record(collection, Object.class, new BasicDBObject("name", "Dave"), null, null,
+				TimeUnit.MILLISECONDS.toNanos(99));
+
+		verifyZeroInteractions(cursor);
+		assertThat(recorder.getSlowQueries(), is(empty()));
+	}
+
+	@Test
+	public void capturesExplainOfSlowQueries() {
+
+		DBObject sort = new BasicDBObject("age", 1);
+
+		recorder.record(collection, Object.class, new BasicDBObject("name", "Dave"), sort, null,
+				TimeUnit.MILLISECONDS.toNanos(150));
+
+		verify(cursor).sort(sort);
+
+		List<SlowQuery> slowQueries = recorder.getSlowQueries();
+
+		assertThat(slowQueries, hasSize(1));
+		assertThat(slowQueries.get(0).getDurationMillis(), is(150L));
+		assertThat(slowQueries.get(0).getExplain(), is(explain));
+		assertEquals(Object.class, slowQueries.get(0).getEntityType());
+	}
+
+	@Test
+	public void explainsWithHintSkipAndLimitOfOriginalQuery() {
+
+		recorder.record(collection, null, new BasicDBObject("name", "Dave"), null, null, "name_1", 20, 10,
+				TimeUnit.SECONDS.toNanos(1));
+
+		verify(cursor).hint("name_1");
+		verify(cursor).skip(20);
+		verify(cursor).limit(10);
+		verify(cursor).explain();
+	}
+
+	@Test
+	public void countsExplainsRejectedByExecutorAsFailures() {
+
+		recorder.setExecutor(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException();
+			}
+		});
+
+		recorder.record(collection, null, new BasicDBObject("name", "Dave"), null, null, TimeUnit.SECONDS.toNanos(1));
+
+		assertThat(recorder.getFailureCount(), is(1L));
+
+		recorder.setExecutor(new SyncTaskExecutor());
+		recorder.record(collection, null, new BasicDBObject("name", "Carter"), null, null, TimeUnit.SECONDS.toNanos(1));
+
+		assertThat(recorder.getExplainCount(), is(1L));
+	}
+
+	@Test
+	public void explainsShapeOnlyOncePerInterval() {
+
+		recorder.record(collection, null, new BasicDBObject("name", "Dave"), null, null, TimeUnit.SECONDS.toNanos(1));
+		recorder.record(collection, null, new BasicDBObject("name", "Carter"), null, null, TimeUnit.SECONDS.toNanos(1));
+		recorder.record(collection, null, new BasicDBObject("age", 18), null, null, TimeUnit.SECONDS.toNanos(1));
+
+		verify(cursor, times(2)).explain();
+		assertThat(recorder.getSlowQueryCount(), is(3L));
+		assertThat(recorder.getExplainCount(), is(2L));
+	}
+
+	@Test
+	public void keepsMostRecentCapturesOnly() {
+
+		recorder.setMinInterval(0, TimeUnit.MILLISECONDS);
+
+		for (int i = 0; i < 3; i++) {
+			recorder.record(collection, null, new BasicDBObject("age", i), null, null, TimeUnit.SECONDS.toNanos(i + 1));
+		}
+
+		List<SlowQuery> slowQueries = recorder.getSlowQueries();
+
+		assertThat(slowQueries, hasSize(2));
+		assertThat(slowQueries.get(0).getDurationMillis(), is(3000L));
+		assertThat(slowQueries.get(1).getDurationMillis(), is(2000L));
+	}
+
+	@Test
+	public void writesCapturesToCappedCollection() {
+
+		when(db.collectionExists("slowQueries")).thenReturn(false);
+		when(db.getCollection("slowQueries")).thenReturn(capped);
+
+		recorder.setCappedCollectionName("slowQueries");
+		recorder.record(collection, null, new BasicDBObject("name", "Dave"), null, null, TimeUnit.SECONDS.toNanos(1));
+
+		verify(db).createCollection(eq("slowQueries"), any(DBObject.class));
+		verify(capped).insert(any(DBObject.class));
+	}
+
+	@Test
+	public void usesFirstApplicationFrameAsCallSite() {
+
+		StackTraceElement[] stackTrace = { new StackTraceElement("org.springframework.data.Foo", "bar", null, 1),
+				new StackTraceElement("com.sun.proxy.$Proxy12", "find", null, 2),
+				new StackTraceElement("com.acme.PersonService", "findAll", "PersonService.java", 42) };
+
+		assertThat(SlowQueryRecorder.findCallSite(stackTrace), is(stackTrace[2]));
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.index;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.data.domain.Sort.Direction;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.DBObject;
+import com.mongodb.util.JSON;
+
+/**
+ * Unit tests for {@link IndexAdvisor} and {@link QueryShape}.
+ */
+public class IndexAdvisorUnitTests {
+
+	IndexAdvisor advisor = new IndexAdvisor();
+
+	@Test
+	public void shapesIgnoreValues() {
+
+		QueryShape first = shape("{ 'name' : 'Dave', 'age' : { '$gt' : 18 } }", null);
+		QueryShape second = shape("{ 'name' : 'Carter', 'age' : { '$gt' : 21 } }", null);
+
+		assertThat(first, is(second));
+		assertThat(first.hashCode(), is(second.hashCode()));
+		assertThat(first.getEqualityFields(), contains("name"));
+		assertThat(first.getRangeFields(), contains("age"));
+	}
+
+	@Test
+	public void shapesDifferBySort() {
+		assertThat(shape("{ 'name' : 'Dave' }", "{ 'age' : 1 }"), is(not(shape("{ 'name' : 'Dave' }", "{ 'age' : -1 }"))));
+	}
+
+	@Test
+	public void reportsMissingIndex() {
+
+		IndexAdvice advice = advisor.advise(shape("{ 'name' : 'Dave' }", null), indexes(index("_id_", "_id")));
+
+		assertThat(advice.getType(), is(IndexAdvice.Type.MISSING_INDEX));
+		assertThat(advice.getSuggestedIndex().getIndexKeys(), is((DBObject) new BasicDBObject("name", 1)));
+	}
+
+	@Test
+	public void acceptsIndexWithEqualitySortRangeOrder() {
+
+		QueryShape shape = shape("{ 'name' : 'Dave', 'age' : { '$gt' : 18 } }", "{ 'created' : -1 }");
+
+		assertThat(advisor.advise(shape, indexes(index("name_created_age", "name", "created", "age"))), is(nullValue()));
+	}
+
+	@Test
+	public void acceptsReversedSortDirection() {
+
+		QueryShape shape = shape("{ 'name' : 'Dave' }", "{ 'created' : -1 }");
+
+		assertThat(advisor.advise(shape, indexes(index("name_created", "name", "created"))), is(nullValue()));
+	}
+
+	@Test
+	public void reportsRangeBeforeEquality() {
+
+		QueryShape shape = shape("{ 'name' : 'Dave', 'age' : { '$gt' : 18 } }", null);
+		IndexAdvice advice = advisor.advise(shape, indexes(index("age_name", "age", "name")));
+
+		assertThat(advice.getType(), is(IndexAdvice.Type.INEFFICIENT_PREFIX));
+		assertThat(advice.getIndexName(), is("age_name"));
+		assertThat(advice.getSuggestedIndex().getIndexKeys(),
+				is(BasicDBObjectBuilder.start("name", 1).add("age", 1).get()));
+	}
+
+	@Test
+	public void reportsUnsupportedSort() {
+
+		QueryShape shape = shape("{ 'name' : 'Dave' }", "{ 'created' : 1 }");
+		IndexAdvice advice = advisor.advise(shape, indexes(index("name", "name")));
+
+		assertThat(advice.getType(), is(IndexAdvice.Type.INEFFICIENT_PREFIX));
+		assertThat(advice.getReasons(), hasItem(containsString("in-memory sort")));
+	}
+
+	@Test
+	public void skipsShapesUsingOr() {
+
+		QueryShape shape = shape("{ '$or' : [ { 'name' : 'Dave' }, { 'age' : 18 } ] }", null);
+
+		assertThat(shape.isAnalyzable(), is(false));
+		assertThat(advisor.advise(shape, indexes()), is(nullValue()));
+	}
+
+	private static QueryShape shape(String query, String sort) {
+		return new QueryShape("person", (DBObject) JSON.parse(query), sort == null ? null : (DBObject) JSON.parse(sort),
+				null);
+	}
+
+	private static IndexInfo index(String name, String... keys) {
+
+		List<IndexField> fields = new ArrayList<IndexField>();
+
+		for (String key : keys) {
+			fields.add(IndexField.create(key, Direction.ASC));
+		}
+
+		return new IndexInfo(fields, name, false, false, false);
+	}
+
+	private static List<IndexInfo> indexes(IndexInfo... indexes) {
+		return Arrays.asList(indexes);
+	}
+}
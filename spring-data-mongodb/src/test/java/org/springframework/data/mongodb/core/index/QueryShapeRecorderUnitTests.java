@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.index;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+
+/**
+ * Unit tests for {@link QueryShapeRecorder}.
+ */
+public class QueryShapeRecorderUnitTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNonPositiveMaxShapes() {
+		new QueryShapeRecorder(0);
+	}
+
+	@Test
+	public void aggregatesExecutionsPerShape() {
+
+		QueryShapeRecorder recorder = new QueryShapeRecorder(10);
+
+		recorder.record("person", new BasicDBObject("name", "Dave"), null, null, TimeUnit.MILLISECONDS.toNanos(2));
+		recorder.record("person", new BasicDBObject("name", "Carter"), null, null, TimeUnit.MILLISECONDS.toNanos(20));
+		recorder.record("person", new BasicDBObject("age", 18), null, null, TimeUnit.MILLISECONDS.toNanos(2000));
+
+		List<QueryShapeStatistics> statistics = recorder.getStatistics();
+
+		assertThat(statistics, hasSize(2));
+		assertThat(statistics.get(0).getCount(), is(2L));
+		assertThat(statistics.get(0).getAverageMillis(), is(11d));
+		assertThat(statistics.get(0).getMaxMillis(), is(20d));
+		assertThat(statistics.get(0).getLatencies().getValueAtPercentile(50),
+				is(both(greaterThanOrEqualTo(2000L)).and(lessThan(2200L))));
+		assertThat(statistics.get(1).getLatencies().getMax(), is(2000000L));
+	}
+
+	@Test
+	public void evictsLeastRecentlyExecutedShapes() {
+
+		QueryShapeRecorder recorder = new QueryShapeRecorder(2);
+
+		recorder.record("person", new BasicDBObject("name", "Dave"), null, null, 1);
+		recorder.record("person", new BasicDBObject("age", 18), null, null, 1);
+		recorder.record("person", new BasicDBObject("name", "Carter"), null, null, 1);
+		recorder.record("person", new BasicDBObject("email", "foo"), null, null, 1);
+
+		assertThat(recorder.getSize(), is(2));
+		assertThat(recorder.getEvictionCount(), is(1L));
+
+		for (QueryShapeStatistics statistics : recorder.getStatistics()) {
+			assertThat(statistics.getShape().getEqualityFields(), not(contains("age")));
+		}
+	}
+}
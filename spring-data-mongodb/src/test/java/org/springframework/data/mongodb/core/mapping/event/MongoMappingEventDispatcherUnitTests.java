@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.mapping.event;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.mongodb.core.mapping.PersonPojoStringId;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link MongoMappingEventDispatcher}.
+ */
+public class MongoMappingEventDispatcherUnitTests {
+
+	GenericApplicationContext context;
+	PersonBeforeSaveListener personListener;
+	AfterSaveListener afterSaveListener;
+	MongoMappingEventDispatcher dispatcher;
+
+	@Before
+	public void setUp() {
+
+		personListener = new PersonBeforeSaveListener();
+		afterSaveListener = new AfterSaveListener();
+
+		context = new GenericApplicationContext();
+		context.getBeanFactory().registerSingleton("personListener", personListener);
+		context.getBeanFactory().registerSingleton("afterSaveListener", afterSaveListener);
+		context.refresh();
+
+		dispatcher = new MongoMappingEventDispatcher(context);
+	}
+
+	@After
+	public void tearDown() {
+		context.close();
+	}
+
+	@Test
+	public void onlyConsidersMongoEventListenersForTheirDomainType() {
+
+		assertThat(dispatcher.hasListeners(BeforeSaveEvent.class, PersonPojoStringId.class), is(true));
+		assertThat(dispatcher.hasListeners(BeforeSaveEvent.class, String.class), is(false));
+	}
+
+	@Test
+	public void considersDeclaredEventTypeOfPlainListeners() {
+
+		assertThat(dispatcher.hasListeners(AfterSaveEvent.class, String.class), is(true));
+		assertThat(dispatcher.hasListeners(AfterLoadEvent.class, String.class), is(false));
+	}
+
+	@Test
+	public void dispatchesEventToInterestedListenersOnly() {
+
+		PersonPojoStringId person = new PersonPojoStringId("id", "text");
+
+		dispatcher.dispatch(new BeforeSaveEvent<PersonPojoStringId>(person, new BasicDBObject(), "collection"));
+		dispatcher.dispatch(new AfterSaveEvent<PersonPojoStringId>(person, new BasicDBObject(), "collection"));
+
+		assertThat(personListener.seenEvents, hasSize(1));
+		assertThat(afterSaveListener.seenEvents, hasSize(1));
+	}
+
+	@Test
+	public void picksUpListenersAddedAfterReset() {
+
+		BatchLoadListener listener = new BatchLoadListener();
+
+		assertThat(dispatcher.hasListeners(AfterBatchLoadEvent.class, PersonPojoStringId.class), is(false));
+
+		context.getBeanFactory().registerSingleton("batchLoadListener", listener);
+		dispatcher.reset();
+
+		List<DBObject> documents = Arrays.<DBObject> asList(new BasicDBObject("_id", 1), new BasicDBObject("_id", 2));
+		dispatcher.dispatch(new AfterBatchLoadEvent<PersonPojoStringId>(documents, PersonPojoStringId.class, "collection"));
+
+		assertThat(listener.documents, is(documents));
+	}
+
+	@Test
+	public void considersListenersOfParentContext() {
+
+		GenericApplicationContext child = new GenericApplicationContext(context);
+		child.refresh();
+
+		MongoMappingEventDispatcher childDispatcher = new MongoMappingEventDispatcher(child);
+
+		try {
+			assertThat(childDispatcher.hasListeners(BeforeSaveEvent.class, PersonPojoStringId.class), is(true));
+		} finally {
+			child.close();
+		}
+	}
+
+	@Test
+	public void doesNotInstantiateListenersNotInterestedInEvent() {
+
+		RootBeanDefinition definition = new RootBeanDefinition(BatchLoadListener.class);
+		definition.setLazyInit(true);
+
+		GenericApplicationContext lazyContext = new GenericApplicationContext();
+		lazyContext.registerBeanDefinition("batchLoadListener", definition);
+		lazyContext.refresh();
+
+		try {
+
+			MongoMappingEventDispatcher lazyDispatcher = new MongoMappingEventDispatcher(lazyContext);
+
+			assertThat(lazyDispatcher.hasListeners(BeforeSaveEvent.class, PersonPojoStringId.class), is(false));
+			assertThat(lazyContext.getBeanFactory().containsSingleton("batchLoadListener"), is(false));
+
+			assertThat(lazyDispatcher.hasListeners(AfterBatchLoadEvent.class, PersonPojoStringId.class), is(true));
+			assertThat(lazyContext.getBeanFactory().containsSingleton("batchLoadListener"), is(true));
+
+		} finally {
+			lazyContext.close();
+		}
+	}
+
+	static class BatchLoadListener extends AbstractMongoEventListener<PersonPojoStringId> {
+
+		List<DBObject> documents;
+
+		@Override
+		public void onAfterBatchLoad(AfterBatchLoadEvent<PersonPojoStringId> event) {
+			documents = event.getDBObjects();
+		}
+	}
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.messaging;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.data.mongodb.core.query.Criteria.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.CollectionCallback;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link DefaultMessageListenerContainer}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultMessageListenerContainerUnitTests {
+
+	@Mock MongoOperations template;
+	@Mock MongoDbFactory factory;
+	@Mock DBCollection collection;
+	@Mock DBCursor cursor;
+
+	DefaultMessageListenerContainer container;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+
+		MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory),
+				new MongoMappingContext());
+		converter.afterPropertiesSet();
+
+		when(template.getConverter()).thenReturn(converter);
+		when(template.execute(eq("capped"), any(CollectionCallback.class))).thenAnswer(new Answer<Object>() {
+
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				return ((CollectionCallback<?>) invocation.getArguments()[1]).doInCollection(collection);
+			}
+		});
+
+		when(collection.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+		when(cursor.sort(any(DBObject.class))).thenReturn(cursor);
+		when(cursor.addOption(anyInt())).thenReturn(cursor);
+
+		container = new DefaultMessageListenerContainer(template);
+		container.setResumeDelay(10);
+	}
+
+	@After
+	public void tearDown() {
+		container.stop();
+	}
+
+	@Test
+	public void dispatchesConvertedDocumentsToListener() throws Exception {
+
+		ObjectId id = new ObjectId();
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", id).append("value", "foo"));
+
+		final CountDownLatch latch = new CountDownLatch(1);
+		final List<Message> messages = new CopyOnWriteArrayList<Message>();
+
+		container.subscribe("capped", new Query(), Message.class, new MessageListener<Message>() {
+
+			@Override
+			public void onMessage(Message message) {
+				messages.add(message);
+				latch.countDown();
+			}
+		});
+
+		assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+		assertThat(messages.get(0).value, is("foo"));
+		verify(cursor, atLeastOnce()).addOption(com.mongodb.Bytes.QUERYOPTION_TAILABLE);
+	}
+
+	@Test
+	public void resumesAfterLastSeenIdOnceCursorDied() throws Exception {
+
+		ObjectId id = new ObjectId();
+		when(cursor.hasNext()).thenReturn(true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", id).append("value", "foo"));
+
+		container.subscribe("capped", new Query(), Message.class, new MessageListener<Message>() {
+
+			@Override
+			public void onMessage(Message message) {}
+		});
+
+		ArgumentCaptor<DBObject> captor = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection, timeout(5000).atLeast(2)).find(captor.capture(), any(DBObject.class));
+
+		DBObject resumeQuery = captor.getAllValues().get(1);
+		assertThat(resumeQuery.toString(), containsString("$gt"));
+		assertThat(resumeQuery.toString(), containsString(id.toString()));
+	}
+
+	@Test
+	public void resumeQueryKeepsOriginalCriteriaAndFiltersOnLastId() throws Exception {
+
+		ObjectId first = new ObjectId();
+		ObjectId second = new ObjectId();
+
+		when(cursor.hasNext()).thenReturn(true, true, false);
+		when(cursor.next()).thenReturn(new BasicDBObject("_id", first).append("value", "foo"),
+				new BasicDBObject("_id", second).append("value", "bar"));
+
+		container.subscribe("capped", new Query(where("value").is("foo")), Message.class,
+				new MessageListener<Message>() {
+
+					@Override
+					public void onMessage(Message message) {}
+				});
+
+		ArgumentCaptor<DBObject> captor = ArgumentCaptor.forClass(DBObject.class);
+		verify(collection, timeout(5000).atLeast(2)).find(captor.capture(), any(DBObject.class));
+
+		assertThat(captor.getAllValues().get(0), is((DBObject) new BasicDBObject("value", "foo")));
+		assertThat(captor.getAllValues().get(1), is((DBObject) new BasicDBObject("$and",
+				Arrays.asList(new BasicDBObject("value", "foo"), new BasicDBObject("_id", new BasicDBObject("$gt", second))))));
+	}
+
+	@Test
+	public void stopsReadingCursorOnceMaxPendingMessagesReached() throws Exception {
+
+		when(cursor.hasNext()).thenReturn(true);
+		when(cursor.next()).thenAnswer(new Answer<DBObject>() {
+
+			@Override
+			public DBObject answer(InvocationOnMock invocation) throws Throwable {
+				return new BasicDBObject("_id", new ObjectId()).append("value", "foo");
+			}
+		});
+
+		final BlockingQueue<Runnable> dispatched = new LinkedBlockingQueue<Runnable>();
+
+		container.setMaxPendingMessages(2);
+		container.setDispatchExecutor(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				dispatched.add(command);
+			}
+		});
+
+		container.subscribe("capped", new Query(), Message.class, new MessageListener<Message>() {
+
+			@Override
+			public void onMessage(Message message) {}
+		});
+
+		// two messages dispatched, the third one read blocks on the semaphore
+		verify(cursor, timeout(5000).times(3)).next();
+		Thread.sleep(100);
+
+		assertThat(dispatched, hasSize(2));
+		verify(cursor, times(3)).next();
+
+		// processing a message frees a slot for the pending one
+		dispatched.take().run();
+
+		verify(cursor, timeout(5000).times(4)).next();
+		assertThat(dispatched, hasSize(2));
+	}
+
+	@Test
+	public void cancellingSubscriptionReleasesThreadWaitingForPendingMessages() throws Exception {
+
+		when(cursor.hasNext()).thenReturn(true);
+		when(cursor.next()).thenAnswer(new Answer<DBObject>() {
+
+			@Override
+			public DBObject answer(InvocationOnMock invocation) throws Throwable {
+				return new BasicDBObject("_id", new ObjectId()).append("value", "foo");
+			}
+		});
+
+		final CountDownLatch finished = new CountDownLatch(1);
+
+		container = new DefaultMessageListenerContainer(template, new Executor() {
+
+			@Override
+			public void execute(final Runnable command) {
+
+				new Thread(new Runnable() {
+
+					@Override
+					public void run() {
+
+						command.run();
+						finished.countDown();
+					}
+				}).start();
+			}
+		});
+
+		container.setMaxPendingMessages(1);
+		container.setDispatchExecutor(new Executor() {
+
+			@Override
+			public void execute(Runnable command) {}
+		});
+
+		Subscription subscription = container.subscribe("capped", new Query(), Message.class,
+				new MessageListener<Message>() {
+
+					@Override
+					public void onMessage(Message message) {}
+				});
+
+		// first message never completes, the second one read waits for a permit
+		verify(cursor, timeout(5000).times(2)).next();
+
+		subscription.cancel();
+
+		assertThat(finished.await(5, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test
+	public void cancelledSubscriptionIsInactive() {
+
+		when(cursor.hasNext()).thenReturn(false);
+
+		Subscription subscription = container.subscribe("capped", new Query(), Message.class,
+				new MessageListener<Message>() {
+
+					@Override
+					public void onMessage(Message message) {}
+				});
+
+		subscription.cancel();
+
+		assertThat(subscription.isActive(), is(false));
+	}
+
+	static class Message {
+
+		String id;
+		String value;
+	}
+}
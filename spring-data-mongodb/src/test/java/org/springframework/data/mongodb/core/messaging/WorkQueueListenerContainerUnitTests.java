@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.messaging;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+
+/**
+ * Unit tests for {@link WorkQueueListenerContainer}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WorkQueueListenerContainerUnitTests {
+
+	@Mock MongoOperations template;
+	@Mock MongoDbFactory factory;
+
+	WorkQueueListenerContainer container;
+
+	@Before
+	public void setUp() {
+
+		MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory),
+				new MongoMappingContext());
+		converter.afterPropertiesSet();
+
+		when(template.getConverter()).thenReturn(converter);
+		when(template.findIds(any(Query.class), eq(Job.class), eq("jobs"))).thenReturn(Arrays.<Object> asList(1, 2),
+				Collections.emptyList());
+		when(template.find(any(Query.class), eq(DBObject.class), eq("jobs"))).thenReturn(Arrays.<DBObject> asList(
+				new BasicDBObject("_id", 1).append("value", "foo"), new BasicDBObject("_id", 2).append("value", "bar")));
+
+		container = new WorkQueueListenerContainer(template);
+		container.setPollInterval(10);
+	}
+
+	@After
+	public void tearDown() {
+		container.stop();
+	}
+
+	@Test
+	public void claimsProcessesAndRemovesBatchOfJobs() {
+
+		final List<Job> jobs = new CopyOnWriteArrayList<Job>();
+
+		container.subscribe("jobs", new Query(), Job.class, new MessageListener<Job>() {
+
+			@Override
+			public void onMessage(Job job) {
+				jobs.add(job);
+			}
+		});
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(template, timeout(5000)).remove(captor.capture(), eq("jobs"));
+
+		assertThat(captor.getValue().getQueryObject().toString(), containsString("_lease.token"));
+		assertThat(jobs, hasSize(2));
+		assertThat(container.getClaimedCount(), is(2L));
+		assertThat(container.getAcknowledgedCount(), is(2L));
+		verify(template).updateMulti(any(Query.class), any(Update.class), eq("jobs"));
+	}
+
+	@Test
+	public void doesNotAcknowledgeFailedJobs() {
+
+		container.subscribe("jobs", new Query(), Job.class, new MessageListener<Job>() {
+
+			@Override
+			public void onMessage(Job job) {
+
+				if ("foo".equals(job.value)) {
+					throw new IllegalStateException();
+				}
+			}
+		});
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(template, timeout(5000)).remove(captor.capture(), eq("jobs"));
+
+		DBObject idCriteria = (DBObject) captor.getValue().getQueryObject().get("_id");
+		assertThat((List<?>) idCriteria.get("$in"), contains((Object) 2));
+		assertThat(container.getFailedCount(), is(1L));
+		assertThat(container.getAcknowledgedCount(), is(1L));
+	}
+
+	@Test
+	public void countsJobsWhoseLeaseWasLostSeparately() throws Exception {
+
+		WriteResult result = mock(WriteResult.class);
+		when(result.wasAcknowledged()).thenReturn(true);
+		when(result.getN()).thenReturn(1);
+		when(template.remove(any(Query.class), eq("jobs"))).thenReturn(result);
+
+		container.subscribe("jobs", new Query(), Job.class, new MessageListener<Job>() {
+
+			@Override
+			public void onMessage(Job job) {}
+		});
+
+		verify(template, timeout(5000)).remove(any(Query.class), eq("jobs"));
+
+		for (long deadline = System.currentTimeMillis() + 5000; container.getLostLeaseCount() == 0
+				&& System.currentTimeMillis() < deadline;) {
+			Thread.sleep(10);
+		}
+
+		assertThat(container.getAcknowledgedCount(), is(1L));
+		assertThat(container.getLostLeaseCount(), is(1L));
+	}
+
+	@Test
+	public void renewsLeaseWhileProcessingBatchSynchronously() {
+
+		container.setLeaseDuration(40);
+		container.subscribe("jobs", new Query(), Job.class, new MessageListener<Job>() {
+
+			@Override
+			public void onMessage(Job job) {
+
+				try {
+					Thread.sleep(30);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+
+		verify(template, timeout(5000)).remove(any(Query.class), eq("jobs"));
+
+		assertThat(container.getLeaseRenewalCount(), is(greaterThanOrEqualTo(1L)));
+		verify(template, atLeast(2)).updateMulti(any(Query.class), any(Update.class), eq("jobs"));
+	}
+
+	static class Job {
+
+		Integer id;
+		String value;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.view;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.DBObject;
+
+/**
+ * Unit tests for {@link MaterializedGroupView}.
+ */
+public class MaterializedGroupViewUnitTests {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNestedGroupFields() {
+		new MaterializedGroupView("orders", "totals", "customer.id");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void rendersGroupAndOutStages() {
+
+		MaterializedGroupView view = new MaterializedGroupView("orders", "totals", "customerId").count("count")
+				.sum("amount", "total");
+
+		DBObject command = view.toAggregation().toDbObject("orders", Aggregation.DEFAULT_CONTEXT);
+		List<DBObject> pipeline = (List<DBObject>) command.get("pipeline");
+
+		DBObject group = (DBObject) pipeline.get(0).get("$group");
+
+		assertThat(group.get("_id"), is((Object) "$customerId"));
+		assertThat(group.get("count"), is((Object) new BasicDBObject("$sum", 1)));
+		assertThat(group.get("total"), is((Object) new BasicDBObject("$sum", "$amount")));
+		assertThat(pipeline.get(1).get("$out"), is((Object) "totals"));
+	}
+
+	@Test
+	public void usesDocumentAsKeyForMultipleGroupFields() {
+
+		MaterializedGroupView view = new MaterializedGroupView("orders", "totals", "customerId", "year");
+		DBObject document = BasicDBObjectBuilder.start("customerId", 1).add("year", 2016).add("amount", 5).get();
+
+		assertThat(view.getGroupKey(document),
+				is((Object) BasicDBObjectBuilder.start("customerId", 1).add("year", 2016).get()));
+	}
+
+	@Test
+	public void omitsMissingFieldsFromCompoundGroupKey() {
+
+		MaterializedGroupView view = new MaterializedGroupView("orders", "totals", "customerId", "year");
+
+		assertThat(view.getGroupKey(new BasicDBObject("customerId", 1)), is((Object) new BasicDBObject("customerId", 1)));
+	}
+
+	@Test
+	public void accumulatesSignedContributionsPerGroup() {
+
+		MaterializedGroupView view = new MaterializedGroupView("orders", "totals", "customerId").count("count")
+				.sum("amount", "total");
+		Map<Object, Map<String, Number>> deltas = new LinkedHashMap<Object, Map<String, Number>>();
+
+		view.contribute(BasicDBObjectBuilder.start("customerId", 1).add("amount", 10).get(), 1, deltas);
+		view.contribute(BasicDBObjectBuilder.start("customerId", 1).add("amount", 2.5).get(), 1, deltas);
+		view.contribute(BasicDBObjectBuilder.start("customerId", 2).add("amount", 4).get(), -1, deltas);
+		view.contribute(new BasicDBObject("customerId", 2), 1, deltas);
+
+		assertThat(deltas.get(1).get("count").longValue(), is(2L));
+		assertThat(deltas.get(1).get("total").doubleValue(), is(12.5));
+		assertThat(deltas.get(2).get("count").longValue(), is(0L));
+		assertThat(deltas.get(2).get("total").longValue(), is(-4L));
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.mongodb.core.view;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BasicDBObjectBuilder;
+import com.mongodb.BulkUpdateRequestBuilder;
+import com.mongodb.BulkWriteOperation;
+import com.mongodb.BulkWriteRequestBuilder;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/**
+ * Unit tests for {@link MaterializedViewMaintainer}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MaterializedViewMaintainerUnitTests {
+
+	@Mock DB db;
+	@Mock DBCollection source, target;
+	@Mock BulkWriteOperation bulk;
+	@Mock BulkWriteRequestBuilder requestBuilder;
+	@Mock BulkUpdateRequestBuilder updateBuilder;
+	@Mock DBCursor cursor;
+
+	MaterializedViewMaintainer maintainer;
+
+	@Before
+	public void setUp() {
+
+		when(source.getName()).thenReturn("orders");
+		when(source.getDB()).thenReturn(db);
+		when(db.getCollection("totals")).thenReturn(target);
+		when(target.initializeUnorderedBulkOperation()).thenReturn(bulk);
+		when(bulk.find(any(DBObject.class))).thenReturn(requestBuilder);
+		when(requestBuilder.upsert()).thenReturn(updateBuilder);
+
+		maintainer = new MaterializedViewMaintainer(
+				new MaterializedGroupView("orders", "totals", "customerId").count("count").sum("amount", "total"));
+	}
+
+	@Test
+	public void exposesFieldsRequiredByViews() {
+
+		assertThat(maintainer.hasViews("orders"), is(true));
+		assertThat(maintainer.hasViews("customers"), is(false));
+		assertThat(maintainer.getFieldsObject("orders").keySet(), containsInAnyOrder("customerId", "amount"));
+	}
+
+	@Test
+	public void upsertsIncrementsForInsertedDocuments() {
+
+		maintainer.apply(source, Collections.<DBObject> emptyList(),
+				Arrays.<DBObject> asList(order(1, 10), order(1, 5), order(2, 3)));
+
+		ArgumentCaptor<DBObject> updates = ArgumentCaptor.forClass(DBObject.class);
+
+		verify(bulk).find(new BasicDBObject("_id", 1));
+		verify(bulk).find(new BasicDBObject("_id", 2));
+		verify(updateBuilder, times(2)).updateOne(updates.capture());
+		verify(bulk).execute();
+		verify(target, never()).remove(any(DBObject.class));
+
+		assertThat(updates.getAllValues().get(0),
+				is((DBObject) new BasicDBObject("$inc", BasicDBObjectBuilder.start("count", 2L).add("total", 15L).get())));
+	}
+
+	@Test
+	public void skipsUnchangedGroupsAndRemovesEmptyOnes() {
+
+		maintainer.apply(source, Arrays.<DBObject> asList(order(1, 10), order(2, 3)),
+				Arrays.<DBObject> asList(order(1, 10)));
+
+		ArgumentCaptor<DBObject> removal = ArgumentCaptor.forClass(DBObject.class);
+
+		verify(bulk, times(1)).find(any(DBObject.class));
+		verify(bulk).find(new BasicDBObject("_id", 2));
+		verify(target).remove(removal.capture());
+
+		assertThat(removal.getValue().get("count"), is((Object) new BasicDBObject("$lte", 0)));
+	}
+
+	@Test
+	public void splitsUpdatesIntoBatches() {
+
+		maintainer.setBatchSize(2);
+		maintainer.apply(source, Collections.<DBObject> emptyList(),
+				Arrays.<DBObject> asList(order(1, 1), order(2, 1), order(3, 1)));
+
+		verify(target, times(2)).initializeUnorderedBulkOperation();
+		verify(bulk, times(2)).execute();
+	}
+
+	@Test
+	public void ignoresCollectionsWithoutViews() {
+
+		when(source.getName()).thenReturn("customers");
+
+		maintainer.apply(source, Collections.<DBObject> emptyList(), Arrays.<DBObject> asList(order(1, 1)));
+
+		verifyZeroInteractions(db);
+	}
+
+	@Test
+	public void readsDocumentsRecordedByIdInBatches() {
+
+		when(source.find(any(DBObject.class), any(DBObject.class))).thenReturn(cursor);
+		when(cursor.hasNext()).thenReturn(true, false, true, false);
+		when(cursor.next()).thenReturn(order(1, 10), order(2, 5));
+
+		maintainer.setBatchSize(2);
+
+		MaterializedViewMaintainer.Changes changes = maintainer.startChanges("orders");
+		changes.addPrevious(order(1, 4));
+		changes.addCurrentById(1);
+		changes.addCurrentById(2);
+		changes.addCurrentById(3);
+		changes.apply(source);
+
+		ArgumentCaptor<DBObject> queries = ArgumentCaptor.forClass(DBObject.class);
+
+		verify(source, times(2)).find(queries.capture(), any(DBObject.class));
+		verify(cursor, times(2)).batchSize(2);
+		verify(cursor, times(2)).close();
+		verify(bulk).find(new BasicDBObject("_id", 1));
+		verify(bulk).find(new BasicDBObject("_id", 2));
+
+		assertThat(queries.getAllValues().get(0),
+				is((DBObject) new BasicDBObject("_id", new BasicDBObject("$in", Arrays.asList(1, 2)))));
+		assertThat(queries.getAllValues().get(1),
+				is((DBObject) new BasicDBObject("_id", new BasicDBObject("$in", Arrays.asList(3)))));
+	}
+
+	@Test
+	public void countsFailedViewUpdatesInsteadOfPropagatingThem() {
+
+		when(bulk.execute()).thenThrow(new MongoException("Boom!"));
+
+		maintainer.apply(source, Collections.<DBObject> emptyList(), Arrays.<DBObject> asList(order(1, 1)));
+
+		assertThat(maintainer.getFailureCount(), is(1L));
+	}
+
+	private static DBObject order(Object customerId, int amount) {
+		return BasicDBObjectBuilder.start("customerId", customerId).add("amount", amount).get();
+	}
+}
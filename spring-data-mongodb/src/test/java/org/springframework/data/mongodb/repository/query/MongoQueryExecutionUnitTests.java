@@ -15,6 +15,8 @@
  */
 package org.springframework.data.mongodb.repository.query;
 
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
@@ -30,6 +32,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.GeoPage;
 import org.springframework.data.geo.GeoResult;
@@ -43,8 +46,10 @@ import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.data.mongodb.core.query.NearQuery;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.repository.Person;
+import org.springframework.data.mongodb.repository.query.MongoQueryExecution.CountExecution;
 import org.springframework.data.mongodb.repository.query.MongoQueryExecution.PagedExecution;
 import org.springframework.data.mongodb.repository.query.MongoQueryExecution.PagingGeoNearExecution;
+import org.springframework.data.mongodb.repository.query.MongoQueryExecution.SlicedExecution;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.data.repository.Repository;
@@ -121,6 +126,44 @@ public class MongoQueryExecutionUnitTests {
 		verify(mongoOperationsMock).count(any(Query.class), eq(Person.class), eq("person"));
 	}
 
+	@Test
+	public void pagedExecutionWithOverallLimitCountsUpToLimitOnly() {
+
+		when(mongoOperationsMock.find(any(Query.class), eq(Person.class), eq("person")))
+				.thenReturn(Collections.<Person> emptyList());
+
+		PagedExecution execution = new PagedExecution(mongoOperationsMock, new PageRequest(2, 10));
+		execution.execute(new Query().limit(15), Person.class, "person");
+
+		verify(mongoOperationsMock).countUpTo(any(Query.class), eq(15L), eq(Person.class), eq("person"));
+		verify(mongoOperationsMock, never()).count(any(Query.class), eq(Person.class), eq("person"));
+	}
+
+	@Test
+	public void slicedExecutionPeeksIntoNextPageWithoutCounting() {
+
+		when(mongoOperationsMock.find(any(Query.class), eq(Person.class), eq("person")))
+				.thenReturn(Arrays.asList(new Person(), new Person(), new Person()));
+
+		SlicedExecution execution = new SlicedExecution(mongoOperationsMock, new PageRequest(1, 2));
+		Slice<?> slice = (Slice<?>) execution.execute(new Query(), Person.class, "person");
+
+		assertThat(slice.getContent(), hasSize(2));
+		assertThat(slice.hasNext(), is(true));
+		verify(mongoOperationsMock, never()).countUpTo(any(Query.class), anyLong(), eq(Person.class), eq("person"));
+	}
+
+	@Test
+	public void countExecutionDoesNotCapCountByQueryLimit() {
+
+		when(mongoOperationsMock.count(any(Query.class), eq(Person.class), eq("person"))).thenReturn(42L);
+
+		CountExecution execution = new CountExecution(mongoOperationsMock);
+
+		assertThat(execution.execute(new Query().limit(10), Person.class, "person"), is((Object) 42L));
+		verify(mongoOperationsMock, never()).countUpTo(any(Query.class), anyLong(), eq(Person.class), eq("person"));
+	}
+
 	@Test // DATAMONGO-1464
 	public void pagingGeoExecutionShouldUseCountFromResultWithOffsetAndResultsWithinPageSize() throws Exception {
 